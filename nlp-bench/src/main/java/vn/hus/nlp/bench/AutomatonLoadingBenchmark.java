@@ -0,0 +1,70 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import vn.hus.nlp.fsm.CompactFSM;
+import vn.hus.nlp.fsm.FSM;
+import vn.hus.nlp.fsm.IConstants;
+import vn.hus.nlp.fsm.io.BinaryFSMMarshaller;
+import vn.hus.nlp.fsm.io.BinaryFSMUnmarshaller;
+import vn.hus.nlp.fsm.io.FSMUnmarshaller;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * Benchmark of the loading of the lexicon automaton at startup. One
+ * operation reads the XML form and freezes the automaton, or maps the
+ * binary form converted from it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class AutomatonLoadingBenchmark {
+
+	@Param({"xml", "binary"})
+	public String format;
+
+	private String xmlFilename;
+
+	private String binaryFilename;
+
+	@Setup
+	public void setup() throws IOException {
+		xmlFilename = BenchmarkResources.getProperties().getProperty("lexiconDFA");
+		File file = File.createTempFile("lexicon", ".fsm");
+		file.deleteOnExit();
+		binaryFilename = file.getAbsolutePath();
+		new BinaryFSMMarshaller().marshal(BenchmarkResources.loadLexiconDFA(), binaryFilename);
+	}
+
+	@Benchmark
+	public CompactFSM load() {
+		if ("binary".equals(format)) {
+			return new BinaryFSMUnmarshaller().unmarshal(binaryFilename);
+		}
+		FSM fsm = new FSMUnmarshaller().unmarshal(xmlFilename, IConstants.FSM_DFA);
+		CompactFSM lexicon = fsm.freeze();
+		fsm.dispose();
+		return lexicon;
+	}
+}
@@ -0,0 +1,180 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+
+import org.apache.commons.io.IOUtils;
+
+import vn.hus.nlp.fsm.IConstants;
+import vn.hus.nlp.fsm.builder.FSMBuilder;
+import vn.hus.nlp.fsm.builder.MinimalFSMBuilder;
+import vn.hus.nlp.fsm.fsa.DFA;
+import vn.hus.nlp.fsm.io.FSMUnmarshaller;
+import vn.hus.nlp.lexicon.LexiconUnmarshaller;
+import vn.hus.nlp.lexicon.jaxb.Corpus;
+import vn.hus.nlp.lexicon.jaxb.W;
+import vn.hus.nlp.tokenizer.TokenizerModels;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * The resources shared by the benchmarks: the tokenizer properties and
+ * models, the bundled sample text and the lexicon words.
+ * <p>
+ * The lexicon automaton is not bundled with the sources. If it is not in
+ * the classpath, it is built from the words of the unigram model by the
+ * minimal automaton builder and saved in the temporary directory, so it is
+ * built only once for all the benchmark runs.
+ */
+public final class BenchmarkResources {
+
+	/**
+	 * The bundled sample text
+	 */
+	public static final String SAMPLE = "/samples/sample.txt";
+
+	/**
+	 * The cached lexicon automaton, used when it is not in the classpath
+	 */
+	public static final File LEXICON_DFA_CACHE = new File(System.getProperty("java.io.tmpdir"), "vn-nlp-bench/dfaLexicon.xml");
+
+	private static Properties properties = null;
+
+	private static TokenizerModels models = null;
+
+	private BenchmarkResources() {
+	}
+
+	/**
+	 * @return the tokenizer properties, the lexicon automaton property
+	 * refers to the cached automaton if it is not in the classpath.
+	 */
+	public static synchronized Properties getProperties() {
+		if (properties == null) {
+			properties = new Properties();
+			try {
+				InputStream stream = BenchmarkResources.class.getResourceAsStream(TokenizerModels.DEFAULT_PROPERTIES);
+				properties.load(stream);
+				stream.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+			String lexiconDFA = properties.getProperty("lexiconDFA");
+			if (BenchmarkResources.class.getResource(lexiconDFA) == null) {
+				if (!LEXICON_DFA_CACHE.isFile()) {
+					buildLexiconDFA(properties.getProperty("unigramModel"), LEXICON_DFA_CACHE);
+				}
+				properties.setProperty("lexiconDFA", LEXICON_DFA_CACHE.getAbsolutePath());
+			}
+		}
+		return properties;
+	}
+
+	/**
+	 * @return the tokenizer models, they are loaded once
+	 */
+	public static synchronized TokenizerModels getModels() {
+		if (models == null) {
+			models = TokenizerModels.load(getProperties());
+		}
+		return models;
+	}
+
+	/**
+	 * @return the lexicon automaton
+	 */
+	public static DFA loadLexiconDFA() {
+		return (DFA) new FSMUnmarshaller().unmarshal(getProperties().getProperty("lexiconDFA"), IConstants.FSM_DFA);
+	}
+
+	/**
+	 * Get the lexicon words: the lowercase words of the unigram model,
+	 * their syllables are separated by one space.
+	 * @param unigramFilename the unigram model
+	 * @return the sorted list of words
+	 */
+	public static List<String> loadLexiconWords(String unigramFilename) {
+		Corpus corpus = new LexiconUnmarshaller().unmarshal(unigramFilename);
+		TreeSet<String> words = new TreeSet<String>();
+		for (W w : corpus.getBody().getW()) {
+			String word = w.getContent().trim().replaceAll("\\s+", " ").toLowerCase();
+			if (word.length() > 0) {
+				words.add(word);
+			}
+		}
+		return new ArrayList<String>(words);
+	}
+
+	/**
+	 * @return the lexicon words
+	 */
+	public static List<String> loadLexiconWords() {
+		return loadLexiconWords(getProperties().getProperty("unigramModel"));
+	}
+
+	/**
+	 * @return the unigram table of the models
+	 */
+	public static Map<String, Integer> getUnigram() {
+		return getModels().getUnigram();
+	}
+
+	/**
+	 * Build the lexicon automaton from the words of a unigram model.
+	 * @param unigramFilename the unigram model
+	 * @param file the file to save the automaton
+	 */
+	private static void buildLexiconDFA(String unigramFilename, File file) {
+		List<String> words = loadLexiconWords(unigramFilename);
+		System.out.println("Build the lexicon automaton of " + words.size() + " words in " + file);
+		FSMBuilder builder = new MinimalFSMBuilder(IConstants.FSM_DFA);
+		builder.create(words);
+		file.getParentFile().mkdirs();
+		// encode to a temporary file first, several forks may build it at the same time
+		File tmp = new File(file.getParentFile(), file.getName() + "." + System.nanoTime());
+		builder.encode(tmp.getAbsolutePath());
+		if (!tmp.renameTo(file)) {
+			tmp.delete();
+		}
+		builder.dispose();
+	}
+
+	/**
+	 * @return the bundled sample text
+	 */
+	public static String loadSample() {
+		try {
+			InputStream stream = BenchmarkResources.class.getResourceAsStream(SAMPLE);
+			String text = IOUtils.toString(stream, Charset.forName("UTF-8").name());
+			stream.close();
+			return text;
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		return "";
+	}
+
+	/**
+	 * Get a corpus by its name.
+	 * @param corpus <code>sample</code> for the bundled sample,
+	 * <code>synthetic</code> for a generated corpus
+	 * @param numberOfSentences the number of sentences of a synthetic corpus
+	 * @return the text of the corpus
+	 */
+	public static String getCorpus(String corpus, int numberOfSentences) {
+		if (corpus.equals("sample")) {
+			return loadSample();
+		}
+		return new CorpusGenerator(getUnigram(), 2011L).generate(numberOfSentences);
+	}
+}
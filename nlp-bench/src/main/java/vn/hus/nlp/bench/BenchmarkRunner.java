@@ -0,0 +1,36 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * Runs the benchmarks with the GC profiler, so that the allocation rate
+ * is reported with the throughput of each benchmark. The arguments are
+ * regular expressions of the benchmarks to run, all the benchmarks of
+ * this package are run if there is no argument.
+ * <p>
+ * The full JMH command line is available with
+ * <code>java -jar target/benchmarks.jar</code>, for example
+ * <code>java -jar target/benchmarks.jar Segmenter -prof gc</code>.
+ */
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws RunnerException {
+		ChainedOptionsBuilder builder = new OptionsBuilder().addProfiler(GCProfiler.class);
+		if (args.length == 0) {
+			builder.include(BenchmarkRunner.class.getPackage().getName() + ".*");
+		}
+		for (String arg : args) {
+			builder.include(arg);
+		}
+		new Runner(builder.build()).run();
+	}
+}
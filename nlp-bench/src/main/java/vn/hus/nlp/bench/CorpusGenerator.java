@@ -0,0 +1,190 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * A generator of synthetic Vietnamese texts. The words of the sentences
+ * are drawn from a unigram table according to their frequencies, mixed
+ * with capitalized names, numbers, dates and punctuations so that all the
+ * lexer rules of the tokenizer are exercised. The generator is seeded, the
+ * same seed always gives the same text.
+ */
+public class CorpusGenerator {
+
+	private static final String[] PUNCTUATIONS = {",", ",", ";", ":", "-"};
+
+	private static final String[] END_PUNCTUATIONS = {".", ".", ".", "?", "!"};
+
+	private final Random random;
+
+	/**
+	 * The words of the unigram table
+	 */
+	private final String[] words;
+
+	/**
+	 * The cumulative frequencies of the words
+	 */
+	private final long[] cumulative;
+
+	/**
+	 * Creates a generator.
+	 * @param unigram a unigram table
+	 * @param seed the seed of the random generator
+	 */
+	public CorpusGenerator(Map<String, Integer> unigram, long seed) {
+		this.random = new Random(seed);
+		List<String> list = new ArrayList<String>();
+		List<Long> frequencies = new ArrayList<Long>();
+		long total = 0;
+		for (String word : unigram.keySet()) {
+			// keep only the words made of letters and spaces
+			if (word.length() > 0 && isWord(word)) {
+				list.add(word);
+				total += Math.max(unigram.get(word), 1);
+				frequencies.add(total);
+			}
+		}
+		words = list.toArray(new String[list.size()]);
+		cumulative = new long[frequencies.size()];
+		for (int i = 0; i < cumulative.length; i++) {
+			cumulative[i] = frequencies.get(i);
+		}
+	}
+
+	private static boolean isWord(String word) {
+		for (int i = 0; i < word.length(); i++) {
+			char c = word.charAt(i);
+			if (!Character.isLetter(c) && c != ' ') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return a word drawn according to the frequencies
+	 */
+	public String nextWord() {
+		long r = (long) (random.nextDouble() * cumulative[cumulative.length - 1]);
+		int low = 0;
+		int high = cumulative.length - 1;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (cumulative[mid] <= r) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return words[low];
+	}
+
+	private String capitalize(String word) {
+		StringBuilder sb = new StringBuilder(word.length());
+		boolean start = true;
+		for (int i = 0; i < word.length(); i++) {
+			char c = word.charAt(i);
+			sb.append(start ? Character.toUpperCase(c) : c);
+			start = (c == ' ');
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * @return a date in one of the forms recognized by the tokenizer
+	 */
+	private String nextDate() {
+		int day = 1 + random.nextInt(28);
+		int month = 1 + random.nextInt(12);
+		int year = 1945 + random.nextInt(70);
+		switch (random.nextInt(3)) {
+		case 0:
+			return "ngày " + day + " tháng " + month + " năm " + year;
+		case 1:
+			return day + "/" + month + "/" + year;
+		default:
+			return "tháng " + month + " năm " + year;
+		}
+	}
+
+	/**
+	 * @return a number, an integer or a decimal number
+	 */
+	private String nextNumber() {
+		if (random.nextBoolean()) {
+			return Integer.toString(random.nextInt(10000));
+		}
+		return random.nextInt(1000) + "," + random.nextInt(100);
+	}
+
+	/**
+	 * Generate a sentence.
+	 * @param sb the string builder the sentence is appended to
+	 */
+	public void nextSentence(StringBuilder sb) {
+		int n = 8 + random.nextInt(20);
+		sb.append(capitalize(nextWord()));
+		for (int i = 1; i < n; i++) {
+			int r = random.nextInt(100);
+			if (r < 8) {
+				sb.append(PUNCTUATIONS[random.nextInt(PUNCTUATIONS.length)]);
+			}
+			sb.append(' ');
+			if (r < 80) {
+				sb.append(nextWord());
+			} else if (r < 90) {
+				sb.append(capitalize(nextWord()));
+			} else if (r < 95) {
+				sb.append(nextNumber());
+			} else {
+				sb.append(nextDate());
+			}
+		}
+		sb.append(END_PUNCTUATIONS[random.nextInt(END_PUNCTUATIONS.length)]);
+	}
+
+	/**
+	 * Generate a text of sentences, the paragraphs are separated by new lines.
+	 * @param numberOfSentences the number of sentences
+	 * @return the text
+	 */
+	public String generate(int numberOfSentences) {
+		StringBuilder sb = new StringBuilder(numberOfSentences * 100);
+		for (int i = 0; i < numberOfSentences; i++) {
+			nextSentence(sb);
+			sb.append((i % 5 == 4) ? '\n' : ' ');
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Generate a list of phrases, a phrase is a sequence of lowercase words
+	 * without punctuation, as given to the segmenter.
+	 * @param numberOfPhrases the number of phrases
+	 * @return the phrases
+	 */
+	public List<String> generatePhrases(int numberOfPhrases) {
+		List<String> phrases = new ArrayList<String>(numberOfPhrases);
+		for (int i = 0; i < numberOfPhrases; i++) {
+			int n = 3 + random.nextInt(10);
+			StringBuilder sb = new StringBuilder();
+			for (int j = 0; j < n; j++) {
+				if (j > 0) {
+					sb.append(' ');
+				}
+				sb.append(nextWord());
+			}
+			phrases.add(sb.toString());
+		}
+		return phrases;
+	}
+}
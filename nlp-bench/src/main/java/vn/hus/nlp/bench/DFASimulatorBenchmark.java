@@ -0,0 +1,135 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import vn.hus.nlp.fsm.FrozenFSM;
+import vn.hus.nlp.fsm.fsa.DFA;
+import vn.hus.nlp.fsm.fsa.DFASimulator;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * Benchmarks of the lexicon automaton: the acceptance of words of the
+ * lexicon and the rejection of words which are not in the lexicon, as
+ * the segmenter does when it builds the graph of a phrase. One operation
+ * checks one word, or looks up one transition of the initial state, which
+ * has the most outtransitions. The states of the automaton keep their
+ * outtransitions in lists or are sealed into sorted arrays, or the
+ * automaton is frozen into flat arrays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DFASimulatorBenchmark {
+
+	/**
+	 * The representation of the outtransitions of the states
+	 */
+	@Param({"list", "sealed", "frozen"})
+	public String transitions;
+
+	private DFA dfa;
+
+	private DFASimulator simulator;
+
+	/**
+	 * The frozen automaton, <code>null</code> unless the transitions are frozen
+	 */
+	private FrozenFSM frozen;
+
+	private vn.hus.nlp.fsm.State initialState;
+
+	/**
+	 * The first characters of the words
+	 */
+	private char[] firstCharacters;
+
+	private String[] accepted;
+
+	private String[] rejected;
+
+	@Setup
+	public void setup() {
+		dfa = BenchmarkResources.loadLexiconDFA();
+		if ("sealed".equals(transitions)) {
+			dfa.seal();
+		}
+		if ("frozen".equals(transitions)) {
+			frozen = dfa.freeze();
+		}
+		simulator = (DFASimulator) dfa.getSimulator();
+		initialState = dfa.getInitialState();
+		List<String> words = BenchmarkResources.loadLexiconWords();
+		int n = Math.min(words.size(), 4096);
+		accepted = new String[n];
+		rejected = new String[n];
+		firstCharacters = new char[n];
+		for (int i = 0; i < n; i++) {
+			String word = words.get(i * (words.size() / n));
+			accepted[i] = word;
+			// a word followed by a syllable is rarely a word
+			rejected[i] = word + " xyz";
+			firstCharacters[i] = word.charAt(0);
+		}
+	}
+
+	@Benchmark
+	public boolean acceptWord(Cursor cursor) {
+		int index = cursor.next(accepted.length);
+		return (frozen != null) ? frozen.accept(accepted[index]) : simulator.accept(accepted[index]);
+	}
+
+	@Benchmark
+	public boolean rejectWord(Cursor cursor) {
+		int index = cursor.next(rejected.length);
+		return (frozen != null) ? frozen.accept(rejected[index]) : simulator.accept(rejected[index]);
+	}
+
+	@Benchmark
+	public int initialTransition(Cursor cursor) {
+		int index = cursor.next(firstCharacters.length);
+		if (frozen != null) {
+			return frozen.next(FrozenFSM.INITIAL_STATE, firstCharacters[index]);
+		}
+		vn.hus.nlp.fsm.State state = dfa.getNextState(initialState, firstCharacters[index]);
+		return (state == null) ? -1 : state.getId();
+	}
+
+	/**
+	 * The position of a thread in the words, each thread takes the words
+	 * in turn on its own.
+	 */
+	@State(Scope.Thread)
+	public static class Cursor {
+
+		private int index = 0;
+
+		/**
+		 * @param n the number of words
+		 * @return the index of the next word
+		 */
+		int next(int n) {
+			index = (index + 1) % n;
+			return index;
+		}
+	}
+}
@@ -0,0 +1,148 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import vn.hus.nlp.fsm.FrozenFSM;
+import vn.hus.nlp.fsm.IConstants;
+import vn.hus.nlp.fsm.MappedFSM;
+import vn.hus.nlp.fsm.builder.MinimalFSMBuilder;
+import vn.hus.nlp.fsm.fsa.DFA;
+import vn.hus.nlp.fsm.io.BinaryFSMMarshaller;
+import vn.hus.nlp.fsm.io.BinaryFSMUnmarshaller;
+import vn.hus.nlp.tokenizer.segmenter.AbstractLexiconRecognizer;
+import vn.hus.nlp.tokenizer.segmenter.DFALexiconRecognizer;
+import vn.hus.nlp.tokenizer.segmenter.DoubleArrayLexiconRecognizer;
+import vn.hus.nlp.tokenizer.segmenter.DoubleArrayTrie;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * Comparison of the recognizers of the internal lexicon: the frozen
+ * lexicon automaton, the lexicon automaton mapped from its binary form
+ * and the double-array trie of the same words. One operation checks one
+ * word of the lexicon or one word which is not in it, or builds the
+ * recognizer of all the words, the automaton being built by the minimal
+ * automaton builder. The memory footprint of the recognizer on the heap
+ * is printed when it is set up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LexiconRecognizerBenchmark {
+
+	@Param({"dfa", "mapped", "doubleArray"})
+	public String engine;
+
+	private List<String> words;
+
+	private AbstractLexiconRecognizer recognizer;
+
+	private String[] accepted;
+
+	private String[] rejected;
+
+	/**
+	 * The binary file of the automata built by {@link #build()}, it is 
+	 * not the file mapped by the recognizer
+	 */
+	private File buildFile;
+
+	@Setup
+	public void setup() throws IOException {
+		words = BenchmarkResources.loadLexiconWords();
+		long footprint;
+		if ("doubleArray".equals(engine)) {
+			DoubleArrayTrie trie = new DoubleArrayTrie(words);
+			recognizer = new DoubleArrayLexiconRecognizer(trie);
+			footprint = trie.getMemorySize();
+		} else if ("mapped".equals(engine)) {
+			MappedFSM lexicon = map(BenchmarkResources.loadLexiconDFA(), createTempFile());
+			buildFile = createTempFile();
+			recognizer = new DFALexiconRecognizer(lexicon);
+			footprint = lexicon.getMemoryFootprint();
+		} else {
+			DFA dfa = BenchmarkResources.loadLexiconDFA();
+			FrozenFSM lexicon = dfa.freeze();
+			dfa.dispose();
+			recognizer = new DFALexiconRecognizer(lexicon);
+			footprint = lexicon.getMemoryFootprint();
+		}
+		System.out.println("The " + engine + " lexicon of " + words.size() + " words takes " + footprint + " bytes.");
+		int n = Math.min(words.size(), 4096);
+		accepted = new String[n];
+		rejected = new String[n];
+		for (int i = 0; i < n; i++) {
+			String word = words.get(i * (words.size() / n));
+			accepted[i] = word;
+			// a word followed by a syllable is rarely a word
+			rejected[i] = word + " xyz";
+		}
+	}
+
+	private static File createTempFile() throws IOException {
+		File file = File.createTempFile("lexicon", ".fsm");
+		file.deleteOnExit();
+		return file;
+	}
+
+	/**
+	 * Write an automaton in the binary form in a file and map it.
+	 * @param dfa an automaton, it is disposed
+	 * @param file a file
+	 * @return the mapped automaton
+	 */
+	private static MappedFSM map(DFA dfa, File file) {
+		new BinaryFSMMarshaller().marshal(dfa, file.getAbsolutePath());
+		dfa.dispose();
+		return new BinaryFSMUnmarshaller().unmarshal(file.getAbsolutePath());
+	}
+
+	@Benchmark
+	public boolean acceptWord(DFASimulatorBenchmark.Cursor cursor) {
+		int index = cursor.next(accepted.length);
+		return recognizer.accept(accepted[index]);
+	}
+
+	@Benchmark
+	public boolean rejectWord(DFASimulatorBenchmark.Cursor cursor) {
+		int index = cursor.next(rejected.length);
+		return recognizer.accept(rejected[index]);
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 2, time = 5)
+	@Measurement(iterations = 3, time = 5)
+	public AbstractLexiconRecognizer build() {
+		if ("doubleArray".equals(engine)) {
+			return new DoubleArrayLexiconRecognizer(words);
+		}
+		MinimalFSMBuilder builder = new MinimalFSMBuilder(IConstants.FSM_DFA);
+		builder.create(words);
+		if ("mapped".equals(engine)) {
+			return new DFALexiconRecognizer(map((DFA) builder.getMachine(), buildFile));
+		}
+		return new DFALexiconRecognizer((DFA) builder.getMachine());
+	}
+}
@@ -0,0 +1,58 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import vn.hus.nlp.fsm.FSM;
+import vn.hus.nlp.fsm.IConstants;
+import vn.hus.nlp.fsm.builder.MinimalFSMBuilder;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * Benchmark of the construction of a minimal automaton from the sorted
+ * words of the lexicon. One operation builds the automaton of the first
+ * <code>size</code> words.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class MinimalFSMBuilderBenchmark {
+
+	@Param({"1000", "5000"})
+	public int size;
+
+	private List<String> words;
+
+	@Setup
+	public void setup() {
+		List<String> lexicon = BenchmarkResources.loadLexiconWords();
+		words = new ArrayList<String>(lexicon.subList(0, Math.min(size, lexicon.size())));
+	}
+
+	@Benchmark
+	public FSM create() {
+		MinimalFSMBuilder builder = new MinimalFSMBuilder(IConstants.FSM_DFA);
+		builder.create(words);
+		return builder.getMachine();
+	}
+}
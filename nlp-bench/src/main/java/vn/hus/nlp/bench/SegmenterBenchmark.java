@@ -0,0 +1,70 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.bench;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import vn.hus.nlp.tokenizer.TokenizerModels;
+import vn.hus.nlp.tokenizer.segmenter.Segmenter;
+import vn.hus.nlp.tokenizer.segmenter.SegmenterFactory;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * Benchmark of the segmentation of phrases. The phrases are generated
+ * from the unigram table; one operation segments one phrase, the phrases
+ * are taken in turn. The segmenter engine is a parameter, see 
+ * {@link SegmenterFactory}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SegmenterBenchmark {
+
+	@Param({SegmenterFactory.SHORTEST_PATH_ENGINE, SegmenterFactory.VITERBI_ENGINE})
+	private String engine;
+
+	private String[] phrases;
+
+	private int index = 0;
+
+	private Segmenter segmenter;
+
+	@Setup
+	public void setup() {
+		List<String> list = new CorpusGenerator(BenchmarkResources.getUnigram(), 2011L).generatePhrases(1000);
+		phrases = list.toArray(new String[list.size()]);
+		Properties properties = new Properties();
+		properties.putAll(BenchmarkResources.getProperties());
+		properties.setProperty(SegmenterFactory.SEGMENTER_ENGINE_PROPERTY, engine);
+		TokenizerModels models = BenchmarkResources.getModels();
+		segmenter = SegmenterFactory.createSegmenter(properties, models.getNormalizer(), 
+				models.getLexiconRecognizer(), models.getExternalLexiconRecognizer(), models.getResolver());
+	}
+
+	@Benchmark
+	public String[] segment() {
+		String phrase = phrases[index];
+		index = (index + 1) % phrases.length;
+		List<String[]> segmentations = segmenter.segment(phrase);
+		return segmenter.resolveAmbiguity(segmentations);
+	}
+}
@@ -0,0 +1,171 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.io.IOUtils;
+
+import vn.hus.nlp.tokenizer.Tokenizer;
+import vn.hus.nlp.tokenizer.TokenizerModels;
+import vn.hus.nlp.tokenizer.segmenter.Segmenter;
+import vn.hus.nlp.tokenizer.segmenter.ViterbiSegmenter;
+import vn.hus.nlp.tokenizer.tokens.TaggedWord;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * Compares the shortest path segmenter and the Viterbi segmenter:
+ * <ul>
+ * <li>the accuracy of the tokenizer with each segmenter on the bundled
+ * gold samples, that is the precision, the recall and the F-measure of the
+ * words, a word being correct if it has the same span as a gold word;</li>
+ * <li>the rate of the generated phrases which are segmented in the same
+ * way by the two segmenters;</li>
+ * <li>the time to segment the generated phrases with each segmenter.</li>
+ * </ul>
+ * The argument is the number of generated phrases, 10000 by default.
+ */
+public class SegmenterComparison {
+
+	/**
+	 * The bundled gold samples, <code>n.txt</code> is the raw text and
+	 * <code>n.tok.txt</code> the tokenized text, the syllables of a word
+	 * are joined by underscores.
+	 */
+	public static final String GOLD_SAMPLES = "/samples/gold/";
+
+	public static final int NUMBER_OF_GOLD_SAMPLES = 4;
+
+	private static final int NUMBER_OF_RUNS = 5;
+
+	/**
+	 * Get the spans of words in a text from which the spaces and the
+	 * underscores are removed.
+	 * @param words words
+	 * @return the spans, encoded as <code>start * 2^32 + end</code>
+	 */
+	static Set<Long> getSpans(List<String> words) {
+		Set<Long> spans = new HashSet<Long>();
+		long start = 0;
+		for (String word : words) {
+			long end = start;
+			for (int i = 0; i < word.length(); i++) {
+				char c = word.charAt(i);
+				if (c != '_' && !Character.isWhitespace(c)) {
+					end++;
+				}
+			}
+			if (end > start) {
+				spans.add((start << 32) + end);
+			}
+			start = end;
+		}
+		return spans;
+	}
+
+	private static String load(String name) {
+		try {
+			InputStream stream = SegmenterComparison.class.getResourceAsStream(GOLD_SAMPLES + name);
+			String text = IOUtils.toString(stream, Charset.forName("UTF-8").name());
+			stream.close();
+			return text;
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		return "";
+	}
+
+	/**
+	 * Evaluate a tokenizer on the gold samples.
+	 * @param tokenizer a tokenizer
+	 * @return the precision, the recall and the F-measure
+	 */
+	static double[] evaluate(Tokenizer tokenizer) {
+		int numberOfCorrect = 0;
+		int numberOfWords = 0;
+		int numberOfGoldWords = 0;
+		for (int n = 0; n < NUMBER_OF_GOLD_SAMPLES; n++) {
+			List<String> gold = Arrays.asList(load(n + ".tok.txt").trim().split("\\s+"));
+			List<String> words = new ArrayList<String>();
+			for (TaggedWord word : tokenizer.tokenizeText(load(n + ".txt"))) {
+				words.add(word.getText());
+			}
+			Set<Long> goldSpans = getSpans(gold);
+			Set<Long> spans = getSpans(words);
+			numberOfGoldWords += goldSpans.size();
+			numberOfWords += spans.size();
+			spans.retainAll(goldSpans);
+			numberOfCorrect += spans.size();
+		}
+		double precision = (double) numberOfCorrect / numberOfWords;
+		double recall = (double) numberOfCorrect / numberOfGoldWords;
+		return new double[] {precision, recall, 2 * precision * recall / (precision + recall)};
+	}
+
+	/**
+	 * Segment phrases.
+	 * @param segmenter a segmenter
+	 * @param phrases phrases
+	 * @return the selected segmentation of each phrase
+	 */
+	static String[][] segment(Segmenter segmenter, List<String> phrases) {
+		String[][] result = new String[phrases.size()][];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = segmenter.resolveAmbiguity(segmenter.segment(phrases.get(i)));
+		}
+		return result;
+	}
+
+	/**
+	 * @return the best time in milliseconds to segment the phrases
+	 */
+	static double time(Segmenter segmenter, List<String> phrases) {
+		long best = Long.MAX_VALUE;
+		for (int run = 0; run < NUMBER_OF_RUNS; run++) {
+			long start = System.nanoTime();
+			segment(segmenter, phrases);
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		return best / 1e6;
+	}
+
+	public static void main(String[] args) {
+		int numberOfPhrases = (args.length > 0) ? Integer.parseInt(args[0]) : 10000;
+		TokenizerModels models = BenchmarkResources.getModels();
+		Segmenter shortestPath = new Segmenter(models.getNormalizer(), models.getLexiconRecognizer(), 
+				models.getExternalLexiconRecognizer(), models.getResolver());
+		Segmenter viterbi = new ViterbiSegmenter(models.getNormalizer(), models.getLexiconRecognizer(), 
+				models.getExternalLexiconRecognizer(), models.getResolver(), 1);
+		// accuracy on the gold samples
+		String format = "%-14s precision = %.4f, recall = %.4f, F1 = %.4f%n";
+		double[] scores = evaluate(new Tokenizer(models, shortestPath));
+		System.out.printf(format, "shortestPath", scores[0], scores[1], scores[2]);
+		scores = evaluate(new Tokenizer(models, viterbi));
+		System.out.printf(format, "viterbi", scores[0], scores[1], scores[2]);
+		// agreement on generated phrases
+		List<String> phrases = new CorpusGenerator(models.getUnigram(), 2011L).generatePhrases(numberOfPhrases);
+		String[][] s1 = segment(shortestPath, phrases);
+		String[][] s2 = segment(viterbi, phrases);
+		int numberOfAgreements = 0;
+		for (int i = 0; i < s1.length; i++) {
+			if (Arrays.equals(s1[i], s2[i])) {
+				numberOfAgreements++;
+			}
+		}
+		System.out.printf("agreement on %d phrases = %.4f%n", phrases.size(), (double) numberOfAgreements / phrases.size());
+		// speed
+		double t1 = time(shortestPath, phrases);
+		double t2 = time(viterbi, phrases);
+		System.out.printf("%-14s %.1f ms%n", "shortestPath", t1);
+		System.out.printf("%-14s %.1f ms (x%.2f)%n", "viterbi", t2, t1 / t2);
+	}
+}
@@ -0,0 +1,57 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.bench;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import vn.hus.nlp.sd.IConstants;
+import vn.hus.nlp.sd.SentenceDetector;
+import vn.hus.nlp.sd.SentenceDetectorFactory;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * Benchmark of the Vietnamese sentence detector. One operation detects
+ * the sentences of the whole corpus.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SentenceDetectorBenchmark {
+
+	@Param({"sample", "synthetic"})
+	public String corpus;
+
+	private String text;
+
+	private SentenceDetector sentenceDetector;
+
+	@Setup
+	public void setup() {
+		text = BenchmarkResources.getCorpus(corpus, 500);
+		sentenceDetector = SentenceDetectorFactory.create(IConstants.LANG_VIETNAMESE);
+	}
+
+	@Benchmark
+	public String[] detectSentences() throws IOException {
+		return sentenceDetector.detectSentences(new StringReader(text));
+	}
+}
@@ -0,0 +1,91 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import vn.hus.nlp.graph.AdjacencyListWeightedGraph;
+import vn.hus.nlp.graph.CSRWeightedGraph;
+import vn.hus.nlp.graph.Edge;
+import vn.hus.nlp.graph.IWeightedGraph;
+import vn.hus.nlp.graph.Node;
+import vn.hus.nlp.graph.search.ShortestPathFinder;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * Benchmark of the search of all the shortest paths of a segmentation
+ * graph. The graphs are built as the segmenter does: a vertex per syllable
+ * boundary, an edge of weight 100 between two consecutive vertices and,
+ * for some longer words, an edge of weight <code>floor(100/(j+1))</code>
+ * where <code>j+1</code> is the number of syllables of the word. The graphs
+ * are stored as adjacency lists or in the compressed sparse row
+ * representation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShortestPathFinderBenchmark {
+
+	/**
+	 * The number of syllables of a phrase
+	 */
+	@Param({"8", "32"})
+	public int syllables;
+
+	/**
+	 * The representation of the graphs
+	 */
+	@Param({"adjacencyList", "csr"})
+	public String graph;
+
+	private IWeightedGraph[] graphs;
+
+	private int index = 0;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(2011L);
+		graphs = new IWeightedGraph[256];
+		for (int k = 0; k < graphs.length; k++) {
+			int nV = syllables + 1;
+			IWeightedGraph g = "csr".equals(graph) ? new CSRWeightedGraph(nV, true)
+				: new AdjacencyListWeightedGraph(nV, true);
+			for (int i = 0; i < nV - 1; i++) {
+				g.insert(new Edge(i, i + 1, 100));
+				for (int j = 1; j < 4 && i + j + 1 < nV; j++) {
+					// a word of j+1 syllables
+					if (random.nextInt(3) == 0) {
+						g.insert(new Edge(i, i + j + 1, Math.floor(100d / (j + 1))));
+					}
+				}
+			}
+			graphs[k] = g;
+		}
+	}
+
+	@Benchmark
+	public Node[] allShortestPaths() {
+		IWeightedGraph g = graphs[index];
+		index = (index + 1) % graphs.length;
+		ShortestPathFinder finder = new ShortestPathFinder(g);
+		return finder.getAllShortestPaths(g.getNumberOfVertices() - 1);
+	}
+}
@@ -0,0 +1,55 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import vn.hus.nlp.tokenizer.segmenter.StringNormalizer;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * Benchmark of the normalization of the accents of phrases. One
+ * operation normalizes one phrase.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StringNormalizerBenchmark {
+
+	private String[] phrases;
+
+	private int index = 0;
+
+	private StringNormalizer normalizer;
+
+	@Setup
+	public void setup() {
+		List<String> list = new CorpusGenerator(BenchmarkResources.getUnigram(), 2011L).generatePhrases(1000);
+		phrases = list.toArray(new String[list.size()]);
+		normalizer = BenchmarkResources.getModels().getNormalizer();
+	}
+
+	@Benchmark
+	public String normalize() {
+		String phrase = phrases[index];
+		index = (index + 1) % phrases.length;
+		return normalizer.normalize(phrase);
+	}
+}
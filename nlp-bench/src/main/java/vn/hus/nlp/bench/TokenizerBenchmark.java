@@ -0,0 +1,72 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.bench;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import vn.hus.nlp.tokenizer.ITokenizerListener;
+import vn.hus.nlp.tokenizer.Tokenizer;
+import vn.hus.nlp.tokenizer.tokens.TaggedWord;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * Benchmarks of the tokenizer on a whole document: the reentrant
+ * {@link Tokenizer#tokenizeText(CharSequence)} and the historical
+ * {@link Tokenizer#tokenize(java.io.Reader)}. One operation tokenizes the
+ * whole corpus.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenizerBenchmark {
+
+	@Param({"sample", "synthetic"})
+	public String corpus;
+
+	private String text;
+
+	private Tokenizer tokenizer;
+
+	@Setup
+	public void setup() {
+		text = BenchmarkResources.getCorpus(corpus, 500);
+		tokenizer = BenchmarkResources.getModels().createTokenizer();
+		// do not report the progress
+		List<ITokenizerListener> listeners = new ArrayList<ITokenizerListener>(tokenizer.getTokenizerListener());
+		for (ITokenizerListener listener : listeners) {
+			tokenizer.removeTokenizerListener(listener);
+		}
+	}
+
+	@Benchmark
+	public List<TaggedWord> tokenizeText() {
+		return tokenizer.tokenizeText(text);
+	}
+
+	@Benchmark
+	public List<TaggedWord> tokenize() throws IOException {
+		tokenizer.tokenize(new StringReader(text));
+		return tokenizer.getResult();
+	}
+}
@@ -0,0 +1,155 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ *  Vietnam National University, Hanoi, Vietnam.
+ */
+package vn.hus.nlp.fsm;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * An immutable finite state machine for runtime use, without state or
+ * transition objects. The states are numbered from 0, the initial state,
+ * and the outtransitions of a state <code>s</code> are the transitions
+ * <code>getStart(s)..getEnd(s)-1</code>, sorted by their inputs, with at
+ * most one transition per input. The target of a transition to a state
+ * which does not exist is -1, as the result of {@link #next(int, char)}
+ * on a missing transition.
+ * <p>
+ * A compact machine is not changed after its creation, it can be shared
+ * by several threads.
+ * @see FrozenFSM
+ * @see MappedFSM
+ */
+public abstract class CompactFSM {
+
+	/**
+	 * The initial state of a compact machine.
+	 */
+	public static final int INITIAL_STATE = 0;
+
+	/**
+	 * @return the number of states.
+	 */
+	public abstract int getNumberOfStates();
+
+	/**
+	 * @return the number of transitions.
+	 */
+	public abstract int getNumberOfTransitions();
+
+	/**
+	 * @param state a state
+	 * @return <code>true</code> if the state is final.
+	 */
+	public abstract boolean isFinal(int state);
+
+	/**
+	 * @param state a state
+	 * @return the index of the first outtransition of the state.
+	 */
+	public abstract int getStart(int state);
+
+	/**
+	 * @param state a state
+	 * @return the index after the last outtransition of the state.
+	 */
+	public abstract int getEnd(int state);
+
+	/**
+	 * @param i the index of a transition
+	 * @return the input of the transition.
+	 */
+	public abstract char getInput(int i);
+
+	/**
+	 * @param i the index of a transition
+	 * @return the target state of the transition, -1 if it does not exist.
+	 */
+	public abstract int getTarget(int i);
+
+	/**
+	 * @param i the index of a transition
+	 * @return the output of the transition, never <code>null</code>.
+	 */
+	public abstract String getOutput(int i);
+
+	/**
+	 * @return <code>true</code> if some outputs are not empty, as in a
+	 * transducer.
+	 */
+	public abstract boolean hasOutputs();
+
+	/**
+	 * Find the outtransition of a state given an input.
+	 * @param state a state
+	 * @param input an input
+	 * @return the index of the transition, -1 if there is not any.
+	 */
+	public abstract int indexOf(int state, char input);
+
+	/**
+	 * @return the estimated number of bytes of the machine on the heap.
+	 */
+	public abstract long getMemoryFootprint();
+
+	/**
+	 * Get the next state of a state given an input.
+	 * @param state a state
+	 * @param input an input
+	 * @return the next state, -1 if there is not any.
+	 */
+	public int next(int state, char input) {
+		int i = indexOf(state, input);
+		return (i < 0) ? -1 : getTarget(i);
+	}
+
+	/**
+	 * Track an input from the initial state.
+	 * @param input an input
+	 * @return the state reached on the whole input, -1 if the machine
+	 * cannot read it.
+	 */
+	public int track(CharSequence input) {
+		int state = INITIAL_STATE;
+		for (int i = 0, n = input.length(); i < n && state >= 0; i++) {
+			state = next(state, input.charAt(i));
+		}
+		return state;
+	}
+
+	/**
+	 * @param input an input
+	 * @return <code>true</code> if the machine accepts the input.
+	 */
+	public boolean accept(CharSequence input) {
+		int state = track(input);
+		return state >= 0 && isFinal(state);
+	}
+
+	/**
+	 * Run the machine on an input, as {@link ISimulator#run(String)}:
+	 * the outputs of the transitions are concatenated until the machine
+	 * cannot go further on the input.
+	 * @param input an input
+	 * @return the output of the machine.
+	 */
+	public String run(CharSequence input) {
+		StringBuilder output = new StringBuilder();
+		int state = INITIAL_STATE;
+		for (int k = 0, n = input.length(); k < n; k++) {
+			int i = indexOf(state, input.charAt(k));
+			if (i < 0 || getTarget(i) < 0) {
+				break;
+			}
+			output.append(getOutput(i));
+			state = getTarget(i);
+		}
+		return output.toString();
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[states=" + getNumberOfStates() + ", transitions="
+				+ getNumberOfTransitions() + ", bytes=" + getMemoryFootprint() + "]";
+	}
+}
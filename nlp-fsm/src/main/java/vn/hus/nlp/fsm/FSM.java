@@ -5,6 +5,7 @@
 package vn.hus.nlp.fsm;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -27,6 +28,13 @@ public abstract class FSM {
 	 */
 	protected Map<Integer, State> states;
 	
+	/**
+	 * The states indexed by their ids, <code>null</code> for an id which 
+	 * is not used. It is kept together with the state map so that a state 
+	 * is found without boxing its id.
+	 */
+	private State[] stateIndex;
+	
 	/**
 	 * A map that stores all intransition to a state. This help 
 	 * speed up the search of all intransions to a state, we don't need 
@@ -43,6 +51,7 @@ public abstract class FSM {
 	 */
 	public FSM() {
 		states = new HashMap<Integer, State>();
+		stateIndex = new State[16];
 		// create the initial state
 		createInitialState();
 		nTransitions = 0;
@@ -53,6 +62,7 @@ public abstract class FSM {
 		State s = new State(0);
 		s.setType((byte)0);
 		states.put(0, s);
+		stateIndex[0] = s;
 	}
 	
 	/**
@@ -61,6 +71,11 @@ public abstract class FSM {
 	 */
 	public void addState(State s) {
 		states.put(s.getId(), s);
+		int id = s.getId();
+		if (id >= stateIndex.length) {
+			stateIndex = Arrays.copyOf(stateIndex, Math.max(id + 1, 2 * stateIndex.length));
+		}
+		stateIndex[id] = s;
 	}
 	
 	/**
@@ -77,8 +92,12 @@ public abstract class FSM {
 		nTransitions -= outTransitions.size();
 		// remove all outtransitions of this state
 		outTransitions.clear();
+		s.unseal();
 		// remove the state itself
 		states.remove(s.getId());
+		if (s.getId() < stateIndex.length) {
+			stateIndex[s.getId()] = null;
+		}
 	}
 	
 	/**
@@ -112,6 +131,7 @@ public abstract class FSM {
 			// update outtransitions of the source state
 			State source = states.get(t.getSource());
 			source.getOutTransitions().add(t);
+			source.unseal();
 			nTransitions++;
 			// update the intransition map
 			addIntransitionMap(t);
@@ -129,6 +149,7 @@ public abstract class FSM {
 			// update outtransitions of the source state
 			State source = states.get(t.getSource());
 			source.getOutTransitions().remove(t);
+			source.unseal();
 			nTransitions--;
 			// update the intransition map
 			removeIntransitionMap(t);
@@ -149,9 +170,9 @@ public abstract class FSM {
 	 * @return a state
 	 */
 	public State getState(int id) {
-		if (id < 0 || id > states.size()) 
+		if (id < 0 || id >= stateIndex.length) 
 			return null;
-		return states.get(new Integer(id));
+		return stateIndex[id];
 	}
 	
 	/**
@@ -177,7 +198,7 @@ public abstract class FSM {
 	 * the initial state always has id zero. 
 	 */
 	public State getInitialState() {
-		return states.get(new Integer(0));
+		return stateIndex[0];
 	}
 	/**
 	 * Get the number of transitions of the machine.
@@ -194,6 +215,32 @@ public abstract class FSM {
 		return intransitionMap;
 	}
 	
+	/**
+	 * Seal all the states of the machine, so that the next state of a
+	 * state is found by a binary search or a direct index instead of a
+	 * scan of its outtransitions. A machine should be sealed when it
+	 * is built, the states changed after that are unsealed.
+	 * @see State#seal()
+	 */
+	public void seal() {
+		for (State s : states.values()) {
+			s.seal();
+		}
+	}
+
+	/**
+	 * Freeze the machine into an immutable form for runtime use. The frozen
+	 * machine keeps its transitions in flat arrays and does not refer to
+	 * this machine, which can be disposed if it is not changed any more.
+	 * A <code>null</code> output of a transition is frozen as an empty
+	 * output.
+	 * @return a frozen copy of the machine
+	 * @see FrozenFSM#getMemoryFootprint()
+	 */
+	public FrozenFSM freeze() {
+		return new FrozenFSM(this);
+	}
+
 	/**
 	 * Get the next state of a state given an input.
 	 * @param currentState the current state
@@ -201,8 +248,14 @@ public abstract class FSM {
 	 * @return the next state or <tt>null</tt>.
 	 */
 	public State getNextState(State currentState, char input) {
-		for (Iterator<Transition> it = currentState.getOutTransitions().iterator(); it.hasNext();) {
-			Transition t = it.next();
+		if (currentState.isSealed()) {
+			int i = currentState.indexOf(input);
+			return (i < 0) ? null : getState(currentState.getTarget(i));
+		}
+		// the transitions are accessed by their indices, without an iterator
+		List<Transition> outTransitions = currentState.getOutTransitions();
+		for (int i = 0, n = outTransitions.size(); i < n; i++) {
+			Transition t = outTransitions.get(i);
 			if (t.getInput() == input)
 				return getState(t.getTarget());
 		}
@@ -216,6 +269,10 @@ public abstract class FSM {
 	 * @return the output 
 	 */
 	public String getNextOutput(State currentState, char input) {
+		if (currentState.isSealed()) {
+			int i = currentState.indexOf(input);
+			return (i < 0) ? IConstants.EMPTY_STRING : currentState.getOutput(i);
+		}
 		for (Iterator<Transition> it = currentState.getOutTransitions().iterator(); it.hasNext();) {
 			Transition t = it.next();
 			if (t.getInput() == input)
@@ -238,6 +295,7 @@ public abstract class FSM {
 	public void dispose() {
 		states.clear();
 		states = null;
+		stateIndex = null;
 		intransitionMap.clear();
 		intransitionMap = null;
 	}
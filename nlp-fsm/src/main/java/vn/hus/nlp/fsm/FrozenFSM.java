@@ -0,0 +1,241 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ *  Vietnam National University, Hanoi, Vietnam.
+ */
+package vn.hus.nlp.fsm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * A compact machine on the heap, created by {@link FSM#freeze()}. The
+ * states are numbered in breadth first order, and the outtransitions of a
+ * state <code>s</code> are the entries <code>offsets[s]..offsets[s+1]-1</code>
+ * of flat arrays of inputs, targets and outputs. There is not any state
+ * object, transition object nor intransition map.
+ * <p>
+ * A state which is not reachable from the initial state is not kept.
+ */
+public final class FrozenFSM extends CompactFSM {
+
+	/**
+	 * The first outtransition of each state, the last entry is the
+	 * number of transitions.
+	 */
+	private final int[] offsets;
+
+	private final char[] inputs;
+
+	private final int[] targets;
+
+	/**
+	 * The outputs of the transitions, <code>null</code> if all the
+	 * outputs are empty, as in a DFA. A <code>null</code> output of a
+	 * transition is kept as an empty output.
+	 */
+	private final String[] outputs;
+
+	private final boolean[] finals;
+
+	/**
+	 * The estimated size of the machine in bytes.
+	 */
+	private final long footprint;
+
+	/**
+	 * Freeze a machine.
+	 * @param fsm a machine
+	 */
+	FrozenFSM(FSM fsm) {
+		// number the states which are reachable from the initial state
+		Map<Integer, Integer> ids = new HashMap<Integer, Integer>();
+		List<State> order = new ArrayList<State>();
+		State initialState = fsm.getInitialState();
+		ids.put(initialState.getId(), INITIAL_STATE);
+		order.add(initialState);
+		for (int k = 0; k < order.size(); k++) {
+			List<Transition> outTransitions = order.get(k).getOutTransitions();
+			for (int i = 0; i < outTransitions.size(); i++) {
+				State target = fsm.getState(outTransitions.get(i).getTarget());
+				if (target != null && !ids.containsKey(target.getId())) {
+					ids.put(target.getId(), order.size());
+					order.add(target);
+				}
+			}
+		}
+		int nStates = order.size();
+		// sort the outtransitions of each state by their inputs, only
+		// the first transition of an input is kept, as in a linear scan
+		Transition[][] sorted = new Transition[nStates][];
+		int nTransitions = 0;
+		for (int k = 0; k < nStates; k++) {
+			List<Transition> outTransitions = order.get(k).getOutTransitions();
+			Transition[] transitions = outTransitions.toArray(new Transition[outTransitions.size()]);
+			Arrays.sort(transitions, State.INPUT_ORDER);
+			int n = 0;
+			for (int i = 0; i < transitions.length; i++) {
+				if (n == 0 || transitions[n-1].getInput() != transitions[i].getInput()) {
+					transitions[n++] = transitions[i];
+				}
+			}
+			sorted[k] = Arrays.copyOf(transitions, n);
+			nTransitions += n;
+		}
+		offsets = new int[nStates + 1];
+		inputs = new char[nTransitions];
+		targets = new int[nTransitions];
+		finals = new boolean[nStates];
+		String[] outputs = new String[nTransitions];
+		boolean hasOutputs = false;
+		int j = 0;
+		for (int k = 0; k < nStates; k++) {
+			offsets[k] = j;
+			finals[k] = order.get(k).isFinalState();
+			for (Transition t : sorted[k]) {
+				inputs[j] = t.getInput();
+				Integer target = ids.get(t.getTarget());
+				targets[j] = (target == null) ? -1 : target.intValue();
+				String output = t.getOutput();
+				outputs[j] = (output == null) ? IConstants.EMPTY_STRING : output;
+				if (outputs[j].length() > 0) {
+					hasOutputs = true;
+				}
+				j++;
+			}
+		}
+		offsets[nStates] = j;
+		this.outputs = hasOutputs ? outputs : null;
+		this.footprint = estimateFootprint();
+	}
+
+	/**
+	 * @return the number of states.
+	 */
+	@Override
+	public int getNumberOfStates() {
+		return finals.length;
+	}
+
+	/**
+	 * @return the number of transitions.
+	 */
+	@Override
+	public int getNumberOfTransitions() {
+		return inputs.length;
+	}
+
+	/**
+	 * @param state a state
+	 * @return <code>true</code> if the state is final.
+	 */
+	@Override
+	public boolean isFinal(int state) {
+		return finals[state];
+	}
+
+	/**
+	 * @param state a state
+	 * @return the index of the first outtransition of the state.
+	 */
+	@Override
+	public int getStart(int state) {
+		return offsets[state];
+	}
+
+	/**
+	 * @param state a state
+	 * @return the index after the last outtransition of the state.
+	 */
+	@Override
+	public int getEnd(int state) {
+		return offsets[state + 1];
+	}
+
+	/**
+	 * @param i the index of a transition
+	 * @return the input of the transition.
+	 */
+	@Override
+	public char getInput(int i) {
+		return inputs[i];
+	}
+
+	/**
+	 * @param i the index of a transition
+	 * @return the target state of the transition, -1 if it does not exist.
+	 */
+	@Override
+	public int getTarget(int i) {
+		return targets[i];
+	}
+
+	/**
+	 * @param i the index of a transition
+	 * @return the output of the transition.
+	 */
+	@Override
+	public String getOutput(int i) {
+		return (outputs == null) ? IConstants.EMPTY_STRING : outputs[i];
+	}
+
+	@Override
+	public boolean hasOutputs() {
+		return outputs != null;
+	}
+
+	/**
+	 * Find the outtransition of a state given an input.
+	 * @param state a state
+	 * @param input an input
+	 * @return the index of the transition, -1 if there is not any.
+	 */
+	@Override
+	public int indexOf(int state, char input) {
+		int i = Arrays.binarySearch(inputs, offsets[state], offsets[state + 1], input);
+		return (i < 0) ? -1 : i;
+	}
+
+	/**
+	 * Get the memory footprint of the machine, estimated for a 64-bit
+	 * virtual machine with compressed references: an array has a header
+	 * of 16 bytes and each object is aligned on 8 bytes. The outputs
+	 * shared by several transitions are counted once.
+	 * @return the estimated size of the machine in bytes.
+	 */
+	@Override
+	public long getMemoryFootprint() {
+		return footprint;
+	}
+
+	private long estimateFootprint() {
+		long size = align(12 + 6 * 4 + 8) + arraySize(offsets.length, 4) + arraySize(inputs.length, 2)
+				+ arraySize(targets.length, 4) + arraySize(finals.length, 1);
+		if (outputs != null) {
+			size += arraySize(outputs.length, 4);
+			Set<String> counted = Collections.newSetFromMap(new IdentityHashMap<String, Boolean>());
+			for (String output : outputs) {
+				if (counted.add(output)) {
+					// the string and its characters
+					size += 24 + arraySize(output.length(), 2);
+				}
+			}
+		}
+		return size;
+	}
+
+	private static long arraySize(int length, int elementSize) {
+		return align(16 + (long) length * elementSize);
+	}
+
+	private static long align(long size) {
+		return (size + 7) & ~7L;
+	}
+}
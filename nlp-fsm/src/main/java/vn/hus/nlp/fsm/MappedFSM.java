@@ -0,0 +1,210 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ *  Vietnam National University, Hanoi, Vietnam.
+ */
+package vn.hus.nlp.fsm;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * A compact machine read in place from the binary form written by
+ * {@link vn.hus.nlp.fsm.io.BinaryFSMMarshaller}. The buffer is usually
+ * a memory-mapped file given by {@link vn.hus.nlp.fsm.io.BinaryFSMUnmarshaller},
+ * so that the machine is not copied on the heap and is shared through
+ * the page cache by all the processes which map the same file.
+ * <p>
+ * The binary form is big-endian. It starts with a header of
+ * {@link #HEADER_SIZE} bytes: the magic number {@link #MAGIC}, the
+ * version {@link #VERSION} of the format, the flags, the number of
+ * states, the number of transitions and the number of characters of the
+ * outputs, followed by two reserved integers. The header is followed by
+ * the arrays:
+ * <ul>
+ * <li>the first outtransition of each state, as <code>int</code>, the
+ * last entry is the number of transitions;</li>
+ * <li>the target of each transition, as <code>int</code>, -1 for a state
+ * which does not exist;</li>
+ * <li>if the machine has outputs, the first character of the output of
+ * each transition, as <code>int</code>, the last entry is the number of
+ * characters of the outputs;</li>
+ * <li>the input of each transition, as <code>char</code>, sorted for each
+ * state;</li>
+ * <li>the characters of the outputs, as <code>char</code>;</li>
+ * <li>the final flag of each state, as <code>byte</code>.</li>
+ * </ul>
+ * The buffer is read with absolute accesses only, it can be shared by
+ * several threads.
+ */
+public final class MappedFSM extends CompactFSM {
+
+	/**
+	 * The magic number of the binary form, "VNFS".
+	 */
+	public static final int MAGIC = 0x564E4653;
+
+	/**
+	 * The version of the binary form.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * The size of the header in bytes.
+	 */
+	public static final int HEADER_SIZE = 32;
+
+	/**
+	 * The flag of a machine which has outputs.
+	 */
+	public static final int OUTPUTS = 1;
+
+	private final ByteBuffer buffer;
+
+	private final int nStates;
+
+	private final int nTransitions;
+
+	private final boolean outputs;
+
+	/**
+	 * The positions of the arrays in the buffer.
+	 */
+	private final int offsetsPos;
+	private final int targetsPos;
+	private final int outputOffsetsPos;
+	private final int inputsPos;
+	private final int charactersPos;
+	private final int finalsPos;
+
+	/**
+	 * The size of the binary form in bytes.
+	 */
+	private final int size;
+
+	/**
+	 * Read a machine from a buffer, the binary form starts at the
+	 * beginning of the buffer. The content of the buffer must not be
+	 * changed after that.
+	 * @param buffer a buffer
+	 * @throws IllegalArgumentException if the buffer does not contain a
+	 * machine of this version of the format.
+	 */
+	public MappedFSM(ByteBuffer buffer) {
+		// a view whose position and order are not shared
+		this.buffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+		if (this.buffer.limit() < HEADER_SIZE || this.buffer.getInt(0) != MAGIC) {
+			throw new IllegalArgumentException("Not a binary automaton.");
+		}
+		int version = this.buffer.getInt(4);
+		if (version != VERSION) {
+			throw new IllegalArgumentException("Unsupported version of the binary automaton: " + version);
+		}
+		outputs = (this.buffer.getInt(8) & OUTPUTS) != 0;
+		nStates = this.buffer.getInt(12);
+		nTransitions = this.buffer.getInt(16);
+		int nCharacters = this.buffer.getInt(20);
+		offsetsPos = HEADER_SIZE;
+		targetsPos = offsetsPos + 4 * (nStates + 1);
+		outputOffsetsPos = targetsPos + 4 * nTransitions;
+		inputsPos = outputOffsetsPos + (outputs ? 4 * (nTransitions + 1) : 0);
+		charactersPos = inputsPos + 2 * nTransitions;
+		finalsPos = charactersPos + 2 * nCharacters;
+		size = finalsPos + nStates;
+		if (nStates <= 0 || this.buffer.limit() < size) {
+			throw new IllegalArgumentException("Truncated binary automaton.");
+		}
+	}
+
+	/**
+	 * @return the size of the binary form in bytes.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	@Override
+	public int getNumberOfStates() {
+		return nStates;
+	}
+
+	@Override
+	public int getNumberOfTransitions() {
+		return nTransitions;
+	}
+
+	@Override
+	public boolean isFinal(int state) {
+		return buffer.get(finalsPos + state) != 0;
+	}
+
+	@Override
+	public int getStart(int state) {
+		return buffer.getInt(offsetsPos + 4 * state);
+	}
+
+	@Override
+	public int getEnd(int state) {
+		return buffer.getInt(offsetsPos + 4 * (state + 1));
+	}
+
+	@Override
+	public char getInput(int i) {
+		return buffer.getChar(inputsPos + 2 * i);
+	}
+
+	@Override
+	public int getTarget(int i) {
+		return buffer.getInt(targetsPos + 4 * i);
+	}
+
+	@Override
+	public String getOutput(int i) {
+		if (!outputs) {
+			return IConstants.EMPTY_STRING;
+		}
+		int start = buffer.getInt(outputOffsetsPos + 4 * i);
+		int end = buffer.getInt(outputOffsetsPos + 4 * (i + 1));
+		char[] characters = new char[end - start];
+		for (int k = 0; k < characters.length; k++) {
+			characters[k] = buffer.getChar(charactersPos + 2 * (start + k));
+		}
+		return new String(characters);
+	}
+
+	@Override
+	public boolean hasOutputs() {
+		return outputs;
+	}
+
+	@Override
+	public int indexOf(int state, char input) {
+		int lo = getStart(state);
+		int hi = getEnd(state) - 1;
+		while (lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			char c = buffer.getChar(inputsPos + 2 * mid);
+			if (c < input) {
+				lo = mid + 1;
+			} else if (c > input) {
+				hi = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Get the memory footprint of the machine on the heap, the binary form
+	 * is not counted, it is outside the heap if the buffer is mapped.
+	 * @return the estimated size of the machine in bytes.
+	 * @see #getSize()
+	 */
+	@Override
+	public long getMemoryFootprint() {
+		// the machine and the view of the buffer
+		return 48 + 64;
+	}
+}
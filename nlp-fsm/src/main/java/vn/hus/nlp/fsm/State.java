@@ -3,6 +3,8 @@ package vn.hus.nlp.fsm;
 
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 
@@ -11,6 +13,12 @@ import java.util.List;
  * @author   LE Hong Phuong
  * <p>
  * A state of finite state machines.
+ * <p>
+ * A state can be sealed by {@link #seal()} when its outtransitions are 
+ * not changed anymore: the inputs of the outtransitions are then kept in a 
+ * sorted array with the parallel arrays of their targets and outputs, 
+ * and a transition is found by {@link #indexOf(char)} with a binary search, 
+ * or with a direct index table if the inputs of the state are dense.
  */
 public class State implements Comparable<State> {
 	/**
@@ -28,6 +36,45 @@ public class State implements Comparable<State> {
 	 * Outgoing transition from the state.
 	 */
 	private final List<Transition> outTransitions;
+	
+	/**
+	 * The sorted inputs of the outtransitions and the parallel targets and 
+	 * outputs, <code>null</code> if the state is not sealed.
+	 */
+	private char[] inputs;
+	private int[] targets;
+	private String[] outputs;
+	
+	/**
+	 * The direct index table of a dense state: the index of the 
+	 * outtransition of an input <code>c</code> is <code>direct[c - first] - 1</code>, 
+	 * or there is no such outtransition if the entry is 0. The table is 
+	 * <code>null</code> if the state is not dense.
+	 */
+	private int[] direct;
+	private char first;
+	
+	/**
+	 * A state is dense if the range of its inputs is at most 
+	 * this factor times the number of its outtransitions.
+	 */
+	private static final int DENSITY = 4;
+	
+	/**
+	 * The minimal number of outtransitions of a state for a direct 
+	 * index table, a binary search is as fast on fewer transitions.
+	 */
+	private static final int DIRECT_THRESHOLD = 8;
+	
+	/**
+	 * The order of the transitions by their inputs.
+	 */
+	static final Comparator<Transition> INPUT_ORDER = new Comparator<Transition>() {
+		public int compare(Transition t1, Transition t2) {
+			return t1.getInput() - t2.getInput();
+		}
+	};
+	
 	/**
 	 * Instantiate a new state
 	 * @param id 
@@ -45,6 +92,11 @@ public class State implements Comparable<State> {
 		this.id = s.getId();
 		this.setType(s.getType());
 		this.outTransitions= s.getOutTransitions();
+		this.inputs = s.inputs;
+		this.targets = s.targets;
+		this.outputs = s.outputs;
+		this.direct = s.direct;
+		this.first = s.first;
 	}
 	/**
 	 * Set the type of state 
@@ -111,6 +163,95 @@ public class State implements Comparable<State> {
 		 return inputs;
 	}
 	
+	/**
+	 * Seal the state: build the sorted arrays of its outtransitions. The 
+	 * outtransitions must not be changed after that, unless the state is 
+	 * unsealed.
+	 * @see #unseal()
+	 */
+	public void seal() {
+		int n = outTransitions.size();
+		Transition[] transitions = outTransitions.toArray(new Transition[n]);
+		Arrays.sort(transitions, INPUT_ORDER);
+		char[] inputs = new char[n];
+		int[] targets = new int[n];
+		String[] outputs = new String[n];
+		for (int i = 0; i < n; i++) {
+			inputs[i] = transitions[i].getInput();
+			targets[i] = transitions[i].getTarget();
+			outputs[i] = transitions[i].getOutput();
+		}
+		direct = null;
+		if (n >= DIRECT_THRESHOLD) {
+			int range = inputs[n-1] - inputs[0] + 1;
+			if (range <= DENSITY * n) {
+				first = inputs[0];
+				direct = new int[range];
+				// the first transition of an input is kept, as in a linear scan
+				for (int i = n - 1; i >= 0; i--) {
+					direct[inputs[i] - first] = i + 1;
+				}
+			}
+		}
+		this.targets = targets;
+		this.outputs = outputs;
+		this.inputs = inputs;
+	}
+	
+	/**
+	 * Unseal the state, its outtransitions can be changed.
+	 */
+	public void unseal() {
+		inputs = null;
+		targets = null;
+		outputs = null;
+		direct = null;
+	}
+	
+	/**
+	 * @return <code>true</code> if the state is sealed.
+	 */
+	public boolean isSealed() {
+		return inputs != null;
+	}
+	
+	/**
+	 * Find the outtransition of an input in a sealed state.
+	 * @param input an input
+	 * @return the index of the outtransition, -1 if there is not any.
+	 */
+	public int indexOf(char input) {
+		if (direct != null) {
+			int k = input - first;
+			return (k >= 0 && k < direct.length) ? direct[k] - 1 : -1;
+		}
+		int k = Arrays.binarySearch(inputs, input);
+		if (k < 0) {
+			return -1;
+		}
+		// go to the first transition of the input
+		while (k > 0 && inputs[k-1] == input) {
+			k--;
+		}
+		return k;
+	}
+	
+	/**
+	 * @param i the index of an outtransition of a sealed state
+	 * @return the id of the target state of the outtransition.
+	 */
+	public int getTarget(int i) {
+		return targets[i];
+	}
+	
+	/**
+	 * @param i the index of an outtransition of a sealed state
+	 * @return the output of the outtransition.
+	 */
+	public String getOutput(int i) {
+		return outputs[i];
+	}
+	
 	@Override
 	public String toString() {
 		String s = "";
@@ -0,0 +1,260 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ *  Vietnam National University, Hanoi, Vietnam.
+ */
+package vn.hus.nlp.fsm.fsa;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import vn.hus.nlp.fsm.State;
+import vn.hus.nlp.fsm.Transition;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * Operations on deterministic automata: the union of two automata and
+ * the minimization of an automaton. The operands are not modified, a new
+ * automaton is returned.
+ * <p>
+ * The initial state of an automaton cannot be final (see {@link State}),
+ * so the empty word is never recognized by the results.
+ */
+public final class DFAOperations {
+
+	/**
+	 * The type of a final state
+	 */
+	private static final byte FINAL = 2;
+
+	private DFAOperations() {
+	}
+
+	/**
+	 * Build the automaton of a collection of words. The automaton is a
+	 * trie, it is not minimal; it is built in time proportional to the total
+	 * length of the words, whatever their order.
+	 * @param words some words
+	 * @return the automaton recognizing the words
+	 * @see #minimize(DFA)
+	 */
+	public static DFA fromWords(Collection<String> words) {
+		DFA dfa = new DFA();
+		// the transitions of the trie, the key is the source and the input
+		Map<Long, Integer> transitions = new HashMap<Long, Integer>();
+		for (String word : words) {
+			if (word.length() == 0) {
+				continue;
+			}
+			int state = 0;
+			for (int i = 0; i < word.length(); i++) {
+				char c = word.charAt(i);
+				Long key = ((long) state << 16) | c;
+				Integer target = transitions.get(key);
+				if (target == null) {
+					target = dfa.getStates().size();
+					dfa.addState(new State(target));
+					dfa.addTransition(new Transition(state, target, c));
+					transitions.put(key, target);
+				}
+				state = target;
+			}
+			dfa.getState(state).setType(FINAL);
+		}
+		return dfa;
+	}
+
+	/**
+	 * Build the union of two automata, that is an automaton which
+	 * recognizes the words recognized by one of them. The result is the
+	 * product of the automata restricted to its accessible states, it is
+	 * not minimal in general.
+	 * @param a an automaton
+	 * @param b an automaton
+	 * @return the union of the automata
+	 * @see #minimize(DFA)
+	 */
+	public static DFA union(DFA a, DFA b) {
+		DFA dfa = new DFA();
+		// the states of the product are pairs of states, null if one of the
+		// automata has no transition
+		List<State[]> pairs = new ArrayList<State[]>();
+		Map<Long, Integer> ids = new HashMap<Long, Integer>();
+		pairs.add(new State[] {a.getInitialState(), b.getInitialState()});
+		ids.put(getKey(a.getInitialState(), b.getInitialState()), 0);
+		for (int i = 0; i < pairs.size(); i++) {
+			State p = pairs.get(i)[0];
+			State q = pairs.get(i)[1];
+			State s = dfa.getState(i);
+			if ((p != null && p.isFinalState()) || (q != null && q.isFinalState())) {
+				if (i > 0) {
+					s.setType(FINAL);
+				}
+			}
+			// the inputs of both states, sorted
+			TreeMap<Character, State[]> targets = new TreeMap<Character, State[]>();
+			if (p != null) {
+				for (Transition t : p.getOutTransitions()) {
+					targets.put(t.getInput(), new State[] {a.getState(t.getTarget()), null});
+				}
+			}
+			if (q != null) {
+				for (Transition t : q.getOutTransitions()) {
+					State[] target = targets.get(t.getInput());
+					if (target == null) {
+						target = new State[2];
+						targets.put(t.getInput(), target);
+					}
+					target[1] = b.getState(t.getTarget());
+				}
+			}
+			for (Map.Entry<Character, State[]> e : targets.entrySet()) {
+				State[] target = e.getValue();
+				Long key = getKey(target[0], target[1]);
+				Integer id = ids.get(key);
+				if (id == null) {
+					id = pairs.size();
+					ids.put(key, id);
+					pairs.add(target);
+					dfa.addState(new State(id));
+				}
+				dfa.addTransition(new Transition(i, id, e.getKey()));
+			}
+		}
+		return dfa;
+	}
+
+	private static long getKey(State p, State q) {
+		long i = (p == null) ? 0 : p.getId() + 1L;
+		long j = (q == null) ? 0 : q.getId() + 1L;
+		return (i << 32) | j;
+	}
+
+	/**
+	 * Minimize an automaton. The states which recognize the same language
+	 * are merged by successive refinements of the partition of the final
+	 * and non final states (Moore's algorithm); the number of refinements is
+	 * at most the length of the longest word for an acyclic automaton.
+	 * @param dfa an automaton
+	 * @return the minimal automaton recognizing the same language
+	 */
+	public static DFA minimize(DFA dfa) {
+		// number the accessible states in breadth-first order
+		List<State> states = new ArrayList<State>();
+		Map<Integer, Integer> index = new HashMap<Integer, Integer>();
+		states.add(dfa.getInitialState());
+		index.put(dfa.getInitialState().getId(), 0);
+		for (int i = 0; i < states.size(); i++) {
+			for (Transition t : states.get(i).getOutTransitions()) {
+				if (!index.containsKey(t.getTarget())) {
+					index.put(t.getTarget(), states.size());
+					states.add(dfa.getState(t.getTarget()));
+				}
+			}
+		}
+		int n = states.size();
+		// the sorted transitions of the states
+		char[][] inputs = new char[n][];
+		int[][] targets = new int[n][];
+		for (int i = 0; i < n; i++) {
+			TreeMap<Character, Integer> map = new TreeMap<Character, Integer>();
+			for (Transition t : states.get(i).getOutTransitions()) {
+				map.put(t.getInput(), index.get(t.getTarget()));
+			}
+			inputs[i] = new char[map.size()];
+			targets[i] = new int[map.size()];
+			int k = 0;
+			for (Map.Entry<Character, Integer> e : map.entrySet()) {
+				inputs[i][k] = e.getKey();
+				targets[i][k] = e.getValue();
+				k++;
+			}
+		}
+		// the initial partition: the final states and the others
+		int[] classes = new int[n];
+		int numberOfClasses = 0;
+		boolean[] hasClass = new boolean[2];
+		for (int i = 0; i < n; i++) {
+			classes[i] = states.get(i).isFinalState() ? 1 : 0;
+			if (!hasClass[classes[i]]) {
+				hasClass[classes[i]] = true;
+				numberOfClasses++;
+			}
+		}
+		// refine the partition until it is stable
+		while (true) {
+			Map<Signature, Integer> signatures = new HashMap<Signature, Integer>();
+			int[] refined = new int[n];
+			for (int i = 0; i < n; i++) {
+				int[] a = new int[1 + 2 * inputs[i].length];
+				a[0] = classes[i];
+				for (int k = 0; k < inputs[i].length; k++) {
+					a[1 + 2*k] = inputs[i][k];
+					a[2 + 2*k] = classes[targets[i][k]];
+				}
+				Signature signature = new Signature(a);
+				Integer c = signatures.get(signature);
+				if (c == null) {
+					c = signatures.size();
+					signatures.put(signature, c);
+				}
+				refined[i] = c;
+			}
+			classes = refined;
+			if (signatures.size() == numberOfClasses) {
+				break;
+			}
+			numberOfClasses = signatures.size();
+		}
+		// build the minimal automaton, the class of the initial state is 0
+		// since the initial state is numbered first
+		DFA minimal = new DFA();
+		for (int c = 1; c < numberOfClasses; c++) {
+			minimal.addState(new State(c));
+		}
+		boolean[] done = new boolean[numberOfClasses];
+		for (int i = 0; i < n; i++) {
+			int c = classes[i];
+			if (done[c]) {
+				continue;
+			}
+			done[c] = true;
+			if (c > 0 && states.get(i).isFinalState()) {
+				minimal.getState(c).setType(FINAL);
+			}
+			for (int k = 0; k < inputs[i].length; k++) {
+				minimal.addTransition(new Transition(c, classes[targets[i][k]], inputs[i][k]));
+			}
+		}
+		return minimal;
+	}
+
+	/**
+	 * The signature of a state in a refinement: its class and the classes
+	 * of its targets.
+	 */
+	private static final class Signature {
+		private final int[] a;
+		private final int hash;
+
+		Signature(int[] a) {
+			this.a = a;
+			this.hash = Arrays.hashCode(a);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return (o instanceof Signature) && Arrays.equals(a, ((Signature) o).a);
+		}
+	}
+}
@@ -101,27 +101,19 @@ public class DFASimulator extends Simulator {
 		String unprocessedInput = configuration.getUnprocessedInput();
 		int len = unprocessedInput.length();
 		if (len > 0) {
-			// get all inputs of outtransitions of the current state
-			char[] outTransitionInputs = currentState.getOutTransitionInputs();
 			// get the first character of the unprocessed input
 			char nextInput = unprocessedInput.charAt(0);
-			// find the next configuration
-			for (int i = 0; i < outTransitionInputs.length; i++) {
-				if (outTransitionInputs[i] == nextInput) {
-					// get the next state (possible null)
-					State nextState = dfa.getNextState(currentState, nextInput);
-					if (nextState != null) {
-						// create the next configuration
-						if (unprocessedInput.length() > 0) {
-							unprocessedInput = unprocessedInput.substring(1);
-						}
-						nextConfiguration = new DFAConfiguration(nextState, configuration, 
-								configuration.getTotalInput(), unprocessedInput);
-						// create a configuration event and notify all registered listeners
-						if (DEBUG) {
-							notify(new ConfigurationEvent(configuration, nextConfiguration, nextInput)); // DEBUG
-						}
-					}
+			// get the next state (possible null), the outtransitions 
+			// of the current state are examined once
+			State nextState = dfa.getNextState(currentState, nextInput);
+			if (nextState != null) {
+				// create the next configuration
+				unprocessedInput = unprocessedInput.substring(1);
+				nextConfiguration = new DFAConfiguration(nextState, configuration, 
+						configuration.getTotalInput(), unprocessedInput);
+				// create a configuration event and notify all registered listeners
+				if (DEBUG) {
+					notify(new ConfigurationEvent(configuration, nextConfiguration, nextInput)); // DEBUG
 				}
 			}
 		}
@@ -139,32 +131,56 @@ public class DFASimulator extends Simulator {
 	public DFAConfiguration track(String input) {
 		// create the initial configuration of the simulation
 		// that start at the initial state of the machine, has no parent
-		// (null), and the input.
-		configuration = new DFAConfiguration(dfa.getInitialState(), null, input, input);
+		// (null), and the input. The configurations are kept in a local 
+		// variable so that several threads can track inputs at the same time.
+		DFAConfiguration current = new DFAConfiguration(dfa.getInitialState(), null, input, input);
 		
-		while (configuration != null) {
+		while (current != null) {
 			// get the next configuration
-			DFAConfiguration nextConfiguration = next(configuration);
+			DFAConfiguration nextConfiguration = next(current);
 			// if the simulator cannot go further
 			if (nextConfiguration == null) {
-				return configuration;
+				break;
 			}
-			configuration = nextConfiguration;
+			current = nextConfiguration;
 		}
+		// save the last configuration
+		configuration = current;
 		// return the initial state if
 		// there is not any part of the input that is accepted by
 		// the machine
-		return configuration;
+		return current;
 	}
 
+	/**
+	 * The input is accepted if the machine reads it entirely and stops 
+	 * at a final state. 
+	 * 
+	 * @see #accept(CharSequence)
+	 */
 	@Override
 	public boolean accept(String input) {
-		// first track the input
-		DFAConfiguration configuration = track(input);
-		// the input is accepted if the current state is final
-		// and there is no unprocessed input
-		return (configuration.getCurrentState().isFinalState() && 
-				(configuration.getUnprocessedInput().length() == 0));
+		return accept((CharSequence) input);
+	}
+
+	/**
+	 * Check whether the DFA accepts an input. The input is read 
+	 * character by character from the initial state, no configuration 
+	 * is created, use {@link #track(String)} to get the configurations.
+	 * 
+	 * @param input
+	 *            an input
+	 * @return <code>true</code> if the input is accepted.
+	 */
+	public boolean accept(CharSequence input) {
+		State state = dfa.getInitialState();
+		for (int i = 0; i < input.length(); i++) {
+			state = dfa.getNextState(state, input.charAt(i));
+			if (state == null) {
+				return false;
+			}
+		}
+		return state.isFinalState();
 	}
 
 	/**
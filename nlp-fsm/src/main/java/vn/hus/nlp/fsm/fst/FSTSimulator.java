@@ -96,31 +96,24 @@ public class FSTSimulator extends Simulator {
 		String currentOutput = configuration.getCurrentOutput();
 		int len = unprocessedInput.length();
 		if (len > 0) {
-			// get all inputs of outtransitions of the current state
-			char[] outTransitionInputs = currentState.getOutTransitionInputs();
 			// get the first character of the unprocessed input
 			char nextInput = unprocessedInput.charAt(0);
-			// find the next configuration
-			for (int i = 0; i < outTransitionInputs.length; i++) {
-				if (outTransitionInputs[i] == nextInput) {
-					// get the next state (possible null)
-					State nextState = fst.getNextState(currentState, nextInput);
-					// get the output
-					String nextOutput = fst.getNextOutput(currentState, nextInput);
-					if (nextState != null) {
-						// create the next configuration
-						if (unprocessedInput.length() > 0) {
-							unprocessedInput = unprocessedInput.substring(1);
-							currentOutput += nextOutput; 
-						}
-						nextConfiguration = new FSTConfiguration(nextState, configuration, 
-								configuration.getTotalInput(), unprocessedInput, currentOutput);
-						// create a configuration event and notify all registered listeners
-						if (DEBUG) {
-							notify(new ConfigurationEvent(configuration, 
-									nextConfiguration, nextInput, nextOutput)); // DEBUG
-						}
-					}
+			// get the next state (possible null), the outtransitions 
+			// of the current state are examined once for the state and 
+			// once for the output, with a binary search if the state is sealed
+			State nextState = fst.getNextState(currentState, nextInput);
+			if (nextState != null) {
+				// get the output
+				String nextOutput = fst.getNextOutput(currentState, nextInput);
+				// create the next configuration
+				unprocessedInput = unprocessedInput.substring(1);
+				currentOutput += nextOutput; 
+				nextConfiguration = new FSTConfiguration(nextState, configuration, 
+						configuration.getTotalInput(), unprocessedInput, currentOutput);
+				// create a configuration event and notify all registered listeners
+				if (DEBUG) {
+					notify(new ConfigurationEvent(configuration, 
+							nextConfiguration, nextInput, nextOutput)); // DEBUG
 				}
 			}
 		}
@@ -0,0 +1,131 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ *  Vietnam National University, Hanoi, Vietnam.
+ */
+package vn.hus.nlp.fsm.io;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import vn.hus.nlp.fsm.CompactFSM;
+import vn.hus.nlp.fsm.FSM;
+import vn.hus.nlp.fsm.MappedFSM;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * Marshaller of finite state machines in the binary form read by
+ * {@link MappedFSM}. A machine is frozen before it is marshalled.
+ * <p>
+ * The {@link #main(String[])} method converts a machine from the XML
+ * form read by {@link FSMUnmarshaller} to the binary form.
+ */
+public class BinaryFSMMarshaller {
+
+	/**
+	 * Marshal a machine to a file.
+	 * @param fsm a machine
+	 * @param filename a file
+	 */
+	public void marshal(FSM fsm, String filename) {
+		marshal(fsm.freeze(), filename);
+	}
+
+	/**
+	 * Marshal a compact machine to a file.
+	 * @param fsm a compact machine
+	 * @param filename a file
+	 */
+	public void marshal(CompactFSM fsm, String filename) {
+		try {
+			OutputStream os = new FileOutputStream(new File(filename));
+			try {
+				marshal(fsm, os);
+			} finally {
+				os.close();
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Marshal a compact machine to an output stream.
+	 * @param fsm a compact machine
+	 * @param os an output stream, it is not closed
+	 * @throws IOException
+	 */
+	public void marshal(CompactFSM fsm, OutputStream os) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os));
+		int nStates = fsm.getNumberOfStates();
+		int nTransitions = fsm.getNumberOfTransitions();
+		boolean outputs = fsm.hasOutputs();
+		int nCharacters = 0;
+		if (outputs) {
+			for (int i = 0; i < nTransitions; i++) {
+				nCharacters += fsm.getOutput(i).length();
+			}
+		}
+		// the header
+		out.writeInt(MappedFSM.MAGIC);
+		out.writeInt(MappedFSM.VERSION);
+		out.writeInt(outputs ? MappedFSM.OUTPUTS : 0);
+		out.writeInt(nStates);
+		out.writeInt(nTransitions);
+		out.writeInt(nCharacters);
+		out.writeInt(0);
+		out.writeInt(0);
+		// the arrays, in the order of MappedFSM
+		for (int s = 0; s < nStates; s++) {
+			out.writeInt(fsm.getStart(s));
+		}
+		out.writeInt(nTransitions);
+		for (int i = 0; i < nTransitions; i++) {
+			out.writeInt(fsm.getTarget(i));
+		}
+		if (outputs) {
+			int offset = 0;
+			for (int i = 0; i < nTransitions; i++) {
+				out.writeInt(offset);
+				offset += fsm.getOutput(i).length();
+			}
+			out.writeInt(offset);
+		}
+		for (int i = 0; i < nTransitions; i++) {
+			out.writeChar(fsm.getInput(i));
+		}
+		if (outputs) {
+			for (int i = 0; i < nTransitions; i++) {
+				String output = fsm.getOutput(i);
+				if (output != null) {
+					out.writeChars(output);
+				}
+			}
+		}
+		for (int s = 0; s < nStates; s++) {
+			out.writeByte(fsm.isFinal(s) ? 1 : 0);
+		}
+		out.flush();
+	}
+
+	/**
+	 * Convert a machine from the XML form to the binary form.
+	 * @param args the type of the machine (DFA or FST), the XML file and
+	 * the binary file.
+	 */
+	public static void main(String[] args) {
+		if (args.length != 3) {
+			System.err.println("Usage: BinaryFSMMarshaller <DFA|FST> <XML file> <binary file>");
+			return;
+		}
+		FSM fsm = new FSMUnmarshaller().unmarshal(args[1], args[0]);
+		CompactFSM compact = fsm.freeze();
+		fsm.dispose();
+		new BinaryFSMMarshaller().marshal(compact, args[2]);
+		System.out.println("Converted " + compact + " to " + args[2]);
+	}
+}
@@ -0,0 +1,104 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ *  Vietnam National University, Hanoi, Vietnam.
+ */
+package vn.hus.nlp.fsm.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import vn.hus.nlp.fsm.MappedFSM;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * Unmarshaller of finite state machines in the binary form written by
+ * {@link BinaryFSMMarshaller}. A file of the file system is mapped in
+ * memory and read in place, without any copy on the heap. A resource of
+ * the classpath cannot be mapped, it is copied in a direct buffer.
+ */
+public class BinaryFSMUnmarshaller {
+
+	/**
+	 * Check whether a file is a machine in the binary form, by its magic
+	 * number. The file is searched in the file system first, then in the
+	 * classpath.
+	 * @param filename a file
+	 * @return <code>true</code> if the file is a binary machine,
+	 * <code>false</code> if it is not or it cannot be read.
+	 */
+	public static boolean isBinary(String filename) {
+		try {
+			InputStream stream = open(filename);
+			if (stream == null) {
+				return false;
+			}
+			try {
+				return new DataInputStream(stream).readInt() == MappedFSM.MAGIC;
+			} finally {
+				stream.close();
+			}
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	private static InputStream open(String filename) throws IOException {
+		if (new File(filename).isFile()) {
+			return new FileInputStream(filename);
+		}
+		return BinaryFSMUnmarshaller.class.getResourceAsStream(filename);
+	}
+
+	/**
+	 * Unmarshal a machine from a file. The file is searched in the file
+	 * system first, then in the classpath.
+	 * @param filename a file
+	 * @return a machine, or <code>null</code> if the file cannot be read.
+	 * @throws IllegalArgumentException if the file is not a binary machine.
+	 */
+	public MappedFSM unmarshal(String filename) {
+		try {
+			File file = new File(filename);
+			if (file.isFile()) {
+				RandomAccessFile raf = new RandomAccessFile(file, "r");
+				try {
+					// the mapping stays valid after the channel is closed
+					FileChannel channel = raf.getChannel();
+					return new MappedFSM(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+				} finally {
+					raf.close();
+				}
+			}
+			InputStream stream = getClass().getResourceAsStream(filename);
+			if (stream == null) {
+				System.err.println("The binary automaton is not found: " + filename);
+				return null;
+			}
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try {
+				byte[] block = new byte[8192];
+				int n;
+				while ((n = stream.read(block)) > 0) {
+					bytes.write(block, 0, n);
+				}
+			} finally {
+				stream.close();
+			}
+			ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.size());
+			buffer.put(bytes.toByteArray());
+			buffer.clear();
+			return new MappedFSM(buffer);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		return null;
+	}
+}
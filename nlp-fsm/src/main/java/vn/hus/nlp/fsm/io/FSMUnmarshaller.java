@@ -5,6 +5,8 @@
 package vn.hus.nlp.fsm.io;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.Iterator;
 
@@ -76,7 +78,8 @@ public class FSMUnmarshaller {
 	}
 
 	/**
-	 * Unmarshal a fsm from a file.
+	 * Unmarshal a fsm from a file. The file is searched in the classpath 
+	 * first, then in the file system.
 	 * @param filename a file.
 	 * @return a state machine
 	 */
@@ -93,8 +96,19 @@ public class FSMUnmarshaller {
 		try {
 			
 			InputStream stream = getClass().getResourceAsStream(filename);
+			if (stream == null && new File(filename).isFile()) {
+				// this is not a resource, read it from the file system
+				stream = new FileInputStream(filename);
+			}
 			
-			Object obj = unmarshaller.unmarshal(stream);
+			Object obj;
+			try {
+				obj = unmarshaller.unmarshal(stream);
+			} finally {
+				if (stream != null) {
+					stream.close();
+				}
+			}
 			if (obj != null) {
 				Fsm fsm2 = (Fsm)obj;
 				// fill the states 
@@ -124,6 +138,8 @@ public class FSMUnmarshaller {
 		} catch (JAXBException e) {
 			System.out.println("Error when unmarshalling the machine.");
 			e.printStackTrace();
+		} catch (IOException e) {
+			e.printStackTrace();
 		}
 		return fsm;
 	}
@@ -0,0 +1,162 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ *  Vietnam National University, Hanoi, Vietnam.
+ */
+package vn.hus.nlp.fsm.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import vn.hus.nlp.fsm.CompactFSM;
+import vn.hus.nlp.fsm.FSM;
+import vn.hus.nlp.fsm.IConstants;
+import vn.hus.nlp.fsm.MappedFSM;
+import vn.hus.nlp.fsm.builder.FSMBuilder;
+import vn.hus.nlp.fsm.builder.MinimalFSMBuilder;
+import vn.hus.nlp.fsm.builder.SimpleFSMBuilder;
+import vn.hus.nlp.fsm.io.BinaryFSMMarshaller;
+import vn.hus.nlp.fsm.io.BinaryFSMUnmarshaller;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * Test the binary form of the machines: a DFA and an FST are frozen,
+ * marshalled to a file and mapped back, then the frozen machine and the
+ * mapped machine must accept the same inputs and give the same outputs.
+ * Some outputs of the FST are <code>null</code>, they are read back as
+ * empty outputs.
+ */
+public class BinaryFSMTester {
+
+	private static final String ALPHABET = "abcdeăâđêôơưáàảãạ";
+
+	private static int failures = 0;
+
+	private static String randomWord(Random random, int maxLength) {
+		int length = 1 + random.nextInt(maxLength);
+		StringBuilder word = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			word.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+		}
+		return word.toString();
+	}
+
+	private static MappedFSM roundTrip(CompactFSM fsm) throws IOException {
+		File file = File.createTempFile("automaton", ".fsm");
+		file.deleteOnExit();
+		new BinaryFSMMarshaller().marshal(fsm, file.getAbsolutePath());
+		return new BinaryFSMUnmarshaller().unmarshal(file.getAbsolutePath());
+	}
+
+	private static void check(boolean condition, String message) {
+		if (!condition) {
+			failures++;
+			if (failures <= 20) {
+				System.out.println("FAILED: " + message);
+			}
+		}
+	}
+
+	/**
+	 * Compare a frozen machine and its mapped copy on some inputs.
+	 * @param name the name of the machine
+	 * @param frozen a frozen machine
+	 * @param mapped the mapped machine
+	 * @param inputs some inputs
+	 */
+	private static void compare(String name, CompactFSM frozen, MappedFSM mapped, List<String> inputs) {
+		check(frozen.getNumberOfStates() == mapped.getNumberOfStates(), name + ": the numbers of states differ.");
+		check(frozen.getNumberOfTransitions() == mapped.getNumberOfTransitions(), name + ": the numbers of transitions differ.");
+		check(frozen.hasOutputs() == mapped.hasOutputs(), name + ": the output flags differ.");
+		for (String input : inputs) {
+			check(frozen.accept(input) == mapped.accept(input), name + ": accept(\"" + input + "\") differs.");
+			String expected = frozen.run(input);
+			String actual = mapped.run(input);
+			check(expected.equals(actual), name + ": run(\"" + input + "\") = \"" + actual + "\", expected \"" + expected + "\".");
+		}
+	}
+
+	/**
+	 * Test a minimal DFA of random words.
+	 * @param random a random generator
+	 * @throws IOException
+	 */
+	public static void testDFA(Random random) throws IOException {
+		TreeSet<String> words = new TreeSet<String>();
+		while (words.size() < 5000) {
+			words.add(randomWord(random, 8));
+		}
+		FSMBuilder builder = new MinimalFSMBuilder(IConstants.FSM_DFA);
+		builder.create(new ArrayList<String>(words));
+		CompactFSM frozen = builder.getMachine().freeze();
+		builder.dispose();
+		MappedFSM mapped = roundTrip(frozen);
+		List<String> inputs = new ArrayList<String>(words);
+		for (int i = 0; i < 5000; i++) {
+			inputs.add(randomWord(random, 10));
+		}
+		for (String word : words) {
+			check(mapped.accept(word), "DFA: the word \"" + word + "\" is not accepted.");
+		}
+		compare("DFA", frozen, mapped, inputs);
+	}
+
+	/**
+	 * Test an FST of random words, one output of each input character,
+	 * some of the outputs being <code>null</code>.
+	 * @param random a random generator
+	 * @throws IOException
+	 */
+	public static void testFST(Random random) throws IOException {
+		TreeSet<String> words = new TreeSet<String>();
+		while (words.size() < 2000) {
+			words.add(randomWord(random, 6));
+		}
+		String[] inputs = words.toArray(new String[words.size()]);
+		String[][] outputs = new String[inputs.length][];
+		String[] expected = new String[inputs.length];
+		for (int i = 0; i < inputs.length; i++) {
+			outputs[i] = new String[inputs[i].length()];
+			StringBuilder output = new StringBuilder();
+			for (int j = 0; j < outputs[i].length; j++) {
+				// the first output of the first word is null
+				int k = (i == 0 && j == 0) ? 0 : random.nextInt(4);
+				outputs[i][j] = (k == 0) ? null : (k == 1) ? IConstants.EMPTY_STRING : randomWord(random, 3);
+				if (outputs[i][j] != null) {
+					output.append(outputs[i][j]);
+				}
+			}
+			expected[i] = output.toString();
+		}
+		FSMBuilder builder = new SimpleFSMBuilder(IConstants.FSM_FST);
+		builder.create(inputs, outputs);
+		FSM fst = builder.getMachine();
+		CompactFSM frozen = fst.freeze();
+		builder.dispose();
+		MappedFSM mapped = roundTrip(frozen);
+		List<String> all = new ArrayList<String>(words);
+		for (int i = 0; i < 2000; i++) {
+			all.add(randomWord(random, 8));
+		}
+		// the outputs of the first word are kept, the other words may
+		// share a prefix of their path with the outputs of another word
+		check(frozen.run(inputs[0]).equals(expected[0]), "FST: run(\"" + inputs[0] + "\") = \""
+				+ frozen.run(inputs[0]) + "\", expected \"" + expected[0] + "\".");
+		compare("FST", frozen, mapped, all);
+	}
+
+	public static void main(String[] args) throws IOException {
+		Random random = new Random(2008);
+		testDFA(random);
+		testFST(random);
+		if (failures > 0) {
+			System.out.println("FAILED: " + failures + " differences between the frozen and the mapped machines.");
+			System.exit(1);
+		}
+		System.out.println("OK: the mapped machines accept the same inputs and give the same outputs.");
+	}
+}
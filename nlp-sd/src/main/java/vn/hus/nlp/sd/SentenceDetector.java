@@ -27,6 +27,9 @@ import org.apache.commons.cli.ParseException;
 import org.apache.commons.cli.PosixParser;
 
 import vn.hus.nlp.utils.UTF8FileUtility;
+import vn.hus.nlp.utils.metrics.Counter;
+import vn.hus.nlp.utils.metrics.Metrics;
+import vn.hus.nlp.utils.metrics.Timer;
 
 /**
  * @author LE HONG Phuong, phuonglh@gmail.com
@@ -39,6 +42,12 @@ import vn.hus.nlp.utils.UTF8FileUtility;
  */
 public class SentenceDetector extends SentenceDetectorME {
 
+	/**
+	 * Metrics of the sentence detector
+	 */
+	private static final Timer TIMER = Metrics.timer("sentenceDetector.detectSentences");
+	private static final Counter SENTENCES = Metrics.counter("sentenceDetector.sentences");
+
 	/**
 	 * Loads a new sentence detector using the model specified by the model
 	 * name.
@@ -75,6 +84,7 @@ public class SentenceDetector extends SentenceDetectorME {
 	 * @throws IOException 
 	 */
 	public String[] detectSentences(Reader reader) throws IOException {
+		long start = TIMER.start();
 		BufferedReader bufReader = new BufferedReader(reader);
 		List<String> sentences = new ArrayList<String>();
 		for (String line = bufReader.readLine(); line != null; line = bufReader.readLine()) {
@@ -90,6 +100,8 @@ public class SentenceDetector extends SentenceDetectorME {
 		// close the reader
 		if (reader != null)
 			reader.close();
+		TIMER.stop(start);
+		SENTENCES.add(sentences.size());
 		return sentences.toArray(new String[sentences.size()]);
 	}
 	
@@ -24,6 +24,9 @@ import vn.hus.nlp.lexicon.jaxb.W;
 import vn.hus.nlp.tokenizer.ITokenizerListener;
 import vn.hus.nlp.tokenizer.ResultMerger;
 import vn.hus.nlp.tokenizer.io.Outputer;
+import vn.hus.nlp.tokenizer.lexer.ILexer;
+import vn.hus.nlp.tokenizer.lexer.LexerFactory;
+import vn.hus.nlp.tokenizer.lexer.LexerMatch;
 import vn.hus.nlp.tokenizer.tokens.LexerRule;
 import vn.hus.nlp.tokenizer.tokens.TaggedWord;
 import vn.hus.nlp.tokenizer.tokens.WordToken;
@@ -42,6 +45,11 @@ public class Tokenizer  {
 	 */
 	private LexerRule rules[] = new LexerRule[0];
 
+	/**
+	 * The lexer that matches the rules
+	 */
+	private ILexer lexer;
+
 	/**
 	 * The current input stream
 	 */
@@ -102,6 +110,7 @@ public class Tokenizer  {
 	public Tokenizer(String lexersFilename, Segmenter segmenter) {
 		// load the lexer rules
 		loadLexerRules(lexersFilename);
+		lexer = LexerFactory.createLexer(null, rules);
 		this.segmenter = segmenter;
 		result = new ArrayList<TaggedWord>();
 		// use a plain (default) outputer
@@ -126,6 +135,7 @@ public class Tokenizer  {
 	public Tokenizer(Properties properties, Segmenter segmenter) {
 		// load the lexer rules
 		loadLexerRules(properties.getProperty("lexers"));
+		lexer = LexerFactory.createLexerFromProperties(properties, rules);
 		this.segmenter = segmenter;
 		result = new ArrayList<TaggedWord>();
 		// use a plain (default) outputer
@@ -419,35 +429,13 @@ public class Tokenizer  {
 		TaggedWord token = null;
 		// the end of the next token, within the line
 		int tokenEnd = -1;
-		// the length of the rule that matches the most characters from the
-		// input
-		int longestMatchLen = -1;
 		int lineNumber = lineReader.getLineNumber();
 		LexerRule selectedRule = null;
 		// find the rule that matches the longest substring of the input
-		for (int i = 0; i < rules.length; i++) {
-			LexerRule rule = rules[i];
-			// get the precompiled pattern for this rule
-			Pattern pattern = rule.getPattern();
-			// create a matcher to perform match operations on the string
-			// by interpreting the pattern
-			Matcher matcher = null;
-			try {
-				
-				matcher = pattern.matcher(line);
-			}catch(Exception e) {
-				System.out.println("ERROROROROROROROR > > > > > "+line);
-				e.printStackTrace();
-			}
-			// find the longest match from the start
-			if (matcher.lookingAt()) {
-				int matchLen = matcher.end();
-				if (matchLen > longestMatchLen) {
-					longestMatchLen = matchLen;
-					tokenEnd = matchLen;
-					selectedRule = rule;
-				}
-			}
+		LexerMatch match = lexer.match(line, 0, line.length());
+		if (match != null) {
+			tokenEnd = match.getEnd();
+			selectedRule = match.getRule();
 		}
 		//
 		// check if this relates to an email address (to fix an error with email)
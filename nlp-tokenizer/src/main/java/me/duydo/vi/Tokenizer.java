@@ -1,12 +1,11 @@
 package me.duydo.vi;
 
-import vn.hus.nlp.lexicon.LexiconUnmarshaller;
-import vn.hus.nlp.lexicon.jaxb.Corpus;
-import vn.hus.nlp.lexicon.jaxb.W;
 import vn.hus.nlp.tokenizer.ResultMerger;
 import vn.hus.nlp.tokenizer.ResultSplitter;
+import vn.hus.nlp.tokenizer.TokenizerModels;
+import vn.hus.nlp.tokenizer.lexer.ILexer;
+import vn.hus.nlp.tokenizer.lexer.LexerMatch;
 import vn.hus.nlp.tokenizer.segmenter.Segmenter;
-import vn.hus.nlp.tokenizer.segmenter.UnigramResolver;
 import vn.hus.nlp.tokenizer.tokens.LexerRule;
 import vn.hus.nlp.tokenizer.tokens.TaggedWord;
 
@@ -17,10 +16,7 @@ import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Properties;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class Tokenizer {
 
@@ -32,34 +28,34 @@ public class Tokenizer {
 
     private ResultSplitter resultSplitter;
 
-    private final List<LexerRule> rules = new ArrayList<>();
+    private ILexer lexer;
 
+    /**
+     * Creates a tokenizer from the default models, they are loaded
+     * only once and shared by all the tokenizers created by this constructor.
+     */
     public Tokenizer() {
-        init();
-    }
-
-    private void init() {
         try {
-            final Properties properties = new Properties();
-            properties.load(getClass().getResourceAsStream("/tokenizer.properties"));
-            loadLexerRules(properties.getProperty("lexers"));
-            resultMerger = new ResultMerger();
-            resultSplitter = new ResultSplitter(properties);
-            segmenter = new Segmenter(properties, new UnigramResolver(properties.getProperty("unigramModel")));
+            init(TokenizerModels.getDefault());
         } catch (IOException e) {
             e.printStackTrace();
         }
-
     }
 
+    /**
+     * Creates a tokenizer from shared models, nothing is loaded.
+     *
+     * @param models tokenizer models
+     */
+    public Tokenizer(TokenizerModels models) {
+        init(models);
+    }
 
-    private void loadLexerRules(String lexersFilename) {
-        final LexiconUnmarshaller unmarshaller = new LexiconUnmarshaller();
-        final Corpus corpus = unmarshaller.unmarshal(lexersFilename);
-        final List<W> lexers = corpus.getBody().getW();
-        for (W w : lexers) {
-            rules.add(new LexerRule(w.getMsd(), w.getContent()));
-        }
+    private void init(TokenizerModels models) {
+        lexer = models.getLexer();
+        resultMerger = new ResultMerger();
+        resultSplitter = models.getResultSplitter();
+        segmenter = models.createSegmenter();
     }
 
     public List<TaggedWord> tokenize(Reader input) throws IOException {
@@ -76,25 +72,12 @@ public class Tokenizer {
             }
             TaggedWord taggedWord = null;
             int tokenEnd = -1;
-            int longestMatchLen = -1;
             LexerRule selectedRule = null;
             // find the rule that matches the longest substring of the input
-            for (int i = 0; i < rules.size(); i++) {
-                LexerRule rule = rules.get(i);
-                // get the precompiled pattern for this rule
-                Pattern pattern = rule.getPattern();
-                // create a matcher to perform match operations on the string
-                // by interpreting the pattern
-                Matcher matcher = pattern.matcher(line);
-                // find the longest match from the start
-                if (matcher.lookingAt()) {
-                    int matchLen = matcher.end();
-                    if (matchLen > longestMatchLen) {
-                        longestMatchLen = matchLen;
-                        tokenEnd = matchLen;
-                        selectedRule = rule;
-                    }
-                }
+            final LexerMatch match = lexer.match(line, 0, line.length());
+            if (match != null) {
+                tokenEnd = match.getEnd();
+                selectedRule = match.getRule();
             }
             //
             // check if this relates to an email address (to fix an error with email)
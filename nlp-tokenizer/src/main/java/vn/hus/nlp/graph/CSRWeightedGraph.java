@@ -0,0 +1,386 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ *  Vietnam National University, Hanoi, Vietnam.
+ */
+package vn.hus.nlp.graph;
+
+import java.util.Arrays;
+
+import vn.hus.nlp.graph.util.EdgeIterator;
+import vn.hus.nlp.graph.util.VertexIterator;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ *         <p>
+ *         A weighted graph in the compressed sparse row representation. The
+ *         edges going out from the vertex <code>u</code> are at the indices
+ *         <code>getStart(u)</code> to <code>getEnd(u) - 1</code>, their
+ *         targets and weights are given by {@link #getTarget(int)} and
+ *         {@link #getWeight(int)}:
+ *         <pre>
+ *         for (int i = graph.getStart(u); i &lt; graph.getEnd(u); i++) {
+ *             int v = graph.getTarget(i);
+ *             double weight = graph.getWeight(i);
+ *         }
+ *         </pre>
+ *         This iteration does not allocate anything, unlike the iterators of
+ *         the {@link IWeightedGraph} interface, which are kept for the generic
+ *         algorithms.
+ *         <p>
+ *         The edges are appended to primitive arrays when they are inserted
+ *         and sorted by their source on the first access after an insertion.
+ *         The edges of a vertex are in the reverse order of their insertion,
+ *         as in an {@link AdjacencyListWeightedGraph}, so that the algorithms
+ *         give the same results on both graphs. A graph can be emptied by {@link #reset(int)}
+ *         and filled again, its arrays are reused, so that a graph per thread
+ *         is enough to build the graphs of many phrases. A graph is not
+ *         synchronized.
+ */
+public class CSRWeightedGraph extends WeightedGraph {
+
+	/**
+	 * The edges in insertion order. An edge of an undirected graph is
+	 * stored in both directions.
+	 */
+	private int[] sources;
+	private int[] targets;
+	private double[] weights;
+	private int size;
+
+	/**
+	 * The edges sorted by their source, <code>offsets[u]</code> is the index
+	 * of the first edge of <code>u</code>.
+	 */
+	private int[] offsets;
+	private int[] sortedSources;
+	private int[] sortedTargets;
+	private double[] sortedWeights;
+
+	/**
+	 * <code>true</code> if some edges are inserted or removed after the
+	 * edges are sorted.
+	 */
+	private boolean modified = false;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param n
+	 *            number of vertices of the graph.
+	 * @param directed
+	 *            <code>true/false</code>
+	 */
+	public CSRWeightedGraph(int n, boolean directed) {
+		super(n, directed);
+		int capacity = Math.max(16, 2 * n);
+		sources = new int[capacity];
+		targets = new int[capacity];
+		weights = new double[capacity];
+		sortedSources = new int[capacity];
+		sortedTargets = new int[capacity];
+		sortedWeights = new double[capacity];
+		offsets = new int[n + 1];
+	}
+
+	/**
+	 * Remove all the edges and change the number of vertices. The arrays of
+	 * the graph are kept.
+	 *
+	 * @param n
+	 *            the new number of vertices.
+	 */
+	public void reset(int n) {
+		cV = n;
+		cE = 0;
+		size = 0;
+		if (offsets.length < n + 1) {
+			offsets = new int[Math.max(n + 1, 2 * offsets.length)];
+		} else {
+			Arrays.fill(offsets, 0, n + 1, 0);
+		}
+		modified = false;
+	}
+
+	/**
+	 * Insert an edge without creating an {@link Edge} object.
+	 *
+	 * @param u
+	 *            the source vertex
+	 * @param v
+	 *            the target vertex
+	 * @param weight
+	 *            the weight of the edge
+	 */
+	public void insert(int u, int v, double weight) {
+		if (u < 0 || u >= cV || v < 0 || v >= cV) {
+			throw new IndexOutOfBoundsException("(" + u + ", " + v + ") is not an edge of a graph of " + cV + " vertices.");
+		}
+		append(u, v, weight);
+		if (!directed) {
+			append(v, u, weight);
+		}
+		cE++;
+		modified = true;
+	}
+
+	private void append(int u, int v, double weight) {
+		if (size == sources.length) {
+			int capacity = 2 * size;
+			sources = Arrays.copyOf(sources, capacity);
+			targets = Arrays.copyOf(targets, capacity);
+			weights = Arrays.copyOf(weights, capacity);
+			sortedSources = new int[capacity];
+			sortedTargets = new int[capacity];
+			sortedWeights = new double[capacity];
+		}
+		sources[size] = u;
+		targets[size] = v;
+		weights[size] = weight;
+		size++;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see vn.hus.nlp.graph.Graph#insert(vn.hus.nlp.graph.Edge)
+	 */
+	@Override
+	public void insert(Edge edge) {
+		insert(edge.getU(), edge.getV(), edge.getWeight());
+	}
+
+	/**
+	 * Remove all the edges <code>(u,v)</code> of the graph.
+	 *
+	 * @see vn.hus.nlp.graph.IGraph#remove(vn.hus.nlp.graph.Edge)
+	 */
+	@Override
+	public void remove(Edge edge) {
+		int u = edge.getU();
+		int v = edge.getV();
+		int removed = 0;
+		int k = 0;
+		for (int i = 0; i < size; i++) {
+			boolean match = (sources[i] == u && targets[i] == v)
+				|| (!directed && sources[i] == v && targets[i] == u);
+			if (match) {
+				removed++;
+			} else {
+				sources[k] = sources[i];
+				targets[k] = targets[i];
+				weights[k] = weights[i];
+				k++;
+			}
+		}
+		size = k;
+		// an edge of an undirected graph is stored twice, except a loop
+		cE -= (directed || u == v) ? removed : removed / 2;
+		modified = true;
+	}
+
+	/**
+	 * Sort the edges by their source if the graph has been modified, with
+	 * a counting sort which reverses the insertion order of the edges of a
+	 * vertex.
+	 */
+	private void sort() {
+		if (!modified) {
+			return;
+		}
+		int n = cV;
+		Arrays.fill(offsets, 0, n + 1, 0);
+		for (int i = 0; i < size; i++) {
+			offsets[sources[i] + 1]++;
+		}
+		for (int u = 0; u < n; u++) {
+			offsets[u + 1] += offsets[u];
+		}
+		// offsets[u] is used as the next free index of u and then restored,
+		// the last inserted edge of u is put first
+		for (int i = size - 1; i >= 0; i--) {
+			int j = offsets[sources[i]]++;
+			sortedSources[j] = sources[i];
+			sortedTargets[j] = targets[i];
+			sortedWeights[j] = weights[i];
+		}
+		for (int u = n; u > 0; u--) {
+			offsets[u] = offsets[u - 1];
+		}
+		offsets[0] = 0;
+		modified = false;
+	}
+
+	/**
+	 * Get the index of the first edge going out from a vertex.
+	 *
+	 * @param u
+	 *            a vertex
+	 * @return the index of the first edge of <code>u</code>.
+	 */
+	public int getStart(int u) {
+		sort();
+		return offsets[u];
+	}
+
+	/**
+	 * Get the index following the last edge going out from a vertex.
+	 *
+	 * @param u
+	 *            a vertex
+	 * @return the index following the last edge of <code>u</code>.
+	 */
+	public int getEnd(int u) {
+		sort();
+		return offsets[u + 1];
+	}
+
+	/**
+	 * Get the number of stored edges, that is the index following the last
+	 * edge of the last vertex. An edge of an undirected graph is stored in
+	 * both directions.
+	 *
+	 * @return the number of stored edges.
+	 */
+	public int getNumberOfEntries() {
+		sort();
+		return size;
+	}
+
+	/**
+	 * Get the source of an edge. The indices of the edges are valid until
+	 * the graph is modified.
+	 *
+	 * @param i
+	 *            the index of an edge
+	 * @return the source vertex.
+	 */
+	public int getSource(int i) {
+		sort();
+		return sortedSources[i];
+	}
+
+	/**
+	 * Get the target of an edge. The indices of the edges are valid until
+	 * the graph is modified.
+	 *
+	 * @param i
+	 *            the index of an edge
+	 * @return the target vertex.
+	 */
+	public int getTarget(int i) {
+		sort();
+		return sortedTargets[i];
+	}
+
+	/**
+	 * Get the weight of an edge. The indices of the edges are valid until
+	 * the graph is modified.
+	 *
+	 * @param i
+	 *            the index of an edge
+	 * @return the weight.
+	 */
+	public double getWeight(int i) {
+		sort();
+		return sortedWeights[i];
+	}
+
+	/**
+	 * Create the edge object of an edge.
+	 *
+	 * @param i
+	 *            the index of an edge
+	 * @return the edge.
+	 */
+	public Edge getEdge(int i) {
+		sort();
+		return new Edge(sortedSources[i], sortedTargets[i], sortedWeights[i]);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see vn.hus.nlp.graph.Graph#edge(int, int)
+	 */
+	@Override
+	public boolean edge(int u, int v) {
+		return indexOf(u, v) >= 0;
+	}
+
+	private int indexOf(int u, int v) {
+		int end = getEnd(u);
+		for (int i = getStart(u); i < end; i++) {
+			if (sortedTargets[i] == v) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see vn.hus.nlp.graph.WeightedGraph#getEdge(int, int)
+	 */
+	@Override
+	public Edge getEdge(int u, int v) {
+		int i = indexOf(u, v);
+		return (i < 0) ? null : getEdge(i);
+	}
+
+	/**
+	 * The iterator creates an edge object for each edge, use the indices
+	 * of the edges to iterate without allocation.
+	 *
+	 * @see vn.hus.nlp.graph.WeightedGraph#edgeIterator(int)
+	 * @see #getStart(int)
+	 */
+	@Override
+	public EdgeIterator edgeIterator(int u) {
+		final int start = getStart(u);
+		final int end = getEnd(u);
+		return new EdgeIterator() {
+			private int i = start;
+
+			public boolean hasNext() {
+				return i < end;
+			}
+
+			public Edge next() {
+				return getEdge(i++);
+			}
+		};
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see vn.hus.nlp.graph.Graph#vertexIterator(int)
+	 */
+	@Override
+	public VertexIterator vertexIterator(int u) {
+		final int start = getStart(u);
+		final int end = getEnd(u);
+		return new VertexIterator() {
+			private int i = start;
+
+			public boolean hasNext() {
+				return i < end;
+			}
+
+			public int next() {
+				return sortedTargets[i++];
+			}
+		};
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see vn.hus.nlp.graph.Graph#dispose()
+	 */
+	@Override
+	protected void dispose() {
+		reset(0);
+	}
+}
@@ -4,6 +4,7 @@
  */
 package vn.hus.nlp.graph.search;
 
+import vn.hus.nlp.graph.CSRWeightedGraph;
 import vn.hus.nlp.graph.Edge;
 import vn.hus.nlp.graph.IGraph;
 import vn.hus.nlp.graph.util.VertexIterator;
@@ -93,6 +94,19 @@ public class GraphDFS {
 		// mark the component id of u
 		componentId[u] = comp;
 
+		if (graph instanceof CSRWeightedGraph) {
+			// iterate the edges by their indices, without an iterator
+			CSRWeightedGraph csr = (CSRWeightedGraph) graph;
+			int end = csr.getEnd(u);
+			for (int i = csr.getStart(u); i < end; i++) {
+				int v = csr.getTarget(i);
+				if (order[v] == -1) { // v is not visited
+					// visit v recursively
+					search(v);
+				}
+			}
+			return;
+		}
 		VertexIterator iterator = graph.vertexIterator(u);
 		while (iterator.hasNext()) {
 			int v = iterator.next();
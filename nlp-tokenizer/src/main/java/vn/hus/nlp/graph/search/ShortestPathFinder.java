@@ -11,6 +11,7 @@ import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
 
+import vn.hus.nlp.graph.CSRWeightedGraph;
 import vn.hus.nlp.graph.Edge;
 import vn.hus.nlp.graph.IWeightedGraph;
 import vn.hus.nlp.graph.Node;
@@ -25,12 +26,20 @@ import vn.hus.nlp.graph.util.GraphUtilities;
  *         The shortest path finder that constructs shortest paths from a given
  *         vertex to other vertices of a weighted graph. By default, the given
  *         vertex is the vertex 0.
+ *         <p>
+ *         If the graph is a {@link CSRWeightedGraph}, its edges are examined
+ *         by their indices and no edge object is created during the search.
  */
 public class ShortestPathFinder {
 	/**
 	 * The weigted graph the finder operates on.
 	 */
 	private final IWeightedGraph graph;
+	/**
+	 * The graph if it is a compressed sparse row graph, <code>null</code>
+	 * otherwise.
+	 */
+	private final CSRWeightedGraph csr;
 	/**
 	 * The weights of vertices.
 	 */
@@ -39,6 +48,18 @@ public class ShortestPathFinder {
 	 * The spanning trees of paths.
 	 */
 	private final Edge[] spanningTree;
+	/**
+	 * The indices of the spanning edges of a compressed sparse row graph,
+	 * their edge objects are created on demand.
+	 */
+	private int[] spanningEdges;
+	
+	/**
+	 * The index of the fake edge which starts the search, and the index of
+	 * a missing spanning edge.
+	 */
+	private static final int START_EDGE = -1;
+	private static final int NO_EDGE = -2;
 
 	/**
 	 * An array that stores a shortest path.
@@ -58,23 +79,7 @@ public class ShortestPathFinder {
 	 * @param graph a weighted graph
 	 */
 	public ShortestPathFinder(IWeightedGraph graph) {
-		// Init the graph
-		//
-		this.graph = graph;
-		// init the weights of vertices
-		// 
-		int n = graph.getNumberOfVertices();
-		weights = new double[n];
-		double max = maxWeight();
-		for (int i = 0; i < n; i++) {
-			weights[i] = max;
-		}
-		// init the spanning tree
-		//
-		spanningTree = new Edge[n];
-		// Do the job
-		//
-		dijkstra();
+		this(graph, 0);
 	}
 	
 	
@@ -83,6 +88,7 @@ public class ShortestPathFinder {
 		// Init the graph
 		//
 		this.graph = graph;
+		this.csr = (graph instanceof CSRWeightedGraph) ? (CSRWeightedGraph) graph : null;
 		// init the weights of vertices
 		// 
 		int n = graph.getNumberOfVertices();
@@ -94,6 +100,12 @@ public class ShortestPathFinder {
 		// init the spanning tree
 		//
 		spanningTree = new Edge[n];
+		if (csr != null) {
+			spanningEdges = new int[n];
+			for (int i = 0; i < n; i++) {
+				spanningEdges[i] = NO_EDGE;
+			}
+		}
 		// Do the job
 		//
 		dijkstra();
@@ -121,6 +133,10 @@ public class ShortestPathFinder {
 	 *            the source vertex.
 	 */
 	public void dijkstra(int u) {
+		if (csr != null) {
+			dijkstraCSR(u);
+			return;
+		}
 		int cE = graph.getNumberOfEdges();
 		weights[u] = 0;
 		// create a queue with a fixed size to hold edges of the graph.
@@ -152,6 +168,55 @@ public class ShortestPathFinder {
 		}
 	}
 
+	/**
+	 * The Dijkstra algorithm on a compressed sparse row graph. The edges
+	 * are examined in the same order as in {@link #dijkstra(int)}, the queue
+	 * contains the indices of the edges.
+	 * @param u the source vertex.
+	 */
+	private void dijkstraCSR(int u) {
+		weights[u] = 0;
+		// a circular queue of edge indices, it is enlarged when it is full
+		int[] queue = new int[Math.max(16, csr.getNumberOfEntries() + 1)];
+		int head = 0;
+		int size = 0;
+		queue[size++] = START_EDGE;
+		while (size > 0) {
+			int e = queue[head];
+			head = (head + 1) % queue.length;
+			size--;
+			int uu = u;
+			int vv = u;
+			double w = 0;
+			if (e != START_EDGE) {
+				uu = csr.getSource(e);
+				vv = csr.getTarget(e);
+				w = csr.getWeight(e);
+			}
+			if (weights[uu] + w <= weights[vv]) {
+				weights[vv] = weights[uu] + w;
+				spanningEdges[vv] = e;
+				spanningTree[vv] = null;
+			}
+			int end = csr.getEnd(vv);
+			for (int i = csr.getStart(vv); i < end; i++) {
+				// insert into the queue only better edges
+				if (weights[vv] + csr.getWeight(i) < weights[csr.getTarget(i)]) {
+					if (size == queue.length) {
+						int[] a = new int[2 * queue.length];
+						for (int k = 0; k < size; k++) {
+							a[k] = queue[(head + k) % queue.length];
+						}
+						queue = a;
+						head = 0;
+					}
+					queue[(head + size) % queue.length] = i;
+					size++;
+				}
+			}
+		}
+	}
+
 	/**
 	 * Find the maximal possible weight of a path of the graph. This value is
 	 * used in the Dijkstra algorithm. In a graph, there are at most n edges in
@@ -160,6 +225,14 @@ public class ShortestPathFinder {
 	 * @return
 	 */
 	private double maxWeight() {
+		if (csr != null) {
+			double max = 0;
+			for (int i = 0; i < csr.getNumberOfEntries(); i++) {
+				if (max < csr.getWeight(i))
+					max = csr.getWeight(i);
+			}
+			return max * graph.getNumberOfVertices();
+		}
 		Edge[] edges = GraphUtilities.getWeightedEdges(graph);
 		double max = 0;
 		for (int i = 0; i < edges.length; i++) {
@@ -178,6 +251,10 @@ public class ShortestPathFinder {
 	 * @see #dijkstra(int)
 	 */
 	public Edge getSpanningEdge(int v) {
+		if (csr != null && spanningTree[v] == null && spanningEdges[v] != NO_EDGE) {
+			int e = spanningEdges[v];
+			spanningTree[v] = (e == START_EDGE) ? new Edge(startVertex, startVertex) : csr.getEdge(e);
+		}
 		return spanningTree[v];
 	}
 
@@ -187,6 +264,9 @@ public class ShortestPathFinder {
 	 * @return all the minimal spanning tree.
 	 */
 	public Edge[] getSpanningTree() {
+		for (int v = 0; csr != null && v < spanningTree.length; v++) {
+			getSpanningEdge(v);
+		}
 		return spanningTree;
 	}
 
@@ -262,6 +342,22 @@ public class ShortestPathFinder {
 			shortestPaths.add(getPath(path, k + 1));
 		} else {
 			k++;
+			if (csr != null) {
+				// the edges are sorted by their source, as they are
+				// examined by getIncomingEdges(int)
+				for (int i = 0; i < csr.getNumberOfEntries(); i++) {
+					if (csr.getTarget(i) == v) {
+						double newWeight = weight - csr.getWeight(i);
+						if (newWeight >= 0) {
+							backtrack(csr.getSource(i), newWeight);
+						}
+					}
+				}
+				// backtrack
+				k--;
+				path[k] = -1;
+				return;
+			}
 			// get incoming edges of vertex v
 			// and try
 			Edge[] edges = getIncomingEdges(v);
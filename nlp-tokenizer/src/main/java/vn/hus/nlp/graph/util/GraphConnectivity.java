@@ -3,6 +3,7 @@
  */
 package vn.hus.nlp.graph.util;
 
+import vn.hus.nlp.graph.CSRWeightedGraph;
 import vn.hus.nlp.graph.IGraph;
 import vn.hus.nlp.graph.search.GraphDFS;
 
@@ -54,6 +55,9 @@ public class GraphConnectivity {
 	 */
 	public static int[] getIsolatedVertices(IGraph graph) {
 		int nV = graph.getNumberOfVertices();
+		if (graph instanceof CSRWeightedGraph) {
+			return getIsolatedVertices((CSRWeightedGraph) graph);
+		}
 		int[] vertices = new int[nV];
 
 		int n = 0;
@@ -74,4 +78,34 @@ public class GraphConnectivity {
 		}
 		return isolatedVertices;
 	}
+
+	/**
+	 * Get all isolated vertices of a compressed sparse row graph. The
+	 * in-degrees of the vertices are counted in one pass over the edges.
+	 * @param graph
+	 * @return An array of isolated vertices.
+	 * @see #getIsolatedVertices(IGraph)
+	 */
+	private static int[] getIsolatedVertices(CSRWeightedGraph graph) {
+		int nV = graph.getNumberOfVertices();
+		int[] inDegree = new int[nV];
+		int end = graph.getNumberOfEntries();
+		for (int i = 0; i < end; i++) {
+			inDegree[graph.getTarget(i)]++;
+		}
+		int n = 0;
+		for (int u = 0; u < nV; u++) {
+			if (inDegree[u] == 0) {
+				n++;
+			}
+		}
+		int[] isolatedVertices = new int[n];
+		n = 0;
+		for (int u = 0; u < nV; u++) {
+			if (inDegree[u] == 0) {
+				isolatedVertices[n++] = u;
+			}
+		}
+		return isolatedVertices;
+	}
 }
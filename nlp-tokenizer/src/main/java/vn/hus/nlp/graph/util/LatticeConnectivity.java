@@ -0,0 +1,128 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ *  Vietnam National University, Hanoi, Vietnam.
+ */
+package vn.hus.nlp.graph.util;
+
+import vn.hus.nlp.graph.CSRWeightedGraph;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ *         <p>
+ *         The connectivity of a lattice, that is a directed graph over the
+ *         positions <code>0..n</code> of a phrase in which every edge
+ *         <code>(u,v)</code> goes forward, <code>u &lt; v</code>. The
+ *         vertices of a lattice are in topological order, so that the
+ *         vertices reachable from the vertex 0 and the in-degrees of the
+ *         vertices are computed in one pass over the edges, without the
+ *         depth first search and the quadratic isolated vertex search of
+ *         {@link GraphConnectivity}.
+ */
+public final class LatticeConnectivity {
+
+	private LatticeConnectivity() {
+	}
+
+	/**
+	 * Check whether a vertex of a lattice is reachable from the vertex 0.
+	 *
+	 * @param lattice
+	 *            a lattice
+	 * @param v
+	 *            a vertex
+	 * @return <code>true</code> if there is a path from 0 to <code>v</code>.
+	 */
+	public static boolean isConnected(CSRWeightedGraph lattice, int v) {
+		return reach(lattice, v, false);
+	}
+
+	/**
+	 * Check whether all the vertices of a lattice are reachable from the
+	 * vertex 0. This is the case if and only if the lattice has one
+	 * component, as computed by {@link GraphConnectivity#countComponents(vn.hus.nlp.graph.IGraph)}.
+	 *
+	 * @param lattice
+	 *            a lattice
+	 * @return <code>true</code> or <code>false</code>
+	 */
+	public static boolean isConnected(CSRWeightedGraph lattice) {
+		return reach(lattice, lattice.getNumberOfVertices() - 1, true);
+	}
+
+	/**
+	 * Propagate the reachability from the vertex 0 to the vertex
+	 * <code>v</code>, the edges going out from the vertices after
+	 * <code>v</code> cannot reach it.
+	 *
+	 * @param lattice
+	 *            a lattice
+	 * @param v
+	 *            the last vertex to examine
+	 * @param all
+	 *            <code>true</code> if all the vertices up to <code>v</code>
+	 *            must be reachable, <code>false</code> if only <code>v</code>
+	 *            must be.
+	 * @return <code>true</code> or <code>false</code>
+	 */
+	private static boolean reach(CSRWeightedGraph lattice, int v, boolean all) {
+		if (v == 0) {
+			return true;
+		}
+		boolean[] reachable = new boolean[v + 1];
+		reachable[0] = true;
+		for (int u = 0; u < v; u++) {
+			if (!reachable[u]) {
+				if (all) {
+					return false;
+				}
+				continue;
+			}
+			int end = lattice.getEnd(u);
+			for (int i = lattice.getStart(u); i < end; i++) {
+				int w = lattice.getTarget(i);
+				if (w <= v) {
+					reachable[w] = true;
+				}
+			}
+		}
+		return reachable[v];
+	}
+
+	/**
+	 * Connect a lattice by adding an edge <code>(u-1,u)</code> to each
+	 * isolated vertex <code>u</code>, that is a vertex which has not any
+	 * intransition. The vertex 0 is always isolated, an edge
+	 * <code>(0,1)</code> is added regardless of its outtransitions. After
+	 * that, every vertex is reachable from the vertex 0.
+	 *
+	 * @param lattice
+	 *            a lattice of at least two vertices
+	 * @param weight
+	 *            the weight of the added edges
+	 * @return the number of added edges.
+	 */
+	public static int connect(CSRWeightedGraph lattice, double weight) {
+		int nV = lattice.getNumberOfVertices();
+		// the in-degrees are counted before any edge is added
+		int[] inDegree = new int[nV];
+		int entries = lattice.getNumberOfEntries();
+		for (int i = 0; i < entries; i++) {
+			inDegree[lattice.getTarget(i)]++;
+		}
+		int added = 0;
+		for (int u = 0; u < nV; u++) {
+			if (inDegree[u] > 0) {
+				continue;
+			}
+			if (u == 0) {
+				lattice.insert(0, 1, weight);
+				added++;
+			} else if (u > 1 || inDegree[0] > 0) {
+				// the edge (0,1) is not added twice
+				lattice.insert(u - 1, u, weight);
+				added++;
+			}
+		}
+		return added;
+	}
+}
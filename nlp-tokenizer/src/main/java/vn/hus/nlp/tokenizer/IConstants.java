@@ -29,6 +29,12 @@ public interface IConstants {
 	 */
 	public static final String LEXICON_DFA = "models/tokenization/automata/lexicon_dfa_minimal.xml";
 	
+	/**
+	 * The Vietnamese DFA lexicon in the binary form, it is memory-mapped 
+	 * when it is loaded.
+	 */
+	public static final String LEXICON_DFA_BINARY = "models/tokenization/automata/lexicon_dfa_minimal.fsm";
+	
 	/**
 	 * The named entity prefix.
 	 */
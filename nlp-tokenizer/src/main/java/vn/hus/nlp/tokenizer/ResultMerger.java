@@ -8,6 +8,9 @@ import java.util.Iterator;
 import java.util.List;
 
 import vn.hus.nlp.tokenizer.tokens.TaggedWord;
+import vn.hus.nlp.utils.metrics.Counter;
+import vn.hus.nlp.utils.metrics.Metrics;
+import vn.hus.nlp.utils.metrics.Timer;
 
 /**
  * @author phuonglh
@@ -26,6 +29,12 @@ public class ResultMerger {
 	private static String YEAR_STRING_1 = "năm";
 	private static String YEAR_STRING_2 = "Năm";
 
+	/**
+	 * Metrics of the merger
+	 */
+	private static final Timer MERGE_TIMER = Metrics.timer("merger.mergeList");
+	private static final Counter MERGED_DATES = Metrics.counter("merger.mergedDates");
+	
 	public ResultMerger() {
 		
 	}
@@ -65,6 +74,14 @@ public class ResultMerger {
 	 * @return a lexer token merging from two tokens or <tt>null</tt>. 
 	 */
 	private TaggedWord mergeDate(TaggedWord token, TaggedWord nextToken) {
+		TaggedWord mergedToken = mergeDateToken(token, nextToken);
+		if (mergedToken != null) {
+			MERGED_DATES.increment();
+		}
+		return mergedToken;
+	}
+	
+	private TaggedWord mergeDateToken(TaggedWord token, TaggedWord nextToken) {
 		if (token.getText().equals(DAY_STRING_1) || token.getText().equals(DAY_STRING_2)) {
 			
 			return mergeDateDay(token, nextToken);
@@ -78,12 +95,25 @@ public class ResultMerger {
 		return null;
 	}
 	
+	/**
+	 * Try to merge two consecutive tokens of the tokenization. This is
+	 * the step of {@link #mergeList(List)} on a pair of tokens, it is used
+	 * to merge a stream of tokens.
+	 * @param token a token
+	 * @param nextToken the token following it
+	 * @return a lexer token merging from two tokens or <tt>null</tt>.
+	 */
+	public TaggedWord merge(TaggedWord token, TaggedWord nextToken) {
+		return mergeDate(token, nextToken);
+	}
+	
 	/**
 	 * Merge the result of the tokenization.
 	 * @param tokens
 	 * @return a list of lexer tokens
 	 */
 	public List<TaggedWord> mergeList(List<TaggedWord> tokens) {
+		long start = MERGE_TIMER.start();
 		List<TaggedWord> result = new ArrayList<TaggedWord>();
 		TaggedWord token = new TaggedWord(""); // a fake start token
 		Iterator<TaggedWord> it = tokens.iterator();
@@ -102,6 +132,7 @@ public class ResultMerger {
 			}
 			token = nextToken;
 		}
+		MERGE_TIMER.stop(start);
 		return result;
 	}
 }
@@ -3,8 +3,10 @@
  */
 package vn.hus.nlp.tokenizer;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Properties;
 import java.util.Set;
 
@@ -24,6 +26,10 @@ import vn.hus.nlp.tokenizer.tokens.TaggedWord;
  */
 public class ResultSplitter {
 
+	private static final LexerRule PREFIX_RULE = new LexerRule("name:prefix");
+	
+	private static final LexerRule NAME_RULE = new LexerRule("name");
+	
 	/**
 	 * Set of predefined prefixes.
 	 */
@@ -49,10 +55,26 @@ public class ResultSplitter {
 		prefix = new HashSet<String>();
 		// add all prefixes to the set after converting them to lowercase
 		for (W w : ws) {
-			prefix.add(w.getContent().toLowerCase());
+			prefix.add(w.getContent().toLowerCase(Locale.ROOT));
 		}
 	}
 	
+	/**
+	 * Creates a result splitter from a set of prefixes. The set is only 
+	 * read by the splitter, so it can be shared by several splitters.
+	 * @param prefix a set of lowercase prefixes
+	 */
+	public ResultSplitter(Set<String> prefix) {
+		this.prefix = prefix;
+	}
+	
+	/**
+	 * @return an unmodifiable view of the prefixes of named entities
+	 */
+	public Set<String> getPrefix() {
+		return Collections.unmodifiableSet(prefix);
+	}
+	
 	/**
 	 * Creates a result splitter from a properties filename.
 	 * @param properties a properties file.
@@ -62,7 +84,7 @@ public class ResultSplitter {
 	}
 	
 	private boolean isPrefix(String syllable) {
-		return prefix.contains(syllable.toLowerCase());
+		return prefix.contains(syllable.toLowerCase(Locale.ROOT));
 	}
 	
 	/**
@@ -81,8 +103,8 @@ public class ResultSplitter {
 				// it is sure that postion > 0
 				String suffix = token.getText().substring(position);
 				TaggedWord[] result = new TaggedWord[2];
-				result[0] = new TaggedWord(new LexerRule("name:prefix"), syllables[0]);
-				result[1] = new TaggedWord(new LexerRule("name"), suffix.trim());
+				result[0] = new TaggedWord(PREFIX_RULE, syllables[0]);
+				result[1] = new TaggedWord(NAME_RULE, suffix.trim());
 				return result;
 			}
 		}
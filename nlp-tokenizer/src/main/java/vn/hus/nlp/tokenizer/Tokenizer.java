@@ -4,12 +4,14 @@ import java.io.BufferedWriter;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.LineNumberReader;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Properties;
 import java.util.logging.FileHandler;
 import java.util.logging.Level;
@@ -18,15 +20,18 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import vn.hus.nlp.fsm.IConstants;
-import vn.hus.nlp.lexicon.LexiconUnmarshaller;
-import vn.hus.nlp.lexicon.jaxb.Corpus;
-import vn.hus.nlp.lexicon.jaxb.W;
 import vn.hus.nlp.tokenizer.io.Outputer;
+import vn.hus.nlp.tokenizer.lexer.ILexer;
+import vn.hus.nlp.tokenizer.lexer.LexerFactory;
+import vn.hus.nlp.tokenizer.lexer.LexerMatch;
 import vn.hus.nlp.tokenizer.segmenter.Segmenter;
 import vn.hus.nlp.tokenizer.tokens.LexerRule;
 import vn.hus.nlp.tokenizer.tokens.TaggedWord;
+import vn.hus.nlp.tokenizer.tokens.TokenBuffer;
 import vn.hus.nlp.tokenizer.tokens.WordToken;
 import vn.hus.nlp.utils.UTF8FileUtility;
+import vn.hus.nlp.utils.metrics.Metrics;
+import vn.hus.nlp.utils.metrics.Timer;
 
 /**
  * @author LE Hong Phuong, phuonglh@gmail.com
@@ -37,29 +42,39 @@ import vn.hus.nlp.utils.UTF8FileUtility;
 public class Tokenizer  {
 
 	/**
-	 * List of rules for this lexer
+	 * The rule of the tokens returned at the end of lines
 	 */
-	private LexerRule rules[] = new LexerRule[0];
+	private static final LexerRule RETURN_RULE = new LexerRule("return");
 
 	/**
-	 * The current input stream
+	 * The rule of the tokens matched by no rule
 	 */
-	private InputStream inputStream;
+	private static final LexerRule WORD_RULE = new LexerRule("word");
+
+	/**
+	 * The timer of the lexer
+	 */
+	private static final Timer LEXER_TIMER = Metrics.timer("tokenizer.lexer");
 
 	/**
-	 * Current reader, keep track of our position within the input file
+	 * List of rules for this lexer
 	 */
-	private LineNumberReader lineReader;
+	private LexerRule rules[] = new LexerRule[0];
 
 	/**
-	 * Current line
+	 * The lexer that matches the rules
 	 */
-	private String line;
+	private ILexer lexer;
+
+	/**
+	 * The current input stream
+	 */
+	private InputStream inputStream;
 
 	/**
-	 * Current column
+	 * Is the offset scanning mode used? False by default.
 	 */
-	private int column;
+	private boolean offsetScanning = false;
 
 	/**
 	 * A list of tokens containing the result of tokenization
@@ -83,7 +98,7 @@ public class Tokenizer  {
 	 */
 	private boolean isAmbiguitiesResolved = true;
 
-	private Logger logger;
+	private static Logger logger;
 
 	private final ResultMerger resultMerger;
 
@@ -98,6 +113,7 @@ public class Tokenizer  {
 	public Tokenizer(String lexersFilename, Segmenter segmenter) {
 		// load the lexer rules
 		loadLexerRules(lexersFilename);
+		lexer = LexerFactory.createLexer(null, rules);
 		this.segmenter = segmenter;
 		result = new ArrayList<TaggedWord>();
 		// use a plain (default) outputer
@@ -122,6 +138,8 @@ public class Tokenizer  {
 	public Tokenizer(Properties properties, Segmenter segmenter) {
 		// load the lexer rules
 		loadLexerRules(properties.getProperty("lexers"));
+		lexer = LexerFactory.createLexerFromProperties(properties, rules);
+		offsetScanning = Boolean.parseBoolean(properties.getProperty("offsetScanning", "false"));
 		this.segmenter = segmenter;
 		result = new ArrayList<TaggedWord>();
 		// use a plain (default) outputer
@@ -137,6 +155,40 @@ public class Tokenizer  {
 		addTokenizerListener(new SimpleProgressReporter());
 	}
 
+	/**
+	 * Creates a tokenizer from shared models. Nothing is loaded, the 
+	 * tokenizer uses the lexer, the named entity splitter and a new 
+	 * segmenter of the models.
+	 * @param models tokenizer models
+	 */
+	public Tokenizer(TokenizerModels models) {
+		this(models, models.createSegmenter());
+	}
+
+	/**
+	 * Creates a tokenizer from shared models and a segmenter.
+	 * @param models tokenizer models
+	 * @param segmenter a lexical segmenter
+	 */
+	public Tokenizer(TokenizerModels models, Segmenter segmenter) {
+		rules = models.getRules();
+		lexer = models.getLexer();
+		offsetScanning = Boolean.parseBoolean(models.getProperty("offsetScanning", "false"));
+		this.segmenter = segmenter;
+		result = new ArrayList<TaggedWord>();
+		// use a plain (default) outputer
+		createOutputer();
+		// create result merger
+		resultMerger = new ResultMerger();
+		// use the shared result splitter
+		resultSplitter = models.getResultSplitter();
+		// create logger
+		createLogger();
+		// add a simple tokenizer listener for reporting
+		// tokenization progress
+		addTokenizerListener(new SimpleProgressReporter());
+	}
+
 	private void createOutputer() {
 		if (outputer == null) {
 			outputer = new Outputer();
@@ -158,7 +210,7 @@ public class Tokenizer  {
 	}
 
 
-	private void createLogger() {
+	private static synchronized void createLogger() {
 		if (logger == null) {
 			logger = Logger.getLogger(Segmenter.class.getName());
 			// use a console handler to trace the log
@@ -182,17 +234,7 @@ public class Tokenizer  {
 	 *            specification file
 	 */
 	private void loadLexerRules(String lexersFilename) {
-		LexiconUnmarshaller unmarshaller = new LexiconUnmarshaller();
-		Corpus corpus = unmarshaller.unmarshal(lexersFilename);
-		ArrayList<LexerRule> ruleList = new ArrayList<LexerRule>();
-		List<W> lexers = corpus.getBody().getW();
-		for (W w : lexers) {
-			LexerRule lr = new LexerRule(w.getMsd(), w.getContent());
-//			System.out.println(w.getMsd() + ": " + w.getContent());
-			ruleList.add(lr);
-		}
-		// convert the list of rules to an array and save it
-		rules = ruleList.toArray(rules);
+		rules = TokenizerModels.loadLexerRules(lexersFilename);
 	}
 
 	/**
@@ -200,91 +242,194 @@ public class Tokenizer  {
 	 * selects the first segmentation for a phrase if there are more than one
 	 * segmentations. Otherwise, it selects automatically the most
 	 * probable segmentation returned by the ambiguity resolver.
+	 * The result is available by {@link #getResult()}.
 	 */
 	public void tokenize(Reader reader) throws IOException {
 		// Firstly, the result list is emptied
 		result.clear();
-		lineReader = new LineNumberReader(reader);
-		// position within the file
-		line = null;
-		column = 1;
+		TokenizerContext context = new TokenizerContext(reader, offsetScanning, result);
+		tokenize(context, true);
+		// merge the result
+		result = resultMerger.mergeList(result);
+	}
+
+	/**
+	 * Tokenize a text and return the result. All the mutable state of 
+	 * the tokenization is kept in a context of this call, so this method can 
+	 * be called by several threads at the same time on a shared tokenizer. The
+	 * tokenizer listeners are not notified and the result of the tokenizer
+	 * ({@link #getResult()}) is not changed.
+	 * 
+	 * @param text a text
+	 * @return the list of tokens of the text
+	 */
+	public List<TaggedWord> tokenizeText(CharSequence text) {
+		TokenizerContext context = new TokenizerContext(new StringReader(text.toString()), offsetScanning);
+		try {
+			tokenize(context, false);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		return resultMerger.mergeList(context.result);
+	}
+
+	/**
+	 * Tokenize a reader lazily. The tokens are produced on demand while the
+	 * reader is read line by line, so the memory used does not depend on the
+	 * size of the input: only the tokens of the current line and one token
+	 * of lookahead for the mergence of dates are kept. The tokens produced
+	 * are the same as the ones of {@link #tokenize(Reader)}. Like
+	 * {@link #tokenizeText(CharSequence)}, the listeners are not notified and
+	 * the result of the tokenizer is not changed. The reader is closed
+	 * when the iteration is finished. An I/O error while reading is
+	 * rethrown as an {@link UncheckedIOException}.
+	 *
+	 * @param reader a reader
+	 * @return an iterator over the tokens of the reader
+	 */
+	public Iterator<TaggedWord> iterator(Reader reader) {
+		return new TokenIterator(new TokenizerContext(reader, offsetScanning));
+	}
+
+	/**
+	 * Tokenize a reader into a token buffer. The tokens are produced 
+	 * lazily as by {@link #iterator(Reader)} and appended to the buffer, so
+	 * no list of tagged words is kept. This saves the memory retained by 
+	 * the result, not the allocations: every token is still a short-lived 
+	 * tagged word before it is copied in the buffer. The buffer is not 
+	 * cleared before; a buffer can be cleared and reused for the next document.
+	 * 
+	 * @param reader a reader
+	 * @param buffer a token buffer
+	 * @throws IOException
+	 */
+	public void tokenize(Reader reader, TokenBuffer buffer) throws IOException {
+		try {
+			Iterator<TaggedWord> it = iterator(reader);
+			while (it.hasNext()) {
+				buffer.add(it.next());
+			}
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Tokenize the input of a context.
+	 * @param context a tokenization context
+	 * @param notify notify the listeners or not
+	 * @throws IOException
+	 */
+	private void tokenize(TokenizerContext context, boolean notify) throws IOException {
 		// do tokenization
 		while (true) {
 			// get the next token
-			TaggedWord taggedWord = getNextToken();
+			long start = LEXER_TIMER.start();
+			TaggedWord taggedWord = getNextToken(context);
+			LEXER_TIMER.stop(start);
 			// stop if there is no more token
 			if (taggedWord == null) {
 				break;
 			}
-//			// DEBUG 
-//			System.out.println("taggedWord = " + taggedWord);
-			// if this token is a phrase, we need to use a segmenter
-			// object to segment it.
-			if (taggedWord.isPhrase()) {
-//				System.out.println("taggedWord phrase = " + taggedWord);
-				String phrase = taggedWord.getText().trim();
-				if (!isSimplePhrase(phrase)) {
-					String ruleName = taggedWord.getRule().getName();
-					String[] tokens = null;
+			processToken(context, taggedWord);
+			// ok, the token has been processed,
+			// it is now reported to all registered listeners
+			if (notify) {
+				fireProcess(taggedWord);
+			}
+		}
+		// close the line reader
+		if (context.lineReader != null)
+			context.lineReader.close();
+	}
+
+	/**
+	 * Process a token of the lexer: a phrase is segmented into words, a 
+	 * named entity is split if possible. The resulting tokens are appended 
+	 * to the result of the context.
+	 * @param context a tokenization context
+	 * @param taggedWord a token of the lexer
+	 */
+	private void processToken(TokenizerContext context, TaggedWord taggedWord) {
+		List<TaggedWord> result = context.result;
+//		// DEBUG 
+//		System.out.println("taggedWord = " + taggedWord);
+		// if this token is a phrase, we need to use a segmenter
+		// object to segment it.
+		if (taggedWord.isPhrase()) {
+//			System.out.println("taggedWord phrase = " + taggedWord);
+			String phrase = taggedWord.getText().trim();
+			if (!isSimplePhrase(phrase)) {
+				// all the words of the phrase share the rule of the phrase
+				LexerRule rule = taggedWord.getRule();
+				String[] tokens = null;
+				if (isAmbiguitiesResolved()) {
+					// segment the phrase and resolve the result, the 
+					// segmenter may take it from its cache
+					tokens = segmenter.segmentAndResolve(phrase);
+					if (tokens == null) {
+						logger.log(Level.WARNING, "The segmenter cannot segment the phrase \"" + phrase + "\"");
+					}
+				} else {
 					// segment the phrase
 					List<String[]> segmentations = segmenter.segment(phrase);
 					if (segmentations.size() == 0) {
 						logger.log(Level.WARNING, "The segmenter cannot segment the phrase \"" + phrase + "\"");
 					}
-					// resolved the result if there is such option
-					// and the there are many segmentations.
-					if (isAmbiguitiesResolved() && segmentations.size() > 1) {
-						tokens = segmenter.resolveAmbiguity(segmentations);
-					} else {
-						// get the first segmentation
-						Iterator<String[]> it = segmentations.iterator();
-						if (it.hasNext()) {
-							tokens = it.next();
-						}
-					}
-					if (tokens == null) {
-						logger.log(Level.WARNING, "Problem: " + phrase);
+					// get the first segmentation
+					Iterator<String[]> it = segmentations.iterator();
+					if (it.hasNext()) {
+						tokens = it.next();
 					}
+				}
+				if (tokens == null) {
+					logger.log(Level.WARNING, "Problem: " + phrase);
+				}
 
-					// build tokens of the segmentation
-					for (int j = 0; j < tokens.length; j++) {
+				// build tokens of the segmentation
+				int offset = taggedWord.getStart();
+				int limit = taggedWord.getEnd();
+				for (int j = 0; j < tokens.length; j++) {
+					if (context.offsetScanning) {
+						// locate the word in the line, it is a sequence of syllables
+						// separated by spaces
+						int start = skipSpaces(context.line, offset, limit);
+						offset = skipSyllables(context.line, start, limit, tokens[j]);
+						context.column = start + 1;
 						WordToken token = new WordToken(
-								new LexerRule(ruleName), tokens[j], lineReader.getLineNumber(), column);
+								rule, tokens[j], context.lineReader.getLineNumber(), context.column);
+						token.setOffsets(start, offset);
 						result.add(token);
-						column += tokens[j].length();
+					} else {
+						WordToken token = new WordToken(
+								rule, tokens[j], context.lineReader.getLineNumber(), context.column);
+						result.add(token);
+						context.column += tokens[j].length();
 					}
-				} else { // phrase is simple
-					if (phrase.length() > 0)
-						result.add(taggedWord);
 				}
-			} else { // lexerToken is not a phrase
-				// check to see if it is a named entity
-				if (taggedWord.isNamedEntity()) {
-					// try to split the lexer into two lexers
-					TaggedWord[] tokens = resultSplitter.split(taggedWord);
-					if (tokens != null) {
-						for (TaggedWord token : tokens) {
-							result.add(token);
-						}
-					} else {
-						result.add(taggedWord);
+			} else { // phrase is simple
+				if (phrase.length() > 0)
+					result.add(taggedWord);
+			}
+		} else { // lexerToken is not a phrase
+			// check to see if it is a named entity
+			if (taggedWord.isNamedEntity()) {
+				// try to split the lexer into two lexers
+				TaggedWord[] tokens = resultSplitter.split(taggedWord);
+				if (tokens != null) {
+					for (TaggedWord token : tokens) {
+						result.add(token);
 					}
 				} else {
-					// we simply add it into the list
-					if (taggedWord.getText().trim().length() > 0) {
-						result.add(taggedWord);
-					}
+					result.add(taggedWord);
+				}
+			} else {
+				// we simply add it into the list
+				if (taggedWord.getText().trim().length() > 0) {
+					result.add(taggedWord);
 				}
 			}
-			// ok, the token has been processed,
-			// it is now reported to all registered listeners
-			fireProcess(taggedWord);
 		}
-		// close the line reader
-		if (lineReader != null)
-			lineReader.close();
-		// merge the result
-		result = resultMerger.mergeList(result);
 	}
 
 
@@ -320,27 +465,28 @@ public class Tokenizer  {
 	/**
 	 * Return the next token from the input. This old version is deprecated.
 	 *
+	 * @param context the tokenization context
 	 * @return next token from the input
 	 * @throws IOException
-	 * @see {@link #getNextToken()}
+	 * @see {@link #getNextToken(TokenizerContext)}
 	 */
 	@SuppressWarnings("unused")
 	@Deprecated
-	private TaggedWord getNextTokenOld() throws IOException {
+	private TaggedWord getNextTokenOld(TokenizerContext context) throws IOException {
 		// scan the file line by line and quit when no more lines are left
-		if (line == null || line.length() == 0) {
-			line = lineReader.readLine();
-			if (line == null) {
+		if (context.line == null || context.line.length() == 0) {
+			context.line = context.lineReader.readLine();
+			if (context.line == null) {
 				if (inputStream != null)
 					inputStream.close();
-				lineReader = null;
+				context.lineReader = null;
 				return null;
 			}
 			// an empty line:
-			if (line.length() == 0) {
+			if (context.line.length() == 0) {
 				return new TaggedWord("\n");
 			}
-			column = 1;
+			context.column = 1;
 		}
 		// match the next token
 		TaggedWord token = null;
@@ -357,7 +503,7 @@ public class Tokenizer  {
 			Pattern pattern = rule.getPattern();
 			// create a matcher to perform match operations on the string
 			// by interpreting the pattern
-			Matcher matcher = pattern.matcher(line);
+			Matcher matcher = pattern.matcher(context.line);
 			// if there is a match, calculate its length
 			// and compare it with the longest match len
 			// Here, we attempts to match the input string, starting at the beginning, against the pattern.
@@ -372,24 +518,24 @@ public class Tokenizer  {
 				if (matchLen > longestMatchLen) {
 					longestMatchLen = matchLen;
 					text = matcher.group(0);
-					int lineNumber = lineReader.getLineNumber();
-					token = new TaggedWord(rule, text, lineNumber, column);
+					int lineNumber = context.lineReader.getLineNumber();
+					token = new TaggedWord(rule, text, lineNumber, context.column);
 					tokenEnd = matchLen;
 				}
 			}
 		}
 		// if we didn't match anything, we exit...
 		if (token == null) {
-			logger.log(Level.WARNING, "Error! line = " + lineReader.getLineNumber()
-					+ ", col = " + column);
-			System.out.println(line);
+			logger.log(Level.WARNING, "Error! line = " + context.lineReader.getLineNumber()
+					+ ", col = " + context.column);
+			System.out.println(context.line);
 			System.exit(1);
 			return null;
 		} else {
 			// we match something, skip past the token, get ready
 			// for the next match, and return the token
-			column += tokenEnd;
-			line = line.substring(tokenEnd);
+			context.column += tokenEnd;
+			context.line = context.line.substring(tokenEnd);
 			return token;
 		}
 	}
@@ -398,62 +544,51 @@ public class Tokenizer  {
 	 * Return the next token from the input. Version 2, less greedy
 	 * method than version 1.
 	 *
+	 * @param context the tokenization context
 	 * @return next token from the input
 	 * @throws IOException
 	 */
-	private TaggedWord getNextToken() throws IOException {
+	private TaggedWord getNextToken(TokenizerContext context) throws IOException {
+		if (context.offsetScanning) {
+			return getNextTokenAtCursor(context);
+		}
 		// scan the file line by line and quit when no more lines are left
-		if (line == null || line.length() == 0) {
-			line = lineReader.readLine();
-			if (line == null) {
+		if (context.line == null || context.line.length() == 0) {
+			context.line = context.lineReader.readLine();
+			if (context.line == null) {
 				if (inputStream != null)
 					inputStream.close();
-				lineReader = null;
+				context.lineReader = null;
 				return null;
 			}
 			// an empty line corresponds to an empty tagged word
-			if (line.trim().length() == 0) {
+			if (context.line.trim().length() == 0) {
 				System.err.println("Create an empty line tagged word...");
 				//return new TaggedWord(new LexerRule("return", "(\\^\\$)"), "\n");
-				return new TaggedWord(new LexerRule("return"), "\n");
+				return new TaggedWord(RETURN_RULE, "\n");
 			}
-			column = 1;
+			context.column = 1;
 		}
 		// match the next token
 		TaggedWord token = null;
 		// the end of the next token, within the line
 		int tokenEnd = -1;
-		// the length of the rule that matches the most characters from the
-		// input
-		int longestMatchLen = -1;
-		int lineNumber = lineReader.getLineNumber();
+		int lineNumber = context.lineReader.getLineNumber();
 		LexerRule selectedRule = null;
 		// find the rule that matches the longest substring of the input
-		for (int i = 0; i < rules.length; i++) {
-			LexerRule rule = rules[i];
-			// get the precompiled pattern for this rule
-			Pattern pattern = rule.getPattern();
-			// create a matcher to perform match operations on the string
-			// by interpreting the pattern
-			Matcher matcher = pattern.matcher(line);
-			// find the longest match from the start
-			if (matcher.lookingAt()) {
-				int matchLen = matcher.end();
-				if (matchLen > longestMatchLen) {
-					longestMatchLen = matchLen;
-					tokenEnd = matchLen;
-					selectedRule = rule;
-				}
-			}
+		LexerMatch match = lexer.match(context.line, 0, context.line.length());
+		if (match != null) {
+			tokenEnd = match.getEnd();
+			selectedRule = match.getRule();
 		}
 		//
 		// check if this relates to an email address (to fix an error with email)
 		// yes, I know that this "manual" method must be improved by a more general way.
 		// But at least, it can fix an error with email addresses at the moment. :-)
 		int endIndex = tokenEnd;
-		if (tokenEnd < line.length()) {
-			if (line.charAt(tokenEnd) == '@') {
-				while (endIndex > 0 && line.charAt(endIndex) != ' ') {
+		if (tokenEnd < context.line.length()) {
+			if (context.line.charAt(tokenEnd) == '@') {
+				while (endIndex > 0 && context.line.charAt(endIndex) != ' ') {
 					endIndex--;
 				}
 			}
@@ -464,18 +599,141 @@ public class Tokenizer  {
 		}
 
 		if (selectedRule == null) {
-			selectedRule = new LexerRule("word");
+			selectedRule = WORD_RULE;
 		}
-		String text = line.substring(0, endIndex);
-		token = new TaggedWord(selectedRule, text, lineNumber, column);
+		String text = context.line.substring(0, endIndex);
+		token = new TaggedWord(selectedRule, text, lineNumber, context.column);
 		// we match something, skip past the token, get ready
 		// for the next match, and return the token
-		column += endIndex;
-		line = line.substring(endIndex).trim();
+		context.column += endIndex;
+		context.line = context.line.substring(endIndex).trim();
 //		System.out.println(line);
 		return token;
 	}
 
+	/**
+	 * Return the next token from the input, using a cursor in the current line.
+	 * This version matches the rules in the region of the line after the cursor, 
+	 * so that the line is never copied. It gives the same tokens as
+	 * {@link #getNextToken(TokenizerContext)} but the tokens keep their offsets in the line 
+	 * and their columns are the true columns in the line.
+	 *
+	 * @param context the tokenization context
+	 * @return next token from the input
+	 * @throws IOException
+	 */
+	private TaggedWord getNextTokenAtCursor(TokenizerContext context) throws IOException {
+		// scan the file line by line and quit when no more lines are left
+		if (context.line == null || context.position >= context.lineEnd) {
+			context.line = context.lineReader.readLine();
+			if (context.line == null) {
+				if (inputStream != null)
+					inputStream.close();
+				context.lineReader = null;
+				return null;
+			}
+			context.position = 0;
+			context.lineEnd = context.line.length();
+			// an empty line corresponds to an empty tagged word
+			if (context.line.trim().length() == 0) {
+				return new TaggedWord(RETURN_RULE, "\n");
+			}
+		}
+		int tokenEnd = -1;
+		int lineNumber = context.lineReader.getLineNumber();
+		LexerRule selectedRule = null;
+		// find the rule that matches the longest region of the line from the cursor
+		LexerMatch match = lexer.match(context.line, context.position, context.lineEnd);
+		if (match != null) {
+			tokenEnd = match.getEnd();
+			selectedRule = match.getRule();
+		}
+		// fix an error with email addresses, see getNextToken()
+		int endIndex = tokenEnd;
+		if (tokenEnd < context.lineEnd) {
+			if (context.line.charAt(tokenEnd) == '@') {
+				while (endIndex > context.position && context.line.charAt(endIndex) != ' ') {
+					endIndex--;
+				}
+			}
+		}
+		if (endIndex == context.position) {
+			endIndex = tokenEnd;
+		}
+
+		if (selectedRule == null) {
+			selectedRule = WORD_RULE;
+		}
+		TaggedWord token = new TaggedWord(selectedRule, context.line, context.position, endIndex, lineNumber, context.position + 1);
+		// skip past the token and the spaces around the rest of the line,
+		// get ready for the next match
+		context.position = endIndex;
+		while (context.position < context.lineEnd && context.line.charAt(context.position) <= ' ') {
+			context.position++;
+		}
+		while (context.lineEnd > context.position && context.line.charAt(context.lineEnd - 1) <= ' ') {
+			context.lineEnd--;
+		}
+		return token;
+	}
+
+	/**
+	 * Skip the spaces of the current line from an offset.
+	 * @param line the current line
+	 * @param offset an offset
+	 * @param limit the offset where to stop
+	 * @return the offset of the first non-space character
+	 */
+	private static int skipSpaces(String line, int offset, int limit) {
+		while (offset < limit && Character.isWhitespace(line.charAt(offset))) {
+			offset++;
+		}
+		return offset;
+	}
+
+	/**
+	 * Skip the syllables of a word in the current line.
+	 * @param line the current line
+	 * @param offset the start offset of the word
+	 * @param limit the offset where to stop
+	 * @param word a word
+	 * @return the end offset of the word
+	 */
+	private static int skipSyllables(String line, int offset, int limit, String word) {
+		int n = 1;
+		for (int i = 0; i < word.length(); i++) {
+			if (word.charAt(i) == IConstants.BLANK_CHARACTER) {
+				n++;
+			}
+		}
+		for (int k = 0; k < n; k++) {
+			if (k > 0) {
+				offset = skipSpaces(line, offset, limit);
+			}
+			while (offset < limit && !Character.isWhitespace(line.charAt(offset))) {
+				offset++;
+			}
+		}
+		return offset;
+	}
+
+	/**
+	 * Is the offset scanning mode used?
+	 * @return <code>true/false</code>
+	 */
+	public boolean isOffsetScanning() {
+		return offsetScanning;
+	}
+
+	/**
+	 * Use the offset scanning mode or not. In this mode, a line is never copied
+	 * during scanning, the tokens keep their offsets in the line.
+	 * @param b <code>true/false</code>
+	 */
+	public void setOffsetScanning(boolean b) {
+		offsetScanning = b;
+	}
+
 	/**
 	 * Export the result of tokenization to a text file, the output
 	 * format is determined by an outputer
@@ -565,8 +823,9 @@ public class Tokenizer  {
 	}
 
 	/**
-	 * Dispose the tokenizer
-	 *
+	 * Dispose the tokenizer. The lexicon recognizers of a segmenter 
+	 * created by shared models are not disposed, they are disposed with 
+	 * the models by {@link TokenizerModels#dispose()}.
 	 */
 	public void dispose() {
 		// dispose the segmenter
@@ -593,6 +852,31 @@ public class Tokenizer  {
 		isAmbiguitiesResolved = b;
 	}
 
+	/**
+	 * Get the lexer which matches the lexer rules.
+	 * @return the lexer
+	 */
+	public ILexer getLexer() {
+		return lexer;
+	}
+
+	/**
+	 * Set the lexer. This may be used to compare the lexer engines.
+	 * @param lexer a lexer built from the rules of this tokenizer
+	 * @see LexerFactory
+	 */
+	public void setLexer(ILexer lexer) {
+		this.lexer = lexer;
+	}
+
+	/**
+	 * Get the lexer rules.
+	 * @return the lexer rules
+	 */
+	public LexerRule[] getRules() {
+		return rules;
+	}
+
 	/**
 	 * Return the lexical segmenter
 	 * @return
@@ -619,4 +903,114 @@ public class Tokenizer  {
 		}
 
 	}
+
+	/**
+	 * @author Le Hong Phuong, phuonglh@gmail.com
+	 * <p>
+	 * A lazy iterator over the tokens of a reader. The tokens of the lexer 
+	 * are processed one by one into the small result list of the context,
+	 * then merged with a lookahead of one token as done by
+	 * {@link ResultMerger#mergeList(List)}.
+	 */
+	private class TokenIterator implements Iterator<TaggedWord> {
+
+		private final TokenizerContext context;
+
+		/**
+		 * The processed tokens that are not merged yet
+		 */
+		private final List<TaggedWord> buffer;
+
+		private int index = 0;
+
+		/**
+		 * The previous processed token, it is compared to the next one 
+		 * to merge dates.
+		 */
+		private TaggedWord previous = new TaggedWord(""); // a fake start token
+
+		/**
+		 * The token to return next, it may still be merged with 
+		 * the following token.
+		 */
+		private TaggedWord pending = null;
+
+		private boolean finished = false;
+
+		TokenIterator(TokenizerContext context) {
+			this.context = context;
+			this.buffer = context.result;
+		}
+
+		/**
+		 * Get the next processed token, reading the reader if necessary.
+		 * @return the next processed token or <tt>null</tt> at the end of the input.
+		 */
+		private TaggedWord nextProcessed() {
+			while (index >= buffer.size()) {
+				buffer.clear();
+				index = 0;
+				if (finished) {
+					return null;
+				}
+				try {
+					long start = LEXER_TIMER.start();
+					TaggedWord taggedWord = getNextToken(context);
+					LEXER_TIMER.stop(start);
+					if (taggedWord == null) {
+						finished = true;
+						// close the line reader
+						if (context.lineReader != null)
+							context.lineReader.close();
+						return null;
+					}
+					processToken(context, taggedWord);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+			return buffer.get(index++);
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (pending == null) {
+				pending = nextProcessed();
+				if (pending != null) {
+					previous = pending;
+				}
+			}
+			return pending != null;
+		}
+
+		@Override
+		public TaggedWord next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			TaggedWord token = pending;
+			pending = null;
+			// merge the following tokens while possible
+			while (true) {
+				TaggedWord nextToken = nextProcessed();
+				if (nextToken == null) {
+					break;
+				}
+				TaggedWord mergedToken = resultMerger.merge(previous, nextToken);
+				previous = nextToken;
+				if (mergedToken != null) {
+					token = mergedToken;
+				} else {
+					pending = nextToken;
+					break;
+				}
+			}
+			return token;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
 }
@@ -0,0 +1,78 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.tokenizer;
+
+import java.io.LineNumberReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import vn.hus.nlp.tokenizer.tokens.TaggedWord;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * The mutable state of a tokenization call: the reader, the current line, 
+ * the position within the line and the result list. The tokenizer itself only 
+ * holds its models (the lexer rules, the segmenter...), so several contexts 
+ * can be processed by one tokenizer at the same time.
+ */
+final class TokenizerContext {
+
+	/**
+	 * Current reader, keep track of our position within the input file
+	 */
+	LineNumberReader lineReader;
+
+	/**
+	 * Current line
+	 */
+	String line = null;
+
+	/**
+	 * Current column
+	 */
+	int column = 1;
+
+	/**
+	 * The cursor within the current line, used in offset scanning mode
+	 */
+	int position;
+
+	/**
+	 * The end of the unscanned region of the current line, used in offset scanning mode
+	 */
+	int lineEnd;
+
+	/**
+	 * Is the offset scanning mode used?
+	 */
+	final boolean offsetScanning;
+
+	/**
+	 * A list of tokens containing the result of tokenization
+	 */
+	final List<TaggedWord> result;
+
+	/**
+	 * Creates a context.
+	 * @param reader a reader
+	 * @param offsetScanning use the offset scanning mode or not
+	 * @param result the list of result tokens
+	 */
+	TokenizerContext(Reader reader, boolean offsetScanning, List<TaggedWord> result) {
+		this.lineReader = new LineNumberReader(reader);
+		this.offsetScanning = offsetScanning;
+		this.result = result;
+	}
+
+	/**
+	 * Creates a context with an empty result list.
+	 * @param reader a reader
+	 * @param offsetScanning use the offset scanning mode or not
+	 */
+	TokenizerContext(Reader reader, boolean offsetScanning) {
+		this(reader, offsetScanning, new ArrayList<TaggedWord>());
+	}
+}
@@ -0,0 +1,271 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.tokenizer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import vn.hus.nlp.lexicon.LexiconUnmarshaller;
+import vn.hus.nlp.lexicon.jaxb.Corpus;
+import vn.hus.nlp.lexicon.jaxb.W;
+import vn.hus.nlp.tokenizer.lexer.ILexer;
+import vn.hus.nlp.tokenizer.lexer.LexerFactory;
+import vn.hus.nlp.tokenizer.segmenter.AbstractLexiconRecognizer;
+import vn.hus.nlp.tokenizer.segmenter.ExternalLexiconRecognizer;
+import vn.hus.nlp.tokenizer.segmenter.SegmentationCache;
+import vn.hus.nlp.tokenizer.segmenter.Segmenter;
+import vn.hus.nlp.tokenizer.segmenter.SegmenterFactory;
+import vn.hus.nlp.tokenizer.segmenter.StringNormalizer;
+import vn.hus.nlp.tokenizer.segmenter.UnigramResolver;
+import vn.hus.nlp.tokenizer.tokens.LexerRule;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * A registry of the models of the tokenizer: the lexer rules and their
+ * lexer, the lexicon recognizers, the string normalizer, the prefixes of
+ * named entities and the unigram table. The models are loaded once by
+ * {@link #load(Properties)} and can be shared by any number of tokenizers
+ * and threads. Creating a tokenizer or a segmenter from a registry does
+ * not load anything.
+ * <p>
+ * After loading, the models are changed only by the frequencies of the
+ * resolver ({@link UnigramResolver#setFrequency(String, int)}) and the
+ * words of the external lexicon ({@link ExternalLexiconRecognizer#addWord(String)}
+ * and {@link ExternalLexiconRecognizer#removeWord(String)}). These changes
+ * may be made while the models are used by other threads; each of them
+ * increases the version of the models of the segmenters
+ * ({@link Segmenter#getModelVersion()}), so that the segmentations cached
+ * with the old models are not used any more.
+ */
+public final class TokenizerModels {
+
+	/**
+	 * The default tokenizer properties file in the classpath
+	 */
+	public static final String DEFAULT_PROPERTIES = "/tokenizer.properties";
+
+	/**
+	 * The models loaded from the default properties
+	 */
+	private static TokenizerModels defaultModels = null;
+
+	private final Properties properties;
+
+	private final LexerRule[] rules;
+
+	private final ILexer lexer;
+
+	private final StringNormalizer normalizer;
+
+	private final AbstractLexiconRecognizer lexiconRecognizer;
+
+	private final AbstractLexiconRecognizer externalLexiconRecognizer;
+
+	private final ResultSplitter resultSplitter;
+
+	private final UnigramResolver resolver;
+
+	/**
+	 * The cache of segmentations shared by the segmenters, it may be <code>null</code>
+	 */
+	private final SegmentationCache segmentationCache;
+
+	/**
+	 * Load all the models.
+	 * @param properties tokenizer properties
+	 */
+	private TokenizerModels(Properties properties) {
+		this.properties = new Properties();
+		this.properties.putAll(properties);
+		rules = loadLexerRules(properties.getProperty("lexers"));
+		lexer = LexerFactory.createLexerFromProperties(properties, rules);
+		normalizer = StringNormalizer.getInstance(properties);
+		ExternalLexiconRecognizer external = new ExternalLexiconRecognizer(properties);
+		lexiconRecognizer = SegmenterFactory.createLexiconRecognizer(properties, external);
+		// the external lexicon may be a part of the internal lexicon
+		externalLexiconRecognizer = SegmenterFactory.isUnionLexicon(properties) ? null : external;
+		resultSplitter = new ResultSplitter(properties);
+		resolver = new UnigramResolver(properties.getProperty("unigramModel"));
+		segmentationCache = SegmenterFactory.createCache(properties);
+	}
+
+	/**
+	 * Load the models of a tokenizer.
+	 * @param properties tokenizer properties
+	 * @return the models
+	 */
+	public static TokenizerModels load(Properties properties) {
+		return new TokenizerModels(properties);
+	}
+
+	/**
+	 * Load the models of the default properties file of the classpath.
+	 * The models are loaded only once, later calls return the same models.
+	 * @return the default models
+	 * @throws IOException if the default properties cannot be read
+	 */
+	public static synchronized TokenizerModels getDefault() throws IOException {
+		if (defaultModels == null) {
+			Properties properties = new Properties();
+			InputStream stream = TokenizerModels.class.getResourceAsStream(DEFAULT_PROPERTIES);
+			if (stream == null) {
+				throw new IOException("Cannot find " + DEFAULT_PROPERTIES);
+			}
+			try {
+				properties.load(stream);
+			} finally {
+				stream.close();
+			}
+			defaultModels = load(properties);
+		}
+		return defaultModels;
+	}
+
+	/**
+	 * Load lexer rules from a lexer specification file.
+	 * @param lexersFilename specification file
+	 * @return the lexer rules
+	 */
+	static LexerRule[] loadLexerRules(String lexersFilename) {
+		LexiconUnmarshaller unmarshaller = new LexiconUnmarshaller();
+		Corpus corpus = unmarshaller.unmarshal(lexersFilename);
+		List<LexerRule> ruleList = new ArrayList<LexerRule>();
+		List<W> lexers = corpus.getBody().getW();
+		for (W w : lexers) {
+			ruleList.add(new LexerRule(w.getMsd(), w.getContent()));
+		}
+		return ruleList.toArray(new LexerRule[ruleList.size()]);
+	}
+
+	/**
+	 * Create a tokenizer that uses these models.
+	 * @return a new tokenizer
+	 */
+	public Tokenizer createTokenizer() {
+		return new Tokenizer(this);
+	}
+
+	/**
+	 * Create a segmenter that uses these models. The engine of the 
+	 * segmenter is selected by the properties of the models, the segmenters 
+	 * share the cache of segmentations of the models if there is one. The 
+	 * lexicon recognizers belong to the models, they are not disposed with 
+	 * the segmenter.
+	 * @return a new segmenter
+	 * @see SegmenterFactory
+	 */
+	public Segmenter createSegmenter() {
+		Segmenter segmenter = SegmenterFactory.createSegmenter(properties, normalizer, lexiconRecognizer, 
+				externalLexiconRecognizer, resolver);
+		segmenter.setCache(segmentationCache);
+		segmenter.setSharedRecognizers(true);
+		return segmenter;
+	}
+
+	/**
+	 * @return the cache of segmentations, <code>null</code> if the 
+	 * segmentations are not cached.
+	 */
+	public SegmentationCache getSegmentationCache() {
+		return segmentationCache;
+	}
+
+	/**
+	 * @param key a property key
+	 * @return the value of a property the models are loaded from
+	 */
+	public String getProperty(String key) {
+		return properties.getProperty(key);
+	}
+
+	/**
+	 * @param key a property key
+	 * @param defaultValue the default value
+	 * @return the value of a property the models are loaded from
+	 */
+	public String getProperty(String key, String defaultValue) {
+		return properties.getProperty(key, defaultValue);
+	}
+
+	/**
+	 * @return a copy of the lexer rules
+	 */
+	public LexerRule[] getRules() {
+		return rules.clone();
+	}
+
+	/**
+	 * @return the lexer of the lexer rules
+	 */
+	public ILexer getLexer() {
+		return lexer;
+	}
+
+	/**
+	 * @return the string normalizer
+	 */
+	public StringNormalizer getNormalizer() {
+		return normalizer;
+	}
+
+	/**
+	 * @return the recognizer of the internal lexicon
+	 */
+	public AbstractLexiconRecognizer getLexiconRecognizer() {
+		return lexiconRecognizer;
+	}
+
+	/**
+	 * @return the recognizer of the external lexicon, <code>null</code> if 
+	 * the external lexicon is merged into the internal lexicon.
+	 */
+	public AbstractLexiconRecognizer getExternalLexiconRecognizer() {
+		return externalLexiconRecognizer;
+	}
+
+	/**
+	 * @return the splitter of named entities
+	 */
+	public ResultSplitter getResultSplitter() {
+		return resultSplitter;
+	}
+
+	/**
+	 * @return an unmodifiable view of the prefixes of named entities
+	 */
+	public Set<String> getNamedEntityPrefix() {
+		return resultSplitter.getPrefix();
+	}
+
+	/**
+	 * @return the unigram resolver of ambiguities
+	 */
+	public UnigramResolver getResolver() {
+		return resolver;
+	}
+
+	/**
+	 * @return an unmodifiable view of the unigram table
+	 */
+	public Map<String, Integer> getUnigram() {
+		return resolver.getUnigram();
+	}
+
+	/**
+	 * Dispose the models to save space. The tokenizers using the models
+	 * must not be used any more.
+	 */
+	public void dispose() {
+		lexiconRecognizer.dispose();
+		if (externalLexiconRecognizer != null) {
+			externalLexiconRecognizer.dispose();
+		}
+	}
+}
@@ -114,27 +114,21 @@ public final class VietTokenizer {
 	 */
 	public String segment(String sentence) {
 		StringBuffer result = new StringBuffer(1000);
-		StringReader reader = new StringReader(sentence);
-		// tokenize the sentence
-		try {
-			tokenizer.tokenize(reader);
-			List<TaggedWord> list = tokenizer.getResult();
-			for (TaggedWord taggedWord : list) {
-				String word = taggedWord.toString();
-				if (TokenizerOptions.USE_UNDERSCORE) {
-					word = word.replaceAll("\\s+", "_");
-				} else {
-					word = "[" + word + "]";
-				}
-				result.append(word);
-				result.append(' ');
+		// tokenize the sentence, the tokenizer keeps no state of this call
+		// so that the method can be used by several threads.
+		List<TaggedWord> list = tokenizer.tokenizeText(sentence);
+		for (TaggedWord taggedWord : list) {
+			String word = taggedWord.toString();
+			if (TokenizerOptions.USE_UNDERSCORE) {
+				word = word.replaceAll("\\s+", "_");
+			} else {
+				word = "[" + word + "]";
 			}
-			// update nTokens
-			nTokens += list.size();
-			// 
-		} catch (IOException e) {
-			e.printStackTrace();
+			result.append(word);
+			result.append(' ');
 		}
+		// update nTokens
+		nTokens += list.size();
 		return result.toString().trim();
 	}
 	
@@ -0,0 +1,131 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.tokenizer.lexer;
+
+import vn.hus.nlp.tokenizer.tokens.LexerRule;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * A lexer which compiles its rules into a single scanner automaton.
+ * The longest match and its rule are found in one left-to-right pass 
+ * over the input. The rules that cannot be compiled (those using 
+ * lookaround, for example the <code>phrase</code> rule) are matched by
+ * the regex engine and compete with the scanner for the longest match.
+ * <p>
+ * The regex engine ends a rule at the first match found by backtracking, 
+ * which is not always its longest match: <code>\d{4}-(0*[1-9]|1[012])</code> 
+ * ends "2023-10" after the "1". The scanner follows the order of the 
+ * alternatives and of the greedy quantifiers (see {@link ScannerAutomatonBuilder}), 
+ * so that it ends every rule where the regex engine ends it, and the 
+ * lexer then selects the longest of these matches as {@link RegexLexer} 
+ * does. The two lexers give the same tokens; this is checked over the 
+ * default lexer specification and the sample texts by 
+ * <code>LexerEngineTester</code>.
+ * Inputs with supplementary characters are handed to the regex engine.
+ */
+public class AutomatonLexer implements ILexer {
+
+	private final LexerRule[] rules;
+	
+	private final ScannerAutomaton scanner;
+	
+	/**
+	 * The lexer that matches rules which are not compiled
+	 */
+	private final RegexLexer regexLexer;
+	
+	/**
+	 * Indices of the rules that are not compiled
+	 */
+	private final int[] regexRules;
+	
+	/**
+	 * Creates an automaton lexer.
+	 * @param rules lexer rules
+	 */
+	public AutomatonLexer(LexerRule[] rules) {
+		this.rules = rules;
+		ScannerAutomatonBuilder builder = new ScannerAutomatonBuilder(rules);
+		this.scanner = builder.build();
+		int n = 0;
+		for (int i = 0; i < rules.length; i++) {
+			if (!builder.isCompiled(i)) n++;
+		}
+		regexRules = new int[n];
+		n = 0;
+		for (int i = 0; i < rules.length; i++) {
+			if (!builder.isCompiled(i)) {
+				regexRules[n++] = i;
+			}
+		}
+		regexLexer = new RegexLexer(rules);
+	}
+	
+	/* (non-Javadoc)
+	 * @see vn.hus.nlp.tokenizer.lexer.ILexer#match(java.lang.CharSequence, int, int)
+	 */
+	public LexerMatch match(CharSequence input, int start, int end) {
+		int state = scanner.getInitialState();
+		int longestEnd = -1;
+		int selected = scanner.getAcceptedRule(state);
+		if (selected >= 0) {
+			longestEnd = start;
+		}
+		for (int i = start; i < end; i++) {
+			char c = input.charAt(i);
+			if (Character.isSurrogate(c)) {
+				// the scanner works on the BMP only
+				return regexLexer.match(input, start, end);
+			}
+			state = scanner.getNextState(state, c);
+			if (state == ScannerAutomaton.DEAD_STATE) {
+				break;
+			}
+			int rule = scanner.getAcceptedRule(state);
+			if (rule >= 0) {
+				longestEnd = i + 1;
+				selected = rule;
+			}
+		}
+		// match the rules which are not compiled and which may match at the 
+		// first character
+		int[] candidates = regexLexer.getCandidates(input, start, end);
+		int k = 0;
+		for (int i : regexRules) {
+			while (k < candidates.length && candidates[k] < i) {
+				k++;
+			}
+			if (k == candidates.length) {
+				break;
+			}
+			if (candidates[k] != i) {
+				continue;
+			}
+			int e = regexLexer.match(i, input, start, end);
+			if (e > longestEnd || (e == longestEnd && e >= 0 && i < selected)) {
+				longestEnd = e;
+				selected = i;
+			}
+		}
+		if (longestEnd < 0) {
+			return null;
+		}
+		return new LexerMatch(rules[selected], selected, longestEnd);
+	}
+	
+	/* (non-Javadoc)
+	 * @see vn.hus.nlp.tokenizer.lexer.ILexer#getRules()
+	 */
+	public LexerRule[] getRules() {
+		return rules;
+	}
+	
+	/**
+	 * @return the scanner automaton of this lexer.
+	 */
+	public ScannerAutomaton getScanner() {
+		return scanner;
+	}
+}
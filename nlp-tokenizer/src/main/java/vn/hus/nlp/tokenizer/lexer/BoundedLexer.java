@@ -0,0 +1,304 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.tokenizer.lexer;
+
+import vn.hus.nlp.tokenizer.tokens.LexerRule;
+import vn.hus.nlp.utils.metrics.Counter;
+import vn.hus.nlp.utils.metrics.Metrics;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * A lexer that bounds the time spent to find a match. The input is
+ * given to the underlying lexer through a character sequence which counts
+ * the characters read. A match may read a budget of characters, plus
+ * {@link #ACCESSES_PER_CHARACTER} reads for every character of the region
+ * that it reaches first, so that a long token matched in linear time, such
+ * as a phrase which spans a whole line, is never abandoned. When a match
+ * reads more, for example when the regex engine backtracks on a long run
+ * of Latin text, it reads the same characters again and again; the match
+ * is abandoned and a cheap tokenization is used instead:
+ * the region is cut after the run of characters of the same class as the
+ * first one (letters, digits, spaces or a single other character) and
+ * this short chunk is matched again with the same budget. If the chunk
+ * does not match either, it is returned as a token of the
+ * {@link #FALLBACK_RULE} rule. A match which overflows the stack of the
+ * regex engine is abandoned in the same way.
+ * <p>
+ * The characters reached by a match are remembered for the next matches
+ * of the same input on the same thread, as long as they start further
+ * on, that is when a line is scanned from a cursor: a character reached
+ * by a previous match gives no more reads. Once a match is abandoned on a
+ * long run, the next matches in the run have the bare budget, so that
+ * they fall back to chunks instead of reading the whole run again. The
+ * time of the scan of a line is then linear in its length, and every
+ * match consumes at least one character.
+ * <p>
+ * The number of fallbacks is recorded by the counter
+ * <code>lexer.fallbacks</code>.
+ */
+public class BoundedLexer implements ILexer {
+
+	/**
+	 * The rule of a chunk that no rule matches in fallback mode
+	 */
+	public static final LexerRule FALLBACK_RULE = new LexerRule("fallback");
+
+	/**
+	 * The maximal length of a chunk in fallback mode
+	 */
+	public static final int MAX_CHUNK_LENGTH = 64;
+
+	/**
+	 * The number of reads allowed for every character reached by a match,
+	 * besides the budget
+	 */
+	public static final int ACCESSES_PER_CHARACTER = 4;
+
+	/**
+	 * The classes of characters in fallback mode
+	 */
+	private static final int LETTER = 0;
+
+	private static final int DIGIT = 1;
+
+	private static final int SPACE = 2;
+
+	private static final int OTHER = 3;
+
+	private static final Counter FALLBACKS = Metrics.counter("lexer.fallbacks");
+
+	private static final Counter FAILED_FALLBACKS = Metrics.counter("lexer.failedFallbacks");
+
+	private final ILexer lexer;
+
+	private final int maxAccesses;
+
+	/**
+	 * The progress of the scan of the current input on each thread
+	 */
+	private final ThreadLocal<Progress> progresses = new ThreadLocal<Progress>() {
+		@Override
+		protected Progress initialValue() {
+			return new Progress();
+		}
+	};
+
+	/**
+	 * Creates a bounded lexer.
+	 * @param lexer the underlying lexer
+	 * @param maxAccesses the maximal number of characters read by a match,
+	 * besides the reads allowed for the characters it reaches
+	 */
+	public BoundedLexer(ILexer lexer, int maxAccesses) {
+		if (maxAccesses <= 0) {
+			throw new IllegalArgumentException("The budget must be positive: " + maxAccesses);
+		}
+		this.lexer = lexer;
+		this.maxAccesses = maxAccesses;
+	}
+
+	/* (non-Javadoc)
+	 * @see vn.hus.nlp.tokenizer.lexer.ILexer#match(java.lang.CharSequence, int, int)
+	 */
+	public LexerMatch match(CharSequence input, int start, int end) {
+		Progress progress = progresses.get();
+		if (progress.input != input || start <= progress.start) {
+			// a new input, or the same input scanned again
+			progress.input = input;
+			progress.reached = start;
+		}
+		progress.start = start;
+		BudgetedCharSequence sequence = new BudgetedCharSequence(input, start, progress.reached, maxAccesses);
+		LexerMatch match = null;
+		boolean exceeded = false;
+		try {
+			match = lexer.match(sequence, start, end);
+		} catch (BudgetExceededException e) {
+			// the match is too expensive, fall back to a chunk
+			exceeded = true;
+		} catch (StackOverflowError e) {
+			// the regex engine recursed too deeply, as if it had read too much
+			exceeded = true;
+		}
+		progress.reached = Math.max(progress.reached, sequence.getReached());
+		if (!exceeded) {
+			if (match == null || match.getEnd() >= end) {
+				// the scan of the input is over, do not keep it
+				progress.input = null;
+			}
+			return match;
+		}
+		FALLBACKS.increment();
+		int chunkEnd = getChunkEnd(input, start, end);
+		try {
+			match = lexer.match(new BudgetedCharSequence(input, start, start, maxAccesses), start, chunkEnd);
+			if (match != null) {
+				return match;
+			}
+		} catch (BudgetExceededException e) {
+			// even the chunk is too expensive
+		} catch (StackOverflowError e) {
+			// even the chunk is too deep
+		}
+		FAILED_FALLBACKS.increment();
+		return new LexerMatch(FALLBACK_RULE, -1, chunkEnd);
+	}
+
+	/**
+	 * Get the end of the chunk at the start of a region in fallback mode:
+	 * the run of characters of the same class as the first one.
+	 * @param input an input
+	 * @param start the start of the region
+	 * @param end the end of the region
+	 * @return the end of the chunk (exclusive)
+	 */
+	static int getChunkEnd(CharSequence input, int start, int end) {
+		if (start >= end) {
+			return end;
+		}
+		int type = getCharClass(input.charAt(start));
+		int limit = Math.min(end, start + MAX_CHUNK_LENGTH);
+		if (type == OTHER) {
+			// a single character, or a surrogate pair
+			if (Character.isHighSurrogate(input.charAt(start)) && start + 1 < end
+					&& Character.isLowSurrogate(input.charAt(start + 1))) {
+				return start + 2;
+			}
+			return start + 1;
+		}
+		int i = start + 1;
+		while (i < limit && getCharClass(input.charAt(i)) == type) {
+			i++;
+		}
+		return i;
+	}
+
+	private static int getCharClass(char c) {
+		if (Character.isLetter(c) || Character.getType(c) == Character.NON_SPACING_MARK) {
+			return LETTER;
+		}
+		if (Character.isDigit(c)) {
+			return DIGIT;
+		}
+		if (Character.isWhitespace(c)) {
+			return SPACE;
+		}
+		return OTHER;
+	}
+
+	/* (non-Javadoc)
+	 * @see vn.hus.nlp.tokenizer.lexer.ILexer#getRules()
+	 */
+	public LexerRule[] getRules() {
+		return lexer.getRules();
+	}
+
+	/**
+	 * @return the underlying lexer
+	 */
+	public ILexer getLexer() {
+		return lexer;
+	}
+
+	/**
+	 * @return the maximal number of characters read by a match, besides
+	 * the reads allowed for the characters it reaches
+	 */
+	public int getMaxAccesses() {
+		return maxAccesses;
+	}
+
+	/**
+	 * The scan of an input by a thread: the start of the last match and
+	 * the end of the region reached by the matches so far.
+	 */
+	private static final class Progress {
+
+		private CharSequence input;
+
+		private int start = -1;
+
+		private int reached;
+	}
+
+	/**
+	 * A character sequence that counts the characters read and throws
+	 * an exception when a budget is exceeded. The budget grows with the
+	 * furthest character read, beyond the region already reached.
+	 */
+	private static final class BudgetedCharSequence implements CharSequence {
+
+		private final CharSequence input;
+
+		private long budget;
+
+		/**
+		 * The end of the region read from the start
+		 */
+		private int reached;
+
+		/**
+		 * @param input the input
+		 * @param start the start of the match
+		 * @param reached the end of the region already reached, the
+		 * characters before it give no more reads
+		 * @param budget the budget of the match
+		 */
+		BudgetedCharSequence(CharSequence input, int start, int reached, int budget) {
+			this.input = input;
+			this.budget = budget;
+			this.reached = Math.max(start, reached);
+		}
+
+		int getReached() {
+			return reached;
+		}
+
+		private void read(int from, int to) {
+			if (to > reached) {
+				budget += (long) ACCESSES_PER_CHARACTER * (to - reached);
+				reached = to;
+			}
+			budget -= to - from;
+			if (budget < 0) {
+				throw BudgetExceededException.INSTANCE;
+			}
+		}
+
+		public char charAt(int index) {
+			read(index, index + 1);
+			return input.charAt(index);
+		}
+
+		public int length() {
+			return input.length();
+		}
+
+		public CharSequence subSequence(int start, int end) {
+			read(start, end);
+			return input.subSequence(start, end);
+		}
+
+		@Override
+		public String toString() {
+			return input.toString();
+		}
+	}
+
+	/**
+	 * Thrown when a match exceeds its budget. It is used for control flow
+	 * only, so a shared instance without stack trace is thrown.
+	 */
+	private static final class BudgetExceededException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		static final BudgetExceededException INSTANCE = new BudgetExceededException();
+
+		private BudgetExceededException() {
+			super("The budget of the match is exceeded", null, false, false);
+		}
+	}
+}
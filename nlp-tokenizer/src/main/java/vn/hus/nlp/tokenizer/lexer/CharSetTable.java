@@ -0,0 +1,101 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.tokenizer.lexer;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * A table of character sets used by the rules of a lexer. A set is 
+ * identified by its index in the table. A character class of a regular 
+ * expression is evaluated by the regex engine itself over all the 
+ * characters of the Basic Multilingual Plane, so that the sets have 
+ * exactly the semantics of the patterns. Surrogate characters never
+ * belong to a set.
+ */
+final class CharSetTable {
+	
+	/**
+	 * Number of characters of the Basic Multilingual Plane
+	 */
+	static final int SIZE = Character.MAX_VALUE + 1;
+	
+	private final List<BitSet> sets = new ArrayList<BitSet>();
+	
+	/**
+	 * Cache of evaluated sets, the key is the text of the set 
+	 */
+	private final Map<String, Integer> cache = new HashMap<String, Integer>();
+	
+	/**
+	 * Get the index of the set of a single character.
+	 * @param c a character
+	 * @return the index of the set.
+	 */
+	int getCharSet(char c) {
+		String key = String.valueOf(c);
+		Integer index = cache.get(key);
+		if (index == null) {
+			BitSet set = new BitSet(SIZE);
+			set.set(c);
+			index = add(key, set);
+		}
+		return index;
+	}
+	
+	/**
+	 * Get the index of the set of characters matched by a character
+	 * class, an escape sequence or a dot. 
+	 * @param text the text of the class 
+	 * @return the index of the set.
+	 */
+	int getClassSet(String text) {
+		Integer index = cache.get("#" + text);
+		if (index == null) {
+			Matcher matcher = Pattern.compile(text).matcher("");
+			BitSet set = new BitSet(SIZE);
+			for (int c = 0; c < SIZE; c++) {
+				if (Character.isSurrogate((char) c)) {
+					continue;
+				}
+				matcher.reset(String.valueOf((char) c));
+				if (matcher.matches()) {
+					set.set(c);
+				}
+			}
+			index = add("#" + text, set);
+		}
+		return index;
+	}
+	
+	private int add(String key, BitSet set) {
+		int index = sets.size();
+		sets.add(set);
+		cache.put(key, index);
+		return index;
+	}
+	
+	/**
+	 * Get a set.
+	 * @param index index of the set
+	 * @return a set of characters
+	 */
+	BitSet getSet(int index) {
+		return sets.get(index);
+	}
+	
+	/**
+	 * @return the number of sets.
+	 */
+	int size() {
+		return sets.size();
+	}
+}
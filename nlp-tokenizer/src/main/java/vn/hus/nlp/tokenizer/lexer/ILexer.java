@@ -0,0 +1,33 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.tokenizer.lexer;
+
+import vn.hus.nlp.tokenizer.tokens.LexerRule;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * A lexer finds the lexer rule that matches the longest prefix 
+ * of a region of an input. If two rules match the same number of 
+ * characters, the rule which comes first in the rule set is selected.
+ */
+public interface ILexer {
+	
+	/**
+	 * Find the longest match starting at <code>start</code>. The 
+	 * characters at and after <code>end</code> are not visible to the lexer.
+	 * 
+	 * @param input an input 
+	 * @param start the start of the region 
+	 * @param end the end of the region (exclusive)
+	 * @return the longest match or <code>null</code> if no rule matches.
+	 */
+	public LexerMatch match(CharSequence input, int start, int end);
+	
+	/**
+	 * Get the rules of this lexer.
+	 * @return the lexer rules
+	 */
+	public LexerRule[] getRules();
+}
@@ -0,0 +1,83 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.tokenizer.lexer;
+
+import java.util.Properties;
+
+import vn.hus.nlp.tokenizer.tokens.LexerRule;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * A factory of lexers. The engine of a lexer is selected by the 
+ * <code>lexerEngine</code> property of the tokenizer. If the 
+ * <code>lexerAccessBudget</code> property is positive, the lexer is 
+ * bounded by a {@link BoundedLexer}.
+ */
+public final class LexerFactory {
+	
+	/**
+	 * The name of the property that selects the lexer engine 
+	 */
+	public static final String LEXER_ENGINE_PROPERTY = "lexerEngine";
+	
+	/**
+	 * The regex engine, this is the default engine.
+	 */
+	public static final String REGEX_ENGINE = "regex";
+	
+	/**
+	 * The scanner automaton engine.
+	 */
+	public static final String AUTOMATON_ENGINE = "automaton";
+	
+	/**
+	 * The name of the property that gives the maximal number of characters 
+	 * read by a match besides the reads allowed for the characters it 
+	 * reaches (see {@link BoundedLexer}), 0 if the matches are not bounded.
+	 */
+	public static final String ACCESS_BUDGET_PROPERTY = "lexerAccessBudget";
+	
+	private LexerFactory() {}
+	
+	/**
+	 * Create a lexer.
+	 * @param engine name of the engine, <code>null</code> for the default engine.
+	 * @param rules lexer rules
+	 * @return a lexer
+	 */
+	public static ILexer createLexer(String engine, LexerRule[] rules) {
+		if (engine == null || engine.trim().length() == 0 || engine.trim().equalsIgnoreCase(REGEX_ENGINE)) {
+			return new RegexLexer(rules);
+		}
+		if (engine.trim().equalsIgnoreCase(AUTOMATON_ENGINE)) {
+			return new AutomatonLexer(rules);
+		}
+		System.err.println("Unknown lexer engine: " + engine + ". The regex engine is used.");
+		return new RegexLexer(rules);
+	}
+	
+	/**
+	 * Create a lexer from the properties of a tokenizer.
+	 * @param properties tokenizer properties
+	 * @param rules lexer rules
+	 * @return a lexer, bounded if there is a positive access budget.
+	 */
+	public static ILexer createLexerFromProperties(Properties properties, LexerRule[] rules) {
+		ILexer lexer = createLexer(properties.getProperty(LEXER_ENGINE_PROPERTY), rules);
+		int budget = 0;
+		String value = properties.getProperty(ACCESS_BUDGET_PROPERTY);
+		if (value != null && value.trim().length() > 0) {
+			try {
+				budget = Integer.parseInt(value.trim());
+			} catch (NumberFormatException e) {
+				System.err.println("Invalid lexer access budget: " + value + ". The lexer is not bounded.");
+			}
+		}
+		if (budget > 0) {
+			return new BoundedLexer(lexer, budget);
+		}
+		return lexer;
+	}
+}
@@ -0,0 +1,59 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.tokenizer.lexer;
+
+import vn.hus.nlp.tokenizer.tokens.LexerRule;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * A match found by a lexer: the matched rule, its index in the rule set
+ * and the end of the matched text.
+ */
+public final class LexerMatch {
+
+	private final LexerRule rule;
+	
+	private final int ruleIndex;
+	
+	private final int end;
+	
+	/**
+	 * Creates a match.
+	 * @param rule the matched rule
+	 * @param ruleIndex the index of the rule in the rule set
+	 * @param end the end of the match (exclusive)
+	 */
+	public LexerMatch(LexerRule rule, int ruleIndex, int end) {
+		this.rule = rule;
+		this.ruleIndex = ruleIndex;
+		this.end = end;
+	}
+	
+	/**
+	 * @return the matched rule
+	 */
+	public LexerRule getRule() {
+		return rule;
+	}
+	
+	/**
+	 * @return the index of the matched rule in the rule set.
+	 */
+	public int getRuleIndex() {
+		return ruleIndex;
+	}
+	
+	/**
+	 * @return the end of the match, this is an index in the input.
+	 */
+	public int getEnd() {
+		return end;
+	}
+	
+	@Override
+	public String toString() {
+		return rule + "@" + end;
+	}
+}
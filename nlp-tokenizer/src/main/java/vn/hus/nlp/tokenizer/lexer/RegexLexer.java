@@ -0,0 +1,110 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.tokenizer.lexer;
+
+import java.util.regex.Matcher;
+
+import vn.hus.nlp.tokenizer.tokens.LexerRule;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * The default lexer. It tries the pattern of every candidate rule at the 
+ * start of the region and keeps the longest match. The candidate rules 
+ * are given by a dispatch index on the first character of the region.
+ */
+public class RegexLexer implements ILexer {
+
+	private final LexerRule[] rules;
+	
+	/**
+	 * The dispatch index, <code>null</code> if all rules are tried.
+	 */
+	private final RuleDispatchIndex index;
+	
+	/**
+	 * All the rules 
+	 */
+	private final int[] allRules;
+	
+	/**
+	 * Creates a regex lexer which uses a dispatch index.
+	 * @param rules lexer rules
+	 */
+	public RegexLexer(LexerRule[] rules) {
+		this(rules, true);
+	}
+	
+	/**
+	 * Creates a regex lexer.
+	 * @param rules lexer rules
+	 * @param useDispatchIndex <code>true</code> if the rules are dispatched on the first 
+	 * character of the input, <code>false</code> if all rules are tried.
+	 */
+	public RegexLexer(LexerRule[] rules, boolean useDispatchIndex) {
+		this.rules = rules;
+		this.index = useDispatchIndex ? new RuleDispatchIndex(rules) : null;
+		this.allRules = new int[rules.length];
+		for (int i = 0; i < rules.length; i++) {
+			allRules[i] = i;
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see vn.hus.nlp.tokenizer.lexer.ILexer#match(java.lang.CharSequence, int, int)
+	 */
+	public LexerMatch match(CharSequence input, int start, int end) {
+		int longestEnd = -1;
+		int selected = -1;
+		for (int i : getCandidates(input, start, end)) {
+			int e = match(i, input, start, end);
+			if (e > longestEnd) {
+				longestEnd = e;
+				selected = i;
+			}
+		}
+		if (selected < 0) {
+			return null;
+		}
+		return new LexerMatch(rules[selected], selected, longestEnd);
+	}
+	
+	/**
+	 * Get the rules which may match at the start of a region.
+	 * @param input an input
+	 * @param start start of the region
+	 * @param end end of the region
+	 * @return indices of the candidate rules in increasing order.
+	 */
+	public int[] getCandidates(CharSequence input, int start, int end) {
+		if (index == null || start >= end) {
+			return allRules;
+		}
+		return index.getCandidates(input.charAt(start));
+	}
+	
+	/**
+	 * Match a single rule at the start of a region.
+	 * @param ruleIndex the index of the rule
+	 * @param input an input
+	 * @param start start of the region
+	 * @param end end of the region
+	 * @return the end of the match, or -1 if the rule does not match.
+	 */
+	int match(int ruleIndex, CharSequence input, int start, int end) {
+		Matcher matcher = rules[ruleIndex].getPattern().matcher(input);
+		matcher.region(start, end);
+		if (matcher.lookingAt()) {
+			return matcher.end();
+		}
+		return -1;
+	}
+
+	/* (non-Javadoc)
+	 * @see vn.hus.nlp.tokenizer.lexer.ILexer#getRules()
+	 */
+	public LexerRule[] getRules() {
+		return rules;
+	}
+}
@@ -0,0 +1,313 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.tokenizer.lexer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * A parser of the regular expressions of lexer rules. It understands the
+ * subset of the <code>java.util.regex</code> syntax that is used in
+ * lexer specification files: literals, escapes, character classes, groups,
+ * alternations and greedy quantifiers. Assertions (anchors, word
+ * boundaries and lookarounds) are parsed into zero-width nodes; they
+ * cannot be compiled into an automaton. Other constructs (back references,
+ * named groups, flags, quotations) are not supported.
+ */
+final class RegexParser {
+
+	private final String regex;
+
+	private final CharSetTable table;
+
+	private int pos;
+
+	/**
+	 * Creates a parser.
+	 * @param regex a regular expression
+	 * @param table the table where character sets are registered
+	 */
+	RegexParser(String regex, CharSetTable table) {
+		this.regex = regex;
+		this.table = table;
+	}
+
+	/**
+	 * Parse the regular expression.
+	 * @return the root node of the expression
+	 * @throws UnsupportedRegexException if the expression contains an unsupported construct
+	 */
+	Node parse() throws UnsupportedRegexException {
+		pos = 0;
+		Node node = parseAlternation();
+		if (pos < regex.length()) {
+			throw new UnsupportedRegexException("Unexpected character at " + pos + ": " + regex);
+		}
+		return node;
+	}
+
+	private Node parseAlternation() throws UnsupportedRegexException {
+		Node first = parseConcatenation();
+		if (pos >= regex.length() || regex.charAt(pos) != '|') {
+			return first;
+		}
+		Node node = new Node(Node.ALTERNATION);
+		node.children.add(first);
+		while (pos < regex.length() && regex.charAt(pos) == '|') {
+			pos++;
+			node.children.add(parseConcatenation());
+		}
+		return node;
+	}
+
+	private Node parseConcatenation() throws UnsupportedRegexException {
+		Node node = new Node(Node.CONCATENATION);
+		while (pos < regex.length()) {
+			char c = regex.charAt(pos);
+			if (c == '|' || c == ')') {
+				break;
+			}
+			node.children.add(parseRepetition());
+		}
+		return node;
+	}
+
+	private Node parseRepetition() throws UnsupportedRegexException {
+		Node atom = parseAtom();
+		if (pos >= regex.length()) {
+			return atom;
+		}
+		int min, max;
+		char c = regex.charAt(pos);
+		if (c == '*') {
+			min = 0; max = -1; pos++;
+		} else if (c == '+') {
+			min = 1; max = -1; pos++;
+		} else if (c == '?') {
+			min = 0; max = 1; pos++;
+		} else if (c == '{') {
+			int close = regex.indexOf('}', pos);
+			if (close < 0) {
+				throw new UnsupportedRegexException("Unclosed bound: " + regex);
+			}
+			String bound = regex.substring(pos + 1, close);
+			try {
+				int comma = bound.indexOf(',');
+				if (comma < 0) {
+					min = max = Integer.parseInt(bound.trim());
+				} else {
+					min = Integer.parseInt(bound.substring(0, comma).trim());
+					String upper = bound.substring(comma + 1).trim();
+					max = (upper.length() == 0) ? -1 : Integer.parseInt(upper);
+				}
+			} catch (NumberFormatException e) {
+				throw new UnsupportedRegexException("Invalid bound: " + regex);
+			}
+			pos = close + 1;
+		} else {
+			return atom;
+		}
+		Node node = new Node(Node.REPETITION);
+		node.children.add(atom);
+		node.min = min;
+		node.max = max;
+		// lazy or possessive quantifier
+		if (pos < regex.length() && (regex.charAt(pos) == '?' || regex.charAt(pos) == '+')) {
+			node.greedy = false;
+			pos++;
+		}
+		return node;
+	}
+
+	private Node parseAtom() throws UnsupportedRegexException {
+		char c = regex.charAt(pos);
+		switch (c) {
+		case '(':
+			return parseGroup();
+		case '[':
+			int end = findClassEnd(pos);
+			Node set = new Node(Node.CHARACTERS);
+			set.set = table.getClassSet(regex.substring(pos, end));
+			pos = end;
+			return set;
+		case '.':
+			pos++;
+			Node dot = new Node(Node.CHARACTERS);
+			dot.set = table.getClassSet(".");
+			return dot;
+		case '^':
+		case '$':
+			pos++;
+			return new Node(Node.ASSERTION);
+		case '\\':
+			return parseEscape();
+		case '*':
+		case '+':
+		case '?':
+		case '{':
+			throw new UnsupportedRegexException("Dangling quantifier at " + pos + ": " + regex);
+		default:
+			if (Character.isSurrogate(c)) {
+				throw new UnsupportedRegexException("Supplementary character in: " + regex);
+			}
+			pos++;
+			Node literal = new Node(Node.CHARACTERS);
+			literal.set = table.getCharSet(c);
+			return literal;
+		}
+	}
+
+	private Node parseGroup() throws UnsupportedRegexException {
+		// skip the open parenthesis
+		pos++;
+		Node node;
+		if (regex.startsWith("?:", pos)) {
+			pos += 2;
+			node = parseAlternation();
+		} else if (regex.startsWith("?=", pos) || regex.startsWith("?!", pos)) {
+			pos += 2;
+			node = new Node(Node.ASSERTION);
+			node.children.add(parseAlternation());
+		} else if (regex.startsWith("?<=", pos) || regex.startsWith("?<!", pos)) {
+			pos += 3;
+			node = new Node(Node.ASSERTION);
+			node.children.add(parseAlternation());
+		} else if (regex.startsWith("?", pos)) {
+			throw new UnsupportedRegexException("Unsupported group at " + pos + ": " + regex);
+		} else {
+			node = parseAlternation();
+		}
+		if (pos >= regex.length() || regex.charAt(pos) != ')') {
+			throw new UnsupportedRegexException("Unclosed group: " + regex);
+		}
+		pos++;
+		return node;
+	}
+
+	private Node parseEscape() throws UnsupportedRegexException {
+		if (pos + 1 >= regex.length()) {
+			throw new UnsupportedRegexException("Trailing backslash: " + regex);
+		}
+		char e = regex.charAt(pos + 1);
+		int end = pos + 2;
+		switch (e) {
+		case 'b': case 'B': case 'A': case 'G': case 'Z': case 'z':
+			pos = end;
+			return new Node(Node.ASSERTION);
+		case 'Q': case 'E': case 'k':
+			throw new UnsupportedRegexException("Unsupported escape \\" + e + ": " + regex);
+		case 'p': case 'P':
+		case 'x':
+			if (end < regex.length() && regex.charAt(end) == '{') {
+				end = regex.indexOf('}', end) + 1;
+				if (end == 0) {
+					throw new UnsupportedRegexException("Unclosed escape: " + regex);
+				}
+			} else {
+				end = (e == 'x') ? pos + 4 : pos + 3;
+			}
+			break;
+		case 'u':
+			end = pos + 6;
+			break;
+		case 'c':
+			end = pos + 3;
+			break;
+		case '0':
+			while (end < regex.length() && end < pos + 5 && regex.charAt(end) >= '0' && regex.charAt(end) <= '7') {
+				end++;
+			}
+			break;
+		default:
+			if (e >= '1' && e <= '9') {
+				throw new UnsupportedRegexException("Back reference: " + regex);
+			}
+		}
+		if (end > regex.length()) {
+			throw new UnsupportedRegexException("Truncated escape: " + regex);
+		}
+		Node node = new Node(Node.CHARACTERS);
+		node.set = table.getClassSet(regex.substring(pos, end));
+		pos = end;
+		return node;
+	}
+
+	/**
+	 * Find the end of a character class, taking nested classes
+	 * and escaped characters into account.
+	 * @param start position of the open bracket
+	 * @return the position after the matching close bracket
+	 * @throws UnsupportedRegexException
+	 */
+	private int findClassEnd(int start) throws UnsupportedRegexException {
+		int depth = 0;
+		int i = start;
+		while (i < regex.length()) {
+			char c = regex.charAt(i);
+			if (c == '\\') {
+				i += 2;
+				continue;
+			}
+			if (c == '[') {
+				depth++;
+			} else if (c == ']') {
+				depth--;
+				if (depth == 0) {
+					return i + 1;
+				}
+			}
+			i++;
+		}
+		throw new UnsupportedRegexException("Unclosed character class: " + regex);
+	}
+
+	/**
+	 * @author Le Hong Phuong, phuonglh@gmail.com
+	 * <p>
+	 * A node of the syntax tree of a regular expression.
+	 */
+	static final class Node {
+		static final int CHARACTERS = 0;
+		static final int CONCATENATION = 1;
+		static final int ALTERNATION = 2;
+		static final int REPETITION = 3;
+		static final int ASSERTION = 4;
+
+		final int type;
+
+		final List<Node> children = new ArrayList<Node>(2);
+
+		/**
+		 * The index of the character set of a CHARACTERS node
+		 */
+		int set = -1;
+
+		/**
+		 * Bounds of a REPETITION node, the upper bound is -1 if unbounded.
+		 */
+		int min = 1, max = 1;
+
+		boolean greedy = true;
+
+		Node(int type) {
+			this.type = type;
+		}
+	}
+
+	/**
+	 * @author Le Hong Phuong, phuonglh@gmail.com
+	 * <p>
+	 * Thrown when a regular expression contains a construct
+	 * that the parser does not support.
+	 */
+	static final class UnsupportedRegexException extends Exception {
+		private static final long serialVersionUID = 1L;
+
+		UnsupportedRegexException(String message) {
+			super(message);
+		}
+	}
+}
@@ -0,0 +1,165 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.tokenizer.lexer;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import vn.hus.nlp.tokenizer.lexer.RegexParser.Node;
+import vn.hus.nlp.tokenizer.lexer.RegexParser.UnsupportedRegexException;
+import vn.hus.nlp.tokenizer.tokens.LexerRule;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * An index from the first character of an input to the rules that can
+ * match at this character. The index is computed from the set of
+ * characters that can start a match of each rule (its FIRST set).
+ * Assertions are considered as empty strings, so the FIRST set of a rule 
+ * with lookaround is a superset of its real FIRST set. A rule that 
+ * can match the empty string or that cannot be parsed is a candidate 
+ * for every character.
+ * <p>
+ * Characters are grouped into classes of characters having the same
+ * candidates; the rules of a class are in increasing order of their 
+ * indices, so the first rule still wins a tie.
+ */
+public final class RuleDispatchIndex {
+	
+	private static final Logger logger = Logger.getLogger(RuleDispatchIndex.class.getName());
+	
+	/**
+	 * The class of every character of the BMP
+	 */
+	private final char[] classes;
+	
+	/**
+	 * The candidate rules of every class
+	 */
+	private final int[][] candidates;
+	
+	/**
+	 * All the rules, they are candidates for supplementary characters
+	 */
+	private final int[] allRules;
+	
+	/**
+	 * Creates the dispatch index of a set of rules.
+	 * @param rules lexer rules
+	 */
+	public RuleDispatchIndex(LexerRule[] rules) {
+		CharSetTable table = new CharSetTable();
+		BitSet[] firsts = new BitSet[rules.length];
+		for (int r = 0; r < rules.length; r++) {
+			firsts[r] = new BitSet(CharSetTable.SIZE);
+			try {
+				Node node = new RegexParser(rules[r].getRegex(), table).parse();
+				if (first(node, firsts[r], table)) {
+					// the rule can match the empty string
+					firsts[r].set(0, CharSetTable.SIZE);
+				}
+			} catch (UnsupportedRegexException e) {
+				logger.log(Level.FINE, "The rule " + rules[r] + " is tried on all characters: " + e.getMessage());
+				firsts[r].set(0, CharSetTable.SIZE);
+			}
+		}
+		// group the characters into classes
+		int[] classOf = new int[CharSetTable.SIZE];
+		int numberOfClasses = 1;
+		for (int r = 0; r < rules.length; r++) {
+			Map<Integer, Integer> refinement = new HashMap<Integer, Integer>();
+			for (int c = 0; c < classOf.length; c++) {
+				int key = (classOf[c] << 1) | (firsts[r].get(c) ? 1 : 0);
+				Integer k = refinement.get(key);
+				if (k == null) {
+					k = refinement.size();
+					refinement.put(key, k);
+				}
+				classOf[c] = k;
+			}
+			numberOfClasses = refinement.size();
+		}
+		classes = new char[CharSetTable.SIZE];
+		candidates = new int[numberOfClasses][];
+		for (int c = 0; c < classOf.length; c++) {
+			classes[c] = (char) classOf[c];
+			int k = classOf[c];
+			if (candidates[k] == null) {
+				int n = 0;
+				for (int r = 0; r < rules.length; r++) {
+					if (firsts[r].get(c)) n++;
+				}
+				candidates[k] = new int[n];
+				n = 0;
+				for (int r = 0; r < rules.length; r++) {
+					if (firsts[r].get(c)) {
+						candidates[k][n++] = r;
+					}
+				}
+			}
+		}
+		allRules = new int[rules.length];
+		for (int r = 0; r < rules.length; r++) {
+			allRules[r] = r;
+		}
+	}
+	
+	/**
+	 * Compute the FIRST set of a node.
+	 * @param node a node
+	 * @param first the set to which the characters are added
+	 * @param table the table of character sets
+	 * @return <code>true</code> if the node can match the empty string.
+	 */
+	private static boolean first(Node node, BitSet first, CharSetTable table) {
+		switch (node.type) {
+		case Node.CHARACTERS:
+			first.or(table.getSet(node.set));
+			return false;
+		case Node.CONCATENATION:
+			for (Node child : node.children) {
+				if (!first(child, first, table)) {
+					return false;
+				}
+			}
+			return true;
+		case Node.ALTERNATION:
+			boolean nullable = false;
+			for (Node child : node.children) {
+				if (first(child, first, table)) {
+					nullable = true;
+				}
+			}
+			return nullable;
+		case Node.REPETITION:
+			boolean b = first(node.children.get(0), first, table);
+			return b || node.min == 0;
+		default:
+			// an assertion consumes no character
+			return true;
+		}
+	}
+	
+	/**
+	 * Get the rules that may match an input starting with a character.
+	 * @param c the first character of the input
+	 * @return the indices of the candidate rules, in increasing order.
+	 */
+	public int[] getCandidates(char c) {
+		if (Character.isSurrogate(c)) {
+			return allRules;
+		}
+		return candidates[classes[c]];
+	}
+	
+	/**
+	 * @return the number of character classes of the index.
+	 */
+	public int getNumberOfClasses() {
+		return candidates.length;
+	}
+}
@@ -0,0 +1,85 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.tokenizer.lexer;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * A deterministic scanner compiled from lexer rules. Characters are 
+ * mapped to equivalence classes and the transitions are stored in 
+ * a single table indexed by state and class. The scanner is immutable 
+ * and can be shared between threads.
+ */
+public final class ScannerAutomaton {
+	
+	/**
+	 * The dead state
+	 */
+	public static final int DEAD_STATE = -1;
+	
+	/**
+	 * The class of every character of the BMP
+	 */
+	private final char[] classes;
+	
+	private final int numberOfClasses;
+	
+	/**
+	 * The transition table
+	 */
+	private final int[] transitions;
+	
+	/**
+	 * The rule accepted by every state, or -1
+	 */
+	private final int[] accepts;
+	
+	ScannerAutomaton(char[] classes, int numberOfClasses, int[] transitions, int[] accepts) {
+		this.classes = classes;
+		this.numberOfClasses = numberOfClasses;
+		this.transitions = transitions;
+		this.accepts = accepts;
+	}
+	
+	/**
+	 * @return the initial state
+	 */
+	public int getInitialState() {
+		return 0;
+	}
+	
+	/**
+	 * Get the next state of a state on a character. The character must 
+	 * not be a surrogate.
+	 * @param state a state
+	 * @param c a character
+	 * @return the next state or {@link #DEAD_STATE}.
+	 */
+	public int getNextState(int state, char c) {
+		return transitions[state * numberOfClasses + classes[c]];
+	}
+	
+	/**
+	 * Get the index of the rule accepted at a state.
+	 * @param state a state
+	 * @return the index of the rule or -1 if the state is not final.
+	 */
+	public int getAcceptedRule(int state) {
+		return accepts[state];
+	}
+	
+	/**
+	 * @return the number of states of the scanner
+	 */
+	public int getNumberOfStates() {
+		return accepts.length;
+	}
+	
+	/**
+	 * @return the number of character classes
+	 */
+	public int getNumberOfClasses() {
+		return numberOfClasses;
+	}
+}
@@ -0,0 +1,340 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.tokenizer.lexer;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import vn.hus.nlp.tokenizer.lexer.RegexParser.Node;
+import vn.hus.nlp.tokenizer.lexer.RegexParser.UnsupportedRegexException;
+import vn.hus.nlp.tokenizer.tokens.LexerRule;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * Compiles a set of lexer rules into a single deterministic scanner.
+ * The rules are parsed, translated into one nondeterministic automaton
+ * (Thompson's construction) whose final states are labelled with the
+ * index of their rule, then determinized by the subset construction over
+ * the equivalence classes of the characters. A state of the scanner
+ * accepts the rule of lowest index among the rules accepted by its NFA
+ * states.
+ * <p>
+ * The regex engine does not give the longest match of a rule but the 
+ * first one found by backtracking: the alternatives are tried from left 
+ * to right and the greedy quantifiers try one more iteration before 
+ * they stop. The subsets are therefore ordered lists of NFA states, in 
+ * the order in which backtracking would try them, and the states of a 
+ * rule that come after its final state in a list are dropped, since 
+ * backtracking never reaches them once the rule has matched. The 
+ * scanner then ends every rule where the regex engine ends it.
+ * <p>
+ * Rules that contain assertions or non-greedy quantifiers cannot be
+ * compiled; they are reported by {@link #isCompiled(int)} and must be
+ * matched by the regex engine.
+ */
+final class ScannerAutomatonBuilder {
+
+	private static final Logger logger = Logger.getLogger(ScannerAutomatonBuilder.class.getName());
+
+	private final LexerRule[] rules;
+
+	private final boolean[] compiled;
+
+	private final CharSetTable table = new CharSetTable();
+
+	/**
+	 * NFA states: the character set of the transition of each state (or -1)
+	 */
+	private final List<Integer> labels = new ArrayList<Integer>();
+	/**
+	 * NFA states: the target of the transition of each state (or -1)
+	 */
+	private final List<Integer> targets = new ArrayList<Integer>();
+	/**
+	 * NFA states: epsilon transitions
+	 */
+	private final List<List<Integer>> epsilons = new ArrayList<List<Integer>>();
+	/**
+	 * NFA states: the rule accepted by each state (or -1)
+	 */
+	private final List<Integer> accepts = new ArrayList<Integer>();
+	/**
+	 * NFA states: the rule of each state (or -1)
+	 */
+	private final List<Integer> owners = new ArrayList<Integer>();
+
+	/**
+	 * The rule whose fragment is being built
+	 */
+	private int currentRule = -1;
+
+	/**
+	 * Creates a builder.
+	 * @param rules lexer rules
+	 */
+	ScannerAutomatonBuilder(LexerRule[] rules) {
+		this.rules = rules;
+		this.compiled = new boolean[rules.length];
+	}
+
+	/**
+	 * Build the scanner.
+	 * @return the scanner automaton
+	 */
+	ScannerAutomaton build() {
+		int initial = newState();
+		for (int r = 0; r < rules.length; r++) {
+			currentRule = r;
+			try {
+				Node node = new RegexParser(rules[r].getRegex(), table).parse();
+				int[] fragment = buildFragment(node);
+				addEpsilon(initial, fragment[0]);
+				accepts.set(fragment[1], r);
+				compiled[r] = true;
+			} catch (UnsupportedRegexException e) {
+				logger.log(Level.FINE, "The rule " + rules[r] + " is matched by regex: " + e.getMessage());
+			}
+		}
+		return determinize(initial);
+	}
+
+	/**
+	 * Is a rule compiled into the scanner?
+	 * @param ruleIndex index of a rule
+	 * @return <code>true</code> if the rule is compiled, <code>false</code>
+	 * if it must be matched by the regex engine.
+	 */
+	boolean isCompiled(int ruleIndex) {
+		return compiled[ruleIndex];
+	}
+
+	private int newState() {
+		labels.add(-1);
+		targets.add(-1);
+		epsilons.add(new ArrayList<Integer>(2));
+		accepts.add(-1);
+		owners.add(currentRule);
+		return labels.size() - 1;
+	}
+
+	private void addEpsilon(int from, int to) {
+		epsilons.get(from).add(to);
+	}
+
+	/**
+	 * Build the NFA fragment of a node.
+	 * @param node a node
+	 * @return the start and the end state of the fragment
+	 * @throws UnsupportedRegexException
+	 */
+	private int[] buildFragment(Node node) throws UnsupportedRegexException {
+		int start = newState();
+		int end;
+		switch (node.type) {
+		case Node.CHARACTERS:
+			end = newState();
+			labels.set(start, node.set);
+			targets.set(start, end);
+			break;
+		case Node.CONCATENATION:
+			end = start;
+			for (Node child : node.children) {
+				int[] f = buildFragment(child);
+				addEpsilon(end, f[0]);
+				end = f[1];
+			}
+			break;
+		case Node.ALTERNATION:
+			end = newState();
+			for (Node child : node.children) {
+				int[] f = buildFragment(child);
+				addEpsilon(start, f[0]);
+				addEpsilon(f[1], end);
+			}
+			break;
+		case Node.REPETITION:
+			if (!node.greedy) {
+				throw new UnsupportedRegexException("Non-greedy quantifier");
+			}
+			Node child = node.children.get(0);
+			end = start;
+			for (int i = 0; i < node.min; i++) {
+				int[] f = buildFragment(child);
+				addEpsilon(end, f[0]);
+				end = f[1];
+			}
+			if (node.max < 0) {
+				int[] f = buildFragment(child);
+				int last = newState();
+				addEpsilon(end, f[0]);
+				addEpsilon(end, last);
+				addEpsilon(f[1], f[0]);
+				addEpsilon(f[1], last);
+				end = last;
+			} else {
+				int last = newState();
+				for (int i = node.min; i < node.max; i++) {
+					int[] f = buildFragment(child);
+					// greedy: one more iteration is tried first
+					addEpsilon(end, f[0]);
+					addEpsilon(end, last);
+					end = f[1];
+				}
+				addEpsilon(end, last);
+				end = last;
+			}
+			break;
+		default:
+			throw new UnsupportedRegexException("Assertion");
+		}
+		return new int[] {start, end};
+	}
+
+	/**
+	 * Add the epsilon closure of a state to an ordered list of states, in 
+	 * the order of backtracking (depth first, the epsilon transitions in 
+	 * their order). Only the states which have a transition or accept a 
+	 * rule are added. The states of a rule which has already matched in 
+	 * the list are dropped.
+	 * @param state a state
+	 * @param visited the states already visited for the list
+	 * @param matched the rules already matched in the list
+	 * @param list the list
+	 */
+	private void closure(int state, BitSet visited, BitSet matched, List<Integer> list) {
+		int[] stack = new int[labels.size()];
+		int top = 0;
+		stack[top++] = state;
+		while (top > 0) {
+			int s = stack[--top];
+			if (visited.get(s)) {
+				continue;
+			}
+			visited.set(s);
+			int owner = owners.get(s);
+			if (owner >= 0 && matched.get(owner)) {
+				continue;
+			}
+			if (labels.get(s) >= 0) {
+				list.add(s);
+			}
+			if (accepts.get(s) >= 0) {
+				list.add(s);
+				matched.set(owner);
+			}
+			List<Integer> next = epsilons.get(s);
+			for (int i = next.size() - 1; i >= 0; i--) {
+				stack[top++] = next.get(i);
+			}
+		}
+	}
+
+	/**
+	 * Compute the equivalence classes of characters: two characters are
+	 * equivalent if they belong to exactly the same character sets.
+	 * @return the class of every character
+	 */
+	private int[] computeClasses() {
+		int[] classes = new int[CharSetTable.SIZE];
+		int numberOfClasses = 1;
+		for (int i = 0; i < table.size(); i++) {
+			BitSet set = table.getSet(i);
+			Map<Integer, Integer> refinement = new HashMap<Integer, Integer>();
+			for (int c = 0; c < classes.length; c++) {
+				int key = (classes[c] << 1) | (set.get(c) ? 1 : 0);
+				Integer k = refinement.get(key);
+				if (k == null) {
+					k = refinement.size();
+					refinement.put(key, k);
+				}
+				classes[c] = k;
+			}
+			numberOfClasses = refinement.size();
+		}
+		logger.log(Level.FINE, "Number of character classes = " + numberOfClasses);
+		return classes;
+	}
+
+	private ScannerAutomaton determinize(int initial) {
+		int[] classes = computeClasses();
+		int numberOfClasses = 0;
+		for (int c : classes) {
+			numberOfClasses = Math.max(numberOfClasses, c + 1);
+		}
+		// a representative character for every class
+		int[] representative = new int[numberOfClasses];
+		for (int c = classes.length - 1; c >= 0; c--) {
+			representative[classes[c]] = c;
+		}
+		// the sets containing each class
+		boolean[][] contains = new boolean[numberOfClasses][table.size()];
+		for (int k = 0; k < numberOfClasses; k++) {
+			for (int i = 0; i < table.size(); i++) {
+				contains[k][i] = table.getSet(i).get(representative[k]);
+			}
+		}
+
+		List<List<Integer>> dStates = new ArrayList<List<Integer>>();
+		Map<List<Integer>, Integer> index = new HashMap<List<Integer>, Integer>();
+		List<int[]> transitions = new ArrayList<int[]>();
+		List<Integer> start = new ArrayList<Integer>();
+		closure(initial, new BitSet(), new BitSet(), start);
+		dStates.add(start);
+		index.put(start, 0);
+		for (int d = 0; d < dStates.size(); d++) {
+			List<Integer> current = dStates.get(d);
+			int[] row = new int[numberOfClasses];
+			for (int k = 0; k < numberOfClasses; k++) {
+				List<Integer> next = new ArrayList<Integer>();
+				BitSet visited = new BitSet();
+				BitSet matched = new BitSet();
+				for (int s : current) {
+					int label = labels.get(s);
+					if (label >= 0 && contains[k][label]) {
+						closure(targets.get(s), visited, matched, next);
+					}
+				}
+				if (next.isEmpty()) {
+					row[k] = -1;
+					continue;
+				}
+				Integer target = index.get(next);
+				if (target == null) {
+					target = dStates.size();
+					dStates.add(next);
+					index.put(next, target);
+				}
+				row[k] = target;
+			}
+			transitions.add(row);
+		}
+		// the accepted rule of every state
+		int[] accepted = new int[dStates.size()];
+		for (int d = 0; d < dStates.size(); d++) {
+			accepted[d] = -1;
+			for (int s : dStates.get(d)) {
+				int r = accepts.get(s);
+				if (r >= 0 && (accepted[d] < 0 || r < accepted[d])) {
+					accepted[d] = r;
+				}
+			}
+		}
+		int[] table = new int[dStates.size() * numberOfClasses];
+		for (int d = 0; d < dStates.size(); d++) {
+			System.arraycopy(transitions.get(d), 0, table, d * numberOfClasses, numberOfClasses);
+		}
+		char[] charClasses = new char[classes.length];
+		for (int c = 0; c < classes.length; c++) {
+			charClasses[c] = (char) classes[c];
+		}
+		logger.log(Level.FINE, "Number of scanner states = " + dStates.size());
+		return new ScannerAutomaton(charClasses, numberOfClasses, table, accepted);
+	}
+}
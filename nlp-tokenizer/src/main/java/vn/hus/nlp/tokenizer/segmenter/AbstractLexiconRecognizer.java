@@ -12,6 +12,11 @@ package vn.hus.nlp.tokenizer.segmenter;
  * This is an abstract lexicon recognizer. It provides a method 
  * to determine whether a given token can be recognized or not, 
  * i.e., it is in the lexicon or not. 
+ * <p>
+ * A recognizer may also walk the lexicon syllable by syllable with a 
+ * {@link LexiconCursor}. The default cursor builds the prefix and calls 
+ * {@link #accept(String)}, subclasses give cursors which do not look up 
+ * the whole prefix again for every syllable.
  */
 public abstract class AbstractLexiconRecognizer {
 	/**
@@ -24,4 +29,58 @@ public abstract class AbstractLexiconRecognizer {
 	 * Dispose the recognizer for saving space.
 	 */
 	public abstract void dispose();
+	
+	/**
+	 * Get the version of the lexicon. The version is increased whenever 
+	 * the lexicon is modified, so that the results computed from the 
+	 * lexicon can be invalidated. The default recognizer cannot be modified, 
+	 * its version is always 0.
+	 * @return the version of the lexicon
+	 */
+	public long getVersion() {
+		return 0;
+	}
+	
+	/**
+	 * Create a cursor on the lexicon. The default cursor cannot know if 
+	 * a word starts with its prefix, so it never stops a walk.
+	 * @return a new cursor
+	 */
+	public LexiconCursor createCursor() {
+		return new AcceptCursor(this);
+	}
+	
+	/**
+	 * A cursor which builds its prefix and calls the {@link #accept(String)} 
+	 * method of a recognizer. 
+	 */
+	private static final class AcceptCursor extends LexiconCursor {
+		
+		private final AbstractLexiconRecognizer recognizer;
+		
+		private final StringBuilder prefix = new StringBuilder();
+		
+		AcceptCursor(AbstractLexiconRecognizer recognizer) {
+			this.recognizer = recognizer;
+		}
+		
+		@Override
+		public void reset() {
+			prefix.setLength(0);
+		}
+		
+		@Override
+		public boolean next(String syllable) {
+			if (prefix.length() > 0) {
+				prefix.append(vn.hus.nlp.fsm.IConstants.BLANK_CHARACTER);
+			}
+			prefix.append(syllable);
+			return true;
+		}
+		
+		@Override
+		public boolean isAccepted() {
+			return recognizer.accept(prefix.toString());
+		}
+	}
 }
@@ -21,4 +21,14 @@ public abstract class AbstractResolver {
 	 * @return the most probable segmentation
 	 */
 	public abstract String[] resolve(List<String[]> segmentations);
+	
+	/**
+	 * Get the version of the resolver. The version is increased whenever 
+	 * the model of the resolver is modified. The default resolver cannot 
+	 * be modified, its version is always 0.
+	 * @return the version of the resolver
+	 */
+	public long getVersion() {
+		return 0;
+	}
 }
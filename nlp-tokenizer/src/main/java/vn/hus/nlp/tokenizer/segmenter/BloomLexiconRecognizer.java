@@ -0,0 +1,215 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ *  Vietnam National University, Hanoi, Vietnam.
+ */
+package vn.hus.nlp.tokenizer.segmenter;
+
+import java.util.Collection;
+
+import vn.hus.nlp.utils.BloomFilter;
+import vn.hus.nlp.utils.metrics.Counter;
+import vn.hus.nlp.utils.metrics.Metrics;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * A lexicon recognizer with a negative prefilter. The words of the
+ * lexicon are put into a {@link BloomFilter} when the recognizer is
+ * created, and a candidate word is looked up in the underlying recognizer
+ * only if the filter may contain it. Most of the candidate words of a
+ * phrase are not words, so most lookups are skipped; a word is never
+ * rejected by the filter, so the segmentations do not change.
+ * <p>
+ * The cursors of the recognizer hash their prefix incrementally and ask
+ * the filter before the underlying cursor; this pays off for the
+ * recognizers whose acceptance test is expensive, such as the ones which
+ * rebuild the prefix and call {@link #accept(String)}.
+ * <p>
+ * If the underlying lexicon is modified after the creation of the
+ * recognizer (its version changes), the filter is not used any more.
+ * <p>
+ * The number of candidates rejected by the filter and the number of
+ * false positives are recorded by the counters
+ * <code>lexicon.prefilter.rejected</code> and
+ * <code>lexicon.prefilter.falsePositives</code>.
+ */
+public class BloomLexiconRecognizer extends AbstractLexiconRecognizer {
+
+	private static final Counter REJECTED = Metrics.counter("lexicon.prefilter.rejected");
+
+	private static final Counter FALSE_POSITIVES = Metrics.counter("lexicon.prefilter.falsePositives");
+
+	private final AbstractLexiconRecognizer recognizer;
+
+	private final BloomFilter filter;
+
+	/**
+	 * The version of the lexicon when the filter is built
+	 */
+	private final long version;
+
+	/**
+	 * Creates a recognizer with a prefilter.
+	 * @param recognizer the underlying recognizer
+	 * @param words the words of the lexicon of the underlying recognizer
+	 * @param falsePositiveRate the false positive rate of the filter
+	 */
+	public BloomLexiconRecognizer(AbstractLexiconRecognizer recognizer, Collection<String> words, double falsePositiveRate) {
+		this.recognizer = recognizer;
+		this.version = recognizer.getVersion();
+		this.filter = new BloomFilter(words.size(), falsePositiveRate);
+		for (String word : words) {
+			filter.add(word);
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if the filter is used, that is the lexicon
+	 * has not been modified since the filter is built.
+	 */
+	private boolean isFilterValid() {
+		return recognizer.getVersion() == version;
+	}
+
+	/* (non-Javadoc)
+	 * @see vn.hus.nlp.tokenizer.segmenter.AbstractLexiconRecognizer#accept(java.lang.String)
+	 */
+	@Override
+	public boolean accept(String token) {
+		if (!isFilterValid()) {
+			return recognizer.accept(token);
+		}
+		if (!filter.mightContain(token)) {
+			REJECTED.increment();
+			return false;
+		}
+		boolean accepted = recognizer.accept(token);
+		if (!accepted) {
+			FALSE_POSITIVES.increment();
+		}
+		return accepted;
+	}
+
+	/* (non-Javadoc)
+	 * @see vn.hus.nlp.tokenizer.segmenter.AbstractLexiconRecognizer#getVersion()
+	 */
+	@Override
+	public long getVersion() {
+		return recognizer.getVersion();
+	}
+
+	/* (non-Javadoc)
+	 * @see vn.hus.nlp.tokenizer.segmenter.AbstractLexiconRecognizer#dispose()
+	 */
+	@Override
+	public void dispose() {
+		recognizer.dispose();
+	}
+
+	/* (non-Javadoc)
+	 * @see vn.hus.nlp.tokenizer.segmenter.AbstractLexiconRecognizer#createCursor()
+	 */
+	@Override
+	public LexiconCursor createCursor() {
+		LexiconCursor cursor = recognizer.createCursor();
+		return isFilterValid() ? new FilteredCursor(cursor) : cursor;
+	}
+
+	/**
+	 * @return the filter
+	 */
+	public BloomFilter getFilter() {
+		return filter;
+	}
+
+	/**
+	 * @return the expected false positive rate of the filter
+	 */
+	public double getFalsePositiveRate() {
+		return filter.getFalsePositiveRate();
+	}
+
+	/**
+	 * @return the number of bytes of the filter
+	 */
+	public long getMemorySize() {
+		return filter.getMemorySize();
+	}
+
+	/**
+	 * @return the underlying recognizer
+	 */
+	public AbstractLexiconRecognizer getRecognizer() {
+		return recognizer;
+	}
+
+	/**
+	 * A cursor which hashes its prefix and asks the filter before the
+	 * underlying cursor.
+	 */
+	private final class FilteredCursor extends LexiconCursor {
+
+		private final LexiconCursor cursor;
+
+		private String[] phrase;
+
+		private long hash = BloomFilter.INITIAL_HASH;
+
+		private boolean empty = true;
+
+		FilteredCursor(LexiconCursor cursor) {
+			this.cursor = cursor;
+		}
+
+		@Override
+		public void setPhrase(String[] syllables) {
+			super.setPhrase(syllables);
+			cursor.setPhrase(syllables);
+			phrase = syllables;
+		}
+
+		@Override
+		public void reset() {
+			cursor.reset();
+			hash = BloomFilter.INITIAL_HASH;
+			empty = true;
+		}
+
+		private void update(String syllable) {
+			if (!empty) {
+				hash = BloomFilter.hash(hash, vn.hus.nlp.fsm.IConstants.BLANK_CHARACTER);
+			}
+			if (syllable.length() > 0) {
+				empty = false;
+			}
+			for (int i = 0; i < syllable.length(); i++) {
+				hash = BloomFilter.hash(hash, syllable.charAt(i));
+			}
+		}
+
+		@Override
+		public boolean next(String syllable) {
+			update(syllable);
+			return cursor.next(syllable);
+		}
+
+		@Override
+		public boolean nextSyllable(int position) {
+			update(phrase[position]);
+			return cursor.nextSyllable(position);
+		}
+
+		@Override
+		public boolean isAccepted() {
+			if (!filter.mightContainHash(hash)) {
+				REJECTED.increment();
+				return false;
+			}
+			boolean accepted = cursor.isAccepted();
+			if (!accepted) {
+				FALSE_POSITIVES.increment();
+			}
+			return accepted;
+		}
+	}
+}
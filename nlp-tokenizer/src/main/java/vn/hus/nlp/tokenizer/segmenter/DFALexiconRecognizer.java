@@ -4,9 +4,16 @@
  */
 package vn.hus.nlp.tokenizer.segmenter;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import vn.hus.nlp.fsm.CompactFSM;
 import vn.hus.nlp.fsm.IConstants;
+import vn.hus.nlp.fsm.fsa.DFAOperations;
 import vn.hus.nlp.fsm.fsa.DFA;
-import vn.hus.nlp.fsm.fsa.DFASimulator;
+import vn.hus.nlp.fsm.io.BinaryFSMUnmarshaller;
 import vn.hus.nlp.fsm.io.FSMUnmarshaller;
 
 /**
@@ -17,55 +24,141 @@ import vn.hus.nlp.fsm.io.FSMUnmarshaller;
  * Nov 12, 2007, 8:44:14 PM
  * <p>
  * A recognizer for Vietnamese lexicon that uses an internal DFA representation.
+ * The automaton is frozen by the recognizer, it is not changed after that, so
+ * a recognizer can be shared by several segmenters and threads.
+ * <p>
+ * The cursors of the recognizer walk the automaton: a syllable is read 
+ * from the state reached by the previous syllables, and the walk stops 
+ * at the first character without transition.
  */
 public final class DFALexiconRecognizer extends AbstractLexiconRecognizer {
-	
-	private static DFA lexiconDFA = null;
-	
-	private static DFASimulator simulator = null;
-	
-	private static DFALexiconRecognizer recognizer = null;
-	
+
 	/**
-	 * Private constructor.
-	 * @param dfaLexiconFilename
+	 * The recognizers created by {@link #getInstance(String)}, indexed
+	 * by their DFA filename.
 	 */
-	private DFALexiconRecognizer(String dfaLexiconFilename) {
-		if (lexiconDFA == null) {
-			// build the lexicon DFA
-			System.out.print("Load the lexicon automaton... ");
-			lexiconDFA = (DFA) new FSMUnmarshaller().unmarshal(dfaLexiconFilename, IConstants.FSM_DFA);
-			System.out.println("OK.");
+	private static final Map<String, DFALexiconRecognizer> recognizers = new HashMap<String, DFALexiconRecognizer>();
+
+	private final CompactFSM lexicon;
+
+	/**
+	 * Creates a recognizer of a lexicon automaton. The recognizer keeps a 
+	 * frozen copy of the automaton, which can be disposed after that.
+	 * @param lexiconDFA the lexicon DFA
+	 * @see vn.hus.nlp.fsm.FSM#freeze()
+	 */
+	public DFALexiconRecognizer(DFA lexiconDFA) {
+		this(lexiconDFA.freeze());
+	}
+
+	/**
+	 * Creates a recognizer of a compact lexicon automaton, which is frozen 
+	 * or mapped from a binary file.
+	 * @param lexicon the compact lexicon automaton
+	 */
+	public DFALexiconRecognizer(CompactFSM lexicon) {
+		this.lexicon = lexicon;
+	}
+
+	/**
+	 * Creates a recognizer of the union of a lexicon automaton and a 
+	 * collection of words: the automaton of the words is merged with the 
+	 * lexicon automaton, and the union is minimized, so that a candidate word is looked up once in both 
+	 * lexicons and the common prefixes and suffixes are shared.
+	 * @param lexiconDFA a lexicon automaton, it is not modified
+	 * @param words some words
+	 * @return a recognizer of the union of the lexicons
+	 */
+	public static DFALexiconRecognizer union(DFA lexiconDFA, Collection<String> words) {
+		DFA dfa = lexiconDFA;
+		if (!words.isEmpty()) {
+			dfa = DFAOperations.union(lexiconDFA, DFAOperations.fromWords(words));
 		}
+		return new DFALexiconRecognizer(DFAOperations.minimize(dfa));
+	}
+
+	/**
+	 * Creates a recognizer of the union of a compact lexicon automaton and 
+	 * a collection of words: the minimal automaton of the words of the 
+	 * lexicon and the given words.
+	 * @param lexicon a compact lexicon automaton
+	 * @param words some words
+	 * @return a recognizer of the union of the lexicons
+	 */
+	public static DFALexiconRecognizer union(CompactFSM lexicon, Collection<String> words) {
+		List<String> all = SyllableLexiconRecognizer.getWords(lexicon);
+		all.addAll(words);
+		return new DFALexiconRecognizer(DFAOperations.minimize(DFAOperations.fromWords(all)));
+	}
+
+	/**
+	 * @return the compact lexicon automaton
+	 */
+	public CompactFSM getAutomaton() {
+		return lexicon;
+	}
+
+	/**
+	 * Load the lexicon automaton from a file.
+	 * @param dfaLexiconFilename the DFA lexicon filename
+	 * @return the lexicon DFA
+	 */
+	public static DFA loadDFA(String dfaLexiconFilename) {
+		// build the lexicon DFA
+		System.out.print("Load the lexicon automaton... ");
+		DFA lexiconDFA = (DFA) new FSMUnmarshaller().unmarshal(dfaLexiconFilename, IConstants.FSM_DFA);
+		System.out.println("OK.");
+		return lexiconDFA;
 	}
 	
 	/**
-	 * @param dfaLexiconFilename the DFA lexicon filen
-	 * @return The singleton instance of the lexicon DFA. 
+	 * Load the lexicon automaton from a file. An automaton in the binary 
+	 * form is mapped in memory, an automaton in the XML form is loaded, 
+	 * frozen and disposed.
+	 * @param dfaLexiconFilename the DFA lexicon filename
+	 * @return the compact lexicon automaton
+	 * @throws IllegalArgumentException if an automaton in the binary form 
+	 * cannot be read.
+	 * @see vn.hus.nlp.fsm.io.BinaryFSMMarshaller
 	 */
-	public static DFALexiconRecognizer getInstance(String dfaLexiconFilename) {
-		if (recognizer == null) {
-			recognizer = new DFALexiconRecognizer(dfaLexiconFilename);
+	public static CompactFSM loadAutomaton(String dfaLexiconFilename) {
+		if (BinaryFSMUnmarshaller.isBinary(dfaLexiconFilename)) {
+			System.out.print("Map the lexicon automaton... ");
+			CompactFSM lexicon = new BinaryFSMUnmarshaller().unmarshal(dfaLexiconFilename);
+			if (lexicon == null) {
+				// fail now rather than on the first lookup
+				throw new IllegalArgumentException("The lexicon automaton cannot be read: " + dfaLexiconFilename);
+			}
+			System.out.println("OK.");
+			return lexicon;
 		}
-		return recognizer;
+		DFA lexiconDFA = loadDFA(dfaLexiconFilename);
+		CompactFSM lexicon = lexiconDFA.freeze();
+		lexiconDFA.dispose();
+		System.out.println("The lexicon automaton takes " + lexicon.getMemoryFootprint() + " bytes.");
+		return lexicon;
 	}
 
 	/**
-	 * @return the DFA simulator
+	 * @param dfaLexiconFilename the DFA lexicon filen
+	 * @return The shared recognizer of the lexicon DFA, the automaton
+	 * is loaded only once for each filename.
 	 */
-	private DFASimulator getDFASimulator() {
-		if (simulator == null) {
-			simulator = (DFASimulator)lexiconDFA.getSimulator();
+	public static synchronized DFALexiconRecognizer getInstance(String dfaLexiconFilename) {
+		DFALexiconRecognizer recognizer = recognizers.get(dfaLexiconFilename);
+		if (recognizer == null) {
+			recognizer = new DFALexiconRecognizer(loadAutomaton(dfaLexiconFilename));
+			recognizers.put(dfaLexiconFilename, recognizer);
 		}
-		return simulator;
+		return recognizer;
 	}
-	
+
 	/* (non-Javadoc)
 	 * @see vn.hus.segmenter.AbstractLexiconRecognizer#accept(java.lang.String)
 	 */
 	@Override
 	public boolean accept(String token) {
-		return getDFASimulator().accept(token);
+		return lexicon.accept(token);
 	}
 
 	/* (non-Javadoc)
@@ -73,6 +166,63 @@ public final class DFALexiconRecognizer extends AbstractLexiconRecognizer {
 	 */
 	@Override
 	public void dispose() {
-		lexiconDFA.dispose();
+		// the frozen automaton is immutable, it is collected with the recognizer
+	}
+
+	/* (non-Javadoc)
+	 * @see vn.hus.nlp.tokenizer.segmenter.AbstractLexiconRecognizer#createCursor()
+	 */
+	@Override
+	public LexiconCursor createCursor() {
+		return new DFACursor();
+	}
+
+	/**
+	 * A cursor on the lexicon automaton, its prefix is the state reached 
+	 * from the initial state.
+	 */
+	private final class DFACursor extends LexiconCursor {
+
+		/**
+		 * The current state, -1 if there is no transition
+		 */
+		private int state;
+
+		/**
+		 * <code>true</code> if the prefix is empty
+		 */
+		private boolean empty;
+
+		DFACursor() {
+			reset();
+		}
+
+		@Override
+		public void reset() {
+			state = CompactFSM.INITIAL_STATE;
+			empty = true;
+		}
+
+		@Override
+		public boolean next(String syllable) {
+			if (state < 0) {
+				return false;
+			}
+			if (!empty) {
+				state = lexicon.next(state, IConstants.BLANK_CHARACTER);
+			}
+			if (syllable.length() > 0) {
+				empty = false;
+			}
+			for (int i = 0; i < syllable.length() && state >= 0; i++) {
+				state = lexicon.next(state, syllable.charAt(i));
+			}
+			return state >= 0;
+		}
+
+		@Override
+		public boolean isAccepted() {
+			return state >= 0 && lexicon.isFinal(state);
+		}
 	}
 }
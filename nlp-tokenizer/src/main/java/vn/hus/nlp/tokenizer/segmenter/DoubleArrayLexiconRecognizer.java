@@ -0,0 +1,120 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ *  Vietnam National University, Hanoi, Vietnam.
+ */
+package vn.hus.nlp.tokenizer.segmenter;
+
+import java.util.Collection;
+
+import vn.hus.nlp.fsm.IConstants;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * A recognizer of a lexicon stored in a {@link DoubleArrayTrie}. A word is
+ * looked up in time linear in its length, with one transition of the trie
+ * per character. The words are those of the lexicon automaton, which the
+ * automaton is built from.
+ * <p>
+ * The recognizer is not modified after its creation, it can be shared by
+ * several segmenters and threads.
+ */
+public final class DoubleArrayLexiconRecognizer extends AbstractLexiconRecognizer {
+
+	private final DoubleArrayTrie trie;
+
+	/**
+	 * Creates a recognizer of a trie.
+	 * @param trie a double-array trie
+	 */
+	public DoubleArrayLexiconRecognizer(DoubleArrayTrie trie) {
+		this.trie = trie;
+	}
+
+	/**
+	 * Creates a recognizer of a collection of words.
+	 * @param words the words, their syllables are separated by a blank character
+	 */
+	public DoubleArrayLexiconRecognizer(Collection<String> words) {
+		this(new DoubleArrayTrie(words));
+	}
+
+	/* (non-Javadoc)
+	 * @see vn.hus.nlp.tokenizer.segmenter.AbstractLexiconRecognizer#accept(java.lang.String)
+	 */
+	@Override
+	public boolean accept(String token) {
+		return trie.contains(token);
+	}
+
+	/* (non-Javadoc)
+	 * @see vn.hus.nlp.tokenizer.segmenter.AbstractLexiconRecognizer#dispose()
+	 */
+	@Override
+	public void dispose() {
+		// the trie is immutable, it is collected with the recognizer
+	}
+
+	/* (non-Javadoc)
+	 * @see vn.hus.nlp.tokenizer.segmenter.AbstractLexiconRecognizer#createCursor()
+	 */
+	@Override
+	public LexiconCursor createCursor() {
+		return new DoubleArrayCursor();
+	}
+
+	/**
+	 * @return the trie of the lexicon
+	 */
+	public DoubleArrayTrie getTrie() {
+		return trie;
+	}
+
+	/**
+	 * A cursor on the trie, its prefix is a node of the trie.
+	 */
+	private final class DoubleArrayCursor extends LexiconCursor {
+
+		/**
+		 * The current node, {@link DoubleArrayTrie#NONE} if there is no transition
+		 */
+		private int node;
+
+		/**
+		 * <code>true</code> if the prefix is empty
+		 */
+		private boolean empty;
+
+		DoubleArrayCursor() {
+			reset();
+		}
+
+		@Override
+		public void reset() {
+			node = DoubleArrayTrie.ROOT;
+			empty = true;
+		}
+
+		@Override
+		public boolean next(String syllable) {
+			if (node == DoubleArrayTrie.NONE) {
+				return false;
+			}
+			if (!empty) {
+				node = trie.next(node, IConstants.BLANK_CHARACTER);
+			}
+			if (syllable.length() > 0) {
+				empty = false;
+			}
+			for (int i = 0; i < syllable.length() && node != DoubleArrayTrie.NONE; i++) {
+				node = trie.next(node, syllable.charAt(i));
+			}
+			return node != DoubleArrayTrie.NONE;
+		}
+
+		@Override
+		public boolean isAccepted() {
+			return node != DoubleArrayTrie.NONE && trie.isFinal(node);
+		}
+	}
+}
@@ -0,0 +1,270 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ *  Vietnam National University, Hanoi, Vietnam.
+ */
+package vn.hus.nlp.tokenizer.segmenter;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.TreeSet;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * A double-array trie of the words of a lexicon, whose transitions are
+ * labeled by characters. The characters of the words are numbered from 1
+ * in increasing order, and the transition of the node <code>s</code> on
+ * a character of code <code>c</code> goes to the node
+ * <code>t = base[s] + c</code> if and only if <code>check[t] == s</code>.
+ * A character is thus read with one access to each array, without any
+ * search and without any object. The root is the node {@link #ROOT}.
+ * <p>
+ * The lowest bit of an entry of the base array tells if its node is final,
+ * the base itself is the entry shifted by one bit. A trie is not modified
+ * after it is built, it can be shared by several threads.
+ */
+public final class DoubleArrayTrie {
+
+	/**
+	 * The root of the trie
+	 */
+	public static final int ROOT = 0;
+
+	/**
+	 * The node returned by {@link #next(int, char)} if there is no transition
+	 */
+	public static final int NONE = -1;
+
+	/**
+	 * The check of a free entry
+	 */
+	private static final int FREE = -1;
+
+	/**
+	 * The codes of the characters, 0 for a character which is not in
+	 * any word.
+	 */
+	private final char[] codes;
+
+	private final int[] base;
+
+	private final int[] check;
+
+	private final int numberOfNodes;
+
+	private final int numberOfWords;
+
+	/**
+	 * The arrays of a trie being built.
+	 */
+	private static final class Builder {
+		final String[] keys;
+		final char[] codes;
+		int[] base = new int[1024];
+		int[] check = new int[1024];
+		/**
+		 * The first entry which may be free
+		 */
+		int nextCheckPos = 0;
+		/**
+		 * The last entry which is used
+		 */
+		int last = ROOT;
+		int numberOfNodes = 1;
+		int numberOfWords = 0;
+
+		Builder(String[] keys, char[] codes) {
+			this.keys = keys;
+			this.codes = codes;
+			Arrays.fill(check, FREE);
+			check[ROOT] = ROOT;
+		}
+
+		void ensureCapacity(int n) {
+			if (n > check.length) {
+				int length = Math.max(n, 2 * check.length);
+				base = Arrays.copyOf(base, length);
+				int m = check.length;
+				check = Arrays.copyOf(check, length);
+				Arrays.fill(check, m, length, FREE);
+			}
+		}
+
+		/**
+		 * Insert the keys <code>lo..hi-1</code>, which have the same
+		 * prefix of length <code>depth</code>, below the node of this prefix.
+		 */
+		void insert(int node, int depth, int lo, int hi) {
+			boolean isFinal = false;
+			// the prefix comes first among the keys which start with it
+			if (lo < hi && keys[lo].length() == depth) {
+				isFinal = true;
+				numberOfWords++;
+				lo++;
+			}
+			// the codes of the children and the first key of each child
+			int n = 0;
+			for (int i = lo; i < hi; i++) {
+				if (i == lo || keys[i].charAt(depth) != keys[i-1].charAt(depth)) {
+					n++;
+				}
+			}
+			if (n == 0) {
+				base[node] = isFinal ? 1 : 0;
+				return;
+			}
+			int[] children = new int[n];
+			int[] starts = new int[n + 1];
+			n = 0;
+			for (int i = lo; i < hi; i++) {
+				if (i == lo || keys[i].charAt(depth) != keys[i-1].charAt(depth)) {
+					children[n] = codes[keys[i].charAt(depth)];
+					starts[n++] = i;
+				}
+			}
+			starts[n] = hi;
+			int b = findBase(children);
+			for (int k = 0; k < n; k++) {
+				check[b + children[k]] = node;
+			}
+			last = Math.max(last, b + children[n-1]);
+			numberOfNodes += n;
+			base[node] = (b << 1) | (isFinal ? 1 : 0);
+			for (int k = 0; k < n; k++) {
+				insert(b + children[k], depth + 1, starts[k], starts[k+1]);
+			}
+		}
+
+		/**
+		 * Find the first base at which the entries of some children are free.
+		 * @param children the increasing codes of the children
+		 */
+		int findBase(int[] children) {
+			int first = children[0];
+			int range = children[children.length - 1] - first;
+			int pos = Math.max(first, nextCheckPos) - 1;
+			int used = 0;
+			boolean isFirstFree = true;
+			while (true) {
+				pos++;
+				ensureCapacity(pos + range + 1);
+				if (check[pos] != FREE) {
+					used++;
+					continue;
+				}
+				if (isFirstFree) {
+					nextCheckPos = pos;
+					isFirstFree = false;
+				}
+				int b = pos - first;
+				boolean free = true;
+				for (int k = 1; k < children.length && free; k++) {
+					free = (check[b + children[k]] == FREE);
+				}
+				if (free) {
+					// skip the dense entries before the base in the next searches
+					if (used >= 0.95 * (pos - nextCheckPos + 1)) {
+						nextCheckPos = pos;
+					}
+					return b;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Build the trie of a collection of words.
+	 * @param words the words, their syllables are separated by a blank character
+	 */
+	public DoubleArrayTrie(Collection<String> words) {
+		TreeSet<String> sorted = new TreeSet<String>();
+		BitSet characters = new BitSet();
+		for (String word : words) {
+			if (word.length() == 0) {
+				continue;
+			}
+			sorted.add(word);
+			for (int i = 0; i < word.length(); i++) {
+				characters.set(word.charAt(i));
+			}
+		}
+		// the codes follow the order of the characters, as the sorted keys
+		codes = new char[characters.length()];
+		char code = 0;
+		for (int c = characters.nextSetBit(0); c >= 0; c = characters.nextSetBit(c + 1)) {
+			codes[c] = ++code;
+		}
+		Builder builder = new Builder(sorted.toArray(new String[sorted.size()]), codes);
+		builder.insert(ROOT, 0, 0, builder.keys.length);
+		base = Arrays.copyOf(builder.base, builder.last + 1);
+		check = Arrays.copyOf(builder.check, builder.last + 1);
+		numberOfNodes = builder.numberOfNodes;
+		numberOfWords = builder.numberOfWords;
+	}
+
+	/**
+	 * Follow a transition.
+	 * @param node a node
+	 * @param c a character
+	 * @return the target of the transition, or {@link #NONE} if the node
+	 * has no transition on the character.
+	 */
+	public int next(int node, char c) {
+		if (c >= codes.length || codes[c] == 0) {
+			return NONE;
+		}
+		int t = (base[node] >> 1) + codes[c];
+		return (t < check.length && check[t] == node) ? t : NONE;
+	}
+
+	/**
+	 * @param node a node
+	 * @return <code>true</code> if the characters from the root to the
+	 * node form a word.
+	 */
+	public boolean isFinal(int node) {
+		return (base[node] & 1) != 0;
+	}
+
+	/**
+	 * Check a word.
+	 * @param word a word
+	 * @return <code>true</code> if the word is in the trie
+	 */
+	public boolean contains(CharSequence word) {
+		int node = ROOT;
+		for (int i = 0; i < word.length() && node != NONE; i++) {
+			node = next(node, word.charAt(i));
+		}
+		return node != NONE && isFinal(node);
+	}
+
+	/**
+	 * @return the number of nodes
+	 */
+	public int getNumberOfNodes() {
+		return numberOfNodes;
+	}
+
+	/**
+	 * @return the number of words
+	 */
+	public int getNumberOfWords() {
+		return numberOfWords;
+	}
+
+	/**
+	 * @return the number of entries of the arrays, used or free.
+	 */
+	public int getSize() {
+		return check.length;
+	}
+
+	/**
+	 * @return an estimate of the number of bytes used by the trie.
+	 */
+	public long getMemorySize() {
+		return 4L * (base.length + check.length) + 2L * codes.length;
+	}
+}
@@ -3,8 +3,10 @@
  */
 package vn.hus.nlp.tokenizer.segmenter;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Properties;
 import java.util.Set;
 
@@ -20,12 +22,40 @@ import vn.hus.nlp.lexicon.jaxb.W;
  * An additional lexicon recognizer which recognises an external lexicon provided 
  * by users in case they want to use a custom lexicon (in addition with the internal 
  * lexicon of the tokenizer). 
+ * <p>
+ * The words are stored in a {@link SyllableTrie}, so that a cursor follows 
+ * one transition per syllable and knows when no word starts with its prefix.
+ * <p>
+ * Words may be added to or removed from the lexicon while it is used by 
+ * other threads: the words and their trie are replaced by modified 
+ * copies, so a reader always sees a consistent lexicon, and the version 
+ * of the recognizer is increased.
  */
 public class ExternalLexiconRecognizer extends AbstractLexiconRecognizer {
 
 	
-	private Set<String> externalLexicon;
+	/**
+	 * The words and their trie, they are never modified once published
+	 */
+	private volatile Lexicon lexicon;
+	
+	/**
+	 * The version of the lexicon
+	 */
+	private volatile long version = 0;
 	
+	/**
+	 * The words of the lexicon and their trie.
+	 */
+	private static final class Lexicon {
+		final Set<String> words;
+		final SyllableTrie trie;
+		
+		Lexicon(Set<String> words) {
+			this.words = words;
+			this.trie = new SyllableTrie(words);
+		}
+	}
 	
 	/**
 	 * Default constructor. 
@@ -42,13 +72,14 @@ public class ExternalLexiconRecognizer extends AbstractLexiconRecognizer {
 		// load the prefix lexicon
 		// 
 		LexiconUnmarshaller  lexiconUnmarshaller = new LexiconUnmarshaller();
-		Corpus lexicon = lexiconUnmarshaller.unmarshal(externalLexiconFilename);
-		List<W> ws = lexicon.getBody().getW();
-		externalLexicon = new HashSet<String>();
+		Corpus corpus = lexiconUnmarshaller.unmarshal(externalLexiconFilename);
+		List<W> ws = corpus.getBody().getW();
+		Set<String> externalLexicon = new HashSet<String>();
 		// add all prefixes to the set after converting them to lowercase
 		for (W w : ws) {
-			externalLexicon.add(w.getContent().toLowerCase());
+			externalLexicon.add(w.getContent().toLowerCase(Locale.ROOT));
 		}
+		lexicon = new Lexicon(externalLexicon);
 		System.out.println("External lexicon loaded.");
 	}
 
@@ -61,23 +92,75 @@ public class ExternalLexiconRecognizer extends AbstractLexiconRecognizer {
 	 */
 	@Override
 	public boolean accept(String token) {
-		return externalLexicon.contains(token);
+		return lexicon.words.contains(token);
 	}
 
+	/**
+	 * Add a word to the lexicon.
+	 * @param word a word, its syllables are separated by a blank character
+	 * @return <code>true</code> if the lexicon did not contain the word
+	 */
+	public synchronized boolean addWord(String word) {
+		word = word.toLowerCase(Locale.ROOT);
+		if (lexicon.words.contains(word)) {
+			return false;
+		}
+		Set<String> words = new HashSet<String>(lexicon.words);
+		words.add(word);
+		lexicon = new Lexicon(words);
+		version++;
+		return true;
+	}
+	
+	/**
+	 * Remove a word from the lexicon.
+	 * @param word a word, its syllables are separated by a blank character
+	 * @return <code>true</code> if the lexicon contained the word
+	 */
+	public synchronized boolean removeWord(String word) {
+		word = word.toLowerCase(Locale.ROOT);
+		if (!lexicon.words.contains(word)) {
+			return false;
+		}
+		Set<String> words = new HashSet<String>(lexicon.words);
+		words.remove(word);
+		lexicon = new Lexicon(words);
+		version++;
+		return true;
+	}
+	
+	/* (non-Javadoc)
+	 * @see vn.hus.nlp.tokenizer.segmenter.AbstractLexiconRecognizer#getVersion()
+	 */
+	@Override
+	public long getVersion() {
+		return version;
+	}
+	
 	/* (non-Javadoc)
 	 * @see vn.hus.nlp.tokenizer.segmenter.AbstractLexiconRecognizer#dispose()
 	 */
 	@Override
-	public void dispose() {
-		externalLexicon.clear();
-		externalLexicon = null;
+	public synchronized void dispose() {
+		lexicon = new Lexicon(new HashSet<String>());
+		version++;
+	}
+	
+	/* (non-Javadoc)
+	 * @see vn.hus.nlp.tokenizer.segmenter.AbstractLexiconRecognizer#createCursor()
+	 */
+	@Override
+	public LexiconCursor createCursor() {
+		// the cursor walks the lexicon of the time it is created
+		return new SyllableLexiconRecognizer.TrieCursor(lexicon.trie);
 	}
 
 	/**
 	 * Gets the external lexicon.
-	 * @return the external lexicon.
+	 * @return an unmodifiable view of the current words of the external lexicon, 
+	 * it does not show the words added or removed later.
 	 */
 	public Set<String> getExternalLexicon() {
-		return externalLexicon;
+		return Collections.unmodifiableSet(lexicon.words);
 	}
 }
@@ -0,0 +1,103 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ *  Vietnam National University, Hanoi, Vietnam.
+ */
+package vn.hus.nlp.tokenizer.segmenter;
+
+import vn.hus.nlp.graph.CSRWeightedGraph;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * A builder of the word lattice of a phrase. The vertices of the lattice
+ * are the boundaries of the syllables, there is an edge <code>(i, i+j+1)</code>
+ * if the syllables <code>i..i+j</code> form a word of one of the lexicons.
+ * <p>
+ * From each syllable, the lexicons are walked once with cursors through
+ * the following syllables: an edge is emitted whenever a cursor accepts
+ * its prefix, and the walk stops as soon as no word of any lexicon starts
+ * with the prefix. The candidate words are never built, so the lattice of
+ * a phrase of <code>n</code> syllables is built in time proportional to
+ * the total length of the words of the lattice instead of <code>n<sup>3</sup></code>.
+ * <p>
+ * The lattice is a {@link CSRWeightedGraph}, which can be given by the
+ * caller to be reused from a phrase to the next one.
+ * <p>
+ * A builder only reads the recognizers, it can be shared by several threads.
+ */
+public class LatticeBuilder {
+
+	/**
+	 * The weight of an edge of one syllable, the weight of an edge of
+	 * <code>k</code> syllables is <code>floor(MAX_EDGE_WEIGHT/k)</code>.
+	 */
+	public static final double MAX_EDGE_WEIGHT = 100;
+
+	private final AbstractLexiconRecognizer[] recognizers;
+
+	/**
+	 * Creates a lattice builder.
+	 * @param recognizers the recognizers of the lexicons
+	 */
+	public LatticeBuilder(AbstractLexiconRecognizer... recognizers) {
+		this.recognizers = recognizers.clone();
+	}
+
+	/**
+	 * Build the lattice of a phrase.
+	 * @param syllables an array of syllables (a phrase)
+	 * @return a weighted digraph representing the phrase to be segmented.
+	 */
+	public CSRWeightedGraph build(String[] syllables) {
+		return build(syllables, new CSRWeightedGraph(syllables.length + 1, true));
+	}
+
+	/**
+	 * Build the lattice of a phrase into a graph. The graph is reset, its
+	 * previous edges are removed.
+	 * @param syllables an array of syllables (a phrase)
+	 * @param graph a directed graph
+	 * @return the graph, which represents the phrase to be segmented.
+	 */
+	public CSRWeightedGraph build(String[] syllables, CSRWeightedGraph graph) {
+		int nV = syllables.length + 1;
+		graph.reset(nV);
+		LexiconCursor[] cursors = new LexiconCursor[recognizers.length];
+		boolean[] alive = new boolean[recognizers.length];
+		for (int k = 0; k < recognizers.length; k++) {
+			cursors[k] = recognizers[k].createCursor();
+			cursors[k].setPhrase(syllables);
+		}
+		for (int i = 0; i < nV - 1; i++) {
+			for (int k = 0; k < cursors.length; k++) {
+				cursors[k].reset();
+				alive[k] = true;
+			}
+			int numberOfAlive = cursors.length;
+			for (int j = 0; j < nV - 1 - i && numberOfAlive > 0; j++) {
+				// walk the syllable syllables[i+j] and check the
+				// word syllables[i]..syllables[i+j]
+				boolean accepted = false;
+				for (int k = 0; k < cursors.length; k++) {
+					if (!alive[k]) {
+						continue;
+					}
+					if (cursors[k].nextSyllable(i+j)) {
+						accepted = accepted || cursors[k].isAccepted();
+					} else {
+						alive[k] = false;
+						numberOfAlive--;
+					}
+				}
+				if (accepted) {
+					// calculate the weight of the edge (i,i+j+1)
+					double weight = (double) 1/(j+1);
+					// keep only two decimal digits of weight 
+					weight = Math.floor(weight * MAX_EDGE_WEIGHT);
+					graph.insert(i, i+j+1, weight);
+				}
+			}
+		}
+		return graph;
+	}
+}
@@ -0,0 +1,64 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ *  Vietnam National University, Hanoi, Vietnam.
+ */
+package vn.hus.nlp.tokenizer.segmenter;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * A cursor walks a lexicon syllable by syllable. It keeps the prefix
+ * read so far, that is the syllables given to {@link #next(String)}
+ * separated by a blank character, so that the words starting with a
+ * syllable of a phrase are recognized in one walk instead of building
+ * and looking up every candidate word from the start of the lexicon.
+ * <p>
+ * The syllables may also be given by their positions in a phrase, with
+ * {@link #setPhrase(String[])} and {@link #nextSyllable(int)}, so that a
+ * cursor can encode the phrase once for all its walks.
+ * <p>
+ * A cursor is created by {@link AbstractLexiconRecognizer#createCursor()}
+ * and is used by one thread only.
+ */
+public abstract class LexiconCursor {
+
+	private String[] phrase;
+
+	/**
+	 * Set the phrase whose syllables are given to {@link #nextSyllable(int)}.
+	 * @param syllables the syllables of a phrase
+	 */
+	public void setPhrase(String[] syllables) {
+		this.phrase = syllables;
+	}
+
+	/**
+	 * Append a syllable of the phrase to the prefix.
+	 * @param position the position of the syllable in the phrase
+	 * @return the same as {@link #next(String)}
+	 * @see #setPhrase(String[])
+	 */
+	public boolean nextSyllable(int position) {
+		return next(phrase[position]);
+	}
+
+	/**
+	 * Go back to the start of the lexicon, the prefix is empty.
+	 */
+	public abstract void reset();
+
+	/**
+	 * Append a syllable to the prefix, after a blank character if the
+	 * prefix is not empty.
+	 * @param syllable a syllable
+	 * @return <code>false</code> if no word of the lexicon starts with the
+	 * new prefix, the cursor must then be reset before being used again;
+	 * <code>true</code> otherwise.
+	 */
+	public abstract boolean next(String syllable);
+
+	/**
+	 * @return <code>true</code> if the prefix is a word of the lexicon.
+	 */
+	public abstract boolean isAccepted();
+}
@@ -0,0 +1,96 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ *  Vietnam National University, Hanoi, Vietnam.
+ */
+package vn.hus.nlp.tokenizer.segmenter;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * A segmentation of a phrase with its score. The score has two parts
+ * which are compared in order:
+ * <ol>
+ * <li>the cost, that is the sum of the weights of the words in the
+ * lattice, the smaller the better: a word of <code>k</code> syllables
+ * costs <code>floor(100/k)</code>, so the segmentations with fewer and
+ * longer words are preferred;</li>
+ * <li>the frequency, that is the sum of the unigram frequencies of the
+ * words, the greater the better, as in {@link UnigramResolver}.</li>
+ * </ol>
+ */
+public final class ScoredSegmentation implements Comparable<ScoredSegmentation> {
+
+	private final String[] words;
+
+	private final double cost;
+
+	private final long frequency;
+
+	/**
+	 * Creates a scored segmentation.
+	 * @param words the words of the segmentation
+	 * @param cost the cost of the segmentation
+	 * @param frequency the frequency of the segmentation
+	 */
+	public ScoredSegmentation(String[] words, double cost, long frequency) {
+		this.words = words;
+		this.cost = cost;
+		this.frequency = frequency;
+	}
+
+	/**
+	 * @return the words of the segmentation
+	 */
+	public String[] getWords() {
+		return words;
+	}
+
+	/**
+	 * @return the cost of the segmentation, the sum of the weights of its words
+	 */
+	public double getCost() {
+		return cost;
+	}
+
+	/**
+	 * @return the sum of the unigram frequencies of the words
+	 */
+	public long getFrequency() {
+		return frequency;
+	}
+
+	/**
+	 * Compare two scores.
+	 * @param cost1 the cost of the first score
+	 * @param frequency1 the frequency of the first score
+	 * @param cost2 the cost of the second score
+	 * @param frequency2 the frequency of the second score
+	 * @return a negative integer if the first score is better, a positive
+	 * integer if it is worse, 0 if they are equal.
+	 */
+	static int compare(double cost1, long frequency1, double cost2, long frequency2) {
+		if (cost1 != cost2) {
+			return cost1 < cost2 ? -1 : 1;
+		}
+		return (frequency1 == frequency2) ? 0 : (frequency1 > frequency2 ? -1 : 1);
+	}
+
+	/**
+	 * The better segmentation comes first.
+	 * @see java.lang.Comparable#compareTo(java.lang.Object)
+	 */
+	public int compareTo(ScoredSegmentation o) {
+		return compare(cost, frequency, o.cost, o.frequency);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (String word : words) {
+			sb.append('[').append(word).append("] ");
+		}
+		sb.append("cost = ").append(cost);
+		sb.append(", frequency = ").append(frequency);
+		return sb.toString();
+	}
+}
@@ -0,0 +1,338 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ *  Vietnam National University, Hanoi, Vietnam.
+ */
+package vn.hus.nlp.tokenizer.segmenter;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import vn.hus.nlp.utils.metrics.Counter;
+import vn.hus.nlp.utils.metrics.Metrics;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * A bounded cache of the resolved segmentations of phrases. Real texts
+ * repeat the same phrases very often (titles, addresses, boilerplate), so
+ * the segmenter keeps the segmentation it selects for a phrase and
+ * returns it again without normalizing the phrase, building its lattice
+ * and searching it.
+ * <p>
+ * The cache is split into stripes, each stripe is a small LRU map guarded
+ * by its own lock, so that several threads can use the cache with little
+ * contention. The cache is bounded by a number of entries and by a
+ * weight, that is the number of characters of the phrases and of their
+ * words; the least recently used entries of a stripe are evicted when one
+ * of its bounds is exceeded.
+ * <p>
+ * Every entry is stamped with the version of the models it is computed
+ * from (see {@link Segmenter#getModelVersion()}). An entry of another
+ * version is never returned, and the whole cache is cleared as soon as a
+ * newer version is seen, so a change of the lexicons or of the resolver
+ * invalidates the cache. The versions of the models only grow: a
+ * segmentation computed from an older version than the last one seen is
+ * not put into the cache, and an older version never clears it.
+ * <p>
+ * The numbers of hits, misses and evictions are counted by the cache and
+ * by the counters <code>segmenter.cache.hits</code>,
+ * <code>segmenter.cache.misses</code> and <code>segmenter.cache.evictions</code>.
+ */
+public class SegmentationCache {
+
+	private static final Counter HITS = Metrics.counter("segmenter.cache.hits");
+
+	private static final Counter MISSES = Metrics.counter("segmenter.cache.misses");
+
+	private static final Counter EVICTIONS = Metrics.counter("segmenter.cache.evictions");
+
+	/**
+	 * The default number of stripes
+	 */
+	public static final int DEFAULT_NUMBER_OF_STRIPES = 16;
+
+	private final Stripe[] stripes;
+
+	private final int mask;
+
+	private final int maxEntries;
+
+	private final long maxWeight;
+
+	/**
+	 * The last version of the models seen by the cache
+	 */
+	private volatile long version;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * Creates a cache bounded by a number of entries.
+	 * @param maxEntries the maximal number of entries
+	 */
+	public SegmentationCache(int maxEntries) {
+		this(maxEntries, 0, DEFAULT_NUMBER_OF_STRIPES);
+	}
+
+	/**
+	 * Creates a cache.
+	 * @param maxEntries the maximal number of entries
+	 * @param maxWeight the maximal number of characters of the phrases and
+	 * of their words, <code>0</code> if the weight of the cache is not bounded.
+	 * @param numberOfStripes the number of stripes, it is rounded up to a
+	 * power of two and lowered so that a stripe has at least one entry.
+	 */
+	public SegmentationCache(int maxEntries, long maxWeight, int numberOfStripes) {
+		if (maxEntries <= 0) {
+			throw new IllegalArgumentException("The number of entries must be positive: " + maxEntries);
+		}
+		if (maxWeight < 0) {
+			throw new IllegalArgumentException("The weight must not be negative: " + maxWeight);
+		}
+		int n = 1;
+		while (n < numberOfStripes && n * 2 <= maxEntries) {
+			n *= 2;
+		}
+		this.maxEntries = maxEntries;
+		this.maxWeight = maxWeight;
+		stripes = new Stripe[n];
+		for (int i = 0; i < n; i++) {
+			// the bounds are shared out among the stripes
+			int entries = maxEntries / n + (i < maxEntries % n ? 1 : 0);
+			long weight = (maxWeight == 0) ? Long.MAX_VALUE : Math.max(1, maxWeight / n);
+			stripes[i] = new Stripe(entries, weight);
+		}
+		mask = n - 1;
+	}
+
+	private Stripe getStripe(String phrase) {
+		int h = phrase.hashCode();
+		// spread the bits of the hash code as java.util.HashMap does
+		h ^= (h >>> 16);
+		return stripes[h & mask];
+	}
+
+	/**
+	 * Check the version of the models, the cache is cleared if it is a newer
+	 * version than the last one seen.
+	 * @param version the current version of the models
+	 * @return <code>false</code> if the version is older than the last one
+	 * seen, <code>true</code> otherwise.
+	 */
+	private boolean validate(long version) {
+		if (version > this.version) {
+			synchronized (this) {
+				if (version > this.version) {
+					this.version = version;
+					clear();
+				}
+			}
+		}
+		return version >= this.version;
+	}
+
+	/**
+	 * Get the segmentation of a phrase.
+	 * @param phrase a phrase
+	 * @param version the current version of the models
+	 * @return the segmentation of the phrase, or <code>null</code> if it
+	 * is not in the cache. The array is owned by the cache, it must not be
+	 * modified.
+	 */
+	public String[] get(String phrase, long version) {
+		validate(version);
+		String[] segmentation = getStripe(phrase).get(phrase, version);
+		if (segmentation != null) {
+			hits.increment();
+			HITS.increment();
+		} else {
+			misses.increment();
+			MISSES.increment();
+		}
+		return segmentation;
+	}
+
+	/**
+	 * Put the segmentation of a phrase into the cache.
+	 * @param phrase a phrase
+	 * @param segmentation its segmentation, it must not be modified later.
+	 * @param version the version of the models the segmentation is
+	 * computed from, the segmentation is dropped if it is older than the
+	 * last version seen.
+	 */
+	public void put(String phrase, String[] segmentation, long version) {
+		if (!validate(version)) {
+			// computed from models which have changed since
+			return;
+		}
+		long weight = phrase.length();
+		for (String word : segmentation) {
+			weight += word.length();
+		}
+		getStripe(phrase).put(phrase, new Entry(segmentation, version, weight));
+	}
+
+	/**
+	 * Remove all the entries of the cache. The counters are not reset.
+	 */
+	public void clear() {
+		for (Stripe stripe : stripes) {
+			stripe.clear();
+		}
+	}
+
+	/**
+	 * @return the number of entries of the cache
+	 */
+	public int size() {
+		int size = 0;
+		for (Stripe stripe : stripes) {
+			size += stripe.size();
+		}
+		return size;
+	}
+
+	/**
+	 * @return the weight of the entries of the cache
+	 */
+	public long getWeight() {
+		long weight = 0;
+		for (Stripe stripe : stripes) {
+			weight += stripe.getWeight();
+		}
+		return weight;
+	}
+
+	/**
+	 * @return the maximal number of entries
+	 */
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	/**
+	 * @return the maximal weight, <code>0</code> if the weight is not bounded
+	 */
+	public long getMaxWeight() {
+		return maxWeight;
+	}
+
+	/**
+	 * @return the number of phrases found in the cache
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return the number of phrases not found in the cache
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return the number of entries evicted by the bounds of the cache
+	 */
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	@Override
+	public String toString() {
+		long h = getHits();
+		long m = getMisses();
+		return "entries = " + size() + ", weight = " + getWeight() + ", hits = " + h + ", misses = " + m
+			+ ", evictions = " + getEvictions()
+			+ String.format(", hit rate = %.4f", (h + m == 0) ? 0.0 : (double) h / (h + m));
+	}
+
+	/**
+	 * An entry of the cache.
+	 */
+	private static final class Entry {
+		final String[] segmentation;
+		final long version;
+		final long weight;
+
+		Entry(String[] segmentation, long version, long weight) {
+			this.segmentation = segmentation;
+			this.version = version;
+			this.weight = weight;
+		}
+	}
+
+	/**
+	 * A stripe of the cache: a map in access order, the eldest entry is
+	 * the least recently used one.
+	 */
+	private final class Stripe {
+
+		private final LinkedHashMap<String, Entry> map = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+
+		private final int maxEntries;
+
+		private final long maxWeight;
+
+		private long weight = 0;
+
+		Stripe(int maxEntries, long maxWeight) {
+			this.maxEntries = maxEntries;
+			this.maxWeight = maxWeight;
+		}
+
+		synchronized String[] get(String phrase, long version) {
+			Entry entry = map.get(phrase);
+			if (entry == null) {
+				return null;
+			}
+			if (entry.version != version) {
+				// a stale entry
+				map.remove(phrase);
+				weight -= entry.weight;
+				return null;
+			}
+			return entry.segmentation;
+		}
+
+		synchronized void put(String phrase, Entry entry) {
+			if (entry.weight > maxWeight) {
+				// the entry cannot be kept
+				return;
+			}
+			Entry old = map.put(phrase, entry);
+			if (old != null) {
+				weight -= old.weight;
+			}
+			weight += entry.weight;
+			// evict the least recently used entries
+			Iterator<Map.Entry<String, Entry>> it = map.entrySet().iterator();
+			while (map.size() > maxEntries || weight > maxWeight) {
+				Entry eldest = it.next().getValue();
+				it.remove();
+				weight -= eldest.weight;
+				evictions.increment();
+				EVICTIONS.increment();
+			}
+		}
+
+		synchronized void clear() {
+			map.clear();
+			weight = 0;
+		}
+
+		synchronized int size() {
+			return map.size();
+		}
+
+		synchronized long getWeight() {
+			return weight;
+		}
+	}
+}
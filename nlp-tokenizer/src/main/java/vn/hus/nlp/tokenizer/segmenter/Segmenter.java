@@ -12,15 +12,15 @@ import java.util.logging.ConsoleHandler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import vn.hus.nlp.graph.AdjacencyListWeightedGraph;
-import vn.hus.nlp.graph.Edge;
-import vn.hus.nlp.graph.IGraph;
-import vn.hus.nlp.graph.IWeightedGraph;
+import vn.hus.nlp.graph.CSRWeightedGraph;
 import vn.hus.nlp.graph.Node;
 import vn.hus.nlp.graph.io.GraphIO;
 import vn.hus.nlp.graph.search.ShortestPathFinder;
-import vn.hus.nlp.graph.util.GraphConnectivity;
+import vn.hus.nlp.graph.util.LatticeConnectivity;
 import vn.hus.nlp.utils.CaseConverter;
+import vn.hus.nlp.utils.metrics.Histogram;
+import vn.hus.nlp.utils.metrics.Metrics;
+import vn.hus.nlp.utils.metrics.Timer;
 
 /**
  * @author Le Hong Phuong, phuonglh@gmail.com
@@ -42,47 +42,79 @@ import vn.hus.nlp.utils.CaseConverter;
  */
 public class Segmenter {
 
-	private static StringNormalizer normalizer;
+	private final StringNormalizer normalizer;
 	
-	private Logger logger;
+	private static Logger logger;
 	
 	/**
 	 * The DFA representing Vietnamese lexicon (the internal lexicon).
 	 */
-	private static AbstractLexiconRecognizer lexiconRecognizer;
+	private final AbstractLexiconRecognizer lexiconRecognizer;
 	
 	/**
 	 * The external lexicon recognizer.
 	 */
-	private static AbstractLexiconRecognizer externalLexiconRecognizer;
+	private final AbstractLexiconRecognizer externalLexiconRecognizer;
 	
 	/**
-	 * Result of the segmentation. A segmentation can have several results. 
+	 * The builder of the word lattices of the phrases, it walks both lexicons.
+	 */
+	private final LatticeBuilder latticeBuilder;
+	
+	/**
+	 * Result of the last segmentation. A segmentation can have several results. 
 	 * Each result is represented by an array of words.
 	 */
-	private final List<String[]> result;
+	private volatile List<String[]> result;
 
 	/**
 	 * An ambiguity resolver.
 	 */
 	private AbstractResolver resolver = null;
+	
+	/**
+	 * The cache of the resolved segmentations, <code>null</code> if the 
+	 * segmentations are not cached.
+	 */
+	private SegmentationCache cache = null;
+	
+	/**
+	 * <code>true</code> if the lexicon recognizers are owned by shared 
+	 * models, they are not disposed with the segmenter.
+	 */
+	private boolean sharedRecognizers = false;
 
 	private static double MAX_EDGE_WEIGHT = 100;
 	
+	/**
+	 * The lattice of each thread, it is reset for each phrase.
+	 */
+	private static final ThreadLocal<CSRWeightedGraph> LATTICES = new ThreadLocal<CSRWeightedGraph>() {
+		@Override
+		protected CSRWeightedGraph initialValue() {
+			return new CSRWeightedGraph(0, true);
+		}
+	};
+	
+	/**
+	 * Metrics of the segmenter
+	 */
+	private static final Timer GRAPH_TIMER = Metrics.timer("segmenter.makeGraph");
+	private static final Timer CONNECT_TIMER = Metrics.timer("segmenter.connect");
+	private static final Timer PATH_TIMER = Metrics.timer("segmenter.pathSearch");
+	private static final Timer RESOLVE_TIMER = Metrics.timer("segmenter.resolve");
+	private static final Histogram PHRASE_LENGTH = Metrics.distribution("segmenter.phraseLength");
+	private static final Histogram GRAPH_SIZE = Metrics.distribution("segmenter.graphSize");
+	
 	private static boolean DEBUG = false;
 	
 	/**
 	 * Default constructor.
 	 */
 	public Segmenter() {
-		result = new ArrayList<String[]>();
-		createLogger();
-		// create DFA lexicon recognizer
-		getDFALexiconRecognizer();
-		// create external lexicon recognizer
-		getExternalLexiconRecognizer();
-		// create a string normalizer
-		normalizer = StringNormalizer.getInstance();
+		this(StringNormalizer.getInstance(), 
+				DFALexiconRecognizer.getInstance(IConstants.LEXICON_DFA), 
+				new ExternalLexiconRecognizer(), null);
 	}
 
 	/**
@@ -100,18 +132,37 @@ public class Segmenter {
 	 * @param resolver
 	 */
 	public Segmenter(Properties properties, AbstractResolver resolver) {
+		this(StringNormalizer.getInstance(properties), 
+				DFALexiconRecognizer.getInstance(properties.getProperty("lexiconDFA")), 
+				new ExternalLexiconRecognizer(properties), resolver);
+	}
+	
+	/**
+	 * Build a segmenter from its models. The models are only read by the 
+	 * segmenter, so they can be shared by several segmenters. This constructor 
+	 * does not load anything.
+	 * @param normalizer a string normalizer
+	 * @param lexiconRecognizer the internal lexicon recognizer
+	 * @param externalLexiconRecognizer the external lexicon recognizer, 
+	 * <code>null</code> if the external lexicon is a part of the internal one 
+	 * @param resolver an ambiguity resolver
+	 */
+	public Segmenter(StringNormalizer normalizer, AbstractLexiconRecognizer lexiconRecognizer, 
+			AbstractLexiconRecognizer externalLexiconRecognizer, AbstractResolver resolver) {
 		result = new ArrayList<String[]>();
 		createLogger();
-		// create DFA lexicon recognizer
-		getDFALexiconRecognizer(properties);
-		// create external lexicon recognizer
-		getExternalLexiconRecognizer(properties);
-		// create a string normalizer
-		normalizer = StringNormalizer.getInstance(properties);
+		this.normalizer = normalizer;
+		this.lexiconRecognizer = lexiconRecognizer;
+		this.externalLexiconRecognizer = externalLexiconRecognizer;
+		if (externalLexiconRecognizer != null) {
+			this.latticeBuilder = new LatticeBuilder(lexiconRecognizer, externalLexiconRecognizer);
+		} else {
+			this.latticeBuilder = new LatticeBuilder(lexiconRecognizer);
+		}
 		this.resolver = resolver;
 	}
 	
-	private void createLogger() {
+	private static synchronized void createLogger() {
 		if (logger == null) {
 			logger = Logger.getLogger(Segmenter.class.getName());
 			// use a console handler to trace the log
@@ -121,12 +172,20 @@ public class Segmenter {
 	}
 
 	/**
-	 * @return The result list. Each element of the list is a possible segmentation.
-	 * The list is normally contains less than 4 results.
+	 * @return The result list of the last segmentation. Each element of the list is 
+	 * a possible segmentation. The list is normally contains less than 4 results.
 	 */
 	public List<String[]> getResult() {
 		return result;
 	}
+	
+	/**
+	 * Keep the result of the last segmentation.
+	 * @param result a list of segmentations
+	 */
+	protected void setResult(List<String[]> result) {
+		this.result = result;
+	}
 	/**
 	 * A pre-processing of segmentation. If the first character of the phrase is
 	 * an uppercase, then it is converted to the corresponding lowercase; all 
@@ -137,164 +196,55 @@ public class Segmenter {
 	 *            a phrase to segment
 	 * @return a phrase after pre-process
 	 */
-	private static String normalize(String phrase) {
+	private String normalize(String phrase) {
 		// 1. change the case of the first character.
 		//
-		StringBuffer s = new StringBuffer(phrase);
-		char firstChar = s.charAt(0);
-		char lowerChar = firstChar;
-		// convert first character
-		if ('A' <= firstChar && firstChar <= 'Z') {
-			lowerChar = Character.toLowerCase(firstChar);
-		} else if (CaseConverter.isValidUpper(firstChar))
-			lowerChar = CaseConverter.toLower(firstChar);
-		s.setCharAt(0, lowerChar);
+		char firstChar = phrase.charAt(0);
+		char lowerChar = CaseConverter.toLower(firstChar);
+		if (lowerChar != firstChar) {
+			phrase = lowerChar + phrase.substring(1);
+		}
 		// 2. normalize the accents of the phrase
-		return normalizer.normalize(s.toString());
+		return normalizer.normalize(phrase);
 	}
 	
 	/**
 	 * @param syllables an array of syllables (a phrase)
 	 * @return a weighted digraph representing the phrase to be segmented. The maximum weight 
-	 * of edges is 1.
-	 */
-	private IWeightedGraph makeGraph(String[] syllables) {
-		int nV = syllables.length + 1;
-		IWeightedGraph graph = new AdjacencyListWeightedGraph(nV, true);
-		for (int i = 0; i < nV - 1; i++) {
-			String word = "";
-			int j = 0;
-			while (j < nV - 1 - i) {
-				// take the word syllables[i]..syllables[i+j]
-				if (word.length() == 0) {
-					word = syllables[i];
-				} else {
-					word = word + vn.hus.nlp.fsm.IConstants.BLANK_CHARACTER + syllables[i+j];
-				}
-				// check to see if the word is accepted or not
-				// and create corresponding edges
-				if (getDFALexiconRecognizer().accept(word) || getExternalLexiconRecognizer().accept(word)) {
-					// calculate the weight of the edge (i,i+j+1)
-					double weight = (double) 1/(j+1);
-					// keep only two decimal digits of weight 
-					weight = Math.floor(weight * 100);
-					// insert an edge with an appropriate weight
-					graph.insert(new Edge(i, i+j+1, weight));
-				}
-				j++;
-				
-			}
-		}
-		return graph;
-	}
-	
-	/**
-	 * Creates an internal lexicon recognizer.
-	 * @return the DFA lexicon recognizer in use
+	 * of edges is 1. The graph belongs to the current thread, it is valid until the next 
+	 * call of this method in the thread.
+	 * @see LatticeBuilder
 	 */
-	private AbstractLexiconRecognizer getDFALexiconRecognizer() {
-		if (lexiconRecognizer == null) {
-			// use the DFA lexicon recognizer
-			// user can use any lexicon recognizer here.
-			lexiconRecognizer = DFALexiconRecognizer.getInstance(IConstants.LEXICON_DFA);
-		}
-		return lexiconRecognizer;
+	protected CSRWeightedGraph makeGraph(String[] syllables) {
+		return latticeBuilder.build(syllables, LATTICES.get());
 	}
 	
-	/**
-	 * Creates an internal lexicon recognizer.
-	 * @return the DFA lexicon recognizer in use
-	 */
-	private AbstractLexiconRecognizer getDFALexiconRecognizer(Properties properties) {
-		if (lexiconRecognizer == null) {
-			// use the DFA lexicon recognizer
-			// user can use any lexicon recognizer here.
-			lexiconRecognizer = DFALexiconRecognizer.getInstance(properties.getProperty("lexiconDFA"));
-		}
-		return lexiconRecognizer;
-	}	
-	
-	/**
-	 * Creates an external lexicon recognizer.
-	 * @return the external lexicon recognizer 
-	 */
-	private AbstractLexiconRecognizer getExternalLexiconRecognizer() {
-		if (externalLexiconRecognizer == null) {
-			externalLexiconRecognizer = new ExternalLexiconRecognizer();
-		}
-		return externalLexiconRecognizer;
-	}
-
-	/**
-	 * Creates an external lexicon recognizer.
-	 * @param properties
-	 * @return the external lexicon recognizer 
-	 */
-	private AbstractLexiconRecognizer getExternalLexiconRecognizer(Properties properties) {
-		if (externalLexiconRecognizer == null) {
-			externalLexiconRecognizer = new ExternalLexiconRecognizer(properties);
-		}
-		return externalLexiconRecognizer;
-	}
-
-	
 	/**
 	 * Try to connect an unconnected graph. If a graph is unconnected, we 
 	 * find all of its isolated vertices and add a "fake" transition to them. 
-	 * A vertex is called isolated if it has not any intransition.  
+	 * A vertex is called isolated if it has not any intransition. The graph 
+	 * is a lattice whose edges go forward, it is connected in linear time.  
 	 * @param graph a graph 
+	 * @see LatticeConnectivity
 	 */
-	private void connect(IGraph graph) {
+	protected void connect(CSRWeightedGraph graph) {
 		// no need to connect the graph if it's connected.
-		if (GraphConnectivity.countComponents(graph) == 1) 
+		if (LatticeConnectivity.isConnected(graph)) 
 			return;
-		
-		// get all isolated vertices - vertices that do not have any intransitions. 
-		int[] isolatedVertices = GraphConnectivity.getIsolatedVertices(graph);
 		// info for debug
 		if (DEBUG) {
 			System.err.println("The graph for the phrase is: ");
 			GraphIO.print(graph);
-			System.out.println("Isolated vertices: ");
-			for (int i : isolatedVertices) {
-				System.out.println(i);
-			}
 		}
-		
 		// There is a trick here: vertex 0 is always isolated in our linear graph since 
 		// it is the initial vertex and does not have any intransition.
-		// We need to check whether it has an outtransition or not (its degree is not zero),
-		// if no, we connect it to the nearest vertex - vertex 1 - to get an edge with weight 1.0;
-		// if yes, we do nothing. Note that since the graph represents an array of non-null syllables,
+		// We always add a new edge (0,1) regardless of vertex 0 is of degree 0 or higher, 
+		// and an edge (u-1,u) with the maximum weight to every other isolated vertex u. 
+		// Note that since the graph represents an array of non-null syllables,
 		// so the number of vertices of the graph is at least 2 and it does contain vertex 1.
-		boolean zeroVertex = false;
-		for (int i = 0; i < isolatedVertices.length; i++) {
-			int u = isolatedVertices[i];
-			if (u == 0) {
-				zeroVertex = true;
-				/*
-				GraphDegree graphDegree = new GraphDegree(graph);
-				if (graphDegree.degree(0) == 0) {
-					graph.insert(new Edge(0,1,MAX_EDGE_WEIGHT));
-				}
-				*/
-				// we always add a new edge (0,1) regardless of vertex 0 is 
-				// of degree 0 or higher.
-				graph.insert(new Edge(0,1,MAX_EDGE_WEIGHT));
-			} else {
-				if (u != 1) {
-					// u is an internal isolated vertex, u > 0. We simply add an edge (u-1,u) 
-					// also with the maximum weight 1.0
-					graph.insert(new Edge(u-1,u,MAX_EDGE_WEIGHT));
-				} else { // u == 1
-					if (!zeroVertex) { // insert edge (0,1) only when there does not this edge
-						graph.insert(new Edge(u-1,u,MAX_EDGE_WEIGHT));
-					}
-				}
-			}
-		}
+		LatticeConnectivity.connect(graph, MAX_EDGE_WEIGHT);
 		// make sure that the graph is now connected:
-		if (GraphConnectivity.countComponents(graph) != 1) {
+		if (!LatticeConnectivity.isConnected(graph)) {
 			logger.log(Level.INFO, "Hmm, fail to connect the graph!");
 		}
 	}
@@ -305,11 +255,9 @@ public class Segmenter {
 	 * @see #segment(String)
 	 * @return an array of syllables of the phrase
 	 */
-	private String[] prepare(String phrase) {
-		// clear the last result
-		result.clear();
+	protected String[] prepare(String phrase) {
 		// normalize the phrase
-		phrase = Segmenter.normalize(phrase);
+		phrase = normalize(phrase);
 		// get syllables of the phrase
 		String[] syllables = phrase.split("\\s+");
 		return syllables;
@@ -325,26 +273,37 @@ public class Segmenter {
 	 */
 	private String[] buildSegmentation(String[] syllables, int[] path) {
 		String[] segmentation = new String[path.length-1];
+		StringBuilder word = new StringBuilder();
 		int vertex = 0;
 		int ii = 0;
 		for (int k = 1; k < path.length; k++) {
 			int nextVertex = path[k];
-			String word = "";
-			for (int j = vertex; j < nextVertex; j++)
-				word += (syllables[j] + vn.hus.nlp.fsm.IConstants.BLANK_CHARACTER);
-			word = word.trim();
-			segmentation[ii++] = word;
+			if (nextVertex == vertex + 1) {
+				// a word of one syllable
+				segmentation[ii++] = syllables[vertex];
+			} else {
+				word.setLength(0);
+				for (int j = vertex; j < nextVertex; j++) {
+					if (j > vertex) {
+						word.append(vn.hus.nlp.fsm.IConstants.BLANK_CHARACTER);
+					}
+					word.append(syllables[j]);
+				}
+				segmentation[ii++] = word.toString();
+			}
 			vertex = nextVertex;
 		}
 		return segmentation;
 	}
 	/**
-	 * Segment a phrase.
+	 * Segment a phrase. This method is reentrant: the segmentations are 
+	 * collected in a new list which is returned and kept as the last result. 
 	 * @see #normalize(String)
 	 * @param phrase
 	 * @return a list of possible segmentations.
 	 */
 	public List<String[]> segment(String phrase) {
+		List<String[]> result = new ArrayList<String[]>();
 		// save the original phrase before normalizing it
 		// objective is not to change the original words of the phrase in the 
 		// result segmentations.
@@ -352,20 +311,28 @@ public class Segmenter {
 		// get syllables of the phrase
 		String[] syllables = prepare(phrase);
 		// create a weighted linear graph of the phrase
-		IWeightedGraph graph = makeGraph(syllables);
+		long start = GRAPH_TIMER.start();
+		CSRWeightedGraph graph = makeGraph(syllables);
+		GRAPH_TIMER.stop(start);
+		PHRASE_LENGTH.record(syllables.length);
+		GRAPH_SIZE.record(graph.getNumberOfEdges());
 		// get the end vertex of the linear graph
 		int nV = graph.getNumberOfVertices();
 		// test the connectivity between the start vertex and the end vertex of
 		// the graph.
 		// try to connect it if it is not connected and log the abnormal phrase out 
-		if (!GraphConnectivity.isConnected(graph, 0, nV-1)) {
+		if (!LatticeConnectivity.isConnected(graph, nV-1)) {
 //			logger.log(Level.INFO, phrase);
 //			logger.log(Level.INFO, "The graph of this phrase is not connected. Try to connect it.");
+			start = CONNECT_TIMER.start();
 			connect(graph);
+			CONNECT_TIMER.stop(start);
 		}
 		// get all shortest paths from vertex 0 to the end vertex
+		start = PATH_TIMER.start();
 		ShortestPathFinder pathFinder = new ShortestPathFinder(graph);
 		Node[] allShortestPaths = pathFinder.getAllShortestPaths(nV-1);
+		PATH_TIMER.stop(start);
 //		System.out.println("There are " + allShortestPaths.length + " segmentation(s) for the phrase."); // DEBUG
 		// build segmentations corresponding to the shortest paths
 		for (int i = 0; i < allShortestPaths.length; i++) {
@@ -375,15 +342,132 @@ public class Segmenter {
 			String[] segmentation = buildSegmentation(original, a);
 			result.add(segmentation);
 		}
+		this.result = result;
 		return result;
 	}
 	
+	/**
+	 * Segment a phrase and select its most probable segmentation. If the 
+	 * segmenter has a cache, the segmentation of a phrase is computed once 
+	 * and then taken from the cache, the result of the last segmentation 
+	 * ({@link #getResult()}) is not updated on a cache hit.
+	 * @param phrase a phrase
+	 * @return the most probable segmentation, <code>null</code> if the phrase 
+	 * cannot be segmented.
+	 */
+	public String[] segmentAndResolve(String phrase) {
+		SegmentationCache cache = this.cache;
+		if (cache == null) {
+			return select(segment(phrase));
+		}
+		String key = getKey(phrase);
+		long version = getModelVersion();
+		String[] segmentation = cache.get(key, version);
+		if (segmentation == null) {
+			segmentation = select(segment(phrase));
+			if (segmentation == null) {
+				return null;
+			}
+			cache.put(key, segmentation, version);
+		}
+		return segmentation.clone();
+	}
+	
+	private String[] select(List<String[]> segmentations) {
+		if (segmentations.isEmpty()) {
+			return null;
+		}
+		if (segmentations.size() == 1) {
+			return segmentations.get(0);
+		}
+		return resolveAmbiguity(segmentations);
+	}
+	
+	/**
+	 * Get the key of a phrase in the cache: the syllables separated by a 
+	 * blank character. The words of a segmentation are taken from the 
+	 * syllables of the phrase before normalization, so they are the key.
+	 * @param phrase a phrase
+	 * @return the key of the phrase
+	 */
+	static String getKey(String phrase) {
+		boolean canonical = phrase.length() > 0 && !Character.isWhitespace(phrase.charAt(0)) 
+			&& !Character.isWhitespace(phrase.charAt(phrase.length() - 1));
+		for (int i = 1; canonical && i < phrase.length(); i++) {
+			char c = phrase.charAt(i);
+			if (Character.isWhitespace(c) && (c != vn.hus.nlp.fsm.IConstants.BLANK_CHARACTER 
+					|| Character.isWhitespace(phrase.charAt(i - 1)))) {
+				canonical = false;
+			}
+		}
+		if (canonical) {
+			return phrase;
+		}
+		StringBuilder key = new StringBuilder(phrase.length());
+		for (String syllable : phrase.trim().split("\\p{Space}+")) {
+			if (key.length() > 0) {
+				key.append(vn.hus.nlp.fsm.IConstants.BLANK_CHARACTER);
+			}
+			key.append(syllable);
+		}
+		return key.toString();
+	}
+	
+	/**
+	 * Get the version of the models of the segmenter. It is changed whenever 
+	 * a lexicon or the resolver is modified, the cached segmentations of 
+	 * other versions are not used.
+	 * @return the version of the models
+	 */
+	public long getModelVersion() {
+		// the versions never decrease, so their sum changes with any of them
+		long version = lexiconRecognizer.getVersion();
+		if (externalLexiconRecognizer != null) {
+			version += externalLexiconRecognizer.getVersion();
+		}
+		if (resolver != null) {
+			version += resolver.getVersion();
+		}
+		return version;
+	}
+	
+	/**
+	 * Use a cache of the resolved segmentations. A cache may be shared by 
+	 * the segmenters of the same models.
+	 * @param cache a cache, <code>null</code> to not cache the segmentations
+	 * @see #segmentAndResolve(String)
+	 */
+	public void setCache(SegmentationCache cache) {
+		this.cache = cache;
+	}
+	
+	/**
+	 * Set whether the lexicon recognizers of the segmenter are owned by 
+	 * shared models, as for a segmenter created by the models. Shared 
+	 * recognizers are not disposed by {@link #dispose()}, they are disposed 
+	 * with the models.
+	 * @param sharedRecognizers <code>true</code> if the recognizers are shared
+	 */
+	public void setSharedRecognizers(boolean sharedRecognizers) {
+		this.sharedRecognizers = sharedRecognizers;
+	}
+	
+	/**
+	 * @return the cache of the segmenter, <code>null</code> if it has no cache.
+	 */
+	public SegmentationCache getCache() {
+		return cache;
+	}
+	
 	/**
 	 * @param segmentations a list of possible segmentations.
 	 * @return the most probable segmentation
 	 */
 	public String[] resolveAmbiguity(List<String[]> segmentations) {
-		return resolver.resolve(segmentations);
+		long start = RESOLVE_TIMER.start();
+		String[] segmentation = resolver.resolve(segmentations);
+		RESOLVE_TIMER.stop(start);
+		return segmentation;
 	}
 	
 
@@ -401,12 +485,19 @@ public class Segmenter {
 		}
 	}
 	/**
-	 * Dispose the segmenter to save space. 
+	 * Dispose the segmenter to save space. The lexicon recognizers of 
+	 * the segmenter are disposed too, unless they are shared.
+	 * @see #setSharedRecognizers(boolean)
 	 */
 	public void dispose() {
 		result.clear();
+		if (sharedRecognizers) {
+			return;
+		}
 		lexiconRecognizer.dispose();
-		externalLexiconRecognizer.dispose();
+		if (externalLexiconRecognizer != null) {
+			externalLexiconRecognizer.dispose();
+		}
 	}
 	
 }
@@ -0,0 +1,210 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ *  Vietnam National University, Hanoi, Vietnam.
+ */
+package vn.hus.nlp.tokenizer.segmenter;
+
+import java.util.List;
+import java.util.Properties;
+
+import vn.hus.nlp.fsm.CompactFSM;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * A factory of segmenters. The engine of a segmenter is selected by the 
+ * <code>segmenterEngine</code> property of the tokenizer: the shortest 
+ * path segmenter ({@link Segmenter}) or the Viterbi segmenter 
+ * ({@link ViterbiSegmenter}), which returns the number of segmentations 
+ * given by the <code>segmenterKBest</code> property.
+ */
+public final class SegmenterFactory {
+	
+	/**
+	 * The name of the property that selects the segmenter engine 
+	 */
+	public static final String SEGMENTER_ENGINE_PROPERTY = "segmenterEngine";
+	
+	/**
+	 * The name of the property that gives the number of segmentations of 
+	 * the Viterbi segmenter
+	 */
+	public static final String K_BEST_PROPERTY = "segmenterKBest";
+	
+	/**
+	 * The name of the property that gives the number of entries of the 
+	 * cache of segmentations, 0 if the segmentations are not cached
+	 */
+	public static final String CACHE_SIZE_PROPERTY = "segmenterCacheSize";
+	
+	/**
+	 * The name of the property that gives the maximal number of characters 
+	 * of the cache of segmentations, 0 if it is not bounded
+	 */
+	public static final String CACHE_WEIGHT_PROPERTY = "segmenterCacheWeight";
+	
+	/**
+	 * The name of the property that selects the recognizer of the internal lexicon
+	 */
+	public static final String LEXICON_ENGINE_PROPERTY = "lexiconEngine";
+	
+	/**
+	 * The recognizer which walks the lexicon automaton character by 
+	 * character, this is the default recognizer.
+	 */
+	public static final String DFA_LEXICON = "dfa";
+	
+	/**
+	 * The recognizer of a trie of syllables built from the lexicon automaton.
+	 */
+	public static final String SYLLABLE_TRIE_LEXICON = "syllableTrie";
+	
+	/**
+	 * The recognizer of a double-array trie of characters built from the 
+	 * lexicon automaton.
+	 */
+	public static final String DOUBLE_ARRAY_LEXICON = "doubleArray";
+	
+	/**
+	 * The recognizer of the minimal automaton of the union of the internal 
+	 * and external lexicons.
+	 */
+	public static final String UNION_LEXICON = "union";
+	
+	/**
+	 * The name of the property that gives the false positive rate of the 
+	 * prefilter of the internal lexicon, 0 if the lexicon is not prefiltered
+	 * @see BloomLexiconRecognizer
+	 */
+	public static final String PREFILTER_RATE_PROPERTY = "lexiconPrefilterRate";
+	
+	/**
+	 * The shortest path engine, this is the default engine.
+	 */
+	public static final String SHORTEST_PATH_ENGINE = "shortestPath";
+	
+	/**
+	 * The Viterbi engine.
+	 */
+	public static final String VITERBI_ENGINE = "viterbi";
+	
+	private SegmenterFactory() {}
+	
+	/**
+	 * Create a segmenter from its models.
+	 * @param properties tokenizer properties
+	 * @param normalizer a string normalizer
+	 * @param lexiconRecognizer the internal lexicon recognizer
+	 * @param externalLexiconRecognizer the external lexicon recognizer
+	 * @param resolver the unigram resolver
+	 * @return a segmenter
+	 */
+	public static Segmenter createSegmenter(Properties properties, StringNormalizer normalizer, 
+			AbstractLexiconRecognizer lexiconRecognizer, AbstractLexiconRecognizer externalLexiconRecognizer, 
+			UnigramResolver resolver) {
+		String engine = properties.getProperty(SEGMENTER_ENGINE_PROPERTY);
+		if (engine == null || engine.trim().length() == 0 || engine.trim().equalsIgnoreCase(SHORTEST_PATH_ENGINE)) {
+			return new Segmenter(normalizer, lexiconRecognizer, externalLexiconRecognizer, resolver);
+		}
+		if (engine.trim().equalsIgnoreCase(VITERBI_ENGINE)) {
+			int k = 1;
+			String value = properties.getProperty(K_BEST_PROPERTY);
+			if (value != null && value.trim().length() > 0) {
+				try {
+					k = Math.max(1, Integer.parseInt(value.trim()));
+				} catch (NumberFormatException e) {
+					System.err.println("Invalid number of segmentations: " + value + ". The best one is used.");
+				}
+			}
+			return new ViterbiSegmenter(normalizer, lexiconRecognizer, externalLexiconRecognizer, resolver, k);
+		}
+		System.err.println("Unknown segmenter engine: " + engine + ". The shortest path engine is used.");
+		return new Segmenter(normalizer, lexiconRecognizer, externalLexiconRecognizer, resolver);
+	}
+	
+	/**
+	 * @param properties tokenizer properties
+	 * @return <code>true</code> if the external lexicon is merged into the 
+	 * internal lexicon by {@link #createLexiconRecognizer(Properties, ExternalLexiconRecognizer)}.
+	 */
+	public static boolean isUnionLexicon(Properties properties) {
+		String engine = properties.getProperty(LEXICON_ENGINE_PROPERTY);
+		return engine != null && engine.trim().equalsIgnoreCase(UNION_LEXICON);
+	}
+	
+	/**
+	 * Create the recognizer of the internal lexicon given by the properties.
+	 * @param properties tokenizer properties
+	 * @param externalLexiconRecognizer the recognizer of the external lexicon, 
+	 * its words are merged into the internal lexicon by the union engine.
+	 * @return a lexicon recognizer
+	 */
+	public static AbstractLexiconRecognizer createLexiconRecognizer(Properties properties, 
+			ExternalLexiconRecognizer externalLexiconRecognizer) {
+		CompactFSM lexicon = DFALexiconRecognizer.loadAutomaton(properties.getProperty("lexiconDFA"));
+		double rate = 0;
+		String value = properties.getProperty(PREFILTER_RATE_PROPERTY);
+		if (value != null && value.trim().length() > 0) {
+			try {
+				rate = Double.parseDouble(value.trim());
+			} catch (NumberFormatException e) {
+				System.err.println("Invalid false positive rate: " + value + ". The lexicon is not prefiltered.");
+			}
+		}
+		// the words of the lexicon, if they are needed
+		List<String> words = null;
+		String engine = properties.getProperty(LEXICON_ENGINE_PROPERTY);
+		if (engine != null) {
+			engine = engine.trim();
+		}
+		AbstractLexiconRecognizer recognizer;
+		if (engine != null && engine.equalsIgnoreCase(SYLLABLE_TRIE_LEXICON)) {
+			words = SyllableLexiconRecognizer.getWords(lexicon);
+			recognizer = new SyllableLexiconRecognizer(words);
+		} else if (engine != null && engine.equalsIgnoreCase(DOUBLE_ARRAY_LEXICON)) {
+			words = SyllableLexiconRecognizer.getWords(lexicon);
+			recognizer = new DoubleArrayLexiconRecognizer(words);
+		} else if (engine != null && engine.equalsIgnoreCase(UNION_LEXICON)) {
+			recognizer = DFALexiconRecognizer.union(lexicon, externalLexiconRecognizer.getExternalLexicon());
+		} else {
+			if (engine != null && engine.length() > 0 && !engine.equalsIgnoreCase(DFA_LEXICON)) {
+				System.err.println("Unknown lexicon engine: " + engine + ". The automaton is used.");
+			}
+			recognizer = new DFALexiconRecognizer(lexicon);
+		}
+		if (rate > 0 && rate < 1) {
+			if (words == null) {
+				words = SyllableLexiconRecognizer.getWords(((DFALexiconRecognizer) recognizer).getAutomaton());
+			}
+			recognizer = new BloomLexiconRecognizer(recognizer, words, rate);
+		}
+		return recognizer;
+	}
+	
+	/**
+	 * Create the cache of segmentations given by the properties.
+	 * @param properties tokenizer properties
+	 * @return a cache, or <code>null</code> if the segmentations are not cached.
+	 */
+	public static SegmentationCache createCache(Properties properties) {
+		int size = 0;
+		long weight = 0;
+		try {
+			String value = properties.getProperty(CACHE_SIZE_PROPERTY);
+			if (value != null && value.trim().length() > 0) {
+				size = Integer.parseInt(value.trim());
+			}
+			value = properties.getProperty(CACHE_WEIGHT_PROPERTY);
+			if (value != null && value.trim().length() > 0) {
+				weight = Long.parseLong(value.trim());
+			}
+		} catch (NumberFormatException e) {
+			System.err.println("Invalid size of the segmentation cache. The segmentations are not cached.");
+			return null;
+		}
+		if (size <= 0) {
+			return null;
+		}
+		return new SegmentationCache(size, Math.max(0, weight), SegmentationCache.DEFAULT_NUMBER_OF_STRIPES);
+	}
+}
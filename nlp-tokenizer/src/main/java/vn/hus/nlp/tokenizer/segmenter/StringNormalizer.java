@@ -6,11 +6,8 @@ package vn.hus.nlp.tokenizer.segmenter;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.Charset;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.Properties;
 
 import org.apache.commons.io.IOUtils;
@@ -25,18 +22,35 @@ import org.apache.commons.io.IOUtils;
  * An accent normalizer for Vietnamese string. The purpose of
  * this class is to convert a syllable like "hòa" to "hoà",
  * since the lexicon contains only the later form.
+ * <p>
+ * The rules are compiled into a trie of their left-hand sides, 
+ * a string is rewritten in one left-to-right pass which replaces the 
+ * longest left-hand side starting at each position.
  */
 public final class StringNormalizer {
 	
-	private static Map<String, String> map;
+	/**
+	 * The trie of the normalization rules of this normalizer. The node 0 
+	 * is the root, the children of a node are sorted by their labels and 
+	 * the output of a node is the right-hand side of the rule ending at 
+	 * the node, <code>null</code> if there is not any. The trie is not 
+	 * changed after the creation of the normalizer, so a normalizer 
+	 * can be shared.
+	 */
+	private final char[][] labels;
+	private final int[][] children;
+	private final String[] outputs;
 	
 	private StringNormalizer(String mapFile) {
-		map = new HashMap<String, String>();
-		init(mapFile);
+		TrieBuilder builder = new TrieBuilder();
+		init(mapFile, builder);
+		labels = builder.labels;
+		children = builder.children;
+		outputs = builder.outputs;
 	}
 	
 	
-	private void init(String mapFile) {
+	private void init(String mapFile, TrieBuilder builder) {
 		
 		InputStream stream = getClass().getResourceAsStream(mapFile);
 		List<String> rules;
@@ -50,7 +64,7 @@ public final class StringNormalizer {
 				
 				String[] s = rule.split("\\s+");
 				if (s.length == 2) {
-					map.put(s[0], s[1]);
+					builder.add(s[0], s[1]);
 				} else {
 					System.err.println("Wrong syntax in the map file " + mapFile + " at line " + i);
 				}
@@ -66,7 +80,58 @@ public final class StringNormalizer {
 
 
 	/**
-	 * @return an instance of the class.
+	 * The builder of the trie of the rules.
+	 */
+	private static final class TrieBuilder {
+		char[][] labels = new char[][] {new char[0]};
+		int[][] children = new int[][] {new int[0]};
+		String[] outputs = new String[1];
+		
+		/**
+		 * Add a rule to the trie.
+		 * @param from the left-hand side of the rule
+		 * @param to the right-hand side of the rule
+		 */
+		void add(String from, String to) {
+			int node = 0;
+			for (int i = 0; i < from.length(); i++) {
+				char c = from.charAt(i);
+				int k = Arrays.binarySearch(labels[node], c);
+				if (k < 0) {
+					k = -k - 1;
+					int child = outputs.length;
+					labels = Arrays.copyOf(labels, child + 1);
+					children = Arrays.copyOf(children, child + 1);
+					outputs = Arrays.copyOf(outputs, child + 1);
+					labels[child] = new char[0];
+					children[child] = new int[0];
+					labels[node] = insert(labels[node], k, c);
+					children[node] = insert(children[node], k, child);
+				}
+				node = children[node][k];
+			}
+			outputs[node] = to;
+		}
+	
+		private static char[] insert(char[] a, int k, char c) {
+			char[] b = new char[a.length + 1];
+			System.arraycopy(a, 0, b, 0, k);
+			b[k] = c;
+			System.arraycopy(a, k, b, k + 1, a.length - k);
+			return b;
+		}
+	
+		private static int[] insert(int[] a, int k, int v) {
+			int[] b = new int[a.length + 1];
+			System.arraycopy(a, 0, b, 0, k);
+			b[k] = v;
+			System.arraycopy(a, k, b, k + 1, a.length - k);
+			return b;
+		}
+	}
+
+	/**
+	 * @return a new instance of the class.
 	 */
 	public static StringNormalizer getInstance() {
 		return new StringNormalizer(IConstants.NORMALIZATION_RULES);
@@ -74,7 +139,7 @@ public final class StringNormalizer {
 
 	/**
 	 * @param properties
-	 * @return an instance of the class.
+	 * @return a new instance of the class.
 	 */
 	public static StringNormalizer getInstance(Properties properties) {
 		return new StringNormalizer(properties.getProperty("normalizationRules"));
@@ -82,19 +147,46 @@ public final class StringNormalizer {
 	
 	/**
 	 * Normalize a string.
-	 * @return a normalized string
+	 * @return a normalized string, the string itself if it does not 
+	 * contain any left-hand side of a rule.
 	 * @param s a string
 	 */
 	public String normalize(String s) {
-		String result = new String(s);
-		for (Iterator<String> it = map.keySet().iterator(); it.hasNext();) {
-			String from = it.next();
-			String to = map.get(from);
-			if (result.indexOf(from) >= 0) {
-				result = result.replace(from, to);
+		StringBuilder result = null;
+		int n = s.length();
+		// the characters before this index are copied to the result
+		int copied = 0;
+		int i = 0;
+		while (i < n) {
+			// find the longest rule starting at i
+			int node = 0;
+			int end = -1;
+			String to = null;
+			for (int j = i; j < n; j++) {
+				int k = Arrays.binarySearch(labels[node], s.charAt(j));
+				if (k < 0) {
+					break;
+				}
+				node = children[node][k];
+				if (outputs[node] != null) {
+					end = j + 1;
+					to = outputs[node];
+				}
+			}
+			if (to == null) {
+				i++;
+				continue;
 			}
+			if (result == null) {
+				result = new StringBuilder(n);
+			}
+			result.append(s, copied, i).append(to);
+			copied = i = end;
+		}
+		if (result == null) {
+			return s;
 		}
-		return result;
+		return result.append(s, copied, n).toString();
 	}
 	
 }
@@ -0,0 +1,106 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ *  Vietnam National University, Hanoi, Vietnam.
+ */
+package vn.hus.nlp.tokenizer.segmenter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * A dictionary of syllables. Each syllable has a dense identifier, from
+ * <code>0</code> to <code>size() - 1</code>, in the order the syllables
+ * are added; the syllables are interned, a syllable is kept only once
+ * whatever the number of words it belongs to.
+ * <p>
+ * Vietnamese has only a few thousands of distinct syllables, so a phrase
+ * is encoded once into an array of identifiers and the words of a lexicon
+ * are then compared by their identifiers, see {@link SyllableTrie}.
+ * <p>
+ * A dictionary is not synchronized: it must not be modified once it is
+ * shared by several threads.
+ */
+public final class SyllableDictionary {
+
+	/**
+	 * The identifier of a syllable which is not in the dictionary
+	 */
+	public static final int UNKNOWN = -1;
+
+	private final Map<String, Integer> ids = new HashMap<String, Integer>();
+
+	private final List<String> syllables = new ArrayList<String>();
+
+	/**
+	 * Add a syllable to the dictionary.
+	 * @param syllable a syllable
+	 * @return the identifier of the syllable
+	 */
+	public int add(String syllable) {
+		Integer id = ids.get(syllable);
+		if (id == null) {
+			id = syllables.size();
+			ids.put(syllable, id);
+			syllables.add(syllable);
+		}
+		return id.intValue();
+	}
+
+	/**
+	 * @param syllable a syllable
+	 * @return the identifier of the syllable, or {@link #UNKNOWN} if the
+	 * syllable is not in the dictionary.
+	 */
+	public int getId(String syllable) {
+		Integer id = ids.get(syllable);
+		return (id == null) ? UNKNOWN : id.intValue();
+	}
+
+	/**
+	 * @param id an identifier
+	 * @return the syllable of the identifier
+	 */
+	public String getSyllable(int id) {
+		return syllables.get(id);
+	}
+
+	/**
+	 * Encode a phrase.
+	 * @param phrase an array of syllables
+	 * @return the identifiers of the syllables, {@link #UNKNOWN} for the
+	 * syllables which are not in the dictionary.
+	 */
+	public int[] encode(String[] phrase) {
+		int[] a = new int[phrase.length];
+		for (int i = 0; i < phrase.length; i++) {
+			a[i] = getId(phrase[i]);
+		}
+		return a;
+	}
+
+	/**
+	 * @return the number of syllables of the dictionary
+	 */
+	public int size() {
+		return syllables.size();
+	}
+
+	/**
+	 * @return an estimate of the number of bytes used by the dictionary
+	 * on a 64-bit JVM with compressed references.
+	 */
+	public long getMemorySize() {
+		long size = 0;
+		for (String syllable : syllables) {
+			// the string, its char array, the map entry and the boxed identifier
+			size += 24 + 16 + 2 * syllable.length() + 32 + 16;
+		}
+		// the table of the map and the list
+		size += 4L * 2 * Math.max(16, Integer.highestOneBit(Math.max(1, syllables.size())) * 2);
+		return size;
+	}
+}
@@ -0,0 +1,202 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ *  Vietnam National University, Hanoi, Vietnam.
+ */
+package vn.hus.nlp.tokenizer.segmenter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import vn.hus.nlp.fsm.CompactFSM;
+import vn.hus.nlp.fsm.State;
+import vn.hus.nlp.fsm.Transition;
+import vn.hus.nlp.fsm.fsa.DFA;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * A recognizer of a lexicon stored in a {@link SyllableTrie}. The cursors
+ * of the recognizer encode a phrase into identifiers of syllables once and
+ * then follow one transition of the trie per syllable, no string is built
+ * to recognize the words of the phrase.
+ * <p>
+ * The recognizer is not modified after its creation, it can be shared by
+ * several segmenters and threads.
+ */
+public final class SyllableLexiconRecognizer extends AbstractLexiconRecognizer {
+
+	private final SyllableTrie trie;
+
+	/**
+	 * Creates a recognizer of a trie.
+	 * @param trie a trie of syllables
+	 */
+	public SyllableLexiconRecognizer(SyllableTrie trie) {
+		this.trie = trie;
+	}
+
+	/**
+	 * Creates a recognizer of a collection of words.
+	 * @param words the words, their syllables are separated by a blank character
+	 */
+	public SyllableLexiconRecognizer(Collection<String> words) {
+		this(new SyllableTrie(words));
+	}
+
+	/**
+	 * Creates a recognizer of the words of a lexicon automaton. The words
+	 * are read from the automaton, which can then be disposed.
+	 * @param lexiconDFA a lexicon automaton
+	 */
+	public SyllableLexiconRecognizer(DFA lexiconDFA) {
+		this(getWords(lexiconDFA));
+	}
+
+	/**
+	 * Get the words recognized by an acyclic automaton.
+	 * @param dfa an automaton
+	 * @return the words of the automaton
+	 */
+	public static List<String> getWords(DFA dfa) {
+		List<String> words = new ArrayList<String>();
+		StringBuilder prefix = new StringBuilder();
+		// the states on the current path, to detect a cycle
+		Set<Integer> path = new HashSet<Integer>();
+		collectWords(dfa, dfa.getInitialState(), prefix, path, words);
+		return words;
+	}
+
+	private static void collectWords(DFA dfa, State state, StringBuilder prefix, Set<Integer> path, List<String> words) {
+		if (!path.add(state.getId())) {
+			throw new IllegalArgumentException("The automaton is not acyclic: " + prefix);
+		}
+		if (state.isFinalState()) {
+			words.add(prefix.toString());
+		}
+		for (Transition t : state.getOutTransitions()) {
+			prefix.append(t.getInput());
+			collectWords(dfa, dfa.getState(t.getTarget()), prefix, path, words);
+			prefix.setLength(prefix.length() - 1);
+		}
+		path.remove(state.getId());
+	}
+
+	/**
+	 * Get the words recognized by an acyclic compact automaton.
+	 * @param fsm a compact automaton
+	 * @return the words of the automaton
+	 */
+	public static List<String> getWords(CompactFSM fsm) {
+		List<String> words = new ArrayList<String>();
+		collectWords(fsm, CompactFSM.INITIAL_STATE, new StringBuilder(), new boolean[fsm.getNumberOfStates()], words);
+		return words;
+	}
+
+	private static void collectWords(CompactFSM fsm, int state, StringBuilder prefix, boolean[] path, List<String> words) {
+		if (path[state]) {
+			throw new IllegalArgumentException("The automaton is not acyclic: " + prefix);
+		}
+		path[state] = true;
+		if (fsm.isFinal(state)) {
+			words.add(prefix.toString());
+		}
+		for (int i = fsm.getStart(state); i < fsm.getEnd(state); i++) {
+			if (fsm.getTarget(i) >= 0) {
+				prefix.append(fsm.getInput(i));
+				collectWords(fsm, fsm.getTarget(i), prefix, path, words);
+				prefix.setLength(prefix.length() - 1);
+			}
+		}
+		path[state] = false;
+	}
+
+	/* (non-Javadoc)
+	 * @see vn.hus.nlp.tokenizer.segmenter.AbstractLexiconRecognizer#accept(java.lang.String)
+	 */
+	@Override
+	public boolean accept(String token) {
+		return trie.contains(token);
+	}
+
+	/* (non-Javadoc)
+	 * @see vn.hus.nlp.tokenizer.segmenter.AbstractLexiconRecognizer#dispose()
+	 */
+	@Override
+	public void dispose() {
+		// the trie is immutable, it is collected with the recognizer
+	}
+
+	/* (non-Javadoc)
+	 * @see vn.hus.nlp.tokenizer.segmenter.AbstractLexiconRecognizer#createCursor()
+	 */
+	@Override
+	public LexiconCursor createCursor() {
+		return new TrieCursor(trie);
+	}
+
+	/**
+	 * @return the trie of the lexicon
+	 */
+	public SyllableTrie getTrie() {
+		return trie;
+	}
+
+	/**
+	 * A cursor on a trie of syllables, its prefix is a node of the trie.
+	 */
+	static final class TrieCursor extends LexiconCursor {
+
+		private final SyllableTrie trie;
+
+		/**
+		 * The identifiers of the syllables of the phrase
+		 */
+		private int[] phrase = new int[0];
+
+		/**
+		 * The current node, {@link SyllableTrie#NONE} if there is no transition
+		 */
+		private int node = SyllableTrie.ROOT;
+
+		TrieCursor(SyllableTrie trie) {
+			this.trie = trie;
+		}
+
+		@Override
+		public void setPhrase(String[] syllables) {
+			super.setPhrase(syllables);
+			phrase = trie.getDictionary().encode(syllables);
+		}
+
+		@Override
+		public void reset() {
+			node = SyllableTrie.ROOT;
+		}
+
+		private boolean next(int syllable) {
+			if (node == SyllableTrie.NONE) {
+				return false;
+			}
+			node = trie.next(node, syllable);
+			return node != SyllableTrie.NONE;
+		}
+
+		@Override
+		public boolean next(String syllable) {
+			return next(trie.getDictionary().getId(syllable));
+		}
+
+		@Override
+		public boolean nextSyllable(int position) {
+			return next(phrase[position]);
+		}
+
+		@Override
+		public boolean isAccepted() {
+			return node != SyllableTrie.NONE && trie.isFinal(node);
+		}
+	}
+}
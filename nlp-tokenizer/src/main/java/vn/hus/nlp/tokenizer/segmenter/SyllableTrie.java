@@ -0,0 +1,215 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ *  Vietnam National University, Hanoi, Vietnam.
+ */
+package vn.hus.nlp.tokenizer.segmenter;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * A trie of the words of a lexicon whose transitions are labeled by the
+ * identifiers of syllables given by a {@link SyllableDictionary}. A word
+ * of <code>k</code> syllables is recognized with <code>k</code>
+ * transitions instead of one transition per character.
+ * <p>
+ * The trie is built once and stored in flat arrays: the transitions of
+ * the node <code>n</code> are at the indices <code>first[n]</code> to
+ * <code>first[n+1] - 1</code> of the arrays of labels and targets, sorted
+ * by label, so that a transition is found by a binary search. The root is
+ * the node {@link #ROOT}. A trie is not modified after it is built, it can
+ * be shared by several threads.
+ */
+public final class SyllableTrie {
+
+	/**
+	 * The root of the trie
+	 */
+	public static final int ROOT = 0;
+
+	/**
+	 * The node returned by {@link #next(int, int)} if there is no transition
+	 */
+	public static final int NONE = -1;
+
+	private final SyllableDictionary dictionary;
+
+	private final int[] first;
+
+	private final int[] labels;
+
+	private final int[] targets;
+
+	private final BitSet finals;
+
+	private final int numberOfWords;
+
+	/**
+	 * A node of the trie being built.
+	 */
+	private static final class Node {
+		final Map<Integer, Node> children = new TreeMap<Integer, Node>();
+		boolean isFinal = false;
+	}
+
+	/**
+	 * Build the trie of a collection of words with a new dictionary of
+	 * their syllables.
+	 * @param words the words, their syllables are separated by a blank character
+	 */
+	public SyllableTrie(Collection<String> words) {
+		this(words, new SyllableDictionary());
+	}
+
+	/**
+	 * Build the trie of a collection of words. The syllables of the words
+	 * are added to a dictionary, which must not be modified later.
+	 * @param words the words, their syllables are separated by a blank character
+	 * @param dictionary a dictionary of syllables
+	 */
+	public SyllableTrie(Collection<String> words, SyllableDictionary dictionary) {
+		this.dictionary = dictionary;
+		Node root = new Node();
+		int numberOfNodes = 1;
+		int n = 0;
+		for (String word : words) {
+			if (word.length() == 0) {
+				continue;
+			}
+			Node node = root;
+			int start = 0;
+			while (start <= word.length()) {
+				int end = word.indexOf(vn.hus.nlp.fsm.IConstants.BLANK_CHARACTER, start);
+				if (end < 0) {
+					end = word.length();
+				}
+				Integer id = dictionary.add(word.substring(start, end));
+				Node child = node.children.get(id);
+				if (child == null) {
+					child = new Node();
+					node.children.put(id, child);
+					numberOfNodes++;
+				}
+				node = child;
+				start = end + 1;
+			}
+			if (!node.isFinal) {
+				node.isFinal = true;
+				n++;
+			}
+		}
+		numberOfWords = n;
+		// number the nodes in breadth-first order and flatten the transitions
+		first = new int[numberOfNodes + 1];
+		labels = new int[numberOfNodes - 1];
+		targets = new int[numberOfNodes - 1];
+		finals = new BitSet(numberOfNodes);
+		Node[] queue = new Node[numberOfNodes];
+		queue[0] = root;
+		int tail = 1;
+		int t = 0;
+		for (int head = 0; head < numberOfNodes; head++) {
+			Node node = queue[head];
+			first[head] = t;
+			if (node.isFinal) {
+				finals.set(head);
+			}
+			for (Map.Entry<Integer, Node> e : node.children.entrySet()) {
+				labels[t] = e.getKey().intValue();
+				targets[t] = tail;
+				queue[tail++] = e.getValue();
+				t++;
+			}
+			// free the node being built
+			node.children.clear();
+		}
+		first[numberOfNodes] = t;
+	}
+
+	/**
+	 * Follow a transition.
+	 * @param node a node
+	 * @param syllable the identifier of a syllable
+	 * @return the target of the transition, or {@link #NONE} if the node
+	 * has no transition on the syllable.
+	 */
+	public int next(int node, int syllable) {
+		if (syllable < 0) {
+			return NONE;
+		}
+		int i = Arrays.binarySearch(labels, first[node], first[node+1], syllable);
+		return (i < 0) ? NONE : targets[i];
+	}
+
+	/**
+	 * @param node a node
+	 * @return <code>true</code> if the syllables from the root to the node
+	 * form a word.
+	 */
+	public boolean isFinal(int node) {
+		return finals.get(node);
+	}
+
+	/**
+	 * @param node a node
+	 * @return <code>true</code> if the node has transitions, that is some
+	 * words are longer than its prefix.
+	 */
+	public boolean hasTransitions(int node) {
+		return first[node+1] > first[node];
+	}
+
+	/**
+	 * Check a word.
+	 * @param word a word, its syllables are separated by a blank character
+	 * @return <code>true</code> if the word is in the trie
+	 */
+	public boolean contains(String word) {
+		int node = ROOT;
+		int start = 0;
+		while (start <= word.length() && node != NONE) {
+			int end = word.indexOf(vn.hus.nlp.fsm.IConstants.BLANK_CHARACTER, start);
+			if (end < 0) {
+				end = word.length();
+			}
+			node = next(node, dictionary.getId(word.substring(start, end)));
+			start = end + 1;
+		}
+		return node != NONE && isFinal(node);
+	}
+
+	/**
+	 * @return the dictionary of the syllables
+	 */
+	public SyllableDictionary getDictionary() {
+		return dictionary;
+	}
+
+	/**
+	 * @return the number of nodes
+	 */
+	public int getNumberOfNodes() {
+		return first.length - 1;
+	}
+
+	/**
+	 * @return the number of words
+	 */
+	public int getNumberOfWords() {
+		return numberOfWords;
+	}
+
+	/**
+	 * @return an estimate of the number of bytes used by the trie and its
+	 * dictionary.
+	 */
+	public long getMemorySize() {
+		return 4L * (first.length + labels.length + targets.length) + finals.size() / 8
+			+ dictionary.getMemorySize();
+	}
+}
@@ -4,10 +4,11 @@
  */
 package vn.hus.nlp.tokenizer.segmenter;
 
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import vn.hus.nlp.lexicon.LexiconUnmarshaller;
 import vn.hus.nlp.lexicon.jaxb.Corpus;
@@ -33,6 +34,11 @@ public class UnigramResolver extends AbstractResolver {
 	 * The unigram probabilities.
 	 */
 	private Map<String, Integer> unigram;
+	
+	/**
+	 * The version of the unigram model, it is increased by {@link #setFrequency(String, int)}
+	 */
+	private volatile long version = 0;
 
 	/**
 	 * Default construtor.
@@ -44,11 +50,51 @@ public class UnigramResolver extends AbstractResolver {
 		loadUnigram(unigramFilename);
 	}
 	
+	/**
+	 * Creates a resolver from a unigram table. The table is only read by 
+	 * the resolver, so it can be shared by several resolvers.
+	 * @param unigram the frequencies of words
+	 */
+	public UnigramResolver(Map<String, Integer> unigram) {
+		this.unigram = unigram;
+	}
+	
+	/**
+	 * @return an unmodifiable view of the frequencies of words of this resolver
+	 */
+	public Map<String, Integer> getUnigram() {
+		return Collections.unmodifiableMap(unigram);
+	}
+	
+	/**
+	 * Set the frequency of a word and increase the version of the resolver. 
+	 * If the unigram table is given to the constructor, it must be modifiable 
+	 * and it is modified.
+	 * @param word a word
+	 * @param frequency its frequency, the word is removed if the frequency is 0
+	 */
+	public synchronized void setFrequency(String word, int frequency) {
+		if (frequency == 0) {
+			unigram.remove(word);
+		} else {
+			unigram.put(word, frequency);
+		}
+		version++;
+	}
+	
+	/* (non-Javadoc)
+	 * @see vn.hus.nlp.tokenizer.segmenter.AbstractResolver#getVersion()
+	 */
+	@Override
+	public long getVersion() {
+		return version;
+	}
+	
 	private void init() {
 		// create a lexicon unmarshaller
 		unmarshaller = new LexiconUnmarshaller();
-		// init the unigram model
-		unigram = new HashMap<String, Integer>();
+		// init the unigram model, it may be updated while it is read
+		unigram = new ConcurrentHashMap<String, Integer>();
 	}
 	
 	/**
@@ -88,11 +134,11 @@ public class UnigramResolver extends AbstractResolver {
 			int frequency = 0;
 			for (int i = 0; i < segmentation.length; i++) {
 				String word = segmentation[i];
-				int wordFreq = 0;
-				if (unigram.containsKey(word)) {
-					wordFreq = unigram.get(word).intValue();
+				// a single lookup, the word may be removed at the same time
+				Integer wordFreq = unigram.get(word);
+				if (wordFreq != null) {
+					frequency += wordFreq.intValue();
 				}
-				frequency += wordFreq;
 			}
 			if (frequency >= maxFrequency) {
 				maxFrequency = frequency;
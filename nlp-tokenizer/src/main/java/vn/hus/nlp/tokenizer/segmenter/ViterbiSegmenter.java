@@ -0,0 +1,289 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ *  Vietnam National University, Hanoi, Vietnam.
+ */
+package vn.hus.nlp.tokenizer.segmenter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import vn.hus.nlp.graph.CSRWeightedGraph;
+import vn.hus.nlp.utils.metrics.Metrics;
+import vn.hus.nlp.utils.metrics.Timer;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * A segmenter which finds the best segmentations of a phrase by dynamic
+ * programming over the syllable positions of its word lattice, instead of
+ * enumerating all the shortest paths of the lattice and resolving them
+ * afterwards. The word-count criterion of the shortest paths (the weights
+ * of the edges) and the unigram frequencies of the words are combined
+ * in one pass: a segmentation is better than another one if its cost is
+ * smaller, or if the costs are equal and the sum of the frequencies of its
+ * words is greater (see {@link ScoredSegmentation}).
+ * <p>
+ * The best segmentation is thus one of the segmentations that the shortest
+ * path segmenter with a {@link UnigramResolver} may select: a shortest 
+ * path with the greatest sum of frequencies. When several shortest paths
+ * have this sum, the resolver keeps the last one in the order of the path
+ * finder, which the dynamic programming does not follow, so the two
+ * segmenters may select different segmentations of equal scores.
+ * <p>
+ * For each position, the <code>k</code> best partial segmentations
+ * ending at this position are kept, so the time of a segmentation is
+ * linear in the number of edges of the lattice, for a fixed <code>k</code>.
+ * <p>
+ * {@link #segment(String)} returns the <code>k</code> best segmentations,
+ * the best one first, so {@link #resolveAmbiguity(List)} simply selects the
+ * first segmentation.
+ */
+public class ViterbiSegmenter extends Segmenter {
+
+	private static final Timer VITERBI_TIMER = Metrics.timer("segmenter.viterbi");
+
+	/**
+	 * The unigram frequencies of words, a view of the frequencies of the
+	 * resolver
+	 */
+	private final Map<String, Integer> unigram;
+
+	/**
+	 * The number of segmentations returned by {@link #segment(String)}
+	 */
+	private final int k;
+
+	/**
+	 * Build a Viterbi segmenter from its models. The models are only read,
+	 * they can be shared by several segmenters. The frequencies of the words
+	 * are read from the resolver, so that a change of a frequency by 
+	 * {@link UnigramResolver#setFrequency(String, int)} changes the version 
+	 * of the models of the segmenter ({@link #getModelVersion()}).
+	 * @param normalizer a string normalizer
+	 * @param lexiconRecognizer the internal lexicon recognizer
+	 * @param externalLexiconRecognizer the external lexicon recognizer, 
+	 * <code>null</code> if the external lexicon is a part of the internal one 
+	 * @param resolver the unigram resolver which gives the frequencies of words
+	 * @param k the number of segmentations returned by {@link #segment(String)}
+	 */
+	public ViterbiSegmenter(StringNormalizer normalizer, AbstractLexiconRecognizer lexiconRecognizer,
+			AbstractLexiconRecognizer externalLexiconRecognizer, UnigramResolver resolver, int k) {
+		super(normalizer, lexiconRecognizer, externalLexiconRecognizer, resolver);
+		if (k < 1) {
+			throw new IllegalArgumentException("k must be positive: " + k);
+		}
+		this.unigram = resolver.getUnigram();
+		this.k = k;
+	}
+
+	/**
+	 * @return the number of segmentations returned by {@link #segment(String)}
+	 */
+	public int getK() {
+		return k;
+	}
+
+	/**
+	 * Segment a phrase. The <code>k</code> best segmentations are returned,
+	 * the best one first.
+	 * @see vn.hus.nlp.tokenizer.segmenter.Segmenter#segment(java.lang.String)
+	 */
+	@Override
+	public List<String[]> segment(String phrase) {
+		List<ScoredSegmentation> segmentations = segment(phrase, k);
+		List<String[]> result = new ArrayList<String[]>(segmentations.size());
+		for (ScoredSegmentation segmentation : segmentations) {
+			result.add(segmentation.getWords());
+		}
+		setResult(result);
+		return result;
+	}
+
+	/**
+	 * The segmentations given by {@link #segment(String)} are sorted, the
+	 * first one is selected.
+	 * @see vn.hus.nlp.tokenizer.segmenter.Segmenter#resolveAmbiguity(java.util.List)
+	 */
+	@Override
+	public String[] resolveAmbiguity(List<String[]> segmentations) {
+		if (segmentations.isEmpty()) {
+			return null;
+		}
+		return segmentations.get(0);
+	}
+
+	/**
+	 * Find the best segmentations of a phrase with their scores.
+	 * @param phrase a phrase
+	 * @param n the maximal number of segmentations
+	 * @return at most <code>n</code> segmentations, the best one first
+	 */
+	public List<ScoredSegmentation> segment(String phrase, int n) {
+		// the words of the result are taken from the original phrase
+		String[] original = phrase.split("\\p{Space}+");
+		String[] syllables = prepare(phrase);
+		long start = VITERBI_TIMER.start();
+		CSRWeightedGraph graph = makeGraph(syllables);
+		int nV = graph.getNumberOfVertices();
+		Path[][] paths = search(graph, original, n, false);
+		if (paths[nV-1].length == 0) {
+			// the end is not reachable, connect the graph as the
+			// shortest path segmenter does
+			connect(graph);
+			paths = search(graph, original, n, false);
+			if (paths[nV-1].length == 0) {
+				// the graph is still not connected, use single syllables
+				paths = search(graph, original, n, true);
+			}
+		}
+		List<ScoredSegmentation> result = new ArrayList<ScoredSegmentation>(paths[nV-1].length);
+		for (Path path : paths[nV-1]) {
+			result.add(new ScoredSegmentation(getWords(original, paths, path), path.cost, path.frequency));
+		}
+		VITERBI_TIMER.stop(start);
+		return result;
+	}
+
+	/**
+	 * A partial segmentation: its score and the last word, which is given
+	 * by the previous position and the rank of the partial segmentation at
+	 * this position.
+	 */
+	private static final class Path {
+		final double cost;
+		final long frequency;
+		final int previous;
+		final int rank;
+
+		Path(double cost, long frequency, int previous, int rank) {
+			this.cost = cost;
+			this.frequency = frequency;
+			this.previous = previous;
+			this.rank = rank;
+		}
+
+		boolean isBetterThan(Path path) {
+			return ScoredSegmentation.compare(cost, frequency, path.cost, path.frequency) < 0;
+		}
+	}
+
+	/**
+	 * Find the <code>n</code> best paths of each position of the lattice,
+	 * the positions are visited from left to right.
+	 * @param graph the lattice
+	 * @param words the syllables used to look up the unigram frequencies
+	 * @param n the number of paths kept at each position
+	 * @param singleSyllables <code>true</code> to add an edge for a single
+	 * syllable if there is not any.
+	 * @return the sorted paths of each position
+	 */
+	private Path[][] search(CSRWeightedGraph graph, String[] words, int n, boolean singleSyllables) {
+		int nV = graph.getNumberOfVertices();
+		Path[][] paths = new Path[nV][];
+		int[] sizes = new int[nV];
+		for (int v = 1; v < nV; v++) {
+			paths[v] = new Path[n];
+		}
+		paths[0] = new Path[] {new Path(0, 0, -1, -1)};
+		sizes[0] = 1;
+		// visited[v] == u+1 if there is an edge (u,v), to skip duplicated edges
+		int[] visited = new int[nV];
+		for (int u = 0; u < nV - 1; u++) {
+			if (sizes[u] == 0) {
+				continue;
+			}
+			int end = graph.getEnd(u);
+			for (int i = graph.getStart(u); i < end; i++) {
+				int v = graph.getTarget(i);
+				if (v <= u || visited[v] == u + 1) {
+					continue;
+				}
+				visited[v] = u + 1;
+				extend(paths, sizes, u, v, graph.getWeight(i), getFrequency(words, u, v));
+			}
+			if (singleSyllables && visited[u+1] != u + 1) {
+				extend(paths, sizes, u, u+1, LatticeBuilder.MAX_EDGE_WEIGHT, getFrequency(words, u, u+1));
+			}
+		}
+		for (int v = 0; v < nV; v++) {
+			if (paths[v].length != sizes[v]) {
+				Path[] a = new Path[sizes[v]];
+				System.arraycopy(paths[v], 0, a, 0, sizes[v]);
+				paths[v] = a;
+			}
+		}
+		return paths;
+	}
+
+	/**
+	 * Extend the paths of position <code>u</code> by the word <code>(u,v)</code>
+	 * and keep the best paths of position <code>v</code>.
+	 */
+	private static void extend(Path[][] paths, int[] sizes, int u, int v, double weight, int frequency) {
+		Path[] target = paths[v];
+		for (int r = 0; r < sizes[u]; r++) {
+			Path path = paths[u][r];
+			Path candidate = new Path(path.cost + weight, path.frequency + frequency, u, r);
+			// insert the candidate into the sorted paths of v
+			int i = sizes[v];
+			if (i == target.length) {
+				if (!candidate.isBetterThan(target[i-1])) {
+					// the paths of u are sorted, the next ones are not better
+					break;
+				}
+				i--;
+			} else {
+				sizes[v]++;
+			}
+			while (i > 0 && candidate.isBetterThan(target[i-1])) {
+				target[i] = target[i-1];
+				i--;
+			}
+			target[i] = candidate;
+		}
+	}
+
+	/**
+	 * @param words the syllables
+	 * @param u the first syllable of a word
+	 * @param v the end of the word (exclusive)
+	 * @return the unigram frequency of the word of the syllables <code>u..v-1</code>
+	 */
+	private int getFrequency(String[] words, int u, int v) {
+		String word = join(words, u, v);
+		Integer frequency = unigram.get(word);
+		return frequency == null ? 0 : frequency.intValue();
+	}
+
+	private static String join(String[] words, int u, int v) {
+		if (v == u + 1) {
+			return words[u];
+		}
+		StringBuilder sb = new StringBuilder();
+		for (int j = u; j < v; j++) {
+			if (j > u) {
+				sb.append(vn.hus.nlp.fsm.IConstants.BLANK_CHARACTER);
+			}
+			sb.append(words[j]);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Follow a path back to the start position and build its words.
+	 */
+	private static String[] getWords(String[] original, Path[][] paths, Path path) {
+		int n = 0;
+		for (Path p = path; p.previous >= 0; p = paths[p.previous][p.rank]) {
+			n++;
+		}
+		String[] words = new String[n];
+		int end = paths.length - 1;
+		for (Path p = path; p.previous >= 0; p = paths[p.previous][p.rank]) {
+			words[--n] = join(original, p.previous, end);
+			end = p.previous;
+		}
+		return words;
+	}
+}
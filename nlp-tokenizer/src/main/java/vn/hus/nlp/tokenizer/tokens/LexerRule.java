@@ -18,9 +18,10 @@ public class LexerRule {
 	 */
 	private final String regex;
 	/**
-	 * A pre-compiled pattern object, kept to save processing time
+	 * A pre-compiled pattern object, kept to save processing time. It is 
+	 * volatile since a rule may be shared by several threads.
 	 */
-	private Pattern pattern;
+	private volatile Pattern pattern;
 
 	/**
 	 * Instantiate a new lexical rule with a name
@@ -70,10 +71,12 @@ public class LexerRule {
 	 * @return the pattern object
 	 */
 	public Pattern getPattern() {
-		if (pattern == null) {
-			pattern = Pattern.compile(regex);
+		Pattern p = pattern;
+		if (p == null) {
+			p = Pattern.compile(regex);
+			pattern = p;
 		}
-		return pattern;
+		return p;
 	}
 
 	/**
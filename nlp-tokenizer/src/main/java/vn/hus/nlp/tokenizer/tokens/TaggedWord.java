@@ -12,10 +12,30 @@ public class TaggedWord implements Comparable<TaggedWord> {
 	 */
 	private final LexerRule rule;
 	/**
-	 * The text
+	 * The text, or <code>null</code> if it is taken from the source.
 	 */
 	private final String text;
 
+	/**
+	 * The trimmed text, it is computed when it is first needed.
+	 */
+	private String trimmedText;
+
+	/**
+	 * The source of the text, or <code>null</code> if the text is given.
+	 */
+	private final CharSequence source;
+
+	/**
+	 * The start offset of the text in its line, or -1 if unknown
+	 */
+	private int start = -1;
+
+	/**
+	 * The end offset of the text in its line (exclusive), or -1 if unknown
+	 */
+	private int end = -1;
+
 	/**
 	 * The line location of the text in the file
 	 */
@@ -42,6 +62,34 @@ public class TaggedWord implements Comparable<TaggedWord> {
 	public TaggedWord(LexerRule rule, String text, int line, int column) {
 		this.rule = rule;
 		this.text = text;
+		this.source = null;
+		this.line = line;
+		this.column = column;
+	}
+
+	/**
+	 * Create a LexerToken whose text is a region of a line. The text is 
+	 * not copied until it is requested.
+	 * 
+	 * @param rule
+	 *            a rule
+	 * @param source
+	 *            the line that contains the text
+	 * @param start
+	 *            the start offset of the text in the line
+	 * @param end
+	 *            the end offset of the text in the line (exclusive)
+	 * @param line
+	 *            the line location of the text in a file
+	 * @param column
+	 *            the column location of the text in a file
+	 */
+	public TaggedWord(LexerRule rule, CharSequence source, int start, int end, int line, int column) {
+		this.rule = rule;
+		this.text = null;
+		this.source = source;
+		this.start = start;
+		this.end = end;
 		this.line = line;
 		this.column = column;
 	}
@@ -55,6 +103,7 @@ public class TaggedWord implements Comparable<TaggedWord> {
 	public TaggedWord(String text) {
 		this.rule = null;
 		this.text = text;
+		this.source = null;
 		this.line = -1;
 		this.column = -1;
 	}
@@ -68,6 +117,7 @@ public class TaggedWord implements Comparable<TaggedWord> {
 	public TaggedWord(LexerRule rule, String text) {
 		this.rule = rule;
 		this.text = text;
+		this.source = null;
 		this.line = -1;
 		this.column = -1;
 	}
@@ -87,7 +137,24 @@ public class TaggedWord implements Comparable<TaggedWord> {
 	 * @return the text matched by this token
 	 */
 	public String getText() {
-		return text.trim();
+		String t = trimmedText;
+		if (t == null) {
+			if (text == null) {
+				// trim the region of the source before copying it
+				int s = start, e = end;
+				while (s < e && source.charAt(s) <= ' ') {
+					s++;
+				}
+				while (e > s && source.charAt(e - 1) <= ' ') {
+					e--;
+				}
+				t = source.subSequence(s, e).toString();
+			} else {
+				t = text.trim();
+			}
+			trimmedText = t;
+		}
+		return t;
 	}
 
 	/**
@@ -152,6 +219,30 @@ public class TaggedWord implements Comparable<TaggedWord> {
 		this.column = column;
 	}
 
+	/**
+	 * @return the start offset of the text in its line, or -1 if it is unknown.
+	 */
+	public int getStart() {
+		return start;
+	}
+
+	/**
+	 * @return the end offset of the text in its line (exclusive), or -1 if it is unknown.
+	 */
+	public int getEnd() {
+		return end;
+	}
+
+	/**
+	 * Set the offsets of the text in its line.
+	 * @param start the start offset
+	 * @param end the end offset (exclusive)
+	 */
+	public void setOffsets(int start, int end) {
+		this.start = start;
+		this.end = end;
+	}
+
 	/**
 	 * @return Returns the line.
 	 */
@@ -174,7 +265,7 @@ public class TaggedWord implements Comparable<TaggedWord> {
 	public String toString() {
 		// return "[\"" + text + "\"" + " at (" + line + "," + column + ")]";
 		// return rule.getName() + ": " + text;
-		return text.trim();
+		return getText();
 	}
 
 	/* (non-Javadoc)
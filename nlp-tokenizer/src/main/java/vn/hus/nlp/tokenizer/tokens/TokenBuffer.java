@@ -0,0 +1,363 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.tokenizer.tokens;
+
+import java.nio.CharBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * A sequence of tokens stored in primitive arrays instead of a list of
+ * {@link TaggedWord} objects. The texts of the tokens are appended to one
+ * character array; a token is the region <code>[start, end)</code> of
+ * this array, the id of its rule, its line and its column. The rules are
+ * interned by name: each rule name gets a small id which is kept when the
+ * buffer is cleared, so a buffer can be reused across documents without
+ * growing its arrays again.
+ * <p>
+ * The buffer keeps no object per token, it does not make the 
+ * tokenization free of allocation: the tokenizer still creates a tagged 
+ * word for every token, which is copied in the buffer by {@link #add(TaggedWord)} 
+ * and can be collected right away. Tagged words are built again only when 
+ * they are requested by {@link #get(int)} or by the list view {@link #asList()}.
+ */
+public final class TokenBuffer {
+
+	private static final int DEFAULT_CAPACITY = 256;
+
+	/**
+	 * The texts of all the tokens
+	 */
+	private char[] chars;
+
+	private int length = 0;
+
+	private int[] starts;
+
+	private int[] ends;
+
+	private int[] ruleIds;
+
+	private int[] lines;
+
+	private int[] columns;
+
+	/**
+	 * The number of tokens
+	 */
+	private int size = 0;
+
+	/**
+	 * The interned rules, indexed by their id
+	 */
+	private final List<LexerRule> rules = new ArrayList<LexerRule>();
+
+	/**
+	 * The ids of the interned rules, indexed by their name
+	 */
+	private final Map<String, Integer> ruleIndex = new HashMap<String, Integer>();
+
+	/**
+	 * Creates an empty buffer.
+	 */
+	public TokenBuffer() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates an empty buffer.
+	 * @param capacity the initial number of tokens that can be stored
+	 */
+	public TokenBuffer(int capacity) {
+		capacity = Math.max(capacity, 1);
+		chars = new char[capacity * 8];
+		starts = new int[capacity];
+		ends = new int[capacity];
+		ruleIds = new int[capacity];
+		lines = new int[capacity];
+		columns = new int[capacity];
+	}
+
+	/**
+	 * Remove all the tokens. The arrays and the interned rules are kept.
+	 */
+	public void clear() {
+		size = 0;
+		length = 0;
+	}
+
+	/**
+	 * @return the number of tokens
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Get the id of a rule, the rule is interned if it is seen the first time.
+	 * Two rules of the same name have the same id.
+	 * @param rule a rule
+	 * @return the id of the rule
+	 */
+	public int internRule(LexerRule rule) {
+		Integer id = ruleIndex.get(rule.getName());
+		if (id == null) {
+			id = rules.size();
+			rules.add(rule);
+			ruleIndex.put(rule.getName(), id);
+		}
+		return id;
+	}
+
+	/**
+	 * @param ruleId the id of a rule
+	 * @return the interned rule of this id
+	 */
+	public LexerRule getRuleById(int ruleId) {
+		return rules.get(ruleId);
+	}
+
+	/**
+	 * @return the number of interned rules
+	 */
+	public int getNumberOfRules() {
+		return rules.size();
+	}
+
+	/**
+	 * Append a token whose text is a region of a character sequence.
+	 * @param rule the rule of the token
+	 * @param text a character sequence
+	 * @param from the start of the text in the sequence
+	 * @param to the end of the text in the sequence (exclusive)
+	 * @param line the line of the token
+	 * @param column the column of the token
+	 * @return the index of the token
+	 */
+	public int add(LexerRule rule, CharSequence text, int from, int to, int line, int column) {
+		ensureCapacity(size + 1);
+		ensureTextCapacity(length + to - from);
+		starts[size] = length;
+		for (int i = from; i < to; i++) {
+			chars[length++] = text.charAt(i);
+		}
+		ends[size] = length;
+		ruleIds[size] = internRule(rule);
+		lines[size] = line;
+		columns[size] = column;
+		return size++;
+	}
+
+	/**
+	 * Append a tagged word.
+	 * @param token a tagged word
+	 * @return the index of the token
+	 */
+	public int add(TaggedWord token) {
+		String text = token.getText();
+		return add(token.getRule(), text, 0, text.length(), token.getLine(), token.getColumn());
+	}
+
+	/**
+	 * Append all the tagged words of a list.
+	 * @param tokens a list of tagged words
+	 */
+	public void addAll(List<TaggedWord> tokens) {
+		for (TaggedWord token : tokens) {
+			add(token);
+		}
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > starts.length) {
+			int n = Math.max(capacity, starts.length * 2);
+			starts = grow(starts, n);
+			ends = grow(ends, n);
+			ruleIds = grow(ruleIds, n);
+			lines = grow(lines, n);
+			columns = grow(columns, n);
+		}
+	}
+
+	private void ensureTextCapacity(int capacity) {
+		if (capacity > chars.length) {
+			char[] a = new char[Math.max(capacity, chars.length * 2)];
+			System.arraycopy(chars, 0, a, 0, length);
+			chars = a;
+		}
+	}
+
+	private static int[] grow(int[] array, int n) {
+		int[] a = new int[n];
+		System.arraycopy(array, 0, a, 0, array.length);
+		return a;
+	}
+
+	/**
+	 * @param i the index of a token
+	 * @return the start offset of the text of the token in the buffer
+	 */
+	public int getStart(int i) {
+		checkIndex(i);
+		return starts[i];
+	}
+
+	/**
+	 * @param i the index of a token
+	 * @return the end offset of the text of the token in the buffer (exclusive)
+	 */
+	public int getEnd(int i) {
+		checkIndex(i);
+		return ends[i];
+	}
+
+	/**
+	 * @param i the index of a token
+	 * @return the id of the rule of the token
+	 */
+	public int getRuleId(int i) {
+		checkIndex(i);
+		return ruleIds[i];
+	}
+
+	/**
+	 * @param i the index of a token
+	 * @return the rule of the token
+	 */
+	public LexerRule getRule(int i) {
+		return rules.get(getRuleId(i));
+	}
+
+	/**
+	 * @param i the index of a token
+	 * @return the line of the token
+	 */
+	public int getLine(int i) {
+		checkIndex(i);
+		return lines[i];
+	}
+
+	/**
+	 * @param i the index of a token
+	 * @return the column of the token
+	 */
+	public int getColumn(int i) {
+		checkIndex(i);
+		return columns[i];
+	}
+
+	/**
+	 * @param i the index of a token
+	 * @return the length of the text of the token
+	 */
+	public int getLength(int i) {
+		checkIndex(i);
+		return ends[i] - starts[i];
+	}
+
+	/**
+	 * Get the text of a token as a view of the buffer. The view is not copied,
+	 * it is no longer valid once the buffer is cleared.
+	 * @param i the index of a token
+	 * @return the text of the token
+	 */
+	public CharSequence getTextView(int i) {
+		checkIndex(i);
+		return CharBuffer.wrap(chars, starts[i], ends[i] - starts[i]);
+	}
+
+	/**
+	 * @param i the index of a token
+	 * @return a copy of the text of the token
+	 */
+	public String getText(int i) {
+		checkIndex(i);
+		return new String(chars, starts[i], ends[i] - starts[i]);
+	}
+
+	/**
+	 * Append the text of a token to a string builder.
+	 * @param i the index of a token
+	 * @param sb a string builder
+	 * @return the string builder
+	 */
+	public StringBuilder appendText(int i, StringBuilder sb) {
+		checkIndex(i);
+		return sb.append(chars, starts[i], ends[i] - starts[i]);
+	}
+
+	/**
+	 * Compare the text of a token with a character sequence without copying it.
+	 * @param i the index of a token
+	 * @param s a character sequence
+	 * @return <code>true</code> if the text of the token is equal to the sequence
+	 */
+	public boolean textEquals(int i, CharSequence s) {
+		checkIndex(i);
+		int n = ends[i] - starts[i];
+		if (n != s.length()) {
+			return false;
+		}
+		for (int k = 0; k < n; k++) {
+			if (chars[starts[i] + k] != s.charAt(k)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Build the tagged word of a token.
+	 * @param i the index of a token
+	 * @return a new tagged word
+	 */
+	public TaggedWord get(int i) {
+		return new TaggedWord(getRule(i), getText(i), lines[i], columns[i]);
+	}
+
+	/**
+	 * @return a read-only list view of the tokens, the tagged words are built
+	 * when they are accessed.
+	 */
+	public List<TaggedWord> asList() {
+		return new AbstractList<TaggedWord>() {
+			@Override
+			public TaggedWord get(int index) {
+				return TokenBuffer.this.get(index);
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	private void checkIndex(int i) {
+		if (i < 0 || i >= size) {
+			throw new IndexOutOfBoundsException("Index: " + i + ", size: " + size);
+		}
+	}
+
+	/**
+	 * Return a string representation of the tokens
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[');
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			appendText(i, sb);
+		}
+		return sb.append(']').toString();
+	}
+}
@@ -8,6 +8,7 @@ import java.util.List;
 
 import vn.hus.nlp.fsm.builder.FSMBuilder;
 import vn.hus.nlp.fsm.builder.MinimalFSMBuilder;
+import vn.hus.nlp.fsm.io.BinaryFSMMarshaller;
 import vn.hus.nlp.fsm.util.FSMUtilities;
 import vn.hus.nlp.lexicon.LexiconUnmarshaller;
 import vn.hus.nlp.lexicon.jaxb.Corpus;
@@ -51,6 +52,8 @@ public class DFALexiconBuilder {
 		System.err.println("Duration = " + (endTime - startTime) + " (ms)");
 		// encode the result 
 		builder.encode(IConstants.LEXICON_DFA);
+		// and in the binary form, which is loaded much faster
+		new BinaryFSMMarshaller().marshal(builder.getMachine(), IConstants.LEXICON_DFA_BINARY);
 		// print some statistic of the DFA:
 		FSMUtilities.statistic(builder.getMachine());
 		// dispose the builder to save memory
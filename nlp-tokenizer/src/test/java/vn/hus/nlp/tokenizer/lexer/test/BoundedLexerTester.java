@@ -0,0 +1,179 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.tokenizer.lexer.test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import vn.hus.nlp.lexicon.LexiconUnmarshaller;
+import vn.hus.nlp.lexicon.jaxb.Corpus;
+import vn.hus.nlp.lexicon.jaxb.W;
+import vn.hus.nlp.tokenizer.lexer.AutomatonLexer;
+import vn.hus.nlp.tokenizer.lexer.BoundedLexer;
+import vn.hus.nlp.tokenizer.lexer.ILexer;
+import vn.hus.nlp.tokenizer.lexer.LexerMatch;
+import vn.hus.nlp.tokenizer.lexer.RegexLexer;
+import vn.hus.nlp.tokenizer.tokens.LexerRule;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * Test the bounded lexer on long lines. A line made of all the sample texts
+ * and a line made of one long phrase are much longer than the budget, yet 
+ * their matches are linear, so the bounded lexer must give the same tokens 
+ * as the unbounded lexer, for both lexer engines. A long run of letters, on 
+ * which the regex engine backtracks, must still fall back, and the time of
+ * its scan must grow linearly with its length. A long input on which the
+ * regex engine recurses deeply must fall back instead of overflowing the 
+ * stack.
+ */
+public final class BoundedLexerTester {
+
+	private static final String LEXERS = "/models/tokenization/lexers/lexers.xml";
+	
+	private static final String[] SAMPLES = {"/samples/0.txt", "/samples/1.txt", "/samples/2.txt", "/samples/3.txt"};
+	
+	private static final int BUDGET = 1000;
+	
+	private static final int LINE_LENGTH = 50000;
+	
+	/**
+	 * The lengths of the runs of letters whose scans are timed
+	 */
+	private static final int[] RUN_LENGTHS = {8000, 16000, 32000};
+	
+	private static LexerRule[] loadRules() {
+		Corpus corpus = new LexiconUnmarshaller().unmarshal(LEXERS);
+		List<LexerRule> rules = new ArrayList<LexerRule>();
+		for (W w : corpus.getBody().getW()) {
+			rules.add(new LexerRule(w.getMsd(), w.getContent()));
+		}
+		return rules.toArray(new LexerRule[rules.size()]);
+	}
+	
+	/**
+	 * @return the sample texts on a single line
+	 * @throws IOException
+	 */
+	private static String loadLine() throws IOException {
+		StringBuilder sb = new StringBuilder();
+		for (String name : SAMPLES) {
+			BufferedReader reader = new BufferedReader(new InputStreamReader(BoundedLexerTester.class.getResourceAsStream(name), "UTF-8"));
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.trim().length() > 0) {
+					sb.append(line.trim()).append(' ');
+				}
+			}
+			reader.close();
+		}
+		return sb.toString();
+	}
+	
+	private static String repeat(String s, int length) {
+		StringBuilder sb = new StringBuilder(length + s.length());
+		while (sb.length() < length) {
+			sb.append(s);
+		}
+		return sb.toString();
+	}
+	
+	/**
+	 * Scan a line, as the tokenizer does it with a cursor.
+	 * @param lexer a lexer
+	 * @param line a line
+	 * @return the tokens of the line
+	 */
+	private static List<String> scan(ILexer lexer, String line) {
+		List<String> tokens = new ArrayList<String>();
+		int position = 0;
+		int end = line.length();
+		while (position < end) {
+			LexerMatch match = lexer.match(line, position, end);
+			int e = (match == null) ? position + 1 : Math.max(match.getEnd(), position + 1);
+			tokens.add(((match == null) ? "?" : match.getRule().getName()) + ":" + line.substring(position, e));
+			position = e;
+			while (position < end && line.charAt(position) <= ' ') position++;
+			while (end > position && line.charAt(end - 1) <= ' ') end--;
+		}
+		return tokens;
+	}
+	
+	/**
+	 * Get the time of the scan of a line, the best of several scans.
+	 * @param lexer a lexer
+	 * @param line a line
+	 * @return the time in nanoseconds
+	 */
+	private static long time(ILexer lexer, String line) {
+		long best = Long.MAX_VALUE;
+		for (int k = 0; k < 3; k++) {
+			long time = System.nanoTime();
+			scan(lexer, line);
+			best = Math.min(best, System.nanoTime() - time);
+		}
+		return best;
+	}
+	
+	/**
+	 * @param args
+	 * @throws IOException 
+	 */
+	public static void main(String[] args) throws IOException {
+		LexerRule[] rules = loadRules();
+		String[] lines = {
+				repeat(loadLine(), LINE_LENGTH),
+				repeat("Hà Nội là thủ đô của nước Cộng hòa Xã hội chủ nghĩa Việt Nam ", LINE_LENGTH)
+		};
+		int errors = 0;
+		for (ILexer lexer : new ILexer[] {new RegexLexer(rules), new AutomatonLexer(rules)}) {
+			ILexer boundedLexer = new BoundedLexer(lexer, BUDGET);
+			for (String line : lines) {
+				List<String> expected = scan(lexer, line);
+				List<String> tokens = scan(boundedLexer, line);
+				System.out.println(lexer.getClass().getSimpleName() + ": line of " + line.length() 
+						+ " characters, " + expected.size() + " tokens");
+				if (!tokens.equals(expected)) {
+					System.err.println("The bounded " + lexer.getClass().getSimpleName() + " gives different tokens.");
+					errors++;
+				}
+			}
+		}
+		// a long word on which the regex engine backtracks
+		List<String> tokens = scan(new BoundedLexer(new RegexLexer(rules), BUDGET), repeat("a", 5000));
+		if (!tokens.get(0).startsWith(BoundedLexer.FALLBACK_RULE.getName() + ":")) {
+			System.err.println("The bounded lexer does not fall back on a long word: " + tokens.get(0));
+			errors++;
+		}
+		// the scan of a run four times longer takes about four times longer, 
+		// not sixteen times
+		ILexer boundedLexer = new BoundedLexer(new RegexLexer(rules), BUDGET);
+		time(boundedLexer, repeat("a", RUN_LENGTHS[0]));
+		long[] times = new long[RUN_LENGTHS.length];
+		for (int k = 0; k < RUN_LENGTHS.length; k++) {
+			times[k] = time(boundedLexer, repeat("a", RUN_LENGTHS[k]));
+			System.out.printf("Run of %d letters: %.1f ms%n", RUN_LENGTHS[k], times[k] / 1e6);
+		}
+		if (times[RUN_LENGTHS.length - 1] > 8 * times[0]) {
+			System.err.println("The time of the bounded lexer is not linear in the length of a run.");
+			errors++;
+		}
+		// an input on which the regex engine recurses deeply
+		try {
+			tokens = scan(boundedLexer, repeat("ab.", 8000));
+			System.out.println("Deep input: " + tokens.size() + " tokens");
+		} catch (StackOverflowError e) {
+			System.err.println("The bounded lexer overflows the stack on a deep input.");
+			errors++;
+		}
+		if (errors > 0) {
+			System.err.println("FAILED: " + errors + " errors.");
+			System.exit(1);
+		}
+		System.out.println("OK: the bounded lexer gives the same tokens on long lines in linear time.");
+	}
+}
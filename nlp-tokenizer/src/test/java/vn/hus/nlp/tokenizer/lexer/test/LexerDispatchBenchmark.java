@@ -0,0 +1,129 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.tokenizer.lexer.test;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import vn.hus.nlp.lexicon.LexiconUnmarshaller;
+import vn.hus.nlp.lexicon.jaxb.Corpus;
+import vn.hus.nlp.lexicon.jaxb.W;
+import vn.hus.nlp.tokenizer.lexer.LexerMatch;
+import vn.hus.nlp.tokenizer.lexer.RegexLexer;
+import vn.hus.nlp.tokenizer.tokens.LexerRule;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * A benchmark of the first character dispatch of lexer rules. It scans the 
+ * sample texts (or the files given as arguments) with a regex lexer that tries 
+ * all the rules and with a regex lexer that uses the dispatch index, then 
+ * reports the number of regex attempts per token and the scanning time.
+ * The two lexers must give the same tokens.
+ */
+public final class LexerDispatchBenchmark {
+
+	private static final String LEXERS = "/models/tokenization/lexers/lexers.xml";
+	
+	private static final String[] SAMPLES = {"/samples/0.txt", "/samples/1.txt", "/samples/2.txt", "/samples/3.txt"};
+	
+	private static final int ITERATIONS = 20;
+	
+	private static LexerRule[] loadRules() {
+		Corpus corpus = new LexiconUnmarshaller().unmarshal(LEXERS);
+		List<LexerRule> rules = new ArrayList<LexerRule>();
+		for (W w : corpus.getBody().getW()) {
+			rules.add(new LexerRule(w.getMsd(), w.getContent()));
+		}
+		return rules.toArray(new LexerRule[rules.size()]);
+	}
+	
+	private static List<String> loadLines(String[] args) throws IOException {
+		List<String> lines = new ArrayList<String>();
+		String[] names = (args.length > 0) ? args : SAMPLES;
+		for (String name : names) {
+			InputStream stream = (args.length > 0) ? new FileInputStream(name) : LexerDispatchBenchmark.class.getResourceAsStream(name);
+			BufferedReader reader = new BufferedReader(new InputStreamReader(stream, "UTF-8"));
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.trim().length() > 0) {
+					lines.add(line);
+				}
+			}
+			reader.close();
+		}
+		return lines;
+	}
+	
+	/**
+	 * Scan all the lines, as the tokenizer does it with a cursor.
+	 * @param lexer a lexer
+	 * @param lines lines
+	 * @param tokens the matches are added to this list if it is not null
+	 * @return the number of regex attempts
+	 */
+	private static long scan(RegexLexer lexer, List<String> lines, List<String> tokens) {
+		long attempts = 0;
+		for (String line : lines) {
+			int position = 0;
+			int end = line.length();
+			while (position < end) {
+				attempts += lexer.getCandidates(line, position, end).length;
+				LexerMatch match = lexer.match(line, position, end);
+				int e = (match == null) ? position + 1 : Math.max(match.getEnd(), position + 1);
+				if (tokens != null) {
+					tokens.add(((match == null) ? "?" : match.getRule().getName()) + ":" + line.substring(position, e));
+				}
+				position = e;
+				while (position < end && line.charAt(position) <= ' ') position++;
+				while (end > position && line.charAt(end - 1) <= ' ') end--;
+			}
+		}
+		return attempts;
+	}
+	
+	private static double time(RegexLexer lexer, List<String> lines) {
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			scan(lexer, lines, null);
+		}
+		return (System.nanoTime() - start) / 1e6 / ITERATIONS;
+	}
+	
+	/**
+	 * @param args optional text files, the sample texts are used by default.
+	 * @throws IOException 
+	 */
+	public static void main(String[] args) throws IOException {
+		LexerRule[] rules = loadRules();
+		List<String> lines = loadLines(args);
+		RegexLexer allRules = new RegexLexer(rules, false);
+		RegexLexer dispatched = new RegexLexer(rules, true);
+		
+		List<String> tokens1 = new ArrayList<String>();
+		List<String> tokens2 = new ArrayList<String>();
+		long attempts1 = scan(allRules, lines, tokens1);
+		long attempts2 = scan(dispatched, lines, tokens2);
+		if (!tokens1.equals(tokens2)) {
+			System.err.println("The two lexers give different tokens!");
+			System.exit(1);
+		}
+		int n = tokens1.size();
+		System.out.println("Number of lines = " + lines.size() + ", number of tokens = " + n);
+		System.out.printf("All rules:      %d regex attempts, %.2f per token%n", attempts1, (double) attempts1 / n);
+		System.out.printf("Dispatch index: %d regex attempts, %.2f per token%n", attempts2, (double) attempts2 / n);
+		// warm up
+		time(allRules, lines);
+		time(dispatched, lines);
+		for (int k = 0; k < 3; k++) {
+			System.out.printf("All rules:      %.3f ms per pass%n", time(allRules, lines));
+			System.out.printf("Dispatch index: %.3f ms per pass%n", time(dispatched, lines));
+		}
+	}
+}
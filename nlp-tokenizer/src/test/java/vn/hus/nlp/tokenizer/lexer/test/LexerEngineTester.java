@@ -0,0 +1,138 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.tokenizer.lexer.test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import vn.hus.nlp.lexicon.LexiconUnmarshaller;
+import vn.hus.nlp.lexicon.jaxb.Corpus;
+import vn.hus.nlp.lexicon.jaxb.W;
+import vn.hus.nlp.tokenizer.lexer.AutomatonLexer;
+import vn.hus.nlp.tokenizer.lexer.ILexer;
+import vn.hus.nlp.tokenizer.lexer.LexerMatch;
+import vn.hus.nlp.tokenizer.lexer.RegexLexer;
+import vn.hus.nlp.tokenizer.tokens.LexerRule;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * Test the automaton lexer against the regex lexer. The sample texts and 
+ * random strings of digits, separators and letters (dates, hours, numbers, 
+ * urls...) are scanned by the two lexers with the default lexer rules; the 
+ * two lexers must give the same tokens, and the same match at every 
+ * position of a line.
+ */
+public final class LexerEngineTester {
+
+	private static final String LEXERS = "/models/tokenization/lexers/lexers.xml";
+	
+	private static final String[] SAMPLES = {"/samples/0.txt", "/samples/1.txt", "/samples/2.txt", "/samples/3.txt"};
+	
+	private static final String ALPHABET = "0123456789-/.:,+%° aAZhtpfs@_éĐđ()?!";
+	
+	private static final int NUMBER_OF_RANDOM_LINES = 50000;
+	
+	private static final int MAX_LENGTH = 24;
+	
+	private static LexerRule[] loadRules() {
+		Corpus corpus = new LexiconUnmarshaller().unmarshal(LEXERS);
+		List<LexerRule> rules = new ArrayList<LexerRule>();
+		for (W w : corpus.getBody().getW()) {
+			rules.add(new LexerRule(w.getMsd(), w.getContent()));
+		}
+		return rules.toArray(new LexerRule[rules.size()]);
+	}
+	
+	private static List<String> loadLines() throws IOException {
+		List<String> lines = new ArrayList<String>();
+		for (String name : SAMPLES) {
+			BufferedReader reader = new BufferedReader(new InputStreamReader(LexerEngineTester.class.getResourceAsStream(name), "UTF-8"));
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.trim().length() > 0) {
+					lines.add(line);
+				}
+			}
+			reader.close();
+		}
+		// the cases where the first match of a rule is not its longest match
+		lines.add("2023-12-25");
+		lines.add("2023-10");
+		lines.add("http://www.vnu.edu.vn/home/index.html");
+		Random random = new Random(1);
+		for (int i = 0; i < NUMBER_OF_RANDOM_LINES; i++) {
+			int n = 1 + random.nextInt(MAX_LENGTH);
+			StringBuilder sb = new StringBuilder(n);
+			for (int k = 0; k < n; k++) {
+				sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+			}
+			lines.add(sb.toString());
+		}
+		return lines;
+	}
+	
+	private static String format(LexerMatch match) {
+		return (match == null) ? "null" : match.getRule().getName() + ":" + match.getEnd();
+	}
+	
+	/**
+	 * Scan a line, as the tokenizer does it with a cursor.
+	 * @param lexer a lexer
+	 * @param line a line
+	 * @return the tokens of the line
+	 */
+	private static List<String> scan(ILexer lexer, String line) {
+		List<String> tokens = new ArrayList<String>();
+		int position = 0;
+		int end = line.length();
+		while (position < end) {
+			LexerMatch match = lexer.match(line, position, end);
+			int e = (match == null) ? position + 1 : Math.max(match.getEnd(), position + 1);
+			tokens.add(((match == null) ? "?" : match.getRule().getName()) + ":" + line.substring(position, e));
+			position = e;
+			while (position < end && line.charAt(position) <= ' ') position++;
+			while (end > position && line.charAt(end - 1) <= ' ') end--;
+		}
+		return tokens;
+	}
+	
+	/**
+	 * @param args
+	 * @throws IOException 
+	 */
+	public static void main(String[] args) throws IOException {
+		LexerRule[] rules = loadRules();
+		ILexer regexLexer = new RegexLexer(rules);
+		ILexer automatonLexer = new AutomatonLexer(rules);
+		List<String> lines = loadLines();
+		int errors = 0;
+		for (String line : lines) {
+			List<String> expected = scan(regexLexer, line);
+			List<String> tokens = scan(automatonLexer, line);
+			if (!tokens.equals(expected)) {
+				System.err.println("Different tokens in \"" + line + "\": " + expected + " / " + tokens);
+				errors++;
+			}
+			for (int start = 0; start < line.length(); start++) {
+				String m1 = format(regexLexer.match(line, start, line.length()));
+				String m2 = format(automatonLexer.match(line, start, line.length()));
+				if (!m1.equals(m2)) {
+					System.err.println("Different matches in \"" + line + "\" at " + start + ": " + m1 + " / " + m2);
+					errors++;
+				}
+			}
+		}
+		System.out.println("Number of lines = " + lines.size());
+		if (errors > 0) {
+			System.err.println("FAILED: " + errors + " differences between the two lexers.");
+			System.exit(1);
+		}
+		System.out.println("OK: the two lexers give the same tokens.");
+	}
+}
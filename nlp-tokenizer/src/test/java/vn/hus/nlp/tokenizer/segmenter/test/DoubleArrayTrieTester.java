@@ -0,0 +1,171 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.tokenizer.segmenter.test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import vn.hus.nlp.fsm.CompactFSM;
+import vn.hus.nlp.tokenizer.TokenizerModels;
+import vn.hus.nlp.tokenizer.lexer.ILexer;
+import vn.hus.nlp.tokenizer.lexer.LexerMatch;
+import vn.hus.nlp.tokenizer.segmenter.AbstractLexiconRecognizer;
+import vn.hus.nlp.tokenizer.segmenter.DFALexiconRecognizer;
+import vn.hus.nlp.tokenizer.segmenter.DoubleArrayLexiconRecognizer;
+import vn.hus.nlp.tokenizer.segmenter.LexiconCursor;
+import vn.hus.nlp.tokenizer.segmenter.SyllableLexiconRecognizer;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * Test the double-array trie against the lexicon automaton. The trie is
+ * built from the words of the bundled lexicon automaton, then the two
+ * recognizers must accept the same words and their cursors must give the
+ * same results on the words of the lexicon, on some strings which are
+ * not words, and on the phrases of the sample texts.
+ */
+public final class DoubleArrayTrieTester {
+
+	private static final String[] SAMPLES = {"/samples/0.txt", "/samples/1.txt", "/samples/2.txt", "/samples/3.txt"};
+
+	private static int errors = 0;
+
+	/**
+	 * Get the phrases of the sample texts, as the tokenizer finds them.
+	 * @param lexer a lexer
+	 * @return the phrases
+	 * @throws IOException
+	 */
+	private static List<String> loadPhrases(ILexer lexer) throws IOException {
+		List<String> phrases = new ArrayList<String>();
+		for (String name : SAMPLES) {
+			BufferedReader reader = new BufferedReader(new InputStreamReader(DoubleArrayTrieTester.class.getResourceAsStream(name), "UTF-8"));
+			String line;
+			while ((line = reader.readLine()) != null) {
+				int position = 0;
+				while (position < line.length()) {
+					LexerMatch match = lexer.match(line, position, line.length());
+					int e = (match == null) ? position + 1 : Math.max(match.getEnd(), position + 1);
+					if (match != null && match.getRule().getName().startsWith("phrase")) {
+						String phrase = line.substring(position, e).trim();
+						if (phrase.length() > 0) {
+							phrases.add(phrase);
+						}
+					}
+					position = e;
+				}
+			}
+			reader.close();
+		}
+		return phrases;
+	}
+
+	private static void report(String message) {
+		errors++;
+		if (errors <= 20) {
+			System.err.println(message);
+		}
+	}
+
+	/**
+	 * Compare the recognizers on a string.
+	 * @param expected the recognizer of the lexicon automaton
+	 * @param actual the recognizer of the double-array trie
+	 * @param token a string
+	 */
+	private static void compareAccept(AbstractLexiconRecognizer expected, AbstractLexiconRecognizer actual, String token) {
+		if (expected.accept(token) != actual.accept(token)) {
+			report("Different results of accept(\"" + token + "\"): " + expected.accept(token) + " / " + actual.accept(token));
+		}
+	}
+
+	/**
+	 * Walk the cursors of the recognizers over the syllables of a phrase
+	 * from each position, until no word starts with the prefix.
+	 * @param expected the cursor of the lexicon automaton
+	 * @param actual the cursor of the double-array trie
+	 * @param syllables the syllables of a phrase
+	 */
+	private static void compareCursors(LexiconCursor expected, LexiconCursor actual, String[] syllables) {
+		expected.setPhrase(syllables);
+		actual.setPhrase(syllables);
+		for (int i = 0; i < syllables.length; i++) {
+			expected.reset();
+			actual.reset();
+			for (int j = i; j < syllables.length; j++) {
+				boolean e = expected.nextSyllable(j);
+				boolean a = actual.nextSyllable(j);
+				if (e != a || expected.isAccepted() != actual.isAccepted()) {
+					report("Different cursors on " + Arrays.toString(syllables) + " from " + i + " to " + j
+							+ ": " + e + "/" + expected.isAccepted() + " / " + a + "/" + actual.isAccepted());
+					break;
+				}
+				if (!e) {
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Compare a lexicon automaton and the double-array trie of its words.
+	 * @param lexicon a lexicon automaton
+	 * @param phrases some phrases
+	 * @return the number of differences
+	 */
+	private static int test(CompactFSM lexicon, List<String> phrases) {
+		List<String> words = SyllableLexiconRecognizer.getWords(lexicon);
+		DFALexiconRecognizer dfa = new DFALexiconRecognizer(lexicon);
+		DoubleArrayLexiconRecognizer trie = new DoubleArrayLexiconRecognizer(words);
+		LexiconCursor expected = dfa.createCursor();
+		LexiconCursor actual = trie.createCursor();
+		for (String word : words) {
+			if (!trie.accept(word)) {
+				report("The word \"" + word + "\" is not accepted by the trie.");
+			}
+			if (word.length() == 0) {
+				continue;
+			}
+			// some strings which are not words, or rarely
+			compareAccept(dfa, trie, word.substring(0, word.length() - 1));
+			compareAccept(dfa, trie, word + " xyz");
+			compareAccept(dfa, trie, word + word.charAt(word.length() - 1));
+			compareAccept(dfa, trie, word.toUpperCase());
+			String[] syllables = word.split(" ");
+			compareCursors(expected, actual, syllables);
+			// an empty syllable at the start and in the middle of the word
+			String[] padded = new String[syllables.length + 2];
+			padded[0] = "";
+			padded[1] = syllables[0];
+			padded[2] = "";
+			System.arraycopy(syllables, 1, padded, 3, syllables.length - 1);
+			compareCursors(expected, actual, padded);
+		}
+		compareAccept(dfa, trie, "");
+		for (String phrase : phrases) {
+			compareAccept(dfa, trie, phrase.toLowerCase());
+			compareCursors(expected, actual, phrase.toLowerCase().split("\\s+"));
+		}
+		System.out.println("Number of words = " + words.size() + ", number of phrases = " + phrases.size());
+		return errors;
+	}
+
+	/**
+	 * @param args
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws IOException {
+		TokenizerModels models = TokenizerModels.getDefault();
+		CompactFSM lexicon = DFALexiconRecognizer.loadAutomaton(models.getProperty("lexiconDFA"));
+		if (test(lexicon, loadPhrases(models.getLexer())) > 0) {
+			System.err.println("FAILED: " + errors + " differences between the double-array trie and the lexicon automaton.");
+			System.exit(1);
+		}
+		System.out.println("OK: the double-array trie and the lexicon automaton give the same results.");
+	}
+}
@@ -0,0 +1,111 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.tokenizer.segmenter.test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import vn.hus.nlp.tokenizer.TokenizerModels;
+import vn.hus.nlp.tokenizer.lexer.ILexer;
+import vn.hus.nlp.tokenizer.lexer.LexerMatch;
+import vn.hus.nlp.tokenizer.segmenter.ScoredSegmentation;
+import vn.hus.nlp.tokenizer.segmenter.Segmenter;
+import vn.hus.nlp.tokenizer.segmenter.ViterbiSegmenter;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * Test the Viterbi segmenter against the shortest path segmenter with the 
+ * unigram resolver. The phrases of the sample texts are segmented by the 
+ * two segmenters; when they select different segmentations, the two 
+ * segmentations must have the same score, that is the same cost and the 
+ * same sum of frequencies, since the two segmenters break ties differently.
+ */
+public final class SegmenterEngineTester {
+
+	private static final String[] SAMPLES = {"/samples/0.txt", "/samples/1.txt", "/samples/2.txt", "/samples/3.txt"};
+	
+	/**
+	 * The number of segmentations of a phrase searched for the segmentation 
+	 * of the resolver
+	 */
+	private static final int MAX_SEGMENTATIONS = 1000;
+	
+	/**
+	 * Get the phrases of the sample texts, as the tokenizer finds them.
+	 * @param lexer a lexer
+	 * @return the phrases
+	 * @throws IOException
+	 */
+	private static List<String> loadPhrases(ILexer lexer) throws IOException {
+		List<String> phrases = new ArrayList<String>();
+		for (String name : SAMPLES) {
+			BufferedReader reader = new BufferedReader(new InputStreamReader(SegmenterEngineTester.class.getResourceAsStream(name), "UTF-8"));
+			String line;
+			while ((line = reader.readLine()) != null) {
+				int position = 0;
+				while (position < line.length()) {
+					LexerMatch match = lexer.match(line, position, line.length());
+					int e = (match == null) ? position + 1 : Math.max(match.getEnd(), position + 1);
+					if (match != null && match.getRule().getName().startsWith("phrase")) {
+						String phrase = line.substring(position, e).trim();
+						if (phrase.length() > 0) {
+							phrases.add(phrase);
+						}
+					}
+					position = e;
+				}
+			}
+			reader.close();
+		}
+		return phrases;
+	}
+	
+	/**
+	 * @param args
+	 * @throws IOException 
+	 */
+	public static void main(String[] args) throws IOException {
+		TokenizerModels models = TokenizerModels.getDefault();
+		Segmenter segmenter = new Segmenter(models.getNormalizer(), models.getLexiconRecognizer(), 
+				models.getExternalLexiconRecognizer(), models.getResolver());
+		ViterbiSegmenter viterbi = new ViterbiSegmenter(models.getNormalizer(), models.getLexiconRecognizer(), 
+				models.getExternalLexiconRecognizer(), models.getResolver(), 1);
+		List<String> phrases = loadPhrases(models.getLexer());
+		int numberOfAgreements = 0;
+		int errors = 0;
+		for (String phrase : phrases) {
+			List<String[]> segmentations = segmenter.segment(phrase);
+			String[] expected = (segmentations.size() == 1) ? segmentations.get(0) : segmenter.resolveAmbiguity(segmentations);
+			String[] segmentation = viterbi.resolveAmbiguity(viterbi.segment(phrase));
+			if (Arrays.equals(expected, segmentation)) {
+				numberOfAgreements++;
+				continue;
+			}
+			// the segmentation of the resolver must be as good as the best one
+			List<ScoredSegmentation> scored = viterbi.segment(phrase, MAX_SEGMENTATIONS);
+			boolean tie = false;
+			for (ScoredSegmentation s : scored) {
+				if (Arrays.equals(s.getWords(), expected) && s.compareTo(scored.get(0)) == 0) {
+					tie = true;
+				}
+			}
+			if (!tie) {
+				System.err.println("Different segmentations of \"" + phrase + "\": " 
+						+ Arrays.toString(expected) + " / " + scored.get(0));
+				errors++;
+			}
+		}
+		System.out.printf("Number of phrases = %d, agreement = %.4f%n", phrases.size(), (double) numberOfAgreements / phrases.size());
+		if (errors > 0) {
+			System.err.println("FAILED: " + errors + " segmentations of the Viterbi segmenter are not as good as the ones of the resolver.");
+			System.exit(1);
+		}
+		System.out.println("OK: the segmentations of the two segmenters have the same scores.");
+	}
+}
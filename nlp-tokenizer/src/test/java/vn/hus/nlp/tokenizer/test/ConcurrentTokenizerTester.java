@@ -0,0 +1,102 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.tokenizer.test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.io.IOUtils;
+
+import vn.hus.nlp.tokenizer.Tokenizer;
+import vn.hus.nlp.tokenizer.TokenizerProvider;
+import vn.hus.nlp.tokenizer.tokens.TaggedWord;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * Test the reentrant tokenization method {@link Tokenizer#tokenizeText(CharSequence)}.
+ * The sample texts are tokenized by one thread, then by several threads sharing 
+ * the same tokenizer; the results of all threads must be the same as the 
+ * single-threaded results.
+ */
+public final class ConcurrentTokenizerTester {
+
+	private static final String[] SAMPLES = {"/samples/0.txt", "/samples/1.txt", "/samples/2.txt", "/samples/3.txt"};
+	
+	private static final int NUMBER_OF_THREADS = 8;
+	
+	private static final int NUMBER_OF_ITERATIONS = 50;
+	
+	/**
+	 * Convert a list of tokens to a string that contains their texts, rules and positions.
+	 * @param tokens a list of tokens
+	 * @return a string
+	 */
+	private static String format(List<TaggedWord> tokens) {
+		StringBuilder sb = new StringBuilder();
+		for (TaggedWord token : tokens) {
+			sb.append(token.getText()).append('/').append(token.getRule());
+			sb.append('@').append(token.getLine()).append(':').append(token.getColumn()).append('\n');
+		}
+		return sb.toString();
+	}
+	
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+		final Tokenizer tokenizer = TokenizerProvider.getInstance().getTokenizer();
+		// load the texts
+		final List<String> texts = new ArrayList<String>();
+		for (String sample : SAMPLES) {
+			InputStream stream = ConcurrentTokenizerTester.class.getResourceAsStream(sample);
+			texts.add(IOUtils.toString(stream, "UTF-8"));
+			stream.close();
+		}
+		// the single-threaded results
+		final List<String> expected = new ArrayList<String>();
+		for (String text : texts) {
+			expected.add(format(tokenizer.tokenizeText(text)));
+		}
+		// tokenize the texts by several threads
+		ExecutorService executor = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+		List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+		for (int t = 0; t < NUMBER_OF_THREADS; t++) {
+			final int offset = t;
+			futures.add(executor.submit(new Callable<Integer>() {
+				public Integer call() {
+					int errors = 0;
+					for (int i = 0; i < NUMBER_OF_ITERATIONS; i++) {
+						// each thread starts with a different text
+						int k = (i + offset) % texts.size();
+						String result = format(tokenizer.tokenizeText(texts.get(k)));
+						if (!result.equals(expected.get(k))) {
+							errors++;
+						}
+					}
+					return errors;
+				}
+			}));
+		}
+		int errors = 0;
+		for (Future<Integer> future : futures) {
+			errors += future.get();
+		}
+		executor.shutdown();
+		int total = NUMBER_OF_THREADS * NUMBER_OF_ITERATIONS;
+		System.out.println("Number of threads = " + NUMBER_OF_THREADS + ", number of texts tokenized = " + total);
+		if (errors > 0) {
+			System.err.println("FAILED: " + errors + " results differ from the single-threaded results.");
+			System.exit(1);
+		}
+		System.out.println("OK: all the results are the same as the single-threaded results.");
+	}
+}
@@ -0,0 +1,88 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.tokenizer.test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+
+import vn.hus.nlp.tokenizer.Tokenizer;
+import vn.hus.nlp.tokenizer.TokenizerModels;
+import vn.hus.nlp.tokenizer.segmenter.AbstractLexiconRecognizer;
+import vn.hus.nlp.tokenizer.tokens.TaggedWord;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * Test the disposal of a tokenizer whose models are shared. Two tokenizers
+ * are created by the same models and one of them is disposed; the lexicon
+ * recognizers of the models must not be disposed, so the other tokenizer
+ * and a new tokenizer of the models must give the same tokens as before.
+ */
+public final class SharedModelsTester {
+
+	private static final String[] SAMPLES = {"/samples/0.txt", "/samples/1.txt", "/samples/2.txt", "/samples/3.txt"};
+
+	/**
+	 * Convert a list of tokens to a string that contains their texts and rules.
+	 * @param tokens a list of tokens
+	 * @return a string
+	 */
+	private static String format(List<TaggedWord> tokens) {
+		StringBuilder sb = new StringBuilder();
+		for (TaggedWord token : tokens) {
+			sb.append(token.getText()).append('/').append(token.getRule()).append('\n');
+		}
+		return sb.toString();
+	}
+
+	private static List<String> tokenize(Tokenizer tokenizer, List<String> texts) {
+		List<String> results = new ArrayList<String>();
+		for (String text : texts) {
+			results.add(format(tokenizer.tokenizeText(text)));
+		}
+		return results;
+	}
+
+	/**
+	 * @param args
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws IOException {
+		List<String> texts = new ArrayList<String>();
+		for (String sample : SAMPLES) {
+			InputStream stream = SharedModelsTester.class.getResourceAsStream(sample);
+			texts.add(IOUtils.toString(stream, "UTF-8"));
+			stream.close();
+		}
+		TokenizerModels models = TokenizerModels.getDefault();
+		Tokenizer disposed = models.createTokenizer();
+		Tokenizer tokenizer = models.createTokenizer();
+		List<String> expected = tokenize(tokenizer, texts);
+		AbstractLexiconRecognizer external = models.getExternalLexiconRecognizer();
+		long externalVersion = (external == null) ? 0 : external.getVersion();
+		disposed.dispose();
+		int errors = 0;
+		if (external != null && external.getVersion() != externalVersion) {
+			System.err.println("The external lexicon of the models is disposed with a tokenizer.");
+			errors++;
+		}
+		if (!tokenize(tokenizer, texts).equals(expected)) {
+			System.err.println("The other tokenizer of the models gives different tokens.");
+			errors++;
+		}
+		if (!tokenize(models.createTokenizer(), texts).equals(expected)) {
+			System.err.println("A new tokenizer of the models gives different tokens.");
+			errors++;
+		}
+		if (errors > 0) {
+			System.err.println("FAILED: " + errors + " errors.");
+			System.exit(1);
+		}
+		System.out.println("OK: the models are not disposed with a tokenizer.");
+	}
+}
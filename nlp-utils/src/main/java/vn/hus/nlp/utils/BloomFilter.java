@@ -0,0 +1,189 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.utils;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * A Bloom filter of character sequences. A filter answers whether a
+ * sequence may have been added: a negative answer is always right, a
+ * positive answer is wrong with a small probability, the false positive
+ * rate, which is chosen when the filter is created.
+ * <p>
+ * The hash of a sequence is computed incrementally, one character after
+ * the other (see {@link #hash(long, char)}), so that the prefixes of a
+ * sequence being read can be tested without building strings. The
+ * positions of the bits are derived from the hash by double hashing.
+ * <p>
+ * A filter is not synchronized: it must be filled before it is shared by
+ * several threads.
+ */
+public final class BloomFilter {
+
+	/**
+	 * The hash of the empty sequence
+	 */
+	public static final long INITIAL_HASH = 0xcbf29ce484222325L;
+
+	private static final long PRIME = 0x100000001b3L;
+
+	private final long[] bits;
+
+	private final long numberOfBits;
+
+	private final int numberOfHashFunctions;
+
+	private int numberOfInsertions = 0;
+
+	/**
+	 * Creates a filter.
+	 * @param expectedInsertions the expected number of sequences
+	 * @param falsePositiveRate the expected false positive rate when the
+	 * filter contains the expected number of sequences.
+	 */
+	public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+		if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+			throw new IllegalArgumentException("The false positive rate must be in (0, 1): " + falsePositiveRate);
+		}
+		int n = Math.max(1, expectedInsertions);
+		// m = -n ln(p) / (ln 2)^2, k = m/n ln 2
+		long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+		m = Math.max(64, (m + 63) / 64 * 64);
+		bits = new long[(int) (m / 64)];
+		numberOfBits = m;
+		numberOfHashFunctions = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+	}
+
+	/**
+	 * Update the hash of a sequence with its next character.
+	 * @param hash the hash of a sequence
+	 * @param c a character
+	 * @return the hash of the sequence followed by the character
+	 */
+	public static long hash(long hash, char c) {
+		return (hash ^ c) * PRIME;
+	}
+
+	/**
+	 * @param s a character sequence
+	 * @return the hash of the sequence
+	 */
+	public static long hash(CharSequence s) {
+		long h = INITIAL_HASH;
+		for (int i = 0; i < s.length(); i++) {
+			h = hash(h, s.charAt(i));
+		}
+		return h;
+	}
+
+	/**
+	 * The finalizer of MurmurHash3, it mixes all the bits of a hash.
+	 */
+	private static long mix(long h) {
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	/**
+	 * Add a sequence given by its hash.
+	 * @param hash the hash of a sequence
+	 * @see #hash(CharSequence)
+	 */
+	public void addHash(long hash) {
+		long h1 = mix(hash);
+		long h2 = mix(hash + 0x9e3779b97f4a7c15L) | 1;
+		for (int i = 0; i < numberOfHashFunctions; i++) {
+			long bit = ((h1 + i * h2) & Long.MAX_VALUE) % numberOfBits;
+			bits[(int) (bit >>> 6)] |= 1L << bit;
+		}
+		numberOfInsertions++;
+	}
+
+	/**
+	 * Test a sequence given by its hash.
+	 * @param hash the hash of a sequence
+	 * @return <code>false</code> if the sequence has not been added,
+	 * <code>true</code> if it may have been added.
+	 */
+	public boolean mightContainHash(long hash) {
+		long h1 = mix(hash);
+		long h2 = mix(hash + 0x9e3779b97f4a7c15L) | 1;
+		for (int i = 0; i < numberOfHashFunctions; i++) {
+			long bit = ((h1 + i * h2) & Long.MAX_VALUE) % numberOfBits;
+			if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Add a sequence.
+	 * @param s a character sequence
+	 */
+	public void add(CharSequence s) {
+		addHash(hash(s));
+	}
+
+	/**
+	 * Test a sequence.
+	 * @param s a character sequence
+	 * @return <code>false</code> if the sequence has not been added,
+	 * <code>true</code> if it may have been added.
+	 */
+	public boolean mightContain(CharSequence s) {
+		return mightContainHash(hash(s));
+	}
+
+	/**
+	 * @return the false positive rate of the filter, estimated from the
+	 * proportion of bits which are set.
+	 */
+	public double getFalsePositiveRate() {
+		long n = 0;
+		for (long word : bits) {
+			n += Long.bitCount(word);
+		}
+		return Math.pow((double) n / numberOfBits, numberOfHashFunctions);
+	}
+
+	/**
+	 * @return the number of bytes of the bits of the filter
+	 */
+	public long getMemorySize() {
+		return 8L * bits.length;
+	}
+
+	/**
+	 * @return the number of bits
+	 */
+	public long getNumberOfBits() {
+		return numberOfBits;
+	}
+
+	/**
+	 * @return the number of bits set for a sequence
+	 */
+	public int getNumberOfHashFunctions() {
+		return numberOfHashFunctions;
+	}
+
+	/**
+	 * @return the number of sequences added
+	 */
+	public int getNumberOfInsertions() {
+		return numberOfInsertions;
+	}
+
+	@Override
+	public String toString() {
+		return "bits = " + numberOfBits + ", hash functions = " + numberOfHashFunctions
+			+ ", insertions = " + numberOfInsertions + ", memory = " + getMemorySize() + " bytes"
+			+ String.format(", false positive rate = %.5f", getFalsePositiveRate());
+	}
+}
@@ -34,14 +34,23 @@ import java.io.BufferedWriter;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map;
+import java.text.Normalizer;
 
 /**
  * 
  * This class is a tool to convert between lowercase and uppercase of
  * Vietnamese characters.
+ * <p>
+ * The case mappings and the classes of the characters (letter, vowel, 
+ * vowel with a tone mark) are precomputed in primitive tables indexed by 
+ * the characters of the Latin blocks (<tt>U+0000..U+024F</tt>) and of the 
+ * Latin Extended Additional block (<tt>U+1E00..U+1EFF</tt>), which contains 
+ * the Vietnamese letters with a tone mark. No method allocates an object 
+ * except the ones which return a new string.
+ * <p>
+ * Only the ASCII letters and the Vietnamese letters are converted; the 
+ * case of any other character, for example a Greek or a Cyrillic 
+ * letter, is not changed.
  * @author LE Hong Phuong
  * 
  */
@@ -52,10 +61,6 @@ public class CaseConverter {
 	 * Instantiate a CaseConverter object
 	 */
 	private CaseConverter() {
-		lower2UpperMap = new HashMap<Character, Character>();
-		upper2LowerMap = new HashMap<Character, Character>();
-		// init the maps.
-		init();
 	}
 
 	/**
@@ -66,8 +71,7 @@ public class CaseConverter {
 	 * @return true/false
 	 */
 	public static boolean isValidLower(char c) {
-		Character ch = new Character(c);
-		return (lower2UpperMap.containsKey(ch));
+		return is(c, VIETNAMESE_LOWER);
 	}
 
 	/**
@@ -78,22 +82,56 @@ public class CaseConverter {
 	 * @return true/false
 	 */
 	public static boolean isValidUpper(char c) {
-		Character ch = new Character(c);
-		return (upper2LowerMap.containsKey(ch));
+		return is(c, VIETNAMESE_UPPER);
+	}
+
+	/**
+	 * Test if a character is a letter.
+	 * 
+	 * @param c
+	 *            a character
+	 * @return true/false
+	 */
+	public static boolean isLetter(char c) {
+		int i = index(c);
+		return (i < 0) ? Character.isLetter(c) : (classes[i] & LETTER) != 0;
+	}
+
+	/**
+	 * Test if a character is a Vietnamese vowel, with or without a tone mark, 
+	 * in lower or upper case.
+	 * 
+	 * @param c
+	 *            a character
+	 * @return true/false
+	 */
+	public static boolean isVowel(char c) {
+		return is(c, VOWEL);
+	}
+
+	/**
+	 * Test if a character is a Vietnamese vowel with a tone mark (grave, 
+	 * acute, hook, tilde or dot below).
+	 * 
+	 * @param c
+	 *            a character
+	 * @return true/false
+	 */
+	public static boolean hasToneMark(char c) {
+		return is(c, TONE_MARK);
 	}
 
-	
-	
 	/**
 	 * Convert a lowercase character to an uppercase one
 	 * 
 	 * @param c
 	 *            character to convert
-	 * @return an uppercase character
+	 * @return an uppercase character, the character itself if it 
+	 * is not an ASCII or a Vietnamese lowercase letter.
 	 */
 	public static char toUpper(char c) {
-		Character upper = (Character) lower2UpperMap.get(new Character(c));
-		return upper.charValue();
+		int i = index(c);
+		return (i < 0) ? c : upper[i];
 	}
 
 	/**
@@ -101,11 +139,12 @@ public class CaseConverter {
 	 * 
 	 * @param c
 	 *            character to convert
-	 * @return a lowercase character
+	 * @return a lowercase character, the character itself if it 
+	 * is not an ASCII or a Vietnamese uppercase letter.
 	 */
 	public static char toLower(char c) {
-		Character lower = (Character) upper2LowerMap.get(new Character(c));
-		return lower.charValue();
+		int i = index(c);
+		return (i < 0) ? c : lower[i];
 	}
 
 	/**
@@ -113,39 +152,56 @@ public class CaseConverter {
 	 * 
 	 * @param st
 	 *            a string to convert
-	 * @return a lower case string
+	 * @return a lower case string, the string itself if it does 
+	 * not contain any ASCII or Vietnamese uppercase letter.
 	 */
 	public static String toLower(String st) {
-		StringBuffer lowerSt = new StringBuffer(st);
-		// convert all char of st to lower case
-		for (int i = 0; i < st.length(); i++) {
-			char c = st.charAt(i);
-			char lowerC = c;
-			if ('A' <= c && c <= 'Z') {
-				lowerC = Character.toLowerCase(c);
-			} else if (CaseConverter.isValidUpper(c))
-				lowerC = CaseConverter.toLower(c);
-			lowerSt.setCharAt(i, lowerC);
+		// find the first character to convert
+		int n = st.length();
+		int i = 0;
+		while (i < n && toLower(st.charAt(i)) == st.charAt(i)) {
+			i++;
 		}
-		return lowerSt.toString();
+		if (i == n) {
+			return st;
+		}
+		StringBuilder lowerSt = new StringBuilder(n);
+		lowerSt.append(st, 0, i);
+		return toLower(st.subSequence(i, n), lowerSt).toString();
+	}
 
+	/**
+	 * Append a character sequence in lower case to a string builder.
+	 * 
+	 * @param s
+	 *            a character sequence to convert
+	 * @param result
+	 *            a string builder
+	 * @return the string builder.
+	 */
+	public static StringBuilder toLower(CharSequence s, StringBuilder result) {
+		for (int i = 0; i < s.length(); i++) {
+			result.append(toLower(s.charAt(i)));
+		}
+		return result;
 	}
+
 	/**
-	 * Initializes the maps
-	 *
+	 * Append a character sequence in upper case to a string builder.
+	 * 
+	 * @param s
+	 *            a character sequence to convert
+	 * @param result
+	 *            a string builder
+	 * @return the string builder.
 	 */
-	private void init() {
-		for (int i = 0; i < lowerCharacters.length; i++) {
-			String lowerSt = lowerCharacters[i];
-			String upperSt = upperCharacters[i];
-			Character lower = new Character((char) Integer.parseInt(
-					lowerSt, 16));
-			Character upper = new Character((char) Integer.parseInt(
-					upperSt, 16));
-			lower2UpperMap.put(lower, upper);
-			upper2LowerMap.put(upper, lower);
+	public static StringBuilder toUpper(CharSequence s, StringBuilder result) {
+		for (int i = 0; i < s.length(); i++) {
+			result.append(toUpper(s.charAt(i)));
 		}
+		return result;
 	}
+
 	/**
 	 * Create a map file with characters in UTF-8 encoding.
 	 * 
@@ -156,15 +212,10 @@ public class CaseConverter {
 		FileOutputStream fos = new FileOutputStream(filename);
 		OutputStreamWriter writer = new OutputStreamWriter(fos, "UTF-8");
 		BufferedWriter bw = new BufferedWriter(writer);
-		Iterator<Character> it = lower2UpperMap.keySet().iterator();
-		while (it.hasNext()) {
-			Character key = it.next();
-			Character value = (Character) lower2UpperMap.get(key);
-			// bw.write(Integer.toHexString((int)key.charValue()));
-			bw.write(key.toString());
+		for (int i = 0; i < lowerCharacters.length; i++) {
+			bw.write((char) Integer.parseInt(lowerCharacters[i], 16));
 			bw.write("\t");
-			// bw.write(Integer.toHexString((int)value.charValue()));
-			bw.write(value.toString());
+			bw.write((char) Integer.parseInt(upperCharacters[i], 16));
 			bw.write("\n");
 		}
 		bw.close();
@@ -175,29 +226,78 @@ public class CaseConverter {
 	 * @param string
 	 * @return <tt>true/false</tt>
 	 */
-	@SuppressWarnings("static-access")
 	public static boolean containsUppercase(String string) {
 		for (int i = 0; i < string.length(); i++) {
 			char c = string.charAt(i);
-			if (Character.isUpperCase(c) || CaseConverter.caseConverter.isValidUpper(c))
+			int k = index(c);
+			if ((k < 0) ? Character.isUpperCase(c) : (classes[k] & UPPER) != 0)
 				return true;
 		}
 		return false;
 	}
 	
 	/**
-	 * A map between lowercase and uppercase letters
+	 * Get the index of a character in the tables.
+	 * @param c a character
+	 * @return the index of the character, -1 if it is not in the tables.
 	 */
-	private static Map<Character, Character> lower2UpperMap;
-
+	private static int index(char c) {
+		if (c < LATIN_END) {
+			return c;
+		}
+		if (c >= EXTENDED_START && c < EXTENDED_END) {
+			return c - EXTENDED_START + LATIN_END;
+		}
+		return -1;
+	}
+	
+	private static boolean is(char c, int characterClass) {
+		int i = index(c);
+		return i >= 0 && (classes[i] & characterClass) != 0;
+	}
+	
 	/**
-	 * A map between uppercase and lowercase letters
+	 * The ranges of the tables: the Latin blocks and the Latin Extended 
+	 * Additional block.
 	 */
-	private static Map<Character, Character> upper2LowerMap;
+	private static final int LATIN_END = 0x250;
+	private static final int EXTENDED_START = 0x1E00;
+	private static final int EXTENDED_END = 0x1F00;
+	
+	/**
+	 * The classes of the characters, a character can be in several classes.
+	 */
+	private static final int LETTER = 1;
+	private static final int VOWEL = 2;
+	private static final int TONE_MARK = 4;
+	private static final int UPPER = 8;
+	private static final int VIETNAMESE_LOWER = 16;
+	private static final int VIETNAMESE_UPPER = 32;
+	
+	/**
+	 * The combining marks of the Vietnamese vowels: the tone marks (grave, 
+	 * acute, tilde, hook above, dot below) and the other diacritics 
+	 * (circumflex, breve, horn).
+	 */
+	private static final String TONE_MARKS = "\u0300\u0301\u0303\u0309\u0323";
+	private static final String VOWEL_MARKS = "\u0302\u0306\u031B";
+	
+	/**
+	 * The lowercase and the uppercase of the characters, only the ASCII 
+	 * letters and the Vietnamese letters are converted
+	 */
+	private static final char[] lower = new char[LATIN_END + EXTENDED_END - EXTENDED_START];
+	private static final char[] upper = new char[lower.length];
+	
+	/**
+	 * The classes of the characters
+	 */
+	private static final byte[] classes = new byte[lower.length];
+
 	/**
 	 * An array of all Vietnamese lowercase characters
 	 */
-	private String[] lowerCharacters = { "1b0", "1ecb", "1ef1", "1ea7", "1ee7",
+	private static final String[] lowerCharacters = { "1b0", "1ecb", "1ef1", "1ea7", "1ee7",
 			"1edd", "1eb9", "1eb7", "1ef7", "e1", "1ed7", "1eed", "e0", "129",
 			"1ecd", "1ea5", "ea", "1eeb", "111", "1ecf", "fa", "1ed9", "e2",
 			"1ebd", "f5", "1ea3", "103", "1ee9", "1ec9", "1ea9", "1eb3",
@@ -212,7 +312,7 @@ public class CaseConverter {
 	 * An array of all Vietnamese upper case characters that correspond
 	 * to the <code>lowerCharacters</code> array.
 	 */
-	private String[] upperCharacters = { "1af", "1eca", "1ef0", "1ea6", "1ee6",
+	private static final String[] upperCharacters = { "1af", "1eca", "1ef0", "1ea6", "1ee6",
 			"1edc", "1eb8", "1eb6", "1ef6", "c1", "1ed6", "1eec", "c0", "128",
 			"1ecc", "1ea4", "ca", "1eea", "110", "1ece", "da", "1ed8", "c2",
 			"1ebc", "d5", "1ea2", "102", "1ee8", "1ec8", "1ea8", "1eb2",
@@ -222,4 +322,48 @@ public class CaseConverter {
 			"1ee2", "cc", "cd", "1ea0", "1ef2", "1ed2", "1eb0", "1eba", "1ec0",
 			"1ee0"
 	};
+
+	static {
+		for (int i = 0; i < lower.length; i++) {
+			char c = (char) ((i < LATIN_END) ? i : i - LATIN_END + EXTENDED_START);
+			lower[i] = ('A' <= c && c <= 'Z') ? (char) (c + 'a' - 'A') : c;
+			upper[i] = ('a' <= c && c <= 'z') ? (char) (c - 'a' + 'A') : c;
+			int characterClass = 0;
+			if (Character.isLetter(c)) {
+				characterClass |= LETTER;
+			}
+			if (Character.isUpperCase(c)) {
+				characterClass |= UPPER;
+			}
+			// a vowel is a, e, i, o, u or y with Vietnamese marks only, 
+			// and at most one tone mark
+			String d = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+			if ("aeiouyAEIOUY".indexOf(d.charAt(0)) >= 0) {
+				int tones = 0;
+				boolean vietnamese = true;
+				for (int j = 1; j < d.length(); j++) {
+					if (TONE_MARKS.indexOf(d.charAt(j)) >= 0) {
+						tones++;
+					} else if (VOWEL_MARKS.indexOf(d.charAt(j)) < 0) {
+						vietnamese = false;
+					}
+				}
+				if (vietnamese && tones <= 1) {
+					characterClass |= VOWEL;
+					if (tones == 1) {
+						characterClass |= TONE_MARK;
+					}
+				}
+			}
+			classes[i] = (byte) characterClass;
+		}
+		for (int i = 0; i < lowerCharacters.length; i++) {
+			char lowerC = (char) Integer.parseInt(lowerCharacters[i], 16);
+			char upperC = (char) Integer.parseInt(upperCharacters[i], 16);
+			lower[index(upperC)] = lowerC;
+			upper[index(lowerC)] = upperC;
+			classes[index(lowerC)] |= VIETNAMESE_LOWER;
+			classes[index(upperC)] |= VIETNAMESE_UPPER;
+		}
+	}
 }
@@ -0,0 +1,60 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.utils.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * A counter of events, for example the number of tokens produced.
+ * It can be incremented by several threads.
+ */
+public final class Counter {
+
+	private final String name;
+
+	private final LongAdder value = new LongAdder();
+
+	Counter(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * @return the name of the counter
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Increment the counter if the metrics are enabled.
+	 */
+	public void increment() {
+		if (Metrics.isEnabled()) {
+			value.increment();
+		}
+	}
+
+	/**
+	 * Add an amount to the counter if the metrics are enabled.
+	 * @param n an amount
+	 */
+	public void add(long n) {
+		if (Metrics.isEnabled()) {
+			value.add(n);
+		}
+	}
+
+	/**
+	 * @return the value of the counter
+	 */
+	public long get() {
+		return value.sum();
+	}
+
+	void reset() {
+		value.reset();
+	}
+}
@@ -0,0 +1,121 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.utils.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * A histogram of non-negative values with logarithmic buckets: the bucket
+ * <code>k</code> counts the values <code>v</code> such that
+ * <code>2<sup>k-1</sup> &lt;= v &lt; 2<sup>k</sup></code>, the bucket 0
+ * counts the zeros. Recording a value is lock free and does not allocate,
+ * the histogram can be updated by several threads.
+ */
+public final class Histogram {
+
+	/**
+	 * The number of buckets
+	 */
+	public static final int NUMBER_OF_BUCKETS = 64;
+
+	private final String name;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(NUMBER_OF_BUCKETS);
+
+	private final LongAdder count = new LongAdder();
+
+	private final LongAdder sum = new LongAdder();
+
+	private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+
+	private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+	/**
+	 * Creates an empty histogram.
+	 * @param name the name of the histogram
+	 */
+	Histogram(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * @return the name of the histogram
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Record a value if the metrics are enabled.
+	 * @param value a value, negative values are counted as zeros
+	 */
+	public void record(long value) {
+		if (Metrics.isEnabled()) {
+			add(value);
+		}
+	}
+
+	/**
+	 * Record a value.
+	 * @param value a value
+	 */
+	void add(long value) {
+		if (value < 0) {
+			value = 0;
+		}
+		buckets.incrementAndGet(bucket(value));
+		count.increment();
+		sum.add(value);
+		long m;
+		while (value < (m = min.get()) && !min.compareAndSet(m, value)) {
+		}
+		while (value > (m = max.get()) && !max.compareAndSet(m, value)) {
+		}
+	}
+
+	/**
+	 * @param value a non-negative value
+	 * @return the bucket of the value
+	 */
+	static int bucket(long value) {
+		return NUMBER_OF_BUCKETS - Long.numberOfLeadingZeros(value);
+	}
+
+	/**
+	 * @param k a bucket
+	 * @return the greatest value of the bucket
+	 */
+	static long upperBound(int k) {
+		return (k == 0) ? 0 : (k >= NUMBER_OF_BUCKETS - 1 ? Long.MAX_VALUE : (1L << k) - 1);
+	}
+
+	/**
+	 * Remove all the values.
+	 */
+	void reset() {
+		for (int k = 0; k < NUMBER_OF_BUCKETS; k++) {
+			buckets.set(k, 0);
+		}
+		count.reset();
+		sum.reset();
+		min.set(Long.MAX_VALUE);
+		max.set(Long.MIN_VALUE);
+	}
+
+	/**
+	 * @return a copy of the current state of the histogram
+	 */
+	public HistogramSnapshot snapshot() {
+		long[] b = new long[NUMBER_OF_BUCKETS];
+		for (int k = 0; k < NUMBER_OF_BUCKETS; k++) {
+			b[k] = buckets.get(k);
+		}
+		long n = count.sum();
+		return new HistogramSnapshot(name, n, sum.sum(), n == 0 ? 0 : min.get(), n == 0 ? 0 : max.get(), b);
+	}
+}
@@ -0,0 +1,150 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.utils.metrics;
+
+import javax.management.openmbean.CompositeData;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * An immutable copy of a histogram. The percentiles are approximated by
+ * the upper bound of the bucket that contains them, they are at most two
+ * times the exact percentiles.
+ */
+public final class HistogramSnapshot {
+
+	private final String name;
+
+	private final long count;
+
+	private final long sum;
+
+	private final long min;
+
+	private final long max;
+
+	private final long[] buckets;
+
+	HistogramSnapshot(String name, long count, long sum, long min, long max, long[] buckets) {
+		this.name = name;
+		this.count = count;
+		this.sum = sum;
+		this.min = min;
+		this.max = max;
+		this.buckets = buckets;
+	}
+
+	/**
+	 * Rebuild a snapshot from its open data representation, this is used
+	 * by the proxies of the metrics MBean.
+	 * @param data the composite data of a snapshot
+	 * @return a snapshot
+	 */
+	public static HistogramSnapshot from(CompositeData data) {
+		return new HistogramSnapshot((String) data.get("name"), (Long) data.get("count"), 
+				(Long) data.get("sum"), (Long) data.get("min"), (Long) data.get("max"), 
+				(long[]) data.get("buckets"));
+	}
+
+	/**
+	 * @return the name of the histogram
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the number of values
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return the sum of the values
+	 */
+	public long getSum() {
+		return sum;
+	}
+
+	/**
+	 * @return the smallest value, or 0 if there is no value
+	 */
+	public long getMin() {
+		return min;
+	}
+
+	/**
+	 * @return the greatest value, or 0 if there is no value
+	 */
+	public long getMax() {
+		return max;
+	}
+
+	/**
+	 * @return the mean of the values, or 0 if there is no value
+	 */
+	public double getMean() {
+		return (count == 0) ? 0 : (double) sum / count;
+	}
+
+	/**
+	 * @return the approximate median
+	 */
+	public long getP50() {
+		return getPercentile(50);
+	}
+
+	/**
+	 * @return the approximate 90th percentile
+	 */
+	public long getP90() {
+		return getPercentile(90);
+	}
+
+	/**
+	 * @return the approximate 99th percentile
+	 */
+	public long getP99() {
+		return getPercentile(99);
+	}
+
+	/**
+	 * @return a copy of the counts of the buckets, the bucket <code>k</code>
+	 * counts the values in <code>[2<sup>k-1</sup>, 2<sup>k</sup>)</code>.
+	 */
+	public long[] getBuckets() {
+		return buckets.clone();
+	}
+
+	/**
+	 * @param p a percentage in <code>[0, 100]</code>
+	 * @return an approximation of the percentile, it is never greater than
+	 * the maximum value.
+	 */
+	public long getPercentile(double p) {
+		if (count == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(count * p / 100);
+		long seen = 0;
+		for (int k = 0; k < buckets.length; k++) {
+			seen += buckets[k];
+			if (seen >= rank && seen > 0) {
+				return Math.min(Histogram.upperBound(k), max);
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Return a string representation of the snapshot
+	 */
+	@Override
+	public String toString() {
+		return name + ": count = " + count + ", mean = " + String.format("%.1f", getMean()) 
+			+ ", p50 = " + getP50() + ", p90 = " + getP90() + ", p99 = " + getP99() 
+			+ ", max = " + max;
+	}
+}
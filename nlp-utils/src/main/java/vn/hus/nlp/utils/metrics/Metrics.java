@@ -0,0 +1,208 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.utils.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * The registry of the metrics. The instrumented classes get their timers, 
+ * distributions and counters once, when they are loaded, for example:
+ * <pre>
+ * private static final Timer TIMER = Metrics.timer("segmenter.makeGraph");
+ * </pre>
+ * The metrics are disabled by default: a disabled metric costs a read of 
+ * a volatile field. They are enabled by {@link #setEnabled(boolean)}, by the 
+ * MBean or by the system property <code>vn.hus.nlp.metrics=true</code>; in 
+ * the latter case the MBean is also registered.
+ */
+public final class Metrics {
+
+	/**
+	 * The system property that enables the metrics
+	 */
+	public static final String ENABLED_PROPERTY = "vn.hus.nlp.metrics";
+
+	/**
+	 * The name of the metrics MBean
+	 */
+	public static final String OBJECT_NAME = "vn.hus.nlp:type=Metrics";
+
+	private static volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+
+	private static volatile long resetTime = System.nanoTime();
+
+	private static final Map<String, Timer> timers = new LinkedHashMap<String, Timer>();
+
+	private static final Map<String, Histogram> distributions = new LinkedHashMap<String, Histogram>();
+
+	private static final Map<String, Counter> counters = new LinkedHashMap<String, Counter>();
+
+	static {
+		if (enabled) {
+			registerMBean();
+		}
+	}
+
+	private Metrics() {
+	}
+
+	/**
+	 * @return <code>true</code> if the metrics are recorded
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Enable or disable the metrics.
+	 * @param enabled
+	 */
+	public static void setEnabled(boolean enabled) {
+		Metrics.enabled = enabled;
+	}
+
+	/**
+	 * Get a timer, it is created if it does not exist.
+	 * @param name the name of a stage
+	 * @return the timer of the stage
+	 */
+	public static synchronized Timer timer(String name) {
+		Timer timer = timers.get(name);
+		if (timer == null) {
+			timer = new Timer(name);
+			timers.put(name, timer);
+		}
+		return timer;
+	}
+
+	/**
+	 * Get a distribution, it is created if it does not exist.
+	 * @param name the name of a distribution
+	 * @return the histogram of the distribution
+	 */
+	public static synchronized Histogram distribution(String name) {
+		Histogram histogram = distributions.get(name);
+		if (histogram == null) {
+			histogram = new Histogram(name);
+			distributions.put(name, histogram);
+		}
+		return histogram;
+	}
+
+	/**
+	 * Get a counter, it is created if it does not exist.
+	 * @param name the name of a counter
+	 * @return the counter
+	 */
+	public static synchronized Counter counter(String name) {
+		Counter counter = counters.get(name);
+		if (counter == null) {
+			counter = new Counter(name);
+			counters.put(name, counter);
+		}
+		return counter;
+	}
+
+	/**
+	 * Reset all the metrics.
+	 */
+	public static synchronized void reset() {
+		for (Timer timer : timers.values()) {
+			timer.reset();
+		}
+		for (Histogram histogram : distributions.values()) {
+			histogram.reset();
+		}
+		for (Counter counter : counters.values()) {
+			counter.reset();
+		}
+		resetTime = System.nanoTime();
+	}
+
+	/**
+	 * @return a copy of all the metrics
+	 */
+	public static synchronized MetricsSnapshot snapshot() {
+		Map<String, HistogramSnapshot> t = new LinkedHashMap<String, HistogramSnapshot>();
+		for (Timer timer : timers.values()) {
+			t.put(timer.getName(), timer.snapshot());
+		}
+		Map<String, HistogramSnapshot> d = new LinkedHashMap<String, HistogramSnapshot>();
+		for (Histogram histogram : distributions.values()) {
+			d.put(histogram.getName(), histogram.snapshot());
+		}
+		Map<String, Long> c = new LinkedHashMap<String, Long>();
+		for (Counter counter : counters.values()) {
+			c.put(counter.getName(), counter.get());
+		}
+		return new MetricsSnapshot(System.nanoTime() - resetTime, t, d, c);
+	}
+
+	/**
+	 * Register the metrics MBean in the platform MBean server. Nothing is
+	 * done if it is already registered.
+	 */
+	public static synchronized void registerMBean() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (!server.isRegistered(name)) {
+				server.registerMBean(new MetricsManager(), name);
+			}
+		} catch (InstanceAlreadyExistsException e) {
+			// registered by another thread
+		} catch (JMException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * @author Le Hong Phuong, phuonglh@gmail.com
+	 * <p>
+	 * The implementation of the metrics MBean.
+	 */
+	private static final class MetricsManager implements MetricsMXBean {
+
+		public boolean isEnabled() {
+			return Metrics.isEnabled();
+		}
+
+		public void setEnabled(boolean enabled) {
+			Metrics.setEnabled(enabled);
+		}
+
+		public long getElapsedTime() {
+			return snapshot().getElapsedTime();
+		}
+
+		public HistogramSnapshot[] getStages() {
+			return snapshot().getStages().values().toArray(new HistogramSnapshot[0]);
+		}
+
+		public HistogramSnapshot[] getDistributions() {
+			return snapshot().getDistributions().values().toArray(new HistogramSnapshot[0]);
+		}
+
+		public Map<String, Long> getCounters() {
+			return snapshot().getCounters();
+		}
+
+		public String getReport() {
+			return snapshot().toString();
+		}
+
+		public void reset() {
+			Metrics.reset();
+		}
+	}
+}
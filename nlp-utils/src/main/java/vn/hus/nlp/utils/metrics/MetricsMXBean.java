@@ -0,0 +1,56 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.utils.metrics;
+
+import java.util.Map;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * The management interface of the metrics, it is registered in the platform
+ * MBean server by {@link Metrics#registerMBean()} under the name 
+ * {@link Metrics#OBJECT_NAME}.
+ */
+public interface MetricsMXBean {
+	/**
+	 * @return <code>true</code> if the metrics are recorded
+	 */
+	boolean isEnabled();
+
+	/**
+	 * Enable or disable the metrics.
+	 * @param enabled
+	 */
+	void setEnabled(boolean enabled);
+
+	/**
+	 * @return the time elapsed since the last reset in nanoseconds
+	 */
+	long getElapsedTime();
+
+	/**
+	 * @return the latencies of the stages in nanoseconds
+	 */
+	HistogramSnapshot[] getStages();
+
+	/**
+	 * @return the distributions of values
+	 */
+	HistogramSnapshot[] getDistributions();
+
+	/**
+	 * @return the values of the counters
+	 */
+	Map<String, Long> getCounters();
+
+	/**
+	 * @return a human readable report of all the metrics
+	 */
+	String getReport();
+
+	/**
+	 * Reset all the metrics.
+	 */
+	void reset();
+}
@@ -0,0 +1,93 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.utils.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * An immutable copy of all the metrics at a given time.
+ */
+public final class MetricsSnapshot {
+
+	private final long elapsedTime;
+
+	private final Map<String, HistogramSnapshot> stages;
+
+	private final Map<String, HistogramSnapshot> distributions;
+
+	private final Map<String, Long> counters;
+
+	MetricsSnapshot(long elapsedTime, Map<String, HistogramSnapshot> stages, 
+			Map<String, HistogramSnapshot> distributions, Map<String, Long> counters) {
+		this.elapsedTime = elapsedTime;
+		this.stages = Collections.unmodifiableMap(stages);
+		this.distributions = Collections.unmodifiableMap(distributions);
+		this.counters = Collections.unmodifiableMap(counters);
+	}
+
+	/**
+	 * @return the time elapsed since the last reset of the metrics in nanoseconds
+	 */
+	public long getElapsedTime() {
+		return elapsedTime;
+	}
+
+	/**
+	 * @return the latencies of the stages in nanoseconds, indexed by the names of the stages
+	 */
+	public Map<String, HistogramSnapshot> getStages() {
+		return stages;
+	}
+
+	/**
+	 * @return the distributions, indexed by their names
+	 */
+	public Map<String, HistogramSnapshot> getDistributions() {
+		return distributions;
+	}
+
+	/**
+	 * @return the values of the counters, indexed by their names
+	 */
+	public Map<String, Long> getCounters() {
+		return counters;
+	}
+
+	/**
+	 * @param stage the name of a stage
+	 * @return the number of calls of the stage per second since the last reset
+	 */
+	public double getThroughput(String stage) {
+		HistogramSnapshot s = stages.get(stage);
+		if (s == null || elapsedTime <= 0) {
+			return 0;
+		}
+		return s.getCount() * 1e9 / elapsedTime;
+	}
+
+	/**
+	 * Return a report of the metrics
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("Elapsed time (ms) = ").append(elapsedTime / 1000000).append('\n');
+		sb.append("Stages (latencies in ns):\n");
+		for (HistogramSnapshot s : stages.values()) {
+			sb.append('\t').append(s).append(String.format(", throughput = %.1f/s", getThroughput(s.getName()))).append('\n');
+		}
+		sb.append("Distributions:\n");
+		for (HistogramSnapshot s : distributions.values()) {
+			sb.append('\t').append(s).append('\n');
+		}
+		sb.append("Counters:\n");
+		for (Map.Entry<String, Long> e : counters.entrySet()) {
+			sb.append('\t').append(e.getKey()).append(" = ").append(e.getValue()).append('\n');
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,62 @@
+/**
+ * (C) Le Hong Phuong, phuonglh@gmail.com
+ */
+package vn.hus.nlp.utils.metrics;
+
+/**
+ * @author Le Hong Phuong, phuonglh@gmail.com
+ * <p>
+ * A timer of a processing stage. It counts the calls of the stage and 
+ * records their latencies in nanoseconds. A stage is measured as follows:
+ * <pre>
+ * long start = timer.start();
+ * ... 
+ * timer.stop(start);
+ * </pre>
+ * When the metrics are disabled, {@link #start()} returns 0 without reading 
+ * the clock and {@link #stop(long)} does nothing.
+ */
+public final class Timer {
+
+	private final Histogram latency;
+
+	Timer(String name) {
+		this.latency = new Histogram(name);
+	}
+
+	/**
+	 * @return the name of the stage
+	 */
+	public String getName() {
+		return latency.getName();
+	}
+
+	/**
+	 * Start to measure a call.
+	 * @return the start time, or 0 if the metrics are disabled
+	 */
+	public long start() {
+		return Metrics.isEnabled() ? System.nanoTime() : 0L;
+	}
+
+	/**
+	 * Stop to measure a call.
+	 * @param start the value returned by {@link #start()}
+	 */
+	public void stop(long start) {
+		if (start != 0L) {
+			latency.add(System.nanoTime() - start);
+		}
+	}
+
+	void reset() {
+		latency.reset();
+	}
+
+	/**
+	 * @return the latencies of the calls in nanoseconds
+	 */
+	public HistogramSnapshot snapshot() {
+		return latency.snapshot();
+	}
+}